@@ -0,0 +1,53 @@
+package com.asterexcrisys.evicache.maps.access.fixed;
+
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheBuilder;
+import com.asterexcrisys.evicache.models.EvictionPolicy;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.*;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ClockProCacheBenchmark {
+
+    private Cache<Integer, Integer> cache;
+
+    public static void main(String[] args) throws IOException {
+        Main.main(args);
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        cache = CacheBuilder.<Integer, Integer>newBuilder().evictionPolicy(EvictionPolicy.CLOCK_PRO).capacityFixed(true).initialCapacity(1000).build();
+        for (int i = 0; i < 1000; i++) {
+            cache.put(new BasicCacheEntry<>(i, i));
+        }
+    }
+
+    @Benchmark
+    public Integer benchmarkGetOperation() {
+        return cache.get(500);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Integer benchmarkConcurrentGetOperation() {
+        return cache.get(ThreadLocalRandom.current().nextInt(1000));
+    }
+
+    @Benchmark
+    public void benchmarkPutOperation() {
+        cache.put(new BasicCacheEntry<>(1000, 1000));
+    }
+
+    @Benchmark
+    public void benchmarkRemoveOperation() {
+        cache.remove(300);
+    }
+
+}
\ No newline at end of file
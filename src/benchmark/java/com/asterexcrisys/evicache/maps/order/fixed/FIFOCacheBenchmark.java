@@ -0,0 +1,46 @@
+package com.asterexcrisys.evicache.maps.order.fixed;
+
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheBuilder;
+import com.asterexcrisys.evicache.models.EvictionPolicy;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.*;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class FIFOCacheBenchmark {
+
+    private Cache<Integer, Integer> cache;
+
+    public static void main(String[] args) throws IOException {
+        Main.main(args);
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        cache = CacheBuilder.<Integer, Integer>newBuilder().evictionPolicy(EvictionPolicy.FIFO).capacityFixed(true).initialCapacity(1000).build();
+        for (int i = 0; i < 1000; i++) {
+            cache.put(new BasicCacheEntry<>(i, i));
+        }
+    }
+
+    @Benchmark
+    public Integer benchmarkGetOperation() {
+        return cache.get(500);
+    }
+
+    @Benchmark
+    public void benchmarkPutOperation() {
+        cache.put(new BasicCacheEntry<>(1000, 1000));
+    }
+
+    @Benchmark
+    public void benchmarkRemoveOperation() {
+        cache.remove(300);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.asterexcrisys.evicache.structures;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.*;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class FrequencySketchBenchmark {
+
+    private static final int MASK = 1023;
+
+    private int index;
+    private Integer[] keys;
+    private FrequencySketch<Integer> sketch;
+
+    public static void main(String[] args) throws IOException {
+        Main.main(args);
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        Random random = new Random(42);
+        index = 0;
+        keys = new Integer[MASK + 1];
+        sketch = new FrequencySketch<>(1000);
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt();
+            sketch.increment(keys[i]);
+        }
+    }
+
+    @Benchmark
+    public void benchmarkIncrementOperation() {
+        sketch.increment(keys[index++ & MASK]);
+    }
+
+    @Benchmark
+    public int benchmarkFrequencyOperation() {
+        return sketch.frequency(keys[index++ & MASK]);
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.asterexcrisys.evicache.workloads;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheBuilder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.models.EvictionPolicy;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.*;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class HitRatioBenchmark {
+
+    private static final int CAPACITY = 1000;
+    private static final int KEYS = 20000;
+    private static final int MASK = (1 << 17) - 1;
+
+    @Param({"LRU", "LFU", "FIFO", "W_TINYLFU", "S3_FIFO", "ARC", "CLOCK", "CLOCK_PRO", "TWO_QUEUE", "SLRU", "LIRS", "SIEVE", "LRU_K", "GDSF", "ADAPTIVE"})
+    private EvictionPolicy policy;
+
+    @Param({"ZIPF", "SCAN"})
+    private Workload workload;
+
+    private int index;
+    private Integer[] trace;
+    private Cache<Integer, Integer> cache;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+
+        public long hits;
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+
+    }
+
+    public static void main(String[] args) throws IOException {
+        Main.main(args);
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        index = 0;
+        trace = workload.trace(MASK + 1, KEYS, 42L);
+        cache = CacheBuilder.<Integer, Integer>newBuilder().evictionPolicy(policy).capacityFixed(true).initialCapacity(CAPACITY).build();
+    }
+
+    @Benchmark
+    public Integer benchmarkAccessOperation(Counters counters) {
+        Integer key = trace[index++ & MASK];
+        Integer value = cache.get(key);
+        if (value == null) {
+            counters.misses++;
+            cache.put(new BasicCacheEntry<>(key, key));
+            return key;
+        }
+        counters.hits++;
+        return value;
+    }
+
+}
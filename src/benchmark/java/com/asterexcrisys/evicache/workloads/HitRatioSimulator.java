@@ -0,0 +1,56 @@
+package com.asterexcrisys.evicache.workloads;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheBuilder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.models.EvictionPolicy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays the same synthetic traces against several eviction policies and prints the resulting hit ratios,
+ * complementing {@link HitRatioBenchmark} (which measures throughput) with a direct quality comparison.
+ * The policies to compare can be passed as arguments, otherwise a default selection is used.
+ */
+public class HitRatioSimulator {
+
+    private static final int CAPACITY = 1000;
+    private static final int KEYS = 20000;
+    private static final int LENGTH = 200000;
+
+    public static void main(String[] args) {
+        List<EvictionPolicy> policies = new ArrayList<>();
+        for (String argument : args) {
+            policies.add(EvictionPolicy.valueOf(argument));
+        }
+        if (policies.isEmpty()) {
+            policies.addAll(List.of(EvictionPolicy.LRU, EvictionPolicy.LFU, EvictionPolicy.FIFO, EvictionPolicy.W_TINYLFU, EvictionPolicy.S3_FIFO, EvictionPolicy.ARC, EvictionPolicy.CLOCK, EvictionPolicy.CLOCK_PRO, EvictionPolicy.TWO_QUEUE, EvictionPolicy.SLRU, EvictionPolicy.LIRS, EvictionPolicy.SIEVE, EvictionPolicy.LRU_K, EvictionPolicy.GDSF, EvictionPolicy.ADAPTIVE));
+        }
+        System.out.printf("%-12s", "policy");
+        for (Workload workload : Workload.values()) {
+            System.out.printf("%12s", workload);
+        }
+        System.out.println();
+        for (EvictionPolicy policy : policies) {
+            System.out.printf("%-12s", policy);
+            for (Workload workload : Workload.values()) {
+                System.out.printf("%11.2f%%", 100.0 * simulate(policy, workload.trace(LENGTH, KEYS, 42L)));
+            }
+            System.out.println();
+        }
+    }
+
+    public static double simulate(EvictionPolicy policy, Integer[] trace) {
+        Cache<Integer, Integer> cache = CacheBuilder.<Integer, Integer>newBuilder().evictionPolicy(policy).capacityFixed(true).initialCapacity(CAPACITY).build();
+        int hits = 0;
+        for (Integer key : trace) {
+            if (cache.get(key) != null) {
+                hits++;
+            } else {
+                cache.put(new BasicCacheEntry<>(key, key));
+            }
+        }
+        return (double) hits / trace.length;
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.asterexcrisys.evicache.workloads;
+
+import java.util.Random;
+
+public enum Workload {
+
+    ZIPF {
+        @Override
+        public Integer[] trace(int length, int keys, long seed) {
+            Random random = new Random(seed);
+            double[] distribution = zipf(keys);
+            Integer[] trace = new Integer[length];
+            for (int i = 0; i < length; i++) {
+                trace[i] = sample(distribution, random);
+            }
+            return trace;
+        }
+    },
+
+    SCAN {
+        @Override
+        public Integer[] trace(int length, int keys, long seed) {
+            Random random = new Random(seed);
+            double[] distribution = zipf(keys);
+            Integer[] trace = new Integer[length];
+            int scan = keys;
+            for (int i = 0; i < length; i++) {
+                if ((i / SCAN_LENGTH) % SCAN_PERIOD == SCAN_PERIOD - 1) {
+                    trace[i] = scan++;
+                } else {
+                    trace[i] = sample(distribution, random);
+                }
+            }
+            return trace;
+        }
+    };
+
+    private static final double SKEW = 0.99;
+    private static final int SCAN_LENGTH = 2000;
+    private static final int SCAN_PERIOD = 4;
+
+    /**
+     * Generates a reproducible sequence of key accesses following this workload.
+     *
+     * @param length the number of accesses in the sequence
+     * @param keys the number of distinct keys in the popular set
+     * @param seed the seed of the random number generator
+     * @return the generated sequence of keys
+     */
+    public abstract Integer[] trace(int length, int keys, long seed);
+
+    private static double[] zipf(int keys) {
+        double[] distribution = new double[keys];
+        double sum = 0.0;
+        for (int i = 0; i < keys; i++) {
+            sum += 1.0 / Math.pow(i + 1, SKEW);
+            distribution[i] = sum;
+        }
+        for (int i = 0; i < keys; i++) {
+            distribution[i] /= sum;
+        }
+        return distribution;
+    }
+
+    private static int sample(double[] distribution, Random random) {
+        double target = random.nextDouble();
+        int low = 0;
+        int high = distribution.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (distribution[middle] < target) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+}
@@ -7,8 +7,6 @@ import java.util.concurrent.TimeUnit;
 
 public class Main {
 
-    // TODO: read more about S3-FIFO at https://github.com/Thesys-lab/sosp23-s3fifo
-
     public static void main(String[] args) {
         Cache<Integer, String> cache = CacheBuilder
                 .<Integer, String>newBuilder()
@@ -0,0 +1,154 @@
+package com.asterexcrisys.evicache;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A loader that coalesces the single-key loads requested by concurrent callers into batches, each of which is
+ * resolved with a single call to {@link CacheLoader#loadAll(Set)} of the given loader (e.g. a single query), so that
+ * independent reads that miss a loading cache at about the same time cost one request instead of one each.
+ * <p>
+ * The first caller that finds no batch open opens one and waits for up to the window for other callers to join it,
+ * then closes it (earlier, if it reaches the maximum batch size) and loads it on its own thread, while every other
+ * caller in the batch waits for its own value only. A failed batch is propagated to all of its callers.
+ * Note that each batch holds the thread of its first caller for up to the window, so the executor of an asynchronous
+ * cache should not be a small pool of threads.
+ *
+ * @param <K> the type of keys maintained by the cache
+ * @param <V> the type of mapped values
+ */
+public class BatchingLoader<K, V> implements CacheLoader<K, V> {
+
+    private final CacheLoader<K, V> loader;
+    private final int batchSize;
+    private final long window;
+    private final ReentrantLock lock;
+    private final Condition closed;
+    private final LongAdder batches;
+    private final LongAdder batched;
+    private HashMap<K, CompletableFuture<V>> batch;
+
+    public BatchingLoader(CacheLoader<K, V> loader, int batchSize, long window, TimeUnit unit) throws IllegalArgumentException {
+        if (loader == null) {
+            throw new IllegalArgumentException("loader cannot be null");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batch size cannot be zero or negative");
+        }
+        if (window < 0) {
+            throw new IllegalArgumentException("window cannot be negative");
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("unit cannot be null");
+        }
+        this.loader = loader;
+        this.batchSize = batchSize;
+        this.window = unit.toNanos(window);
+        lock = new ReentrantLock();
+        closed = lock.newCondition();
+        batches = new LongAdder();
+        batched = new LongAdder();
+        batch = null;
+    }
+
+    public CacheLoader<K, V> loader() {
+        return loader;
+    }
+
+    public int batchSize() {
+        return batchSize;
+    }
+
+    public long window() {
+        return window;
+    }
+
+    public long batches() {
+        return batches.sum();
+    }
+
+    public long batched() {
+        return batched.sum();
+    }
+
+    public V load(K key) throws Exception {
+        HashMap<K, CompletableFuture<V>> current;
+        CompletableFuture<V> future;
+        boolean isLeader = false;
+        boolean isInterrupted = false;
+        lock.lock();
+        try {
+            if (batch == null) {
+                batch = new HashMap<>();
+                isLeader = true;
+            }
+            current = batch;
+            future = current.computeIfAbsent(key, ignored -> new CompletableFuture<>());
+            if (current.size() >= batchSize) {
+                batch = null;
+                closed.signalAll();
+            }
+            if (isLeader) {
+                long remaining = window;
+                while (batch == current && remaining > 0) {
+                    try {
+                        remaining = closed.awaitNanos(remaining);
+                    } catch (InterruptedException exception) {
+                        isInterrupted = true;
+                        break;
+                    }
+                }
+                if (batch == current) {
+                    batch = null;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (isLeader) {
+            dispatch(current);
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw cause instanceof Exception other? other:exception;
+        }
+    }
+
+    public Map<K, V> loadAll(Set<? extends K> keys) throws Exception {
+        batches.increment();
+        batched.add(keys.size());
+        return loader.loadAll(keys);
+    }
+
+    private void dispatch(HashMap<K, CompletableFuture<V>> current) {
+        Map<K, V> values;
+        try {
+            values = loadAll(Collections.unmodifiableSet(current.keySet()));
+        } catch (Throwable throwable) {
+            for (CompletableFuture<V> future : current.values()) {
+                future.completeExceptionally(throwable);
+            }
+            return;
+        }
+        for (Map.Entry<K, CompletableFuture<V>> entry : current.entrySet()) {
+            entry.getValue().complete(values == null? null:values.get(entry.getKey()));
+        }
+    }
+
+}
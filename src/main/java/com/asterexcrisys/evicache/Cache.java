@@ -1,8 +1,10 @@
 package com.asterexcrisys.evicache;
 
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
 import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
 import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
 import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import java.util.Collection;
 import java.util.HashMap;
 
 /**
@@ -138,6 +140,23 @@ public interface Cache<K, V> {
      */
     V pollBottom() throws CacheUnderflowException;
 
+    /**
+     * Retrieves the key of the entry that would be evicted next if a new entry were added to the full cache,
+     * without affecting its position or any other eviction metadata, or returns {@code null} if the cache is empty.
+     *
+     * @return the key of the next eviction candidate or {@code null} if the cache is empty
+     */
+    K victim();
+
+    /**
+     * Evicts the entry that would be evicted next if a new entry were added to the full cache, following the
+     * eviction strategy exactly as if the cache had run out of space (and registering it as such), even when it
+     * is not full.
+     *
+     * @return the key of the evicted entry or {@code null} if the cache is empty
+     */
+    K evict();
+
     /**
      * Retrieves the value associated with the specified key.
      *
@@ -157,6 +176,22 @@ public interface Cache<K, V> {
      */
     V get(K key, V defaultValue) throws InvalidCacheEntryException;
 
+    /**
+     * Retrieves the value associated with the specified key even if it has expired, as long as the cache still retains
+     * it (i.e. it is within the grace period allowed after its expiry), without affecting its position or any metrics.
+     * Caches that never retain expired entries simply return {@code null} for every key.
+     *
+     * @param key the key whose associated (possibly stale) value is to be returned
+     * @return the value mapped to the key, or {@code null} if the key is not present or no longer retained
+     * @throws InvalidCacheEntryException if the key is {@code null}
+     */
+    default V getStale(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        return null;
+    }
+
     /**
      * Associates the specified value with the specified key in the cache.
      * If the cache exceeds its capacity, an eviction strategy may be applied.
@@ -175,6 +210,82 @@ public interface Cache<K, V> {
      */
     void remove(K key) throws InvalidCacheEntryException;
 
+    /**
+     * Retrieves the values associated with the specified keys, as if each of them were retrieved in turn.
+     * Implementations may resolve all the keys in a single pass and record the metrics of the whole operation at once.
+     *
+     * @param keys the keys whose associated values are to be returned
+     * @return a map of the keys present in the cache to their values (keys not present are not included)
+     * @throws InvalidCacheEntryException if any of the keys is {@code null}
+     */
+    default HashMap<K, V> getAll(Collection<? extends K> keys) throws InvalidCacheEntryException {
+        HashMap<K, V> values = new HashMap<>();
+        for (K key : keys) {
+            V value = get(key);
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Associates the specified values with the specified keys in the cache, as if each entry were added in turn.
+     * Implementations may apply all the entries in a single pass and make room for them with a single round of
+     * evictions at the end, which still evicts the same entries a sequence of additions would.
+     *
+     * @param entries the key-value pairs to be added/updated, in order
+     * @throws IllegalCacheStateException if any of the entries is not of the correct type for the cache
+     * @throws InvalidCacheEntryException if any of the keys is {@code null}
+     */
+    default void putAll(Collection<? extends CacheEntry<K, V>> entries) throws IllegalCacheStateException, InvalidCacheEntryException {
+        for (CacheEntry<K, V> entry : entries) {
+            put(entry);
+        }
+    }
+
+    /**
+     * Removes the mappings for the specified keys from the cache if present, as if each of them were removed in turn.
+     * Implementations may resolve all the keys in a single pass and record the metrics of the whole operation at once.
+     *
+     * @param keys the keys whose mappings are to be removed
+     * @throws InvalidCacheEntryException if any of the keys is {@code null}
+     */
+    default void removeAll(Collection<? extends K> keys) throws InvalidCacheEntryException {
+        for (K key : keys) {
+            remove(key);
+        }
+    }
+
+    /**
+     * Returns the policy-specific metadata of the entries currently in the cache (e.g. their frequencies, priorities,
+     * deadlines, segments or reference bits), in the same order as {@link #keys()}, so that a snapshot of the cache
+     * can carry it along with them. Caches whose eviction order only depends on the order of their entries have no
+     * such metadata, while the non-resident entries some caches remember (e.g. ghost keys) are never part of it.
+     *
+     * @return an array containing the metadata of each entry, or {@code null} if the cache has none
+     */
+    default long[][] entryMetadata() {
+        return null;
+    }
+
+    /**
+     * Restores an entry taken from a snapshot of a cache, along with the metadata returned for it by
+     * {@link #entryMetadata()} if the snapshot was taken from a cache with the same eviction policy. Entries are
+     * restored from the bottom to the top, so a cache restores its eviction order by adding them in turn, while the
+     * metadata (if any) restores what the order alone does not. Without metadata, caches that need it fall back to
+     * their defaults (e.g. a default priority). By default, the entry is simply put as a {@link BasicCacheEntry}.
+     *
+     * @param key the key of the entry
+     * @param value the value of the entry
+     * @param metadata the metadata of the entry, or {@code null} if it has none
+     * @throws IllegalCacheStateException if the metadata is not valid for the cache
+     * @throws InvalidCacheEntryException if the key is {@code null}
+     */
+    default void restoreEntry(K key, V value, long[] metadata) throws IllegalCacheStateException, InvalidCacheEntryException {
+        put(new BasicCacheEntry<>(key, value));
+    }
+
     /**
      * Removes all entries from the cache.
      */
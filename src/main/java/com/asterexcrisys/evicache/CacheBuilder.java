@@ -1,38 +1,123 @@
 package com.asterexcrisys.evicache;
 
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.entries.ExpireCacheEntry;
+import com.asterexcrisys.evicache.entries.PriorityCacheEntry;
+import com.asterexcrisys.evicache.maps.access.fixed.ARCCache;
+import com.asterexcrisys.evicache.maps.access.fixed.ClockCache;
+import com.asterexcrisys.evicache.maps.access.fixed.ClockProCache;
+import com.asterexcrisys.evicache.maps.access.fixed.LIRSCache;
 import com.asterexcrisys.evicache.maps.access.fixed.LRUCache;
+import com.asterexcrisys.evicache.maps.access.fixed.LRUKCache;
 import com.asterexcrisys.evicache.maps.access.fixed.MRUCache;
+import com.asterexcrisys.evicache.maps.access.fixed.SLRUCache;
+import com.asterexcrisys.evicache.maps.access.fixed.TwoQueueCache;
+import com.asterexcrisys.evicache.maps.extra.fixed.GDSFCache;
 import com.asterexcrisys.evicache.maps.extra.fixed.PriorityCache;
 import com.asterexcrisys.evicache.maps.extra.fixed.RandomCache;
 import com.asterexcrisys.evicache.maps.frequency.fixed.LFUCache;
 import com.asterexcrisys.evicache.maps.frequency.fixed.MFUCache;
+import com.asterexcrisys.evicache.maps.frequency.fixed.WTinyLFUCache;
 import com.asterexcrisys.evicache.maps.order.fixed.FIFOCache;
 import com.asterexcrisys.evicache.maps.order.fixed.LIFOCache;
+import com.asterexcrisys.evicache.maps.order.fixed.S3FIFOCache;
+import com.asterexcrisys.evicache.maps.order.fixed.SieveCache;
 import com.asterexcrisys.evicache.maps.time.fixed.ExpireCache;
 import com.asterexcrisys.evicache.maps.time.fixed.TimeCache;
+import com.asterexcrisys.evicache.models.AdmissionPolicy;
 import com.asterexcrisys.evicache.models.EvictionPolicy;
 import com.asterexcrisys.evicache.models.ExpireMode;
+import com.asterexcrisys.evicache.models.ReferenceStrength;
+import com.asterexcrisys.evicache.wrappers.AdaptiveCache;
+import com.asterexcrisys.evicache.wrappers.AdmissionCache;
+import com.asterexcrisys.evicache.wrappers.AsyncCache;
+import com.asterexcrisys.evicache.wrappers.DoorkeeperCache;
+import com.asterexcrisys.evicache.wrappers.GovernedCache;
+import com.asterexcrisys.evicache.wrappers.LoadingCache;
+import com.asterexcrisys.evicache.wrappers.PartitionedCache;
+import com.asterexcrisys.evicache.wrappers.ReferenceCache;
+import com.asterexcrisys.evicache.wrappers.WeightedCache;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
 
 @SuppressWarnings("unused")
 public class CacheBuilder<K, V> {
 
     private EvictionPolicy policy;
+    private List<EvictionPolicy> candidates;
+    private AdmissionPolicy admission;
     private long time;
     private TimeUnit unit;
+    private long refreshTime;
+    private TimeUnit refreshUnit;
+    private long staleTime;
+    private TimeUnit staleUnit;
     private ExpireMode mode;
     private int capacity;
+    private int partitions;
+    private double ratio;
+    private int depth;
+    private int batchSize;
+    private long batchWindow;
+    private TimeUnit batchUnit;
+    private int negativeCapacity;
+    private long negativeTime;
+    private TimeUnit negativeUnit;
+    private long weight;
     private boolean isFixed;
     private boolean isEnabled;
+    private boolean isConcurrent;
+    private boolean isDoorkept;
+    private boolean isSized;
+    private boolean isWeighed;
+    private ReferenceStrength strength;
+    private CacheListener<K, V> listener;
+    private Weigher<K, V> weigher;
+    private CacheLoader<K, V> loader;
+    private Executor executor;
+    private Executor loaderExecutor;
+    private MemoryGovernor governor;
 
     private CacheBuilder() {
         policy = EvictionPolicy.LRU;
+        candidates = AdaptiveCache.DEFAULT_CANDIDATES;
+        admission = AdmissionPolicy.ALWAYS;
         time = 10L;
         unit = TimeUnit.MINUTES;
+        refreshTime = 0L;
+        refreshUnit = TimeUnit.MINUTES;
+        staleTime = 0L;
+        staleUnit = TimeUnit.MINUTES;
         mode = ExpireMode.AFTER_WRITE;
         capacity = 100;
+        partitions = 1;
+        ratio = SLRUCache.DEFAULT_PROTECTED_RATIO;
+        depth = LRUKCache.DEFAULT_DEPTH;
+        batchSize = 0;
+        batchWindow = 0L;
+        batchUnit = TimeUnit.MICROSECONDS;
+        negativeCapacity = 0;
+        negativeTime = 0L;
+        negativeUnit = TimeUnit.MINUTES;
+        weight = 0L;
         isFixed = true;
         isEnabled = false;
+        isConcurrent = false;
+        isDoorkept = false;
+        isSized = false;
+        isWeighed = false;
+        strength = ReferenceStrength.STRONG;
+        listener = null;
+        weigher = (key, value) -> 1L;
+        loader = null;
+        executor = CacheExecutors.defaultExecutor();
+        loaderExecutor = CacheExecutors.defaultExecutor();
+        governor = null;
     }
 
     public CacheBuilder<K, V> evictionPolicy(EvictionPolicy policy) throws IllegalArgumentException {
@@ -43,6 +128,27 @@ public class CacheBuilder<K, V> {
         return this;
     }
 
+    public CacheBuilder<K, V> adaptiveCandidates(EvictionPolicy... candidates) throws IllegalArgumentException {
+        if (candidates == null || candidates.length == 0) {
+            throw new IllegalArgumentException("candidates cannot be null or empty");
+        }
+        for (EvictionPolicy candidate : candidates) {
+            if (!AdaptiveCache.isCandidate(candidate)) {
+                throw new IllegalArgumentException(String.format("policy '%s' cannot be a candidate", candidate));
+            }
+        }
+        this.candidates = List.of(candidates);
+        return this;
+    }
+
+    public CacheBuilder<K, V> admissionPolicy(AdmissionPolicy admission) throws IllegalArgumentException {
+        if (admission == null) {
+            throw new IllegalArgumentException("admission cannot be null");
+        }
+        this.admission = admission;
+        return this;
+    }
+
     public CacheBuilder<K, V> expireTime(long time, TimeUnit unit) throws IllegalArgumentException {
         if (time < 0) {
             throw new IllegalArgumentException("time cannot be negative");
@@ -55,6 +161,30 @@ public class CacheBuilder<K, V> {
         return this;
     }
 
+    public CacheBuilder<K, V> refreshAfter(long refreshTime, TimeUnit refreshUnit) throws IllegalArgumentException {
+        if (refreshTime < 1) {
+            throw new IllegalArgumentException("refresh time cannot be zero or negative");
+        }
+        if (refreshUnit == null) {
+            throw new IllegalArgumentException("unit cannot be null");
+        }
+        this.refreshTime = refreshTime;
+        this.refreshUnit = refreshUnit;
+        return this;
+    }
+
+    public CacheBuilder<K, V> maximumStale(long staleTime, TimeUnit staleUnit) throws IllegalArgumentException {
+        if (staleTime < 0) {
+            throw new IllegalArgumentException("stale time cannot be negative");
+        }
+        if (staleUnit == null) {
+            throw new IllegalArgumentException("unit cannot be null");
+        }
+        this.staleTime = staleTime;
+        this.staleUnit = staleUnit;
+        return this;
+    }
+
     public CacheBuilder<K, V> expireMode(ExpireMode mode) throws IllegalArgumentException {
         if (mode == null) {
             throw new IllegalArgumentException("mode cannot be null");
@@ -68,6 +198,88 @@ public class CacheBuilder<K, V> {
             throw new IllegalArgumentException("capacity cannot be zero or negative");
         }
         this.capacity = capacity;
+        isSized = true;
+        return this;
+    }
+
+    public CacheBuilder<K, V> partitions(int partitions) throws IllegalArgumentException {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("partitions cannot be zero or negative");
+        }
+        this.partitions = partitions;
+        return this;
+    }
+
+    public CacheBuilder<K, V> protectedRatio(double ratio) throws IllegalArgumentException {
+        if (ratio <= 0.0 || ratio >= 1.0) {
+            throw new IllegalArgumentException("ratio must be between zero and one");
+        }
+        this.ratio = ratio;
+        return this;
+    }
+
+    public CacheBuilder<K, V> historyDepth(int depth) throws IllegalArgumentException {
+        if (depth < 1) {
+            throw new IllegalArgumentException("depth cannot be zero or negative");
+        }
+        this.depth = depth;
+        return this;
+    }
+
+    public CacheBuilder<K, V> maximumWeight(long weight) throws IllegalArgumentException {
+        if (weight < 1) {
+            throw new IllegalArgumentException("weight cannot be zero or negative");
+        }
+        this.weight = weight;
+        return this;
+    }
+
+    public CacheBuilder<K, V> weigher(Weigher<K, V> weigher) throws IllegalArgumentException {
+        if (weigher == null) {
+            throw new IllegalArgumentException("weigher cannot be null");
+        }
+        this.weigher = weigher;
+        isWeighed = true;
+        return this;
+    }
+
+    public CacheBuilder<K, V> cacheLoader(CacheLoader<K, V> loader) throws IllegalArgumentException {
+        if (loader == null) {
+            throw new IllegalArgumentException("loader cannot be null");
+        }
+        this.loader = loader;
+        return this;
+    }
+
+    public CacheBuilder<K, V> batchLoads(int batchSize, long batchWindow, TimeUnit batchUnit) throws IllegalArgumentException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batch size cannot be zero or negative");
+        }
+        if (batchWindow < 0) {
+            throw new IllegalArgumentException("window cannot be negative");
+        }
+        if (batchUnit == null) {
+            throw new IllegalArgumentException("unit cannot be null");
+        }
+        this.batchSize = batchSize;
+        this.batchWindow = batchWindow;
+        this.batchUnit = batchUnit;
+        return this;
+    }
+
+    public CacheBuilder<K, V> negativeCaching(int negativeCapacity, long negativeTime, TimeUnit negativeUnit) throws IllegalArgumentException {
+        if (negativeCapacity < 1) {
+            throw new IllegalArgumentException("capacity cannot be zero or negative");
+        }
+        if (negativeTime < 1) {
+            throw new IllegalArgumentException("time cannot be zero or negative");
+        }
+        if (negativeUnit == null) {
+            throw new IllegalArgumentException("unit cannot be null");
+        }
+        this.negativeCapacity = negativeCapacity;
+        this.negativeTime = negativeTime;
+        this.negativeUnit = negativeUnit;
         return this;
     }
 
@@ -81,65 +293,327 @@ public class CacheBuilder<K, V> {
         return this;
     }
 
-    public Cache<K, V> build() {
+    public CacheBuilder<K, V> concurrencyEnabled(boolean isConcurrent) {
+        this.isConcurrent = isConcurrent;
+        return this;
+    }
+
+    public CacheBuilder<K, V> doorkeeperEnabled(boolean isDoorkept) {
+        this.isDoorkept = isDoorkept;
+        return this;
+    }
+
+    public CacheBuilder<K, V> weakValues() {
+        strength = ReferenceStrength.WEAK;
+        return this;
+    }
+
+    public CacheBuilder<K, V> softValues() {
+        strength = ReferenceStrength.SOFT;
+        return this;
+    }
+
+    public CacheBuilder<K, V> memoryGovernor(MemoryGovernor governor) throws IllegalArgumentException {
+        if (governor == null) {
+            throw new IllegalArgumentException("governor cannot be null");
+        }
+        this.governor = governor;
+        return this;
+    }
+
+    public CacheBuilder<K, V> removalListener(CacheListener<K, V> listener) throws IllegalArgumentException {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener cannot be null");
+        }
+        this.listener = listener;
+        return this;
+    }
+
+    public CacheBuilder<K, V> listenerExecutor(Executor executor) throws IllegalArgumentException {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor cannot be null");
+        }
+        this.executor = executor;
+        return this;
+    }
+
+    public CacheBuilder<K, V> loaderExecutor(Executor loaderExecutor) throws IllegalArgumentException {
+        if (loaderExecutor == null) {
+            throw new IllegalArgumentException("executor cannot be null");
+        }
+        this.loaderExecutor = loaderExecutor;
+        return this;
+    }
+
+    public Cache<K, V> build() throws IllegalArgumentException {
+        if (refreshTime > 0 && loader == null) {
+            throw new IllegalArgumentException("refresh time cannot be set without a loader");
+        }
+        if (batchSize > 0 && loader == null) {
+            throw new IllegalArgumentException("batching cannot be set without a loader");
+        }
+        if (negativeCapacity > 0 && loader == null) {
+            throw new IllegalArgumentException("negative caching cannot be set without a loader");
+        }
+        if (partitions > capacity) {
+            throw new IllegalArgumentException("partitions cannot exceed capacity");
+        }
+        // The wrappers would be shared by every partition without a lock of their own
+        if (partitions > 1 && (admission != AdmissionPolicy.ALWAYS || weight > 0 || isDoorkept || governor != null || strength != ReferenceStrength.STRONG)) {
+            throw new IllegalArgumentException("partitions cannot be set along with admission, weight, doorkeeper, governor or reference values");
+        }
+        // The capacity keeps bounding the number of entries, so it must be able to hold the maximum weight
+        if (weight > 0 && !isSized) {
+            throw new IllegalArgumentException("capacity must be set along with a maximum weight");
+        }
+        if (weight > capacity && !isWeighed) {
+            throw new IllegalArgumentException("maximum weight cannot exceed capacity without a weigher");
+        }
+        if (refreshTime > 0 && (policy == EvictionPolicy.TIME || policy == EvictionPolicy.EXPIRE) && refreshUnit.toNanos(refreshTime) >= unit.toNanos(time)) {
+            throw new IllegalArgumentException("refresh time must be shorter than expire time");
+        }
+        // A refreshed value keeps the deadline of the value it replaces, so it would expire on schedule regardless
+        if (refreshTime > 0 && (policy == EvictionPolicy.TIME || policy == EvictionPolicy.EXPIRE) && mode == ExpireMode.AFTER_WRITE) {
+            throw new IllegalArgumentException("refresh time cannot be set along with an expire mode after write");
+        }
+        CacheNotifier<K, V> notifier = listener == null? null:new CacheNotifier<>(listener, executor, CacheNotifier.DEFAULT_BATCH_SIZE);
+        Cache<K, V> cache;
+        if (strength == ReferenceStrength.STRONG) {
+            cache = build(policy, isEnabled, notifier);
+            if (cache != null && admission == AdmissionPolicy.TINY_LFU) {
+                cache = new AdmissionCache<>(cache, notifier, isDoorkept);
+            }
+        } else {
+            CacheNotifier<K, Reference<V>> referenceNotifier = listener == null? null:new CacheNotifier<>(ReferenceCache.adapt(listener), executor, CacheNotifier.DEFAULT_BATCH_SIZE);
+            Cache<K, Reference<V>> references = build(policy, isEnabled, referenceNotifier);
+            if (references != null && admission == AdmissionPolicy.TINY_LFU) {
+                references = new AdmissionCache<>(references, referenceNotifier, isDoorkept);
+            }
+            cache = references == null? null:new ReferenceCache<>(references, strength, factory(), notifier);
+        }
+        if (cache != null && weight > 0) {
+            cache = new WeightedCache<>(cache, weight, weigher, notifier);
+        }
+        if (cache != null && isDoorkept) {
+            cache = new DoorkeeperCache<>(cache);
+        }
+        if (cache != null && governor != null) {
+            GovernedCache<K, V> governed = new GovernedCache<>(cache);
+            governor.register(governed);
+            cache = governed;
+        }
+        if (cache != null && loader != null) {
+            cache = new LoadingCache<>(cache, loader(), factory(), refreshTime, refreshUnit, negatives(), loaderExecutor);
+        }
+        return cache;
+    }
+
+    /**
+     * Builds an asynchronous cache, which stores the futures of the values on top of a cache with the configured
+     * eviction and admission policies, and loads missing values on the loader executor through the configured
+     * loader (if any). Removal listeners are only informed of futures that completed with a value, while the
+     * maximum weight does not apply, since the weight of a value is unknown until its future completes.
+     *
+     * @return the asynchronous cache, or {@code null} if the configured eviction policy has no such version
+     */
+    public AsyncCache<K, V> buildAsync() throws IllegalArgumentException {
+        if (batchSize > 0 && loader == null) {
+            throw new IllegalArgumentException("batching cannot be set without a loader");
+        }
+        if (negativeCapacity > 0) {
+            throw new IllegalArgumentException("negative caching cannot be set for an asynchronous cache");
+        }
+        if (strength != ReferenceStrength.STRONG) {
+            throw new IllegalArgumentException("reference values cannot be set for an asynchronous cache");
+        }
+        if (partitions > capacity) {
+            throw new IllegalArgumentException("partitions cannot exceed capacity");
+        }
+        if (partitions > 1 && (admission != AdmissionPolicy.ALWAYS || isDoorkept)) {
+            throw new IllegalArgumentException("partitions cannot be set along with admission or doorkeeper");
+        }
+        CacheNotifier<K, CompletableFuture<V>> notifier = listener == null? null:new CacheNotifier<>(AsyncCache.adapt(listener), executor, CacheNotifier.DEFAULT_BATCH_SIZE);
+        Cache<K, CompletableFuture<V>> cache = build(policy, isEnabled, notifier);
+        if (cache != null && admission == AdmissionPolicy.TINY_LFU) {
+            cache = new AdmissionCache<>(cache, notifier, isDoorkept);
+        }
+        if (cache != null && isDoorkept) {
+            cache = new DoorkeeperCache<>(cache);
+        }
+        return cache == null? null:new AsyncCache<>(cache, loader(), factory(), loaderExecutor);
+    }
+
+    private CacheLoader<K, V> loader() {
+        if (loader == null || batchSize == 0) {
+            return loader;
+        }
+        return new BatchingLoader<>(loader, batchSize, batchWindow, batchUnit);
+    }
+
+    private Cache<K, Boolean> negatives() {
+        if (negativeCapacity == 0) {
+            return null;
+        }
+        return new TimeCache<>(negativeCapacity, false, negativeTime, negativeUnit, ExpireMode.AFTER_WRITE);
+    }
+
+    private <T> BiFunction<K, T, CacheEntry<K, T>> factory() {
+        if (policy == EvictionPolicy.EXPIRE) {
+            return (key, value) -> new ExpireCacheEntry<>(key, value, time, unit);
+        }
+        if (policy == EvictionPolicy.PRIORITY) {
+            // Entries created by the wrappers (e.g. loaded values) have no priority of their own
+            return (key, value) -> new PriorityCacheEntry<>(key, value, PriorityCache.DEFAULT_PRIORITY);
+        }
+        return BasicCacheEntry::new;
+    }
+
+    private <T> Cache<K, T> build(EvictionPolicy policy, boolean isEnabled, CacheNotifier<K, T> notifier) {
+        if (partitions == 1) {
+            return build(policy, capacity, isEnabled, notifier);
+        }
+        List<Cache<K, T>> shards = new ArrayList<>();
+        for (int i = 0; i < partitions; i++) {
+            Cache<K, T> shard = build(policy, capacity / partitions + (i < capacity % partitions? 1:0), isEnabled, notifier);
+            if (shard == null) {
+                return null;
+            }
+            shards.add(shard);
+        }
+        return new PartitionedCache<>(shards);
+    }
+
+    private <T> Cache<K, T> build(EvictionPolicy policy, int capacity, boolean isEnabled, CacheNotifier<K, T> notifier) {
         return switch (policy) {
             case LRU -> {
                 if (isFixed) {
-                    yield new LRUCache<>(capacity, isEnabled);
+                    yield new LRUCache<>(capacity, isEnabled, notifier);
                 }
                 yield null;
             }
             case LFU -> {
                 if (isFixed) {
-                    yield new LFUCache<>(capacity, isEnabled);
+                    yield new LFUCache<>(capacity, isEnabled, notifier);
                 }
                 yield null;
             }
             case MRU -> {
                 if (isFixed) {
-                    yield new MRUCache<>(capacity, isEnabled);
+                    yield new MRUCache<>(capacity, isEnabled, notifier);
                 }
                 yield null;
             }
             case MFU -> {
                 if (isFixed) {
-                    yield new MFUCache<>(capacity, isEnabled);
+                    yield new MFUCache<>(capacity, isEnabled, notifier);
                 }
                 yield null;
             }
             case FIFO -> {
                 if (isFixed) {
-                    yield new FIFOCache<>(capacity, isEnabled);
+                    yield new FIFOCache<>(capacity, isEnabled, notifier);
                 }
                 yield null;
             }
             case LIFO -> {
                 if (isFixed) {
-                    yield new LIFOCache<>(capacity, isEnabled);
+                    yield new LIFOCache<>(capacity, isEnabled, notifier);
                 }
                 yield null;
             }
             case TIME -> {
                 if (isFixed) {
-                    yield new TimeCache<>(capacity, isEnabled, time, unit, mode);
+                    yield new TimeCache<>(capacity, isEnabled, unit.toMillis(time), staleUnit.toMillis(staleTime), TimeUnit.MILLISECONDS, mode, notifier);
                 }
                 yield null;
             }
             case EXPIRE -> {
                 if (isFixed) {
-                    yield new ExpireCache<>(capacity, isEnabled, mode);
+                    yield new ExpireCache<>(capacity, isEnabled, staleTime, staleUnit, mode, notifier);
                 }
                 yield null;
             }
             case PRIORITY -> {
                 if (isFixed) {
-                    yield new PriorityCache<>(capacity, isEnabled);
+                    yield new PriorityCache<>(capacity, isEnabled, notifier);
                 }
                 yield null;
             }
             case RANDOM -> {
                 if (isFixed) {
-                    yield new RandomCache<>(capacity, isEnabled);
+                    yield new RandomCache<>(capacity, isEnabled, notifier);
+                }
+                yield null;
+            }
+            case W_TINYLFU -> {
+                if (isFixed) {
+                    yield new WTinyLFUCache<>(capacity, isEnabled, notifier);
+                }
+                yield null;
+            }
+            case S3_FIFO -> {
+                if (isFixed) {
+                    yield new S3FIFOCache<>(capacity, isEnabled, notifier);
+                }
+                yield null;
+            }
+            case ARC -> {
+                if (isFixed) {
+                    yield new ARCCache<>(capacity, isEnabled, notifier);
+                }
+                yield null;
+            }
+            case CLOCK -> {
+                if (isFixed) {
+                    yield new ClockCache<>(capacity, isEnabled, notifier);
+                }
+                yield null;
+            }
+            case CLOCK_PRO -> {
+                if (isFixed) {
+                    yield new ClockProCache<>(capacity, isEnabled, notifier);
+                }
+                yield null;
+            }
+            case TWO_QUEUE -> {
+                if (isFixed) {
+                    yield new TwoQueueCache<>(capacity, isEnabled, notifier);
+                }
+                yield null;
+            }
+            case SLRU -> {
+                if (isFixed) {
+                    yield new SLRUCache<>(capacity, isEnabled, ratio, notifier);
+                }
+                yield null;
+            }
+            case LIRS -> {
+                if (isFixed) {
+                    yield new LIRSCache<>(capacity, isEnabled, notifier);
+                }
+                yield null;
+            }
+            case SIEVE -> {
+                if (isFixed) {
+                    yield new SieveCache<>(capacity, isEnabled, isConcurrent, notifier);
+                }
+                yield null;
+            }
+            case LRU_K -> {
+                if (isFixed) {
+                    yield new LRUKCache<>(capacity, isEnabled, depth, notifier);
+                }
+                yield null;
+            }
+            case GDSF -> {
+                if (isFixed) {
+                    yield new GDSFCache<>(capacity, isEnabled, notifier);
+                }
+                yield null;
+            }
+            case ADAPTIVE -> {
+                if (isFixed) {
+                    yield new AdaptiveCache<>(capacity, isEnabled, candidates, candidate -> build(candidate, capacity, false, notifier));
                 }
                 yield null;
             }
@@ -0,0 +1,40 @@
+package com.asterexcrisys.evicache;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+public final class CacheExecutors {
+
+    private static final Executor defaultExecutor;
+
+    static {
+        defaultExecutor = newDefaultExecutor();
+    }
+
+    private CacheExecutors() {
+        // This class is not meant to be instantiated
+    }
+
+    /**
+     * Returns the executor used by default for any asynchronous work done on behalf of a cache.
+     * When running on a runtime that supports virtual threads (Java 21 or higher), every task is
+     * executed on its own virtual thread, otherwise the common fork-join pool is used instead.
+     *
+     * @return the shared default executor
+     */
+    public static Executor defaultExecutor() {
+        return defaultExecutor;
+    }
+
+    private static Executor newDefaultExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (Executor) factory.invoke(null);
+        } catch (ReflectiveOperationException | ClassCastException exception) {
+            return ForkJoinPool.commonPool();
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.asterexcrisys.evicache;
+
+import com.asterexcrisys.evicache.entries.RemovalCacheEntry;
+import com.asterexcrisys.evicache.models.RemovalCause;
+import java.util.List;
+
+/**
+ * A listener that is informed whenever an entry leaves a cache, whether because it was evicted,
+ * expired, explicitly removed, replaced or cleared. Notifications are delivered asynchronously
+ * by a {@link CacheNotifier}, so implementations are free to perform slow work (e.g. write-back)
+ * without adding latency to the cache operation that caused the removal.
+ *
+ * @param <K> the type of keys maintained by the cache
+ * @param <V> the type of mapped values
+ */
+@FunctionalInterface
+public interface CacheListener<K, V> {
+
+    /**
+     * Invoked once for every entry removed from the cache.
+     *
+     * @param key the key of the removed entry
+     * @param value the value of the removed entry
+     * @param cause the reason why the entry was removed
+     */
+    void onRemoval(K key, V value, RemovalCause cause);
+
+    /**
+     * Invoked with a batch of removed entries, in the order in which they were removed.
+     * By default, it simply delegates to {@link #onRemoval(Object, Object, RemovalCause)} for each entry,
+     * but it can be overridden to process the whole batch at once (e.g. a single write-back request).
+     *
+     * @param entries the removed entries, never empty
+     */
+    default void onRemovals(List<RemovalCacheEntry<K, V>> entries) {
+        for (RemovalCacheEntry<K, V> entry : entries) {
+            onRemoval(entry.key(), entry.value(), entry.cause());
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.asterexcrisys.evicache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A function that computes (e.g. fetches from a database) the value of a key missing from a loading cache.
+ * The cache guarantees that, at any given time, at most one load is in flight for the same key, so an
+ * implementation is never called concurrently for a key it is already loading.
+ *
+ * @param <K> the type of keys maintained by the cache
+ * @param <V> the type of mapped values
+ */
+@FunctionalInterface
+public interface CacheLoader<K, V> {
+
+    /**
+     * Computes the value of the given key.
+     *
+     * @param key the key whose value is to be loaded
+     * @return the loaded value, or {@code null} if the key has no value (in which case nothing is cached)
+     * @throws Exception if the value could not be loaded, which is propagated to every caller waiting for it
+     */
+    V load(K key) throws Exception;
+
+    /**
+     * Computes the values of all the given keys at once, which a loading cache calls with all the keys it misses at
+     * the same time (e.g. in a bulk retrieval). By default, it simply delegates to {@link #load(Object)} for each key,
+     * but it can be overridden to fetch all of them with a single request (e.g. a single query).
+     *
+     * @param keys the keys whose values are to be loaded, never empty
+     * @return a map of the keys to their loaded values (keys with no value may be left out)
+     * @throws Exception if the values could not be loaded, which is propagated to every caller waiting for them
+     */
+    default Map<K, V> loadAll(Set<? extends K> keys) throws Exception {
+        HashMap<K, V> values = new HashMap<>();
+        for (K key : keys) {
+            V value = load(key);
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        return values;
+    }
+
+}
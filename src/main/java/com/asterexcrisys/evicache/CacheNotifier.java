@@ -0,0 +1,116 @@
+package com.asterexcrisys.evicache;
+
+import com.asterexcrisys.evicache.entries.RemovalCacheEntry;
+import com.asterexcrisys.evicache.models.RemovalCause;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class CacheNotifier<K, V> {
+
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private final CacheListener<K, V> listener;
+    private final Executor executor;
+    private final int batchSize;
+    private final ConcurrentLinkedQueue<RemovalCacheEntry<K, V>> pending;
+    private final AtomicBoolean scheduled;
+
+    public CacheNotifier(CacheListener<K, V> listener) throws IllegalArgumentException {
+        this(listener, CacheExecutors.defaultExecutor(), DEFAULT_BATCH_SIZE);
+    }
+
+    public CacheNotifier(CacheListener<K, V> listener, Executor executor, int batchSize) throws IllegalArgumentException {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener cannot be null");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("executor cannot be null");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batch size cannot be zero or negative");
+        }
+        this.listener = listener;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        pending = new ConcurrentLinkedQueue<>();
+        scheduled = new AtomicBoolean(false);
+    }
+
+    public CacheListener<K, V> listener() {
+        return listener;
+    }
+
+    public Executor executor() {
+        return executor;
+    }
+
+    public int batchSize() {
+        return batchSize;
+    }
+
+    public int pending() {
+        return pending.size();
+    }
+
+    /**
+     * Enqueues a removal notification and, unless a delivery is already in progress, schedules one on the executor.
+     * This never invokes the listener on the calling thread (unless the executor itself runs tasks inline).
+     *
+     * @param key the key of the removed entry
+     * @param value the value of the removed entry
+     * @param cause the reason why the entry was removed
+     */
+    public void removal(K key, V value, RemovalCause cause) {
+        pending.offer(new RemovalCacheEntry<>(key, value, cause));
+        schedule();
+    }
+
+    private void schedule() {
+        if (!scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException exception) {
+            // Notifications are kept pending and will be delivered by the next successful schedule
+            scheduled.set(false);
+        }
+    }
+
+    private void drain() {
+        try {
+            List<RemovalCacheEntry<K, V>> batch = new ArrayList<>(batchSize);
+            RemovalCacheEntry<K, V> entry;
+            while ((entry = pending.poll()) != null) {
+                batch.add(entry);
+                if (batch.size() == batchSize) {
+                    deliver(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                deliver(batch);
+            }
+        } finally {
+            scheduled.set(false);
+        }
+        if (!pending.isEmpty()) {
+            schedule();
+        }
+    }
+
+    private void deliver(List<RemovalCacheEntry<K, V>> batch) {
+        try {
+            listener.onRemovals(batch);
+        } catch (RuntimeException exception) {
+            // A faulty listener must neither break the cache nor prevent later batches from being delivered
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, exception);
+        }
+    }
+
+}
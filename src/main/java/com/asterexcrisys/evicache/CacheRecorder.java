@@ -2,67 +2,110 @@ package com.asterexcrisys.evicache;
 
 import com.asterexcrisys.evicache.models.MetricType;
 import java.util.HashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 public class CacheRecorder {
 
     private final Class<? extends Cache<?, ?>> cacheType;
-    private int cacheHits;
-    private int cacheMisses;
-    private int cachePuts;
-    private int cacheRemoves;
-    private int cacheEvictions;
-    private int cacheClears;
-    private int cacheSize;
-    private int cacheCapacity;
+    private final LongAdder cacheHits;
+    private final LongAdder cacheMisses;
+    private final LongAdder cachePuts;
+    private final LongAdder cacheRemoves;
+    private final LongAdder cacheEvictions;
+    private final LongAdder cacheClears;
+    private final LongAdder cacheNegativeHits;
+    private final LongAdder cacheNegativeEvictions;
+    private volatile int cacheSize;
+    private volatile int cacheCapacity;
+    private volatile long cacheWeight;
     
     public CacheRecorder(Class<? extends Cache<?, ?>> cacheType) {
         this.cacheType = cacheType;
-        cacheHits = 0;
-        cacheMisses = 0;
-        cachePuts = 0;
-        cacheRemoves = 0;
-        cacheEvictions = 0;
-        cacheClears = 0;
+        cacheHits = new LongAdder();
+        cacheMisses = new LongAdder();
+        cachePuts = new LongAdder();
+        cacheRemoves = new LongAdder();
+        cacheEvictions = new LongAdder();
+        cacheClears = new LongAdder();
+        cacheNegativeHits = new LongAdder();
+        cacheNegativeEvictions = new LongAdder();
         cacheSize = 0;
         cacheCapacity = 0;
+        cacheWeight = -1L;
     }
     
     public HashMap<String, Integer> metrics() {
         HashMap<String, Integer> metrics = new HashMap<>();
         metrics.put(MetricType.CACHE_TYPE.identifier(), cacheType.hashCode());
-        metrics.put(MetricType.CACHE_HITS.identifier(), cacheHits);
-        metrics.put(MetricType.CACHE_MISSES.identifier(), cacheMisses);
-        metrics.put(MetricType.CACHE_PUTS.identifier(), cachePuts);
-        metrics.put(MetricType.CACHE_REMOVES.identifier(), cacheRemoves);
-        metrics.put(MetricType.CACHE_EVICTIONS.identifier(), cacheEvictions);
-        metrics.put(MetricType.CACHE_CLEARS.identifier(), cacheClears);
+        metrics.put(MetricType.CACHE_HITS.identifier(), cacheHits.intValue());
+        metrics.put(MetricType.CACHE_MISSES.identifier(), cacheMisses.intValue());
+        metrics.put(MetricType.CACHE_PUTS.identifier(), cachePuts.intValue());
+        metrics.put(MetricType.CACHE_REMOVES.identifier(), cacheRemoves.intValue());
+        metrics.put(MetricType.CACHE_EVICTIONS.identifier(), cacheEvictions.intValue());
+        metrics.put(MetricType.CACHE_CLEARS.identifier(), cacheClears.intValue());
+        metrics.put(MetricType.CACHE_NEGATIVE_HITS.identifier(), cacheNegativeHits.intValue());
+        metrics.put(MetricType.CACHE_NEGATIVE_EVICTIONS.identifier(), cacheNegativeEvictions.intValue());
         metrics.put(MetricType.CACHE_SIZE.identifier(), cacheSize);
         metrics.put(MetricType.CACHE_CAPACITY.identifier(), cacheCapacity);
+        long weight = cacheWeight;
+        if (weight >= 0) {
+            // A weight that does not fit is reported as the largest one, along with a flag telling it was clamped
+            metrics.put(MetricType.CACHE_WEIGHT.identifier(), (int) Math.min(weight, Integer.MAX_VALUE));
+            metrics.put(MetricType.CACHE_WEIGHT_SATURATED.identifier(), weight > Integer.MAX_VALUE? 1:0);
+        }
         return metrics;
     }
     
     public void hit() {
-        cacheHits++;
+        cacheHits.increment();
+    }
+
+    public void hit(int count) {
+        cacheHits.add(count);
     }
     
     public void miss() {
-        cacheMisses++;
+        cacheMisses.increment();
+    }
+
+    public void miss(int count) {
+        cacheMisses.add(count);
     }
     
     public void put() {
-        cachePuts++;
+        cachePuts.increment();
+    }
+
+    public void put(int count) {
+        cachePuts.add(count);
     }
     
     public void remove() {
-        cacheRemoves++;
+        cacheRemoves.increment();
+    }
+
+    public void remove(int count) {
+        cacheRemoves.add(count);
     }
     
     public void eviction() {
-        cacheEvictions++;
+        cacheEvictions.increment();
+    }
+
+    public void eviction(int count) {
+        cacheEvictions.add(count);
     }
     
     public void clear() {
-        cacheClears++;
+        cacheClears.increment();
+    }
+
+    public void negativeHit() {
+        cacheNegativeHits.increment();
+    }
+
+    public void negativeEviction() {
+        cacheNegativeEvictions.increment();
     }
     
     public void size(int size) throws IllegalArgumentException {
@@ -79,4 +122,11 @@ public class CacheRecorder {
         cacheCapacity = capacity;
     }
 
+    public void weight(long weight) throws IllegalArgumentException {
+        if (weight < 0) {
+            throw new IllegalArgumentException("weight cannot be negative");
+        }
+        cacheWeight = weight;
+    }
+
 }
\ No newline at end of file
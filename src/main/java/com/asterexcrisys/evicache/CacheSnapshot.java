@@ -0,0 +1,546 @@
+package com.asterexcrisys.evicache;
+
+import com.asterexcrisys.evicache.exceptions.CacheSnapshotException;
+import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
+import com.asterexcrisys.evicache.wrappers.AdmissionCache;
+import com.asterexcrisys.evicache.wrappers.DoorkeeperCache;
+import com.asterexcrisys.evicache.wrappers.GovernedCache;
+import com.asterexcrisys.evicache.wrappers.LoadingCache;
+import com.asterexcrisys.evicache.wrappers.PartitionedCache;
+import com.asterexcrisys.evicache.wrappers.ReferenceCache;
+import com.asterexcrisys.evicache.wrappers.WeightedCache;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Takes snapshots of the contents of caches in a compact binary format and restores them (e.g. to keep a cache warm
+ * across restarts of the application), reading and writing them through any channel (e.g. a {@link FileChannel})
+ * or stream.
+ * <p>
+ * A snapshot starts with a header (a magic number, the version of the format, the type of the cache and the number of
+ * its entries), followed by the entries from the bottom to the top of the cache, each of which is made of its key and
+ * its value (both encoded by a {@link SnapshotCodec} and prefixed by their length) and of its policy-specific metadata
+ * (see {@link Cache#entryMetadata()}), such as its frequency, priority, deadline, segment or reference bit.
+ * Restoring a snapshot adds its entries to a cache in the same order (through
+ * {@link Cache#restoreEntry(Object, Object, long[])}), so that the cache rebuilds its eviction order, while the
+ * metadata is only restored into caches with the same eviction policy as the one it was taken from (looking past the
+ * wrappers around it), since it means nothing to other policies. Both sides stream the snapshot through a fixed-size
+ * buffer, so it is never held in memory as a whole.
+ * <p>
+ * The entries are grouped into segments of at most the size of the buffer (unless a single entry is larger), each of
+ * which is prefixed by its length and its number of entries, so that every segment can be located without decoding
+ * the ones before it and decoded on its own. This allows a snapshot stored in a file to be restored into a
+ * {@link PartitionedCache} in parallel: its segments are decoded by the tasks of a fork-join pool, while every
+ * partition is filled by its own task in the order of the snapshot, either before the cache starts serving or in the
+ * background while it already is.
+ * <p>
+ * A cache must not be modified while its snapshot is being taken, and a snapshot should be restored into a cache
+ * configured like the one it was taken from (in particular, with the same eviction policy).
+ */
+public final class CacheSnapshot {
+
+    private static final int MAGIC = 0x45564353;
+    private static final byte VERSION = 2;
+    private static final byte NO_METADATA = -1;
+    private static final int NO_VALUE = -1;
+    private static final int SEGMENT_HEADER = 2 * Integer.BYTES;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private CacheSnapshot() {
+        // This class is not meant to be instantiated
+    }
+
+    /**
+     * Writes a snapshot of the given cache to the given stream, which is flushed but not closed.
+     *
+     * @param cache the cache whose snapshot is to be taken
+     * @param stream the stream to write the snapshot to
+     * @param keyCodec the codec to encode the keys with
+     * @param valueCodec the codec to encode the values with
+     * @return the number of entries written
+     * @param <K> the type of keys maintained by the cache
+     * @param <V> the type of mapped values
+     * @throws IllegalCacheStateException if any of the arguments is {@code null}
+     * @throws CacheSnapshotException if the snapshot could not be written
+     */
+    public static <K, V> int snapshot(Cache<K, V> cache, OutputStream stream, SnapshotCodec<K> keyCodec, SnapshotCodec<V> valueCodec) throws IllegalCacheStateException, CacheSnapshotException {
+        if (stream == null) {
+            throw new IllegalCacheStateException("stream cannot be null");
+        }
+        int count = snapshot(cache, Channels.newChannel(stream), keyCodec, valueCodec);
+        try {
+            stream.flush();
+        } catch (IOException exception) {
+            throw new CacheSnapshotException("snapshot could not be written", exception);
+        }
+        return count;
+    }
+
+    /**
+     * Writes a snapshot of the given cache to the given channel, which is not closed.
+     *
+     * @param cache the cache whose snapshot is to be taken
+     * @param channel the channel to write the snapshot to
+     * @param keyCodec the codec to encode the keys with
+     * @param valueCodec the codec to encode the values with
+     * @return the number of entries written
+     * @param <K> the type of keys maintained by the cache
+     * @param <V> the type of mapped values
+     * @throws IllegalCacheStateException if any of the arguments is {@code null}
+     * @throws CacheSnapshotException if the snapshot could not be written
+     */
+    public static <K, V> int snapshot(Cache<K, V> cache, WritableByteChannel channel, SnapshotCodec<K> keyCodec, SnapshotCodec<V> valueCodec) throws IllegalCacheStateException, CacheSnapshotException {
+        validate(cache, channel, keyCodec, valueCodec);
+        K[] keys = cache.keys();
+        V[] values = cache.values();
+        long[][] metadata = cache.entryMetadata();
+        if (values.length != keys.length || (metadata != null && metadata.length != keys.length)) {
+            throw new CacheSnapshotException("cache was modified while its snapshot was being taken");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        try {
+            byte[] type = type(cache).getBytes(StandardCharsets.UTF_8);
+            buffer.putInt(MAGIC).put(VERSION).putInt(type.length).put(type).putInt(keys.length);
+            int segment = open(buffer);
+            int entries = 0;
+            for (int i = keys.length - 1; i >= 0; i--) {
+                ByteBuffer key = keyCodec.encode(keys[i]);
+                ByteBuffer value = values[i] == null? null:valueCodec.encode(values[i]);
+                long[] elements = metadata == null? null:metadata[i];
+                int bytes = 2 * Integer.BYTES + key.remaining() + (value == null? 0:value.remaining()) + 1 + (elements == null? 0:elements.length * Long.BYTES);
+                if (entries > 0 && bytes > buffer.remaining()) {
+                    close(buffer, segment, entries);
+                    flush(channel, buffer);
+                    segment = open(buffer);
+                    entries = 0;
+                }
+                if (bytes > buffer.remaining()) {
+                    // The entry does not fit in the buffer even on its own, so its segment is streamed through it
+                    buffer.putInt(segment, bytes).putInt(segment + Integer.BYTES, 1);
+                    write(channel, buffer, key, value, elements);
+                    flush(channel, buffer);
+                    segment = open(buffer);
+                    continue;
+                }
+                write(channel, buffer, key, value, elements);
+                entries++;
+            }
+            close(buffer, segment, entries);
+            flush(channel, buffer);
+        } catch (IOException exception) {
+            throw new CacheSnapshotException("snapshot could not be written", exception);
+        }
+        return keys.length;
+    }
+
+    /**
+     * Reads a snapshot from the given stream, which is not closed, and restores its entries into the given cache
+     * (in addition to the entries it already holds).
+     *
+     * @param cache the cache to restore the entries into
+     * @param stream the stream to read the snapshot from
+     * @param keyCodec the codec to decode the keys with
+     * @param valueCodec the codec to decode the values with
+     * @return the number of entries read (some of which may not be restored, e.g. if they have expired since)
+     * @param <K> the type of keys maintained by the cache
+     * @param <V> the type of mapped values
+     * @throws IllegalCacheStateException if any of the arguments is {@code null}
+     * @throws CacheSnapshotException if the snapshot could not be read or is not valid
+     */
+    public static <K, V> int restore(Cache<K, V> cache, InputStream stream, SnapshotCodec<K> keyCodec, SnapshotCodec<V> valueCodec) throws IllegalCacheStateException, CacheSnapshotException {
+        if (stream == null) {
+            throw new IllegalCacheStateException("stream cannot be null");
+        }
+        return restore(cache, Channels.newChannel(stream), keyCodec, valueCodec);
+    }
+
+    /**
+     * Reads a snapshot from the given channel, which is not closed, and restores its entries into the given cache
+     * (in addition to the entries it already holds), one segment at a time.
+     *
+     * @param cache the cache to restore the entries into
+     * @param channel the channel to read the snapshot from
+     * @param keyCodec the codec to decode the keys with
+     * @param valueCodec the codec to decode the values with
+     * @return the number of entries read (some of which may not be restored, e.g. if they have expired since)
+     * @param <K> the type of keys maintained by the cache
+     * @param <V> the type of mapped values
+     * @throws IllegalCacheStateException if any of the arguments is {@code null}
+     * @throws CacheSnapshotException if the snapshot could not be read or is not valid
+     */
+    public static <K, V> int restore(Cache<K, V> cache, ReadableByteChannel channel, SnapshotCodec<K> keyCodec, SnapshotCodec<V> valueCodec) throws IllegalCacheStateException, CacheSnapshotException {
+        validate(cache, channel, keyCodec, valueCodec);
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+        try {
+            fill(channel, buffer, Integer.BYTES + 1 + Integer.BYTES);
+            check(buffer);
+            String type = StandardCharsets.UTF_8.decode(read(channel, buffer, buffer.getInt())).toString();
+            boolean isSameType = type.equals(type(cache));
+            fill(channel, buffer, Integer.BYTES);
+            int count = buffer.getInt();
+            int read = 0;
+            while (read < count) {
+                fill(channel, buffer, SEGMENT_HEADER);
+                int length = buffer.getInt();
+                int entries = entries(buffer.getInt(), count - read);
+                Segment<K, V> segment = decode(read(channel, buffer, length), entries, keyCodec, valueCodec, null);
+                for (int i = 0; i < entries; i++) {
+                    cache.restoreEntry(segment.keys()[i], segment.values()[i], isSameType? segment.metadata()[i]:null);
+                }
+                read += entries;
+            }
+            return count;
+        } catch (IOException exception) {
+            throw new CacheSnapshotException("snapshot could not be read", exception);
+        }
+    }
+
+    /**
+     * Reads a snapshot from the given file and restores its entries into the given partitioned cache in parallel,
+     * on the given pool, returning once all of them have been restored. The segments of the snapshot are read and
+     * decoded by separate tasks, while the entries of every partition are restored by their own task, in the order
+     * of the snapshot. The progress of the restoration is reported by the metrics of the cache.
+     *
+     * @param cache the cache to restore the entries into
+     * @param channel the file to read the snapshot from, which is not closed
+     * @param keyCodec the codec to decode the keys with (which must be safe to use from several threads)
+     * @param valueCodec the codec to decode the values with (which must be safe to use from several threads)
+     * @param pool the pool to run the tasks on
+     * @return the number of entries read (some of which may not be restored, e.g. if they have expired since)
+     * @param <K> the type of keys maintained by the cache
+     * @param <V> the type of mapped values
+     * @throws IllegalCacheStateException if any of the arguments is {@code null}
+     * @throws CacheSnapshotException if the snapshot could not be read or is not valid
+     */
+    public static <K, V> int restore(PartitionedCache<K, V> cache, FileChannel channel, SnapshotCodec<K> keyCodec, SnapshotCodec<V> valueCodec, ForkJoinPool pool) throws IllegalCacheStateException, CacheSnapshotException {
+        validate(cache, channel, keyCodec, valueCodec);
+        if (pool == null) {
+            throw new IllegalCacheStateException("pool cannot be null");
+        }
+        Index index = index(cache, channel);
+        cache.startWarmUp(index.count());
+        try {
+            pool.invoke(ForkJoinTask.adapt(() -> restore(cache, channel, keyCodec, valueCodec, index)));
+        } finally {
+            cache.finishWarmUp();
+        }
+        return index.count();
+    }
+
+    /**
+     * Starts restoring a snapshot from the given file into the given partitioned cache in the background, as
+     * {@link #restore(PartitionedCache, FileChannel, SnapshotCodec, SnapshotCodec, ForkJoinPool)} does, so that the
+     * cache can start serving right away while it fills up. Since the warm-up starts before this method returns, the
+     * entries put or removed by callers from then on are never replaced by the ones of the snapshot, and keys that are
+     * not restored yet are simply missed. The file must not be closed until the returned future completes.
+     *
+     * @param cache the cache to restore the entries into
+     * @param channel the file to read the snapshot from
+     * @param keyCodec the codec to decode the keys with (which must be safe to use from several threads)
+     * @param valueCodec the codec to decode the values with (which must be safe to use from several threads)
+     * @param pool the pool to run the tasks on
+     * @return a future completed with the number of entries read once all of them have been restored
+     * @param <K> the type of keys maintained by the cache
+     * @param <V> the type of mapped values
+     * @throws IllegalCacheStateException if any of the arguments is {@code null}
+     * @throws CacheSnapshotException if the header or the segments of the snapshot could not be read or are not valid
+     */
+    public static <K, V> CompletableFuture<Integer> restoreAsync(PartitionedCache<K, V> cache, FileChannel channel, SnapshotCodec<K> keyCodec, SnapshotCodec<V> valueCodec, ForkJoinPool pool) throws IllegalCacheStateException, CacheSnapshotException {
+        validate(cache, channel, keyCodec, valueCodec);
+        if (pool == null) {
+            throw new IllegalCacheStateException("pool cannot be null");
+        }
+        Index index = index(cache, channel);
+        cache.startWarmUp(index.count());
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    restore(cache, channel, keyCodec, valueCodec, index);
+                    return index.count();
+                } finally {
+                    cache.finishWarmUp();
+                }
+            }, pool);
+        } catch (RuntimeException exception) {
+            cache.finishWarmUp();
+            throw exception;
+        }
+    }
+
+    private static <K, V> void restore(PartitionedCache<K, V> cache, FileChannel channel, SnapshotCodec<K> keyCodec, SnapshotCodec<V> valueCodec, Index index) {
+        List<ForkJoinTask<Segment<K, V>>> decodes = new ArrayList<>();
+        for (long[] segment : index.segments()) {
+            decodes.add(ForkJoinTask.adapt(() -> {
+                try {
+                    return decode(read(channel, segment[0], (int) segment[1]), (int) segment[2], keyCodec, valueCodec, cache);
+                } catch (IOException exception) {
+                    throw new CacheSnapshotException("snapshot could not be read", exception);
+                }
+            }).fork());
+        }
+        List<ForkJoinTask<?>> restores = new ArrayList<>();
+        for (int i = 0; i < cache.partitions(); i++) {
+            int partition = i;
+            restores.add(ForkJoinTask.adapt(() -> {
+                for (ForkJoinTask<Segment<K, V>> decode : decodes) {
+                    Segment<K, V> segment = decode.join();
+                    for (int j = 0; j < segment.keys().length; j++) {
+                        if (segment.partitions()[j] == partition) {
+                            cache.restoreEntry(segment.keys()[j], segment.values()[j], index.isSameType()? segment.metadata()[j]:null);
+                        }
+                    }
+                }
+            }));
+        }
+        ForkJoinTask.invokeAll(restores);
+    }
+
+    private static Index index(PartitionedCache<?, ?> cache, FileChannel channel) throws CacheSnapshotException {
+        try {
+            ByteBuffer header = read(channel, 0L, Integer.BYTES + 1 + Integer.BYTES);
+            check(header);
+            int length = header.getInt();
+            if (length < 0) {
+                throw new CacheSnapshotException("snapshot is corrupted");
+            }
+            String type = StandardCharsets.UTF_8.decode(read(channel, header.capacity(), length)).toString();
+            long position = header.capacity() + length;
+            int count = read(channel, position, Integer.BYTES).getInt();
+            position += Integer.BYTES;
+            List<long[]> segments = new ArrayList<>();
+            int read = 0;
+            while (read < count) {
+                ByteBuffer segment = read(channel, position, SEGMENT_HEADER);
+                int bytes = segment.getInt();
+                int entries = entries(segment.getInt(), count - read);
+                if (bytes < 0) {
+                    throw new CacheSnapshotException("snapshot is corrupted");
+                }
+                segments.add(new long[] {position + SEGMENT_HEADER, bytes, entries});
+                position += SEGMENT_HEADER + bytes;
+                read += entries;
+            }
+            return new Index(type.equals(type(cache)), count, segments);
+        } catch (IOException exception) {
+            throw new CacheSnapshotException("snapshot could not be read", exception);
+        }
+    }
+
+    private static <K, V> Segment<K, V> decode(ByteBuffer body, int entries, SnapshotCodec<K> keyCodec, SnapshotCodec<V> valueCodec, PartitionedCache<K, ?> cache) throws CacheSnapshotException {
+        Segment<K, V> segment = new Segment<>(entries);
+        try {
+            for (int i = 0; i < entries; i++) {
+                segment.keys()[i] = keyCodec.decode(slice(body, body.getInt()));
+                int length = body.getInt();
+                segment.values()[i] = length == NO_VALUE? null:valueCodec.decode(slice(body, length));
+                byte elements = body.get();
+                if (elements != NO_METADATA) {
+                    if (elements < 0) {
+                        throw new CacheSnapshotException("snapshot is corrupted");
+                    }
+                    segment.metadata()[i] = new long[elements];
+                    for (int j = 0; j < elements; j++) {
+                        segment.metadata()[i][j] = body.getLong();
+                    }
+                }
+                if (cache != null) {
+                    segment.partitions()[i] = cache.partitionOf(segment.keys()[i]);
+                }
+            }
+        } catch (BufferUnderflowException exception) {
+            throw new CacheSnapshotException("snapshot is corrupted", exception);
+        }
+        if (body.hasRemaining()) {
+            throw new CacheSnapshotException("snapshot is corrupted");
+        }
+        return segment;
+    }
+
+    private static void validate(Cache<?, ?> cache, Object channel, SnapshotCodec<?> keyCodec, SnapshotCodec<?> valueCodec) throws IllegalCacheStateException {
+        if (cache == null) {
+            throw new IllegalCacheStateException("cache cannot be null");
+        }
+        if (channel == null) {
+            throw new IllegalCacheStateException("channel cannot be null");
+        }
+        if (keyCodec == null) {
+            throw new IllegalCacheStateException("key codec cannot be null");
+        }
+        if (valueCodec == null) {
+            throw new IllegalCacheStateException("value codec cannot be null");
+        }
+    }
+
+    private static String type(Cache<?, ?> cache) {
+        // The metadata belongs to the eviction policy, so the wrappers that pass it through are looked past
+        while (true) {
+            if (cache instanceof AdmissionCache<?, ?> admission) {
+                cache = admission.cache();
+            } else if (cache instanceof DoorkeeperCache<?, ?> doorkeeper) {
+                cache = doorkeeper.cache();
+            } else if (cache instanceof GovernedCache<?, ?> governed) {
+                cache = governed.cache();
+            } else if (cache instanceof LoadingCache<?, ?> loading) {
+                cache = loading.cache();
+            } else if (cache instanceof ReferenceCache<?, ?> reference) {
+                cache = reference.cache();
+            } else if (cache instanceof WeightedCache<?, ?> weighted) {
+                cache = weighted.cache();
+            } else if (cache instanceof PartitionedCache<?, ?> partitioned) {
+                cache = partitioned.partition(0);
+            } else {
+                return cache.getClass().getName();
+            }
+        }
+    }
+
+    private static void check(ByteBuffer header) throws CacheSnapshotException {
+        if (header.getInt() != MAGIC) {
+            throw new CacheSnapshotException("stream does not contain a snapshot");
+        }
+        if (header.get() != VERSION) {
+            throw new CacheSnapshotException("snapshot version is not supported");
+        }
+    }
+
+    private static int entries(int entries, int remaining) throws CacheSnapshotException {
+        if (entries < 1 || entries > remaining) {
+            throw new CacheSnapshotException("snapshot is corrupted");
+        }
+        return entries;
+    }
+
+    private static int open(ByteBuffer buffer) {
+        int segment = buffer.position();
+        buffer.putInt(0).putInt(0);
+        return segment;
+    }
+
+    private static void close(ByteBuffer buffer, int segment, int entries) {
+        if (entries == 0) {
+            buffer.position(segment);
+            return;
+        }
+        buffer.putInt(segment, buffer.position() - segment - SEGMENT_HEADER).putInt(segment + Integer.BYTES, entries);
+    }
+
+    private static void write(WritableByteChannel channel, ByteBuffer buffer, ByteBuffer key, ByteBuffer value, long[] metadata) throws IOException {
+        reserve(channel, buffer, Integer.BYTES);
+        buffer.putInt(key.remaining());
+        write(channel, buffer, key);
+        reserve(channel, buffer, Integer.BYTES);
+        buffer.putInt(value == null? NO_VALUE:value.remaining());
+        if (value != null) {
+            write(channel, buffer, value);
+        }
+        reserve(channel, buffer, 1 + (metadata == null? 0:metadata.length * Long.BYTES));
+        buffer.put(metadata == null? NO_METADATA:(byte) metadata.length);
+        if (metadata != null) {
+            for (long element : metadata) {
+                buffer.putLong(element);
+            }
+        }
+    }
+
+    private static void write(WritableByteChannel channel, ByteBuffer buffer, ByteBuffer data) throws IOException {
+        while (data.remaining() > buffer.remaining()) {
+            int limit = data.limit();
+            data.limit(data.position() + buffer.remaining());
+            buffer.put(data);
+            data.limit(limit);
+            flush(channel, buffer);
+        }
+        buffer.put(data);
+    }
+
+    private static void reserve(WritableByteChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static ByteBuffer slice(ByteBuffer body, int bytes) throws CacheSnapshotException {
+        if (bytes < 0 || bytes > body.remaining()) {
+            throw new CacheSnapshotException("snapshot is corrupted");
+        }
+        ByteBuffer data = body.slice(body.position(), bytes);
+        body.position(body.position() + bytes);
+        return data;
+    }
+
+    private static ByteBuffer read(ReadableByteChannel channel, ByteBuffer buffer, int bytes) throws IOException, CacheSnapshotException {
+        if (bytes < 0) {
+            throw new CacheSnapshotException("snapshot is corrupted");
+        }
+        if (bytes <= buffer.capacity()) {
+            fill(channel, buffer, bytes);
+            return slice(buffer, bytes);
+        }
+        ByteBuffer data = ByteBuffer.allocate(bytes).put(buffer);
+        while (data.hasRemaining()) {
+            if (channel.read(data) < 0) {
+                throw new CacheSnapshotException("snapshot ended unexpectedly");
+            }
+        }
+        return data.flip();
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int bytes) throws IOException, CacheSnapshotException {
+        ByteBuffer data = ByteBuffer.allocate(bytes);
+        while (data.hasRemaining()) {
+            int read = channel.read(data, position + data.position());
+            if (read < 0) {
+                throw new CacheSnapshotException("snapshot ended unexpectedly");
+            }
+        }
+        return data.flip();
+    }
+
+    private static void fill(ReadableByteChannel channel, ByteBuffer buffer, int bytes) throws IOException, CacheSnapshotException {
+        while (buffer.remaining() < bytes) {
+            buffer.compact();
+            int read = channel.read(buffer);
+            buffer.flip();
+            if (read < 0) {
+                throw new CacheSnapshotException("snapshot ended unexpectedly");
+            }
+        }
+    }
+
+    private record Index(boolean isSameType, int count, List<long[]> segments) {
+
+        // All necessary methods are implemented by default
+
+    }
+
+    private record Segment<K, V>(K[] keys, V[] values, long[][] metadata, int[] partitions) {
+
+        @SuppressWarnings("unchecked")
+        private Segment(int entries) {
+            this((K[]) new Object[entries], (V[]) new Object[entries], new long[entries][], new int[entries]);
+        }
+
+    }
+
+}
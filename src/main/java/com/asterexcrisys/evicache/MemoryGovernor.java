@@ -0,0 +1,258 @@
+package com.asterexcrisys.evicache;
+
+import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
+import com.asterexcrisys.evicache.wrappers.GovernedCache;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+
+/**
+ * A governor that shrinks the registered caches when the heap is under pressure and restores them afterward.
+ * <p>
+ * It subscribes to the usage threshold notifications of the tenured (old generation) memory pool, whose threshold is
+ * set to the given fraction of its maximum size: as soon as the pool crosses it, every registered cache is limited to
+ * the given fraction of its capacity (so every cache sheds the same proportion of its entries), and it evicts down to
+ * that limit through its own eviction policy on its next operation (so that no cache is ever touched by a thread other
+ * than its own). After every garbage collection, once the usage of the pool left by the collection is back below the
+ * threshold, the limits are lifted and every cache regains its full capacity.
+ * <p>
+ * Since the usage threshold of a memory pool is shared by the whole virtual machine, at most one governor should be
+ * active at any given time, and it should be closed when no longer needed. The number of times the caches were shrunk
+ * and restored is reported by both the governor and the metrics of each registered cache.
+ */
+@SuppressWarnings("unused")
+public class MemoryGovernor implements AutoCloseable {
+
+    public static final double DEFAULT_THRESHOLD = 0.8;
+    public static final double DEFAULT_FRACTION = 0.5;
+
+    private volatile boolean isPressured;
+    private final double threshold;
+    private final double fraction;
+    private final long usageThreshold;
+    private final long collectionThreshold;
+    private final MemoryPoolMXBean pool;
+    private final List<NotificationEmitter> emitters;
+    private final NotificationListener pressureListener;
+    private final NotificationListener collectionListener;
+    private final CopyOnWriteArrayList<WeakReference<GovernedCache<?, ?>>> caches;
+    private final AtomicInteger shrinks;
+    private final AtomicInteger restores;
+
+    public MemoryGovernor() throws IllegalCacheStateException {
+        this(DEFAULT_THRESHOLD, DEFAULT_FRACTION);
+    }
+
+    public MemoryGovernor(double threshold, double fraction) throws IllegalCacheStateException {
+        if (threshold <= 0.0 || threshold >= 1.0) {
+            throw new IllegalCacheStateException("threshold must be between zero and one (exclusive)");
+        }
+        if (fraction <= 0.0 || fraction >= 1.0) {
+            throw new IllegalCacheStateException("fraction must be between zero and one (exclusive)");
+        }
+        isPressured = false;
+        this.threshold = threshold;
+        this.fraction = fraction;
+        pool = tenuredPool();
+        if (pool == null) {
+            throw new IllegalCacheStateException("no heap memory pool supports usage thresholds");
+        }
+        usageThreshold = pool.getUsageThreshold();
+        collectionThreshold = pool.isCollectionUsageThresholdSupported()? pool.getCollectionUsageThreshold():0L;
+        pool.setUsageThreshold(thresholdBytes());
+        if (pool.isCollectionUsageThresholdSupported()) {
+            pool.setCollectionUsageThreshold(thresholdBytes());
+        }
+        emitters = new ArrayList<>();
+        pressureListener = (notification, handback) -> {
+            String type = notification.getType();
+            if (type.equals(MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED) || type.equals(MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED)) {
+                pressure();
+            }
+        };
+        collectionListener = (notification, handback) -> {
+            if (isPressured && usage() < thresholdBytes()) {
+                relieve();
+            }
+        };
+        caches = new CopyOnWriteArrayList<>();
+        shrinks = new AtomicInteger(0);
+        restores = new AtomicInteger(0);
+        if (ManagementFactory.getMemoryMXBean() instanceof NotificationEmitter emitter) {
+            emitter.addNotificationListener(pressureListener, null, null);
+            emitters.add(emitter);
+        }
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(collectionListener, null, null);
+                emitters.add(emitter);
+            }
+        }
+    }
+
+    public double threshold() {
+        return threshold;
+    }
+
+    public double fraction() {
+        return fraction;
+    }
+
+    public MemoryPoolMXBean pool() {
+        return pool;
+    }
+
+    public boolean isPressured() {
+        return isPressured;
+    }
+
+    public int shrinks() {
+        return shrinks.get();
+    }
+
+    public int restores() {
+        return restores.get();
+    }
+
+    /**
+     * Registers a cache to be shrunk while the heap is under pressure (right away, if it already is).
+     * The governor only keeps a weak reference to the cache, so it does not prevent it from being collected.
+     *
+     * @param cache the cache to be registered
+     * @throws IllegalCacheStateException if the cache is {@code null}
+     */
+    public void register(GovernedCache<?, ?> cache) throws IllegalCacheStateException {
+        if (cache == null) {
+            throw new IllegalCacheStateException("cache cannot be null");
+        }
+        synchronized (caches) {
+            caches.add(new WeakReference<>(cache));
+            if (isPressured) {
+                cache.shrink(fraction);
+            }
+        }
+    }
+
+    public void unregister(GovernedCache<?, ?> cache) throws IllegalCacheStateException {
+        if (cache == null) {
+            throw new IllegalCacheStateException("cache cannot be null");
+        }
+        caches.removeIf(reference -> reference.get() == null || reference.get() == cache);
+        cache.restore();
+    }
+
+    /**
+     * Shrinks every registered cache to the configured fraction of its capacity, unless they already are.
+     * This is called when the tenured memory pool crosses the threshold, but it can also be called directly.
+     */
+    public void pressure() {
+        synchronized (caches) {
+            if (isPressured) {
+                return;
+            }
+            isPressured = true;
+            shrinks.incrementAndGet();
+            for (WeakReference<GovernedCache<?, ?>> reference : caches) {
+                GovernedCache<?, ?> cache = reference.get();
+                if (cache == null) {
+                    caches.remove(reference);
+                } else {
+                    cache.shrink(fraction);
+                }
+            }
+        }
+    }
+
+    /**
+     * Restores every registered cache to its full capacity, unless they already are.
+     * This is called when a garbage collection brings the tenured memory pool back below the threshold,
+     * but it can also be called directly.
+     */
+    public void relieve() {
+        synchronized (caches) {
+            if (!isPressured) {
+                return;
+            }
+            isPressured = false;
+            restores.incrementAndGet();
+            for (WeakReference<GovernedCache<?, ?>> reference : caches) {
+                GovernedCache<?, ?> cache = reference.get();
+                if (cache == null) {
+                    caches.remove(reference);
+                } else {
+                    cache.restore();
+                }
+            }
+        }
+    }
+
+    /**
+     * Unsubscribes from the notifications of the virtual machine, resets the thresholds of the tenured memory pool
+     * to the ones it had before this governor was created, and restores every registered cache to its full capacity.
+     */
+    public void close() {
+        for (NotificationEmitter emitter : emitters) {
+            for (NotificationListener listener : List.of(pressureListener, collectionListener)) {
+                try {
+                    emitter.removeNotificationListener(listener);
+                } catch (ListenerNotFoundException exception) {
+                    // The listener was never added to this emitter, so there is nothing to remove
+                }
+            }
+        }
+        emitters.clear();
+        pool.setUsageThreshold(usageThreshold);
+        if (pool.isCollectionUsageThresholdSupported()) {
+            pool.setCollectionUsageThreshold(collectionThreshold);
+        }
+        relieve();
+    }
+
+    NotificationListener pressureListener() {
+        return pressureListener;
+    }
+
+    NotificationListener collectionListener() {
+        return collectionListener;
+    }
+
+    private long thresholdBytes() {
+        return (long) (maximum(pool.getUsage()) * threshold);
+    }
+
+    private long usage() {
+        MemoryUsage usage = pool.getCollectionUsage();
+        return usage == null? pool.getUsage().getUsed():usage.getUsed();
+    }
+
+    private static long maximum(MemoryUsage usage) {
+        return usage.getMax() < 0? Runtime.getRuntime().maxMemory():usage.getMax();
+    }
+
+    private static MemoryPoolMXBean tenuredPool() {
+        MemoryPoolMXBean candidate = null;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP || !pool.isUsageThresholdSupported()) {
+                continue;
+            }
+            String name = pool.getName();
+            if (name.contains("Old") || name.contains("Tenured")) {
+                return pool;
+            }
+            candidate = pool;
+        }
+        return candidate;
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.asterexcrisys.evicache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A codec that converts the keys or values of a cache to and from bytes, which is used to write them into a snapshot
+ * of the cache and to read them back when restoring it. Codecs for the most common types are provided by the static
+ * factory methods of this interface.
+ *
+ * @param <T> the type of encoded objects
+ */
+public interface SnapshotCodec<T> {
+
+    /**
+     * Encodes the given object.
+     *
+     * @param object the object to be encoded, never {@code null}
+     * @return a buffer whose remaining bytes are the encoded object
+     */
+    ByteBuffer encode(T object);
+
+    /**
+     * Decodes an object from the remaining bytes of the given buffer, which are exactly those it was encoded into.
+     * The buffer is only valid until this method returns, so its bytes must be copied if they are to be kept.
+     *
+     * @param buffer the buffer to decode the object from
+     * @return the decoded object
+     */
+    T decode(ByteBuffer buffer);
+
+    static SnapshotCodec<String> strings() {
+        return new SnapshotCodec<>() {
+
+            public ByteBuffer encode(String object) {
+                return ByteBuffer.wrap(object.getBytes(StandardCharsets.UTF_8));
+            }
+
+            public String decode(ByteBuffer buffer) {
+                return StandardCharsets.UTF_8.decode(buffer).toString();
+            }
+
+        };
+    }
+
+    static SnapshotCodec<Integer> integers() {
+        return new SnapshotCodec<>() {
+
+            public ByteBuffer encode(Integer object) {
+                return ByteBuffer.allocate(Integer.BYTES).putInt(0, object);
+            }
+
+            public Integer decode(ByteBuffer buffer) {
+                return buffer.getInt();
+            }
+
+        };
+    }
+
+    static SnapshotCodec<Long> longs() {
+        return new SnapshotCodec<>() {
+
+            public ByteBuffer encode(Long object) {
+                return ByteBuffer.allocate(Long.BYTES).putLong(0, object);
+            }
+
+            public Long decode(ByteBuffer buffer) {
+                return buffer.getLong();
+            }
+
+        };
+    }
+
+    static SnapshotCodec<byte[]> bytes() {
+        return new SnapshotCodec<>() {
+
+            public ByteBuffer encode(byte[] object) {
+                return ByteBuffer.wrap(object);
+            }
+
+            public byte[] decode(ByteBuffer buffer) {
+                byte[] object = new byte[buffer.remaining()];
+                buffer.get(object);
+                return object;
+            }
+
+        };
+    }
+
+}
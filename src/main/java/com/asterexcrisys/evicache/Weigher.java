@@ -0,0 +1,23 @@
+package com.asterexcrisys.evicache;
+
+/**
+ * A function that calculates the weight of an entry (e.g. the approximate number of bytes it occupies),
+ * which is used instead of the number of entries to bound a cache built with a maximum weight.
+ * The weight of an entry is calculated once, when it is put in the cache, and must not be negative.
+ *
+ * @param <K> the type of keys maintained by the cache
+ * @param <V> the type of mapped values
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+
+    /**
+     * Returns the weight of the given entry.
+     *
+     * @param key the key of the entry
+     * @param value the value of the entry
+     * @return the weight of the entry, never negative
+     */
+    long weigh(K key, V value);
+
+}
@@ -0,0 +1,9 @@
+package com.asterexcrisys.evicache.entries;
+
+import com.asterexcrisys.evicache.CacheEntry;
+
+public record CostCacheEntry<K, V>(K key, V value, double cost, long size) implements CacheEntry<K, V> {
+
+    // All necessary methods are implemented by default
+
+}
@@ -0,0 +1,10 @@
+package com.asterexcrisys.evicache.entries;
+
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.models.RemovalCause;
+
+public record RemovalCacheEntry<K, V>(K key, V value, RemovalCause cause) implements CacheEntry<K, V> {
+
+    // All necessary methods are implemented by default
+
+}
@@ -0,0 +1,17 @@
+package com.asterexcrisys.evicache.exceptions;
+
+public class CacheLoadingException extends RuntimeException {
+
+    public CacheLoadingException() {
+        super();
+    }
+
+    public CacheLoadingException(String message) {
+        super(message);
+    }
+
+    public CacheLoadingException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
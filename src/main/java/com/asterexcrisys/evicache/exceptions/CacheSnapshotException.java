@@ -0,0 +1,17 @@
+package com.asterexcrisys.evicache.exceptions;
+
+public class CacheSnapshotException extends RuntimeException {
+
+    public CacheSnapshotException() {
+        super();
+    }
+
+    public CacheSnapshotException(String message) {
+        super(message);
+    }
+
+    public CacheSnapshotException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
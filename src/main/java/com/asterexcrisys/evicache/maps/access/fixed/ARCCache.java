@@ -0,0 +1,546 @@
+package com.asterexcrisys.evicache.maps.access.fixed;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheNotifier;
+import com.asterexcrisys.evicache.CacheRecorder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
+import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
+import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.MetricType;
+import com.asterexcrisys.evicache.models.RemovalCause;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A cache that implements the Adaptive Replacement Cache policy: resident entries seen once live in T1,
+ * while those seen at least twice live in T2. The keys of the entries evicted from either list are remembered
+ * (without their values) in the ghost lists B1 and B2, and a hit on a ghost key moves the adaptive target
+ * of T1, {@code p}, towards the list that would have kept it, balancing recency and frequency over time.
+ * <p>
+ * Both resident and ghost entries are stored in slots that are indexed by key and linked into their list,
+ * making every operation O(1). The top of the cache is the most recently added entry of T1 (or the most
+ * recently used entry of T2 when T1 is empty), while the bottom is the entry that would be evicted next.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+@SuppressWarnings({"unused", "Duplicates"})
+public class ARCCache<K, V> implements Cache<K, V> {
+
+    private static final int NIL = -1;
+    private static final int T1 = 0;
+    private static final int T2 = 1;
+    private static final int B1 = 2;
+    private static final int B2 = 3;
+
+    private int size;
+    private int free;
+    private int target;
+    private final int capacity;
+    private final boolean metricsEnabled;
+    private final K[] keys;
+    private final V[] values;
+    private final int[] previous;
+    private final int[] next;
+    private final int[] lists;
+    private final int[] heads;
+    private final int[] tails;
+    private final int[] sizes;
+    private final HashMap<K, Integer> indexes;
+    private final CacheRecorder recorder;
+    private final CacheNotifier<K, V> notifier;
+
+    public ARCCache(int capacity, boolean metricsEnabled) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ARCCache(int capacity, boolean metricsEnabled, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
+        if (capacity < 1) {
+            throw new IllegalCacheStateException("capacity cannot be zero or negative");
+        }
+        size = 0;
+        this.capacity = capacity;
+        this.metricsEnabled = metricsEnabled;
+        keys = (K[]) new Object[2 * this.capacity];
+        values = (V[]) new Object[2 * this.capacity];
+        previous = new int[2 * this.capacity];
+        next = new int[2 * this.capacity];
+        lists = new int[2 * this.capacity];
+        heads = new int[] {NIL, NIL, NIL, NIL};
+        tails = new int[] {NIL, NIL, NIL, NIL};
+        sizes = new int[4];
+        indexes = new HashMap<>();
+        recorder = this.metricsEnabled? new CacheRecorder((Class<? extends Cache<?, ?>>) this.getClass()):null;
+        this.notifier = notifier;
+        clear();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean metricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public int target() {
+        return target;
+    }
+
+    public int ghosts() {
+        return sizes[B1] + sizes[B2];
+    }
+
+    @SuppressWarnings("unchecked")
+    public K[] keys() {
+        K[] result = (K[]) new Object[size];
+        int i = 0;
+        for (int list = T1; list <= T2; list++) {
+            for (int slot = heads[list]; slot != NIL; slot = next[slot]) {
+                result[i++] = keys[slot];
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V[] values() {
+        V[] result = (V[]) new Object[size];
+        int i = 0;
+        for (int list = T1; list <= T2; list++) {
+            for (int slot = heads[list]; slot != NIL; slot = next[slot]) {
+                result[i++] = values[slot];
+            }
+        }
+        return result;
+    }
+
+    public HashMap<String, Integer> metrics() throws IllegalCacheStateException {
+        if (!metricsEnabled) {
+            throw new IllegalCacheStateException("metrics are not enabled and therefore were not registered");
+        }
+        recorder.size(size);
+        recorder.capacity(capacity);
+        HashMap<String, Integer> metrics = recorder.metrics();
+        metrics.put(MetricType.CACHE_TARGET.identifier(), target);
+        return metrics;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean has(K key) {
+        return indexOf(key) != NIL;
+    }
+
+    public V peekTop() {
+        int slot = top();
+        if (slot == NIL) {
+            return null;
+        }
+        return values[slot];
+    }
+
+    public V peekBottom() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        return values[slot];
+    }
+
+    public V elementTop() throws CacheUnderflowException {
+        int slot = top();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot peek an empty cache");
+        }
+        return values[slot];
+    }
+
+    public V elementBottom() throws CacheUnderflowException {
+        int slot = bottom();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot peek an empty cache");
+        }
+        return values[slot];
+    }
+
+    public V popTop() {
+        int slot = top();
+        if (slot == NIL) {
+            return null;
+        }
+        V top = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return top;
+    }
+
+    public V popBottom() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        V bottom = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return bottom;
+    }
+
+    public V pollTop() throws CacheUnderflowException {
+        int slot = top();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot pop an empty cache");
+        }
+        V top = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return top;
+    }
+
+    public V pollBottom() throws CacheUnderflowException {
+        int slot = bottom();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot pop an empty cache");
+        }
+        V bottom = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return bottom;
+    }
+
+    public K victim() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        return keys[slot];
+    }
+
+    public K evict() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        K victim = keys[slot];
+        if (sizes[T1] + sizes[B1] >= capacity && sizes[B1] == 0) {
+            if (metricsEnabled) {
+                recorder.eviction();
+            }
+            remove(slot, RemovalCause.SIZE);
+        } else {
+            replace(slot);
+        }
+        return victim;
+    }
+
+    public V get(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        int slot = indexOf(key);
+        if (slot != NIL) {
+            if (metricsEnabled) {
+                recorder.hit();
+            }
+            return get(slot);
+        }
+        if (metricsEnabled) {
+            recorder.miss();
+        }
+        return null;
+    }
+
+    public V get(K key, V defaultValue) throws InvalidCacheEntryException {
+        V value = get(key);
+        return value == null? defaultValue:value;
+    }
+
+    public void put(K key, V value) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        if (metricsEnabled) {
+            recorder.put();
+        }
+        Integer index = indexes.get(key);
+        int slot = index == null? NIL:index;
+        if (slot != NIL && lists[slot] <= T2) {
+            if (metricsEnabled) {
+                recorder.hit();
+            }
+            if (notifier != null && values[slot] != value) {
+                notifier.removal(key, values[slot], RemovalCause.REPLACED);
+            }
+            values[slot] = value;
+            get(slot);
+            return;
+        }
+        if (slot != NIL) {
+            boolean ghostOfT2 = lists[slot] == B2;
+            if (ghostOfT2) {
+                target = Math.max(0, target - Math.max(sizes[B1] / sizes[B2], 1));
+            } else {
+                target = Math.min(capacity, target + Math.max(sizes[B2] / sizes[B1], 1));
+            }
+            unlink(slot);
+            if (size == capacity) {
+                replace(candidate(ghostOfT2));
+            }
+            values[slot] = value;
+            link(T2, slot);
+            size++;
+            return;
+        }
+        if (sizes[T1] + sizes[B1] >= capacity) {
+            if (sizes[B1] > 0) {
+                discard(tails[B1]);
+                if (size == capacity) {
+                    replace(candidate(false));
+                }
+            } else {
+                if (metricsEnabled) {
+                    recorder.eviction();
+                }
+                remove(tails[T1], RemovalCause.SIZE);
+            }
+        } else {
+            if (size + ghosts() >= 2 * capacity) {
+                discard(tails[B2]);
+            }
+            if (size == capacity) {
+                replace(candidate(false));
+            }
+        }
+        slot = free;
+        free = next[slot];
+        keys[slot] = key;
+        values[slot] = value;
+        indexes.put(key, slot);
+        link(T1, slot);
+        size++;
+    }
+
+    public void put(CacheEntry<K, V> entry) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (!(entry instanceof BasicCacheEntry<K, V> basicEntry)) {
+            throw new IllegalCacheStateException("entry must be of 'BasicCacheEntry' type");
+        }
+        put(basicEntry.key(), basicEntry.value());
+    }
+
+    public long[][] entryMetadata() {
+        long[][] metadata = new long[size][];
+        int i = 0;
+        for (int list = T1; list <= T2; list++) {
+            for (int slot = heads[list]; slot != NIL; slot = next[slot]) {
+                metadata[i++] = new long[] {list, target};
+            }
+        }
+        return metadata;
+    }
+
+    public void restoreEntry(K key, V value, long[] metadata) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (metadata == null) {
+            put(key, value);
+            return;
+        }
+        if (metadata.length != 2 || metadata[0] < T1 || metadata[0] > T2 || metadata[1] < 0 || metadata[1] > capacity) {
+            throw new IllegalCacheStateException("metadata must contain a list and a target within the capacity");
+        }
+        put(key, value);
+        int slot = indexOf(key);
+        unlink(slot);
+        link((int) metadata[0], slot);
+        target = (int) metadata[1];
+    }
+
+    public void remove(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        int slot = indexOf(key);
+        if (slot != NIL) {
+            if (metricsEnabled) {
+                recorder.hit();
+                recorder.remove();
+            }
+            remove(slot, RemovalCause.EXPLICIT);
+            return;
+        }
+        if (metricsEnabled) {
+            recorder.miss();
+        }
+    }
+
+    public void clear() {
+        if (metricsEnabled) {
+            recorder.clear();
+        }
+        if (notifier != null) {
+            for (int list = T1; list <= T2; list++) {
+                for (int slot = heads[list]; slot != NIL; slot = next[slot]) {
+                    notifier.removal(keys[slot], values[slot], RemovalCause.CLEARED);
+                }
+            }
+        }
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        Arrays.fill(previous, NIL);
+        Arrays.fill(lists, NIL);
+        for (int i = 0; i < next.length; i++) {
+            next[i] = i + 1 < next.length? i + 1:NIL;
+        }
+        Arrays.fill(heads, NIL);
+        Arrays.fill(tails, NIL);
+        Arrays.fill(sizes, 0);
+        indexes.clear();
+        free = 0;
+        target = 0;
+        size = 0;
+    }
+
+    private int indexOf(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        Integer slot = indexes.get(key);
+        return slot == null || lists[slot] > T2? NIL:slot;
+    }
+
+    private int top() {
+        return heads[T1] != NIL? heads[T1]:heads[T2];
+    }
+
+    private int bottom() {
+        if (size < capacity) {
+            return tails[T1] != NIL? tails[T1]:tails[T2];
+        }
+        if (sizes[T1] + sizes[B1] >= capacity && sizes[B1] == 0) {
+            return tails[T1];
+        }
+        return candidate(false);
+    }
+
+    private int candidate(boolean ghostOfT2) {
+        if (sizes[T1] > 0 && (sizes[T1] > target || (ghostOfT2 && sizes[T1] == target) || sizes[T2] == 0)) {
+            return tails[T1];
+        }
+        return tails[T2];
+    }
+
+    private V get(int slot) {
+        unlink(slot);
+        link(T2, slot);
+        return values[slot];
+    }
+
+    private void replace(int slot) {
+        if (metricsEnabled) {
+            recorder.eviction();
+        }
+        if (notifier != null) {
+            notifier.removal(keys[slot], values[slot], RemovalCause.SIZE);
+        }
+        int list = lists[slot];
+        unlink(slot);
+        values[slot] = null;
+        link(list == T1? B1:B2, slot);
+        size--;
+    }
+
+    private void remove(int slot, RemovalCause cause) {
+        if (notifier != null) {
+            notifier.removal(keys[slot], values[slot], cause);
+        }
+        discard(slot);
+        size--;
+    }
+
+    private void discard(int slot) {
+        unlink(slot);
+        indexes.remove(keys[slot]);
+        keys[slot] = null;
+        values[slot] = null;
+        next[slot] = free;
+        free = slot;
+    }
+
+    private void link(int list, int slot) {
+        lists[slot] = list;
+        previous[slot] = NIL;
+        next[slot] = heads[list];
+        if (heads[list] != NIL) {
+            previous[heads[list]] = slot;
+        } else {
+            tails[list] = slot;
+        }
+        heads[list] = slot;
+        sizes[list]++;
+    }
+
+    private void unlink(int slot) {
+        int list = lists[slot];
+        if (previous[slot] != NIL) {
+            next[previous[slot]] = next[slot];
+        } else {
+            heads[list] = next[slot];
+        }
+        if (next[slot] != NIL) {
+            previous[next[slot]] = previous[slot];
+        } else {
+            tails[list] = previous[slot];
+        }
+        previous[slot] = NIL;
+        next[slot] = NIL;
+        lists[slot] = NIL;
+        sizes[list]--;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof ARCCache<?, ?> other)) {
+            return false;
+        }
+        if (size != other.size) {
+            return false;
+        }
+        if (capacity != other.capacity) {
+            return false;
+        }
+        Object[] currentKeys = keys();
+        Object[] currentValues = values();
+        Object[] otherKeys = other.keys();
+        Object[] otherValues = other.values();
+        for (int i = 0; i < size; i++) {
+            if (!currentKeys[i].equals(otherKeys[i])) {
+                return false;
+            }
+            if (!currentValues[i].equals(otherValues[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("[");
+        int i = 0;
+        for (int list = T1; list <= T2; list++) {
+            for (int slot = heads[list]; slot != NIL; slot = next[slot]) {
+                builder.append(String.format("%s: %s (%s)", keys[slot], values[slot], list == T1? "recent":"frequent"));
+                if (++i < size) {
+                    builder.append(", ");
+                }
+            }
+        }
+        builder.append("]");
+        return String.format("%s%s", super.toString(), builder);
+    }
+
+}
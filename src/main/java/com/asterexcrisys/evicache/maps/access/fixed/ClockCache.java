@@ -0,0 +1,540 @@
+package com.asterexcrisys.evicache.maps.access.fixed;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheNotifier;
+import com.asterexcrisys.evicache.CacheRecorder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
+import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
+import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.RemovalCause;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A cache that implements the CLOCK policy, an approximation of LRU: entries live in a circular array of
+ * slots, each with a reference bit that is set whenever the entry is hit. When the cache is full, the hand
+ * sweeps the slots, clearing the reference bits it finds set, and evicts the first entry whose bit is clear.
+ * <p>
+ * Hits never reorder anything, so {@link #get(Object)} and {@link #has(Object)} are lock-free and can be
+ * called concurrently with each other and with writes; every other operation takes the lock of the hand.
+ * The top of the cache is the entry last passed by the hand (usually the most recently added one),
+ * while the bottom is the entry that would be evicted next.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+@SuppressWarnings({"unused", "Duplicates"})
+public class ClockCache<K, V> implements Cache<K, V> {
+
+    private static final int NIL = -1;
+
+    private volatile int size;
+    private int hand;
+    private int freeSize;
+    private final int capacity;
+    private final boolean metricsEnabled;
+    private final AtomicReferenceArray<K> keys;
+    private final AtomicReferenceArray<V> values;
+    private final AtomicIntegerArray references;
+    private final int[] freeSlots;
+    private final ConcurrentHashMap<K, Integer> indexes;
+    private final ReentrantLock lock;
+    private final CacheRecorder recorder;
+    private final CacheNotifier<K, V> notifier;
+
+    public ClockCache(int capacity, boolean metricsEnabled) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ClockCache(int capacity, boolean metricsEnabled, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
+        if (capacity < 1) {
+            throw new IllegalCacheStateException("capacity cannot be zero or negative");
+        }
+        size = 0;
+        this.capacity = capacity;
+        this.metricsEnabled = metricsEnabled;
+        keys = new AtomicReferenceArray<>(this.capacity);
+        values = new AtomicReferenceArray<>(this.capacity);
+        references = new AtomicIntegerArray(this.capacity);
+        freeSlots = new int[this.capacity];
+        indexes = new ConcurrentHashMap<>();
+        lock = new ReentrantLock();
+        recorder = this.metricsEnabled? new CacheRecorder((Class<? extends Cache<?, ?>>) this.getClass()):null;
+        this.notifier = notifier;
+        clear();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean metricsEnabled() {
+        return metricsEnabled;
+    }
+
+    @SuppressWarnings("unchecked")
+    public K[] keys() {
+        lock.lock();
+        try {
+            K[] result = (K[]) new Object[size];
+            int i = 0;
+            for (int slot : slots()) {
+                result[i++] = keys.get(slot);
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V[] values() {
+        lock.lock();
+        try {
+            V[] result = (V[]) new Object[size];
+            int i = 0;
+            for (int slot : slots()) {
+                result[i++] = values.get(slot);
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public HashMap<String, Integer> metrics() throws IllegalCacheStateException {
+        if (!metricsEnabled) {
+            throw new IllegalCacheStateException("metrics are not enabled and therefore were not registered");
+        }
+        recorder.size(size);
+        recorder.capacity(capacity);
+        return recorder.metrics();
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean has(K key) {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        return indexes.containsKey(key);
+    }
+
+    public V peekTop() {
+        lock.lock();
+        try {
+            int slot = top();
+            if (slot == NIL) {
+                return null;
+            }
+            return values.get(slot);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V peekBottom() {
+        lock.lock();
+        try {
+            int slot = bottom();
+            if (slot == NIL) {
+                return null;
+            }
+            return values.get(slot);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V elementTop() throws CacheUnderflowException {
+        lock.lock();
+        try {
+            int slot = top();
+            if (slot == NIL) {
+                throw new CacheUnderflowException("cannot peek an empty cache");
+            }
+            return values.get(slot);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V elementBottom() throws CacheUnderflowException {
+        lock.lock();
+        try {
+            int slot = bottom();
+            if (slot == NIL) {
+                throw new CacheUnderflowException("cannot peek an empty cache");
+            }
+            return values.get(slot);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V popTop() {
+        lock.lock();
+        try {
+            int slot = top();
+            if (slot == NIL) {
+                return null;
+            }
+            V top = values.get(slot);
+            remove(slot, RemovalCause.EXPLICIT);
+            return top;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V popBottom() {
+        lock.lock();
+        try {
+            int slot = bottom();
+            if (slot == NIL) {
+                return null;
+            }
+            V bottom = values.get(slot);
+            remove(slot, RemovalCause.EXPLICIT);
+            return bottom;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V pollTop() throws CacheUnderflowException {
+        lock.lock();
+        try {
+            int slot = top();
+            if (slot == NIL) {
+                throw new CacheUnderflowException("cannot pop an empty cache");
+            }
+            V top = values.get(slot);
+            remove(slot, RemovalCause.EXPLICIT);
+            return top;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V pollBottom() throws CacheUnderflowException {
+        lock.lock();
+        try {
+            int slot = bottom();
+            if (slot == NIL) {
+                throw new CacheUnderflowException("cannot pop an empty cache");
+            }
+            V bottom = values.get(slot);
+            remove(slot, RemovalCause.EXPLICIT);
+            return bottom;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public K victim() {
+        lock.lock();
+        try {
+            int slot = bottom();
+            if (slot == NIL) {
+                return null;
+            }
+            return keys.get(slot);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public K evict() {
+        lock.lock();
+        try {
+            if (size == 0) {
+                return null;
+            }
+            int slot = sweep();
+            K victim = keys.get(slot);
+            if (metricsEnabled) {
+                recorder.eviction();
+            }
+            remove(slot, RemovalCause.SIZE);
+            return victim;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V get(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        Integer slot = indexes.get(key);
+        if (slot != null) {
+            V value = values.get(slot);
+            if (value != null && key.equals(keys.get(slot))) {
+                if (metricsEnabled) {
+                    recorder.hit();
+                }
+                references.set(slot, 1);
+                return value;
+            }
+        }
+        if (metricsEnabled) {
+            recorder.miss();
+        }
+        return null;
+    }
+
+    public V get(K key, V defaultValue) throws InvalidCacheEntryException {
+        V value = get(key);
+        return value == null? defaultValue:value;
+    }
+
+    public void put(K key, V value) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        lock.lock();
+        try {
+            if (metricsEnabled) {
+                recorder.put();
+            }
+            Integer index = indexes.get(key);
+            if (index != null) {
+                if (metricsEnabled) {
+                    recorder.hit();
+                }
+                if (notifier != null && values.get(index) != value) {
+                    notifier.removal(key, values.get(index), RemovalCause.REPLACED);
+                }
+                values.set(index, value);
+                references.set(index, 1);
+                return;
+            }
+            if (size == capacity) {
+                if (metricsEnabled) {
+                    recorder.eviction();
+                }
+                remove(sweep(), RemovalCause.SIZE);
+            }
+            int slot = freeSlots[--freeSize];
+            keys.set(slot, key);
+            values.set(slot, value);
+            references.set(slot, 0);
+            indexes.put(key, slot);
+            size++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(CacheEntry<K, V> entry) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (!(entry instanceof BasicCacheEntry<K, V> basicEntry)) {
+            throw new IllegalCacheStateException("entry must be of 'BasicCacheEntry' type");
+        }
+        put(basicEntry.key(), basicEntry.value());
+    }
+
+    public long[][] entryMetadata() {
+        lock.lock();
+        try {
+            int[] slots = slots();
+            long[][] metadata = new long[slots.length][];
+            for (int i = 0; i < slots.length; i++) {
+                metadata[i] = new long[] {references.get(slots[i])};
+            }
+            return metadata;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void restoreEntry(K key, V value, long[] metadata) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (metadata == null) {
+            put(key, value);
+            return;
+        }
+        if (metadata.length != 1 || metadata[0] < 0 || metadata[0] > 1) {
+            throw new IllegalCacheStateException("metadata must contain a reference bit");
+        }
+        lock.lock();
+        try {
+            put(key, value);
+            references.set(indexes.get(key), (int) metadata[0]);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        lock.lock();
+        try {
+            Integer slot = indexes.get(key);
+            if (slot != null) {
+                if (metricsEnabled) {
+                    recorder.hit();
+                    recorder.remove();
+                }
+                remove(slot, RemovalCause.EXPLICIT);
+                return;
+            }
+            if (metricsEnabled) {
+                recorder.miss();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            if (metricsEnabled) {
+                recorder.clear();
+            }
+            for (int slot = capacity - 1; slot >= 0; slot--) {
+                K key = keys.get(slot);
+                if (key != null && notifier != null) {
+                    notifier.removal(key, values.get(slot), RemovalCause.CLEARED);
+                }
+                keys.set(slot, null);
+                values.set(slot, null);
+                references.set(slot, 0);
+                freeSlots[capacity - 1 - slot] = slot;
+            }
+            indexes.clear();
+            freeSize = capacity;
+            hand = 0;
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int top() {
+        for (int i = 1; i <= capacity; i++) {
+            int slot = Math.floorMod(hand - i, capacity);
+            if (keys.get(slot) != null) {
+                return slot;
+            }
+        }
+        return NIL;
+    }
+
+    private int bottom() {
+        int first = NIL;
+        for (int i = 0; i < capacity; i++) {
+            int slot = (hand + i) % capacity;
+            if (keys.get(slot) == null) {
+                continue;
+            }
+            if (references.get(slot) == 0) {
+                return slot;
+            }
+            if (first == NIL) {
+                first = slot;
+            }
+        }
+        return first;
+    }
+
+    private int sweep() {
+        while (true) {
+            int slot = hand;
+            hand = (hand + 1) % capacity;
+            if (keys.get(slot) == null) {
+                continue;
+            }
+            if (references.get(slot) == 0) {
+                return slot;
+            }
+            references.set(slot, 0);
+        }
+    }
+
+    private void remove(int slot, RemovalCause cause) {
+        K key = keys.get(slot);
+        if (notifier != null) {
+            notifier.removal(key, values.get(slot), cause);
+        }
+        indexes.remove(key);
+        keys.set(slot, null);
+        values.set(slot, null);
+        references.set(slot, 0);
+        freeSlots[freeSize++] = slot;
+        size--;
+    }
+
+    private int[] slots() {
+        int[] result = new int[size];
+        int i = 0;
+        for (int j = 1; j <= capacity && i < size; j++) {
+            int slot = Math.floorMod(hand - j, capacity);
+            if (keys.get(slot) != null) {
+                result[i++] = slot;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof ClockCache<?, ?> other)) {
+            return false;
+        }
+        if (size != other.size) {
+            return false;
+        }
+        if (capacity != other.capacity) {
+            return false;
+        }
+        Object[] currentKeys = keys();
+        Object[] currentValues = values();
+        Object[] otherKeys = other.keys();
+        Object[] otherValues = other.values();
+        for (int i = 0; i < size; i++) {
+            if (!currentKeys[i].equals(otherKeys[i])) {
+                return false;
+            }
+            if (!currentValues[i].equals(otherValues[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            StringBuilder builder = new StringBuilder();
+            builder.append("[");
+            int[] slots = slots();
+            for (int i = 0; i < slots.length; i++) {
+                builder.append(String.format("%s: %s (%s)", keys.get(slots[i]), values.get(slots[i]), references.get(slots[i])));
+                if (i < slots.length - 1) {
+                    builder.append(", ");
+                }
+            }
+            builder.append("]");
+            return String.format("%s%s", super.toString(), builder);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
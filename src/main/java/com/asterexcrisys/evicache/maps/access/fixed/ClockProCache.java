@@ -0,0 +1,735 @@
+package com.asterexcrisys.evicache.maps.access.fixed;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheNotifier;
+import com.asterexcrisys.evicache.CacheRecorder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
+import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
+import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.MetricType;
+import com.asterexcrisys.evicache.models.RemovalCause;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A cache that implements the CLOCK-Pro policy, a scan resistant variant of CLOCK: entries are either hot or
+ * cold, and only cold entries are ever evicted. A cold entry that is hit before the cold hand reaches it becomes
+ * hot, while the hot hand turns unreferenced hot entries back into cold ones whenever there are more hot entries
+ * than allowed. The keys of evicted cold entries stay in the clock as non-resident test entries: putting one of
+ * them again grows the cold target (the entry comes back directly as hot), while letting them expire shrinks it.
+ * <p>
+ * All entries (resident or not) are linked into a single circular list of slots that the three hands sweep.
+ * Hits only set a reference bit, so {@link #get(Object)} and {@link #has(Object)} are lock-free and can be
+ * called concurrently with each other and with writes; every other operation takes the lock of the hands.
+ * The top of the cache is the resident entry right behind the hot hand (where new entries are linked), while
+ * the bottom is the entry that would be evicted next.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+@SuppressWarnings({"unused", "Duplicates"})
+public class ClockProCache<K, V> implements Cache<K, V> {
+
+    private static final int NIL = -1;
+    private static final int NONE = 0;
+    private static final int COLD = 1;
+    private static final int HOT = 2;
+    private static final int TEST = 3;
+
+    private volatile int size;
+    private int free;
+    private int hotSize;
+    private int coldSize;
+    private int testSize;
+    private int coldTarget;
+    private int hotHand;
+    private int coldHand;
+    private int testHand;
+    private final int capacity;
+    private final boolean metricsEnabled;
+    private final AtomicReferenceArray<K> keys;
+    private final AtomicReferenceArray<V> values;
+    private final AtomicIntegerArray references;
+    private final int[] types;
+    private final int[] previous;
+    private final int[] next;
+    private final ConcurrentHashMap<K, Integer> indexes;
+    private final HashMap<K, Integer> tests;
+    private final ReentrantLock lock;
+    private final CacheRecorder recorder;
+    private final CacheNotifier<K, V> notifier;
+
+    public ClockProCache(int capacity, boolean metricsEnabled) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ClockProCache(int capacity, boolean metricsEnabled, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
+        if (capacity < 1) {
+            throw new IllegalCacheStateException("capacity cannot be zero or negative");
+        }
+        size = 0;
+        this.capacity = capacity;
+        this.metricsEnabled = metricsEnabled;
+        keys = new AtomicReferenceArray<>(2 * this.capacity);
+        values = new AtomicReferenceArray<>(2 * this.capacity);
+        references = new AtomicIntegerArray(2 * this.capacity);
+        types = new int[2 * this.capacity];
+        previous = new int[2 * this.capacity];
+        next = new int[2 * this.capacity];
+        indexes = new ConcurrentHashMap<>();
+        tests = new HashMap<>();
+        lock = new ReentrantLock();
+        recorder = this.metricsEnabled? new CacheRecorder((Class<? extends Cache<?, ?>>) this.getClass()):null;
+        this.notifier = notifier;
+        hotHand = NIL;
+        clear();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean metricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public int coldTarget() {
+        lock.lock();
+        try {
+            return coldTarget;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public K[] keys() {
+        lock.lock();
+        try {
+            K[] result = (K[]) new Object[size];
+            int i = 0;
+            for (int slot : slots()) {
+                result[i++] = keys.get(slot);
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V[] values() {
+        lock.lock();
+        try {
+            V[] result = (V[]) new Object[size];
+            int i = 0;
+            for (int slot : slots()) {
+                result[i++] = values.get(slot);
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public HashMap<String, Integer> metrics() throws IllegalCacheStateException {
+        if (!metricsEnabled) {
+            throw new IllegalCacheStateException("metrics are not enabled and therefore were not registered");
+        }
+        recorder.size(size);
+        recorder.capacity(capacity);
+        HashMap<String, Integer> metrics = recorder.metrics();
+        metrics.put(MetricType.CACHE_TARGET.identifier(), coldTarget());
+        return metrics;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean has(K key) {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        return indexes.containsKey(key);
+    }
+
+    public V peekTop() {
+        lock.lock();
+        try {
+            int slot = top();
+            if (slot == NIL) {
+                return null;
+            }
+            return values.get(slot);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V peekBottom() {
+        lock.lock();
+        try {
+            int slot = bottom();
+            if (slot == NIL) {
+                return null;
+            }
+            return values.get(slot);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V elementTop() throws CacheUnderflowException {
+        lock.lock();
+        try {
+            int slot = top();
+            if (slot == NIL) {
+                throw new CacheUnderflowException("cannot peek an empty cache");
+            }
+            return values.get(slot);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V elementBottom() throws CacheUnderflowException {
+        lock.lock();
+        try {
+            int slot = bottom();
+            if (slot == NIL) {
+                throw new CacheUnderflowException("cannot peek an empty cache");
+            }
+            return values.get(slot);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V popTop() {
+        lock.lock();
+        try {
+            int slot = top();
+            if (slot == NIL) {
+                return null;
+            }
+            V top = values.get(slot);
+            remove(slot, RemovalCause.EXPLICIT);
+            return top;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V popBottom() {
+        lock.lock();
+        try {
+            int slot = bottom();
+            if (slot == NIL) {
+                return null;
+            }
+            V bottom = values.get(slot);
+            remove(slot, RemovalCause.EXPLICIT);
+            return bottom;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V pollTop() throws CacheUnderflowException {
+        lock.lock();
+        try {
+            int slot = top();
+            if (slot == NIL) {
+                throw new CacheUnderflowException("cannot pop an empty cache");
+            }
+            V top = values.get(slot);
+            remove(slot, RemovalCause.EXPLICIT);
+            return top;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V pollBottom() throws CacheUnderflowException {
+        lock.lock();
+        try {
+            int slot = bottom();
+            if (slot == NIL) {
+                throw new CacheUnderflowException("cannot pop an empty cache");
+            }
+            V bottom = values.get(slot);
+            remove(slot, RemovalCause.EXPLICIT);
+            return bottom;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public K victim() {
+        lock.lock();
+        try {
+            int slot = bottom();
+            if (slot == NIL) {
+                return null;
+            }
+            return keys.get(slot);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public K evict() {
+        lock.lock();
+        try {
+            if (size == 0) {
+                return null;
+            }
+            if (metricsEnabled) {
+                recorder.eviction();
+            }
+            return reclaim();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V get(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        Integer slot = indexes.get(key);
+        if (slot != null) {
+            V value = values.get(slot);
+            if (value != null && key.equals(keys.get(slot))) {
+                if (metricsEnabled) {
+                    recorder.hit();
+                }
+                references.set(slot, 1);
+                return value;
+            }
+        }
+        if (metricsEnabled) {
+            recorder.miss();
+        }
+        return null;
+    }
+
+    public V get(K key, V defaultValue) throws InvalidCacheEntryException {
+        V value = get(key);
+        return value == null? defaultValue:value;
+    }
+
+    public void put(K key, V value) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        lock.lock();
+        try {
+            if (metricsEnabled) {
+                recorder.put();
+            }
+            Integer index = indexes.get(key);
+            if (index != null) {
+                if (metricsEnabled) {
+                    recorder.hit();
+                }
+                if (notifier != null && values.get(index) != value) {
+                    notifier.removal(key, values.get(index), RemovalCause.REPLACED);
+                }
+                values.set(index, value);
+                references.set(index, 1);
+                return;
+            }
+            Integer test = tests.get(key);
+            if (test != null) {
+                coldTarget = Math.min(capacity, coldTarget + 1);
+                discard(test);
+            }
+            if (size == capacity) {
+                if (metricsEnabled) {
+                    recorder.eviction();
+                }
+                reclaim();
+            }
+            int slot = free;
+            free = next[slot];
+            keys.set(slot, key);
+            values.set(slot, value);
+            references.set(slot, 0);
+            types[slot] = test != null? HOT:COLD;
+            if (test != null) {
+                hotSize++;
+            } else {
+                coldSize++;
+            }
+            link(slot);
+            indexes.put(key, slot);
+            size++;
+            while (hotSize > capacity - coldTarget) {
+                runHotHand();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(CacheEntry<K, V> entry) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (!(entry instanceof BasicCacheEntry<K, V> basicEntry)) {
+            throw new IllegalCacheStateException("entry must be of 'BasicCacheEntry' type");
+        }
+        put(basicEntry.key(), basicEntry.value());
+    }
+
+    public long[][] entryMetadata() {
+        lock.lock();
+        try {
+            int[] slots = slots();
+            // The cold hand may rest on a test entry, in which case it is carried by the first resident entry after it
+            int cold = coldHand;
+            while (size > 0 && types[cold] == TEST) {
+                cold = next[cold];
+            }
+            long[][] metadata = new long[slots.length][];
+            for (int i = 0; i < slots.length; i++) {
+                int slot = slots[i];
+                metadata[i] = new long[] {types[slot], references.get(slot), slot == cold? 1:0, coldTarget};
+            }
+            return metadata;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void restoreEntry(K key, V value, long[] metadata) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (metadata == null) {
+            put(key, value);
+            return;
+        }
+        if (metadata.length != 4 || (metadata[0] != COLD && metadata[0] != HOT) || metadata[1] < 0 || metadata[1] > 1 || metadata[2] < 0 || metadata[2] > 1 || metadata[3] < 1 || metadata[3] > capacity) {
+            throw new IllegalCacheStateException("metadata must contain a type, a reference bit, whether the cold hand is on the entry and a cold target");
+        }
+        lock.lock();
+        try {
+            put(key, value);
+            int slot = indexes.get(key);
+            coldTarget = (int) metadata[3];
+            if (types[slot] == HOT) {
+                hotSize--;
+            } else {
+                coldSize--;
+            }
+            types[slot] = (int) metadata[0];
+            if (types[slot] == HOT) {
+                hotSize++;
+            } else {
+                coldSize++;
+            }
+            references.set(slot, (int) metadata[1]);
+            if (metadata[2] == 1) {
+                coldHand = slot;
+            }
+            while (hotSize > capacity - coldTarget) {
+                runHotHand();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        lock.lock();
+        try {
+            Integer slot = indexes.get(key);
+            if (slot != null) {
+                if (metricsEnabled) {
+                    recorder.hit();
+                    recorder.remove();
+                }
+                remove(slot, RemovalCause.EXPLICIT);
+                return;
+            }
+            if (metricsEnabled) {
+                recorder.miss();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            if (metricsEnabled) {
+                recorder.clear();
+            }
+            if (notifier != null && hotHand != NIL) {
+                int slot = hotHand;
+                do {
+                    if (types[slot] != TEST) {
+                        notifier.removal(keys.get(slot), values.get(slot), RemovalCause.CLEARED);
+                    }
+                    slot = next[slot];
+                } while (slot != hotHand);
+            }
+            for (int i = 0; i < types.length; i++) {
+                keys.set(i, null);
+                values.set(i, null);
+                references.set(i, 0);
+                next[i] = i + 1 < types.length? i + 1:NIL;
+            }
+            Arrays.fill(types, NONE);
+            Arrays.fill(previous, NIL);
+            indexes.clear();
+            tests.clear();
+            free = 0;
+            hotSize = 0;
+            coldSize = 0;
+            testSize = 0;
+            coldTarget = capacity;
+            hotHand = NIL;
+            coldHand = NIL;
+            testHand = NIL;
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int top() {
+        if (size == 0) {
+            return NIL;
+        }
+        int slot = previous[hotHand];
+        while (types[slot] == TEST) {
+            slot = previous[slot];
+        }
+        return slot;
+    }
+
+    private int bottom() {
+        if (size == 0) {
+            return NIL;
+        }
+        int slot = coldHand;
+        if (coldSize > 0) {
+            do {
+                if (types[slot] == COLD && references.get(slot) == 0) {
+                    return slot;
+                }
+                slot = next[slot];
+            } while (slot != coldHand);
+        }
+        int first = NIL;
+        slot = hotHand;
+        do {
+            if (types[slot] == COLD || (types[slot] == HOT && references.get(slot) == 0)) {
+                return slot;
+            }
+            if (first == NIL && types[slot] == HOT) {
+                first = slot;
+            }
+            slot = next[slot];
+        } while (slot != hotHand);
+        return first;
+    }
+
+    private K reclaim() {
+        while (true) {
+            while (coldSize == 0) {
+                runHotHand();
+            }
+            int slot = coldHand;
+            coldHand = next[slot];
+            if (types[slot] != COLD) {
+                continue;
+            }
+            if (references.get(slot) == 1) {
+                references.set(slot, 0);
+                types[slot] = HOT;
+                coldSize--;
+                hotSize++;
+                continue;
+            }
+            K key = keys.get(slot);
+            if (notifier != null) {
+                notifier.removal(key, values.get(slot), RemovalCause.SIZE);
+            }
+            indexes.remove(key);
+            values.set(slot, null);
+            types[slot] = TEST;
+            tests.put(key, slot);
+            coldSize--;
+            testSize++;
+            size--;
+            while (testSize > capacity) {
+                runTestHand();
+            }
+            return key;
+        }
+    }
+
+    private void runHotHand() {
+        if (hotHand == testHand) {
+            runTestHand();
+        }
+        int slot = hotHand;
+        hotHand = next[slot];
+        if (types[slot] != HOT) {
+            return;
+        }
+        if (references.get(slot) == 1) {
+            references.set(slot, 0);
+            return;
+        }
+        types[slot] = COLD;
+        hotSize--;
+        coldSize++;
+    }
+
+    private void runTestHand() {
+        int slot = testHand;
+        testHand = next[slot];
+        if (types[slot] != TEST) {
+            return;
+        }
+        discard(slot);
+        coldTarget = Math.max(1, coldTarget - 1);
+    }
+
+    private void remove(int slot, RemovalCause cause) {
+        K key = keys.get(slot);
+        if (notifier != null) {
+            notifier.removal(key, values.get(slot), cause);
+        }
+        indexes.remove(key);
+        if (types[slot] == HOT) {
+            hotSize--;
+        } else {
+            coldSize--;
+        }
+        unlink(slot);
+        size--;
+    }
+
+    private void discard(int slot) {
+        tests.remove(keys.get(slot));
+        testSize--;
+        unlink(slot);
+    }
+
+    private void link(int slot) {
+        if (hotHand == NIL) {
+            previous[slot] = slot;
+            next[slot] = slot;
+            hotHand = slot;
+            coldHand = slot;
+            testHand = slot;
+            return;
+        }
+        int last = previous[hotHand];
+        previous[slot] = last;
+        next[slot] = hotHand;
+        next[last] = slot;
+        previous[hotHand] = slot;
+    }
+
+    private void unlink(int slot) {
+        int after = next[slot];
+        if (after == slot) {
+            hotHand = NIL;
+            coldHand = NIL;
+            testHand = NIL;
+        } else {
+            next[previous[slot]] = after;
+            previous[after] = previous[slot];
+            hotHand = hotHand == slot? after:hotHand;
+            coldHand = coldHand == slot? after:coldHand;
+            testHand = testHand == slot? after:testHand;
+        }
+        keys.set(slot, null);
+        values.set(slot, null);
+        references.set(slot, 0);
+        types[slot] = NONE;
+        previous[slot] = NIL;
+        next[slot] = free;
+        free = slot;
+    }
+
+    private int[] slots() {
+        int[] result = new int[size];
+        if (hotHand == NIL) {
+            return result;
+        }
+        int i = 0;
+        int slot = previous[hotHand];
+        do {
+            if (types[slot] != TEST) {
+                result[i++] = slot;
+            }
+            slot = previous[slot];
+        } while (slot != previous[hotHand]);
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof ClockProCache<?, ?> other)) {
+            return false;
+        }
+        if (size != other.size) {
+            return false;
+        }
+        if (capacity != other.capacity) {
+            return false;
+        }
+        Object[] currentKeys = keys();
+        Object[] currentValues = values();
+        Object[] otherKeys = other.keys();
+        Object[] otherValues = other.values();
+        for (int i = 0; i < size; i++) {
+            if (!currentKeys[i].equals(otherKeys[i])) {
+                return false;
+            }
+            if (!currentValues[i].equals(otherValues[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            StringBuilder builder = new StringBuilder();
+            builder.append("[");
+            int[] slots = slots();
+            for (int i = 0; i < slots.length; i++) {
+                builder.append(String.format("%s: %s (%s)", keys.get(slots[i]), values.get(slots[i]), types[slots[i]] == HOT? "hot":"cold"));
+                if (i < slots.length - 1) {
+                    builder.append(", ");
+                }
+            }
+            builder.append("]");
+            return String.format("%s%s", super.toString(), builder);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
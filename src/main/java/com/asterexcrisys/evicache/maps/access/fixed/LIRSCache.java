@@ -0,0 +1,694 @@
+package com.asterexcrisys.evicache.maps.access.fixed;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheNotifier;
+import com.asterexcrisys.evicache.CacheRecorder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
+import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
+import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.RemovalCause;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A cache that implements the LIRS policy: entries are split between a large set of low inter-reference recency
+ * (LIR) entries, which are never evicted directly, and a small set of resident high inter-reference recency (HIR)
+ * entries, which are evicted in FIFO order from the queue Q. The stack S orders entries by recency, including the
+ * HIR entries (resident or not) that were accessed after its bottom LIR entry: an HIR entry hit while still in S
+ * has a lower reuse distance than that LIR entry, so the two swap their status.
+ * <p>
+ * The stack is pruned after every operation so that its bottom is always an LIR entry, and the number of
+ * non-resident entries it retains is bounded by the capacity (the oldest ones are forgotten first). Entries
+ * are stored in slots that are indexed by key and linked into S, Q and the non-resident list, making every
+ * operation O(1) amortized. The top of the cache is the most recently used entry, while the bottom is the
+ * entry that would be evicted next.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+@SuppressWarnings({"unused", "Duplicates"})
+public class LIRSCache<K, V> implements Cache<K, V> {
+
+    private static final int NIL = -1;
+    private static final int NONE = 0;
+    private static final int LIR = 1;
+    private static final int HIR = 2;
+    private static final int GHOST = 3;
+    private static final int QUEUE = 0;
+    private static final int GHOSTS = 1;
+    private static final double HIR_RATIO = 0.01;
+
+    private int size;
+    private int free;
+    private int lirSize;
+    private int stackHead;
+    private int stackTail;
+    private final int capacity;
+    private final int lirCapacity;
+    private final int ghostCapacity;
+    private final boolean metricsEnabled;
+    private final K[] keys;
+    private final V[] values;
+    private final int[] statuses;
+    private final boolean[] stacked;
+    private final int[] stackPrevious;
+    private final int[] stackNext;
+    private final int[] previous;
+    private final int[] next;
+    private final int[] heads;
+    private final int[] tails;
+    private final int[] sizes;
+    private final HashMap<K, Integer> indexes;
+    private final CacheRecorder recorder;
+    private final CacheNotifier<K, V> notifier;
+
+    public LIRSCache(int capacity, boolean metricsEnabled) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public LIRSCache(int capacity, boolean metricsEnabled, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
+        if (capacity < 1) {
+            throw new IllegalCacheStateException("capacity cannot be zero or negative");
+        }
+        size = 0;
+        this.capacity = capacity;
+        lirCapacity = this.capacity - Math.max(1, (int) (this.capacity * HIR_RATIO));
+        ghostCapacity = this.capacity;
+        this.metricsEnabled = metricsEnabled;
+        keys = (K[]) new Object[this.capacity + ghostCapacity];
+        values = (V[]) new Object[this.capacity + ghostCapacity];
+        statuses = new int[this.capacity + ghostCapacity];
+        stacked = new boolean[this.capacity + ghostCapacity];
+        stackPrevious = new int[this.capacity + ghostCapacity];
+        stackNext = new int[this.capacity + ghostCapacity];
+        previous = new int[this.capacity + ghostCapacity];
+        next = new int[this.capacity + ghostCapacity];
+        heads = new int[] {NIL, NIL};
+        tails = new int[] {NIL, NIL};
+        sizes = new int[2];
+        indexes = new HashMap<>();
+        recorder = this.metricsEnabled? new CacheRecorder((Class<? extends Cache<?, ?>>) this.getClass()):null;
+        this.notifier = notifier;
+        clear();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean metricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public int lirCapacity() {
+        return lirCapacity;
+    }
+
+    public int ghosts() {
+        return sizes[GHOSTS];
+    }
+
+    @SuppressWarnings("unchecked")
+    public K[] keys() {
+        K[] result = (K[]) new Object[size];
+        int i = 0;
+        for (int slot : slots()) {
+            result[i++] = keys[slot];
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V[] values() {
+        V[] result = (V[]) new Object[size];
+        int i = 0;
+        for (int slot : slots()) {
+            result[i++] = values[slot];
+        }
+        return result;
+    }
+
+    public HashMap<String, Integer> metrics() throws IllegalCacheStateException {
+        if (!metricsEnabled) {
+            throw new IllegalCacheStateException("metrics are not enabled and therefore were not registered");
+        }
+        recorder.size(size);
+        recorder.capacity(capacity);
+        return recorder.metrics();
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean has(K key) {
+        return indexOf(key) != NIL;
+    }
+
+    public V peekTop() {
+        int slot = top();
+        if (slot == NIL) {
+            return null;
+        }
+        return values[slot];
+    }
+
+    public V peekBottom() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        return values[slot];
+    }
+
+    public V elementTop() throws CacheUnderflowException {
+        int slot = top();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot peek an empty cache");
+        }
+        return values[slot];
+    }
+
+    public V elementBottom() throws CacheUnderflowException {
+        int slot = bottom();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot peek an empty cache");
+        }
+        return values[slot];
+    }
+
+    public V popTop() {
+        int slot = top();
+        if (slot == NIL) {
+            return null;
+        }
+        V top = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return top;
+    }
+
+    public V popBottom() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        V bottom = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return bottom;
+    }
+
+    public V pollTop() throws CacheUnderflowException {
+        int slot = top();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot pop an empty cache");
+        }
+        V top = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return top;
+    }
+
+    public V pollBottom() throws CacheUnderflowException {
+        int slot = bottom();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot pop an empty cache");
+        }
+        V bottom = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return bottom;
+    }
+
+    public K victim() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        return keys[slot];
+    }
+
+    public K evict() {
+        if (size == 0) {
+            return null;
+        }
+        if (metricsEnabled) {
+            recorder.eviction();
+        }
+        return reclaim();
+    }
+
+    public V get(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        int slot = indexOf(key);
+        if (slot != NIL) {
+            if (metricsEnabled) {
+                recorder.hit();
+            }
+            return get(slot);
+        }
+        if (metricsEnabled) {
+            recorder.miss();
+        }
+        return null;
+    }
+
+    public V get(K key, V defaultValue) throws InvalidCacheEntryException {
+        V value = get(key);
+        return value == null? defaultValue:value;
+    }
+
+    public void put(K key, V value) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        if (metricsEnabled) {
+            recorder.put();
+        }
+        Integer index = indexes.get(key);
+        int slot = index == null? NIL:index;
+        if (slot != NIL && statuses[slot] != GHOST) {
+            if (metricsEnabled) {
+                recorder.hit();
+            }
+            if (notifier != null && values[slot] != value) {
+                notifier.removal(key, values[slot], RemovalCause.REPLACED);
+            }
+            values[slot] = value;
+            get(slot);
+            return;
+        }
+        if (slot != NIL) {
+            unlink(slot);
+        }
+        if (size == capacity) {
+            if (metricsEnabled) {
+                recorder.eviction();
+            }
+            reclaim();
+        }
+        if (slot == NIL) {
+            slot = free;
+            free = next[slot];
+            keys[slot] = key;
+            indexes.put(key, slot);
+        }
+        values[slot] = value;
+        size++;
+        if (stacked[slot] || lirSize < lirCapacity) {
+            statuses[slot] = LIR;
+            lirSize++;
+            push(slot);
+            while (lirSize > lirCapacity) {
+                demote();
+            }
+            prune();
+            return;
+        }
+        statuses[slot] = HIR;
+        push(slot);
+        link(QUEUE, slot);
+    }
+
+    public void put(CacheEntry<K, V> entry) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (!(entry instanceof BasicCacheEntry<K, V> basicEntry)) {
+            throw new IllegalCacheStateException("entry must be of 'BasicCacheEntry' type");
+        }
+        put(basicEntry.key(), basicEntry.value());
+    }
+
+    public long[][] entryMetadata() {
+        int[] slots = slots();
+        int[] order = new int[keys.length];
+        for (int i = 0; i < slots.length; i++) {
+            order[slots[i]] = slots.length - 1 - i;
+        }
+        // An HIR entry is inserted into Q behind the entries ahead of it that are restored first (counted by a Fenwick tree)
+        long[] ranks = new long[keys.length];
+        int[] tree = new int[slots.length + 1];
+        for (int slot = heads[QUEUE]; slot != NIL; slot = next[slot]) {
+            for (int i = order[slot]; i > 0; i -= i & -i) {
+                ranks[slot] += tree[i];
+            }
+            for (int i = order[slot] + 1; i < tree.length; i += i & -i) {
+                tree[i]++;
+            }
+        }
+        long[][] metadata = new long[slots.length][];
+        for (int i = 0; i < slots.length; i++) {
+            int slot = slots[i];
+            metadata[i] = new long[] {statuses[slot], stacked[slot]? 1:0, ranks[slot]};
+        }
+        return metadata;
+    }
+
+    public void restoreEntry(K key, V value, long[] metadata) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (metadata == null) {
+            put(key, value);
+            return;
+        }
+        if (metadata.length != 3 || (metadata[0] != LIR && metadata[0] != HIR) || metadata[1] < (metadata[0] == LIR? 1:0) || metadata[1] > 1 || metadata[2] < 0) {
+            throw new IllegalCacheStateException("metadata must contain a status, whether the entry is stacked and a rank");
+        }
+        put(key, value);
+        int slot = indexOf(key);
+        if (statuses[slot] == LIR) {
+            lirSize--;
+        } else {
+            unlink(slot);
+        }
+        if (stacked[slot]) {
+            pop(slot);
+        }
+        statuses[slot] = (int) metadata[0];
+        if (metadata[1] == 1) {
+            push(slot);
+        }
+        if (statuses[slot] == LIR) {
+            lirSize++;
+            while (lirSize > lirCapacity) {
+                demote();
+            }
+        } else {
+            insert(slot, metadata[2]);
+        }
+        prune();
+    }
+
+    public void remove(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        int slot = indexOf(key);
+        if (slot != NIL) {
+            if (metricsEnabled) {
+                recorder.hit();
+                recorder.remove();
+            }
+            remove(slot, RemovalCause.EXPLICIT);
+            return;
+        }
+        if (metricsEnabled) {
+            recorder.miss();
+        }
+    }
+
+    public void clear() {
+        if (metricsEnabled) {
+            recorder.clear();
+        }
+        if (notifier != null) {
+            for (int slot : slots()) {
+                notifier.removal(keys[slot], values[slot], RemovalCause.CLEARED);
+            }
+        }
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        Arrays.fill(statuses, NONE);
+        Arrays.fill(stacked, false);
+        Arrays.fill(stackPrevious, NIL);
+        Arrays.fill(stackNext, NIL);
+        Arrays.fill(previous, NIL);
+        for (int i = 0; i < next.length; i++) {
+            next[i] = i + 1 < next.length? i + 1:NIL;
+        }
+        Arrays.fill(heads, NIL);
+        Arrays.fill(tails, NIL);
+        Arrays.fill(sizes, 0);
+        indexes.clear();
+        stackHead = NIL;
+        stackTail = NIL;
+        free = 0;
+        lirSize = 0;
+        size = 0;
+    }
+
+    private int indexOf(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        Integer slot = indexes.get(key);
+        return slot == null || statuses[slot] == GHOST? NIL:slot;
+    }
+
+    private int top() {
+        for (int slot = stackHead; slot != NIL; slot = stackNext[slot]) {
+            if (statuses[slot] != GHOST) {
+                return slot;
+            }
+        }
+        return tails[QUEUE];
+    }
+
+    private int bottom() {
+        if (size == 0) {
+            return NIL;
+        }
+        return heads[QUEUE] != NIL? heads[QUEUE]:stackTail;
+    }
+
+    private V get(int slot) {
+        if (statuses[slot] == LIR) {
+            push(slot);
+            prune();
+        } else if (stacked[slot]) {
+            unlink(slot);
+            statuses[slot] = LIR;
+            lirSize++;
+            push(slot);
+            while (lirSize > lirCapacity) {
+                demote();
+            }
+            prune();
+        } else {
+            unlink(slot);
+            push(slot);
+            link(QUEUE, slot);
+        }
+        return values[slot];
+    }
+
+    private K reclaim() {
+        int slot = heads[QUEUE];
+        if (slot == NIL) {
+            K victim = keys[stackTail];
+            remove(stackTail, RemovalCause.SIZE);
+            return victim;
+        }
+        K victim = keys[slot];
+        if (!stacked[slot]) {
+            remove(slot, RemovalCause.SIZE);
+            return victim;
+        }
+        if (notifier != null) {
+            notifier.removal(keys[slot], values[slot], RemovalCause.SIZE);
+        }
+        unlink(slot);
+        values[slot] = null;
+        statuses[slot] = GHOST;
+        link(GHOSTS, slot);
+        size--;
+        if (sizes[GHOSTS] > ghostCapacity) {
+            discard(heads[GHOSTS]);
+        }
+        return victim;
+    }
+
+    private void demote() {
+        prune();
+        int slot = stackTail;
+        pop(slot);
+        statuses[slot] = HIR;
+        lirSize--;
+        link(QUEUE, slot);
+        prune();
+    }
+
+    private void prune() {
+        while (stackTail != NIL && statuses[stackTail] != LIR) {
+            int slot = stackTail;
+            pop(slot);
+            if (statuses[slot] == GHOST) {
+                discard(slot);
+            }
+        }
+    }
+
+    private void remove(int slot, RemovalCause cause) {
+        if (notifier != null) {
+            notifier.removal(keys[slot], values[slot], cause);
+        }
+        if (statuses[slot] == LIR) {
+            lirSize--;
+        } else {
+            unlink(slot);
+        }
+        if (stacked[slot]) {
+            pop(slot);
+        }
+        release(slot);
+        size--;
+        prune();
+    }
+
+    private void discard(int slot) {
+        unlink(slot);
+        if (stacked[slot]) {
+            pop(slot);
+        }
+        release(slot);
+    }
+
+    private void release(int slot) {
+        indexes.remove(keys[slot]);
+        keys[slot] = null;
+        values[slot] = null;
+        statuses[slot] = NONE;
+        next[slot] = free;
+        free = slot;
+    }
+
+    private void push(int slot) {
+        if (stacked[slot]) {
+            pop(slot);
+        }
+        stacked[slot] = true;
+        stackPrevious[slot] = NIL;
+        stackNext[slot] = stackHead;
+        if (stackHead != NIL) {
+            stackPrevious[stackHead] = slot;
+        } else {
+            stackTail = slot;
+        }
+        stackHead = slot;
+    }
+
+    private void pop(int slot) {
+        if (stackPrevious[slot] != NIL) {
+            stackNext[stackPrevious[slot]] = stackNext[slot];
+        } else {
+            stackHead = stackNext[slot];
+        }
+        if (stackNext[slot] != NIL) {
+            stackPrevious[stackNext[slot]] = stackPrevious[slot];
+        } else {
+            stackTail = stackPrevious[slot];
+        }
+        stacked[slot] = false;
+        stackPrevious[slot] = NIL;
+        stackNext[slot] = NIL;
+    }
+
+    private void link(int list, int slot) {
+        previous[slot] = tails[list];
+        next[slot] = NIL;
+        if (tails[list] != NIL) {
+            next[tails[list]] = slot;
+        } else {
+            heads[list] = slot;
+        }
+        tails[list] = slot;
+        sizes[list]++;
+    }
+
+    private void insert(int slot, long rank) {
+        int after = heads[QUEUE];
+        for (long i = 0; i < rank && after != NIL; i++) {
+            after = next[after];
+        }
+        if (after == NIL) {
+            link(QUEUE, slot);
+            return;
+        }
+        previous[slot] = previous[after];
+        next[slot] = after;
+        if (previous[after] != NIL) {
+            next[previous[after]] = slot;
+        } else {
+            heads[QUEUE] = slot;
+        }
+        previous[after] = slot;
+        sizes[QUEUE]++;
+    }
+
+    private void unlink(int slot) {
+        int list = statuses[slot] == GHOST? GHOSTS:QUEUE;
+        if (previous[slot] != NIL) {
+            next[previous[slot]] = next[slot];
+        } else {
+            heads[list] = next[slot];
+        }
+        if (next[slot] != NIL) {
+            previous[next[slot]] = previous[slot];
+        } else {
+            tails[list] = previous[slot];
+        }
+        previous[slot] = NIL;
+        next[slot] = NIL;
+        sizes[list]--;
+    }
+
+    private int[] slots() {
+        int[] result = new int[size];
+        int i = 0;
+        for (int slot = stackHead; slot != NIL; slot = stackNext[slot]) {
+            if (statuses[slot] != GHOST) {
+                result[i++] = slot;
+            }
+        }
+        for (int slot = tails[QUEUE]; slot != NIL; slot = previous[slot]) {
+            if (!stacked[slot]) {
+                result[i++] = slot;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof LIRSCache<?, ?> other)) {
+            return false;
+        }
+        if (size != other.size) {
+            return false;
+        }
+        if (capacity != other.capacity) {
+            return false;
+        }
+        Object[] currentKeys = keys();
+        Object[] currentValues = values();
+        Object[] otherKeys = other.keys();
+        Object[] otherValues = other.values();
+        for (int i = 0; i < size; i++) {
+            if (!currentKeys[i].equals(otherKeys[i])) {
+                return false;
+            }
+            if (!currentValues[i].equals(otherValues[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("[");
+        int[] slots = slots();
+        for (int i = 0; i < slots.length; i++) {
+            builder.append(String.format("%s: %s (%s)", keys[slots[i]], values[slots[i]], statuses[slots[i]] == LIR? "lir":"hir"));
+            if (i < slots.length - 1) {
+                builder.append(", ");
+            }
+        }
+        builder.append("]");
+        return String.format("%s%s", super.toString(), builder);
+    }
+
+}
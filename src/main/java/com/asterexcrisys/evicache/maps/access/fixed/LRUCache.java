@@ -2,13 +2,22 @@ package com.asterexcrisys.evicache.maps.access.fixed;
 
 import com.asterexcrisys.evicache.CacheRecorder;
 import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.entries.RemovalCacheEntry;
 import com.asterexcrisys.evicache.Cache;
 import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheNotifier;
 import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
 import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
 import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.RemovalCause;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 
 @SuppressWarnings({"unused", "Duplicates"})
 public class LRUCache<K, V> implements Cache<K, V> {
@@ -19,9 +28,14 @@ public class LRUCache<K, V> implements Cache<K, V> {
     private final K[] keys;
     private final V[] values;
     private final CacheRecorder recorder;
+    private final CacheNotifier<K, V> notifier;
 
-    @SuppressWarnings("unchecked")
     public LRUCache(int capacity, boolean metricsEnabled) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public LRUCache(int capacity, boolean metricsEnabled, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
         if (capacity < 1) {
             throw new IllegalCacheStateException("capacity cannot be zero or negative");
         }
@@ -31,6 +45,7 @@ public class LRUCache<K, V> implements Cache<K, V> {
         keys = (K[]) new Object[this.capacity];
         values = (V[]) new Object[this.capacity];
         recorder = this.metricsEnabled? new CacheRecorder((Class<? extends Cache<?, ?>>) this.getClass()):null;
+        this.notifier = notifier;
         clear();
     }
 
@@ -104,7 +119,7 @@ public class LRUCache<K, V> implements Cache<K, V> {
             return null;
         }
         V top = values[0];
-        remove(0);
+        remove(0, RemovalCause.EXPLICIT);
         return top;
     }
 
@@ -113,7 +128,7 @@ public class LRUCache<K, V> implements Cache<K, V> {
             return null;
         }
         V bottom = values[size - 1];
-        remove(size - 1);
+        remove(size - 1, RemovalCause.EXPLICIT);
         return bottom;
     }
 
@@ -122,7 +137,7 @@ public class LRUCache<K, V> implements Cache<K, V> {
             throw new CacheUnderflowException("cannot pop an empty cache");
         }
         V top = values[0];
-        remove(0);
+        remove(0, RemovalCause.EXPLICIT);
         return top;
     }
 
@@ -131,10 +146,29 @@ public class LRUCache<K, V> implements Cache<K, V> {
             throw new CacheUnderflowException("cannot pop an empty cache");
         }
         V bottom = values[size - 1];
-        remove(size - 1);
+        remove(size - 1, RemovalCause.EXPLICIT);
         return bottom;
     }
 
+    public K victim() {
+        if (size == 0) {
+            return null;
+        }
+        return keys[size - 1];
+    }
+
+    public K evict() {
+        if (size == 0) {
+            return null;
+        }
+        K victim = keys[size - 1];
+        if (metricsEnabled) {
+            recorder.eviction();
+        }
+        remove(size - 1, RemovalCause.SIZE);
+        return victim;
+    }
+
     public V get(K key) throws InvalidCacheEntryException {
         if (key == null) {
             throw new InvalidCacheEntryException("key cannot be null");
@@ -169,6 +203,9 @@ public class LRUCache<K, V> implements Cache<K, V> {
             if (metricsEnabled) {
                 recorder.hit();
             }
+            if (notifier != null && values[index] != value) {
+                notifier.removal(key, values[index], RemovalCause.REPLACED);
+            }
             for (int i = index - 1; i >= 0; i--) {
                 keys[i + 1] = keys[i];
                 values[i + 1] = values[i];
@@ -180,6 +217,9 @@ public class LRUCache<K, V> implements Cache<K, V> {
                 if (metricsEnabled) {
                     recorder.eviction();
                 }
+                if (notifier != null) {
+                    notifier.removal(keys[size - 1], values[size - 1], RemovalCause.SIZE);
+                }
             }
             for (int i = size - 2; i >= 0; i--) {
                 keys[i + 1] = keys[i];
@@ -207,7 +247,7 @@ public class LRUCache<K, V> implements Cache<K, V> {
                 recorder.hit();
                 recorder.remove();
             }
-            remove(index);
+            remove(index, RemovalCause.EXPLICIT);
             return;
         }
         if (metricsEnabled) {
@@ -215,15 +255,194 @@ public class LRUCache<K, V> implements Cache<K, V> {
         }
     }
 
+    public HashMap<K, V> getAll(Collection<? extends K> requests) throws InvalidCacheEntryException {
+        LinkedHashSet<K> requested = new LinkedHashSet<>();
+        for (K key : requests) {
+            if (key == null) {
+                throw new InvalidCacheEntryException("key cannot be null");
+            }
+            requested.remove(key);
+            requested.add(key);
+        }
+        HashMap<K, V> found = new HashMap<>();
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (requested.contains(keys[i])) {
+                found.put(keys[i], values[i]);
+                count++;
+            } else if (count > 0) {
+                keys[i - count] = keys[i];
+                values[i - count] = values[i];
+            }
+        }
+        if (count > 0) {
+            for (int i = size - count - 1; i >= 0; i--) {
+                keys[i + count] = keys[i];
+                values[i + count] = values[i];
+            }
+            List<K> order = new ArrayList<>(requested);
+            int index = 0;
+            for (int i = order.size() - 1; i >= 0; i--) {
+                K key = order.get(i);
+                if (found.containsKey(key)) {
+                    keys[index] = key;
+                    values[index] = found.get(key);
+                    index++;
+                }
+            }
+        }
+        if (metricsEnabled) {
+            int hits = 0;
+            for (K key : requests) {
+                if (found.containsKey(key)) {
+                    hits++;
+                }
+            }
+            recorder.hit(hits);
+            recorder.miss(requests.size() - hits);
+        }
+        return found;
+    }
+
+    public void putAll(Collection<? extends CacheEntry<K, V>> entries) throws IllegalCacheStateException, InvalidCacheEntryException {
+        LinkedHashMap<K, V> latest = new LinkedHashMap<>();
+        HashMap<K, Integer> firsts = new HashMap<>();
+        HashMap<K, V> earliest = new HashMap<>();
+        List<RemovalCacheEntry<K, V>> replaced = new ArrayList<>();
+        int hits = 0;
+        for (CacheEntry<K, V> entry : entries) {
+            if (!(entry instanceof BasicCacheEntry<K, V> basicEntry)) {
+                throw new IllegalCacheStateException("entry must be of 'BasicCacheEntry' type");
+            }
+            if (basicEntry.key() == null) {
+                throw new InvalidCacheEntryException("key cannot be null");
+            }
+            firsts.putIfAbsent(basicEntry.key(), firsts.size());
+            earliest.putIfAbsent(basicEntry.key(), basicEntry.value());
+            if (latest.containsKey(basicEntry.key())) {
+                hits++;
+                V previous = latest.remove(basicEntry.key());
+                if (previous != basicEntry.value()) {
+                    replaced.add(new RemovalCacheEntry<>(basicEntry.key(), previous, RemovalCause.REPLACED));
+                }
+            }
+            latest.put(basicEntry.key(), basicEntry.value());
+        }
+        if (size + latest.size() > capacity && !isSafe(firsts, hits > 0)) {
+            // An entry could be evicted before being put again, which only a sequence of additions can reproduce
+            for (CacheEntry<K, V> entry : entries) {
+                put(entry.key(), entry.value());
+            }
+            return;
+        }
+        if (notifier != null) {
+            for (RemovalCacheEntry<K, V> entry : replaced) {
+                notifier.removal(entry.key(), entry.value(), entry.cause());
+            }
+        }
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (latest.containsKey(keys[i])) {
+                hits++;
+                if (notifier != null && values[i] != earliest.get(keys[i])) {
+                    notifier.removal(keys[i], values[i], RemovalCause.REPLACED);
+                }
+                count++;
+            } else if (count > 0) {
+                keys[i - count] = keys[i];
+                values[i - count] = values[i];
+            }
+        }
+        int total = size - count + latest.size();
+        int kept = Math.min(size - count, Math.max(0, capacity - latest.size()));
+        for (int i = kept; i < size - count; i++) {
+            if (notifier != null) {
+                notifier.removal(keys[i], values[i], RemovalCause.SIZE);
+            }
+        }
+        List<K> order = new ArrayList<>(latest.keySet());
+        int added = Math.min(order.size(), capacity);
+        for (int i = 0; i < order.size() - added; i++) {
+            if (notifier != null) {
+                notifier.removal(order.get(i), latest.get(order.get(i)), RemovalCause.SIZE);
+            }
+        }
+        for (int i = kept - 1; i >= 0; i--) {
+            keys[i + added] = keys[i];
+            values[i + added] = values[i];
+        }
+        for (int i = 0; i < added; i++) {
+            K key = order.get(order.size() - 1 - i);
+            keys[i] = key;
+            values[i] = latest.get(key);
+        }
+        Arrays.fill(keys, added + kept, Math.max(size, added + kept), null);
+        Arrays.fill(values, added + kept, Math.max(size, added + kept), null);
+        size = added + kept;
+        if (metricsEnabled) {
+            recorder.put(entries.size());
+            recorder.hit(hits);
+            recorder.eviction(total - size);
+        }
+    }
+
+    public void removeAll(Collection<? extends K> removals) throws InvalidCacheEntryException {
+        HashSet<K> removed = new HashSet<>();
+        for (K key : removals) {
+            if (key == null) {
+                throw new InvalidCacheEntryException("key cannot be null");
+            }
+            removed.add(key);
+        }
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (removed.contains(keys[i])) {
+                if (notifier != null) {
+                    notifier.removal(keys[i], values[i], RemovalCause.EXPLICIT);
+                }
+                count++;
+            } else if (count > 0) {
+                keys[i - count] = keys[i];
+                values[i - count] = values[i];
+            }
+        }
+        Arrays.fill(keys, size - count, size, null);
+        Arrays.fill(values, size - count, size, null);
+        size -= count;
+        if (metricsEnabled) {
+            recorder.hit(count);
+            recorder.remove(count);
+            recorder.miss(removals.size() - count);
+        }
+    }
+
     public void clear() {
         if (metricsEnabled) {
             recorder.clear();
         }
+        if (notifier != null) {
+            for (int i = 0; i < size; i++) {
+                notifier.removal(keys[i], values[i], RemovalCause.CLEARED);
+            }
+        }
         Arrays.fill(keys, null);
         Arrays.fill(values, null);
         size = 0;
     }
 
+    private boolean isSafe(HashMap<K, Integer> firsts, boolean hasDuplicates) {
+        if (hasDuplicates && firsts.size() > capacity) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            Integer first = firsts.get(keys[i]);
+            if (first != null && i + first >= capacity) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private int indexOf(K key) throws InvalidCacheEntryException {
         if (key == null) {
             throw new InvalidCacheEntryException("key cannot be null");
@@ -251,10 +470,13 @@ public class LRUCache<K, V> implements Cache<K, V> {
         return value;
     }
 
-    private void remove(int index) throws IndexOutOfBoundsException {
+    private void remove(int index, RemovalCause cause) throws IndexOutOfBoundsException {
         if (index < 0 || index > size - 1) {
             throw new IndexOutOfBoundsException("index out of bounds");
         }
+        if (notifier != null) {
+            notifier.removal(keys[index], values[index], cause);
+        }
         if (size > 0) {
             size--;
         }
@@ -0,0 +1,531 @@
+package com.asterexcrisys.evicache.maps.access.fixed;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheNotifier;
+import com.asterexcrisys.evicache.CacheRecorder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
+import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
+import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.RemovalCause;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A cache that implements the LRU-K policy: the time of the last K accesses of every entry is recorded (using
+ * a logical clock), and the entry evicted is the one with the largest backward K-distance, that is the one whose
+ * K-th most recent access is the oldest. Entries accessed fewer than K times have an infinite backward K-distance
+ * and are therefore evicted first (in LRU order among themselves), so keys accessed only once cannot crowd out
+ * the ones accessed repeatedly.
+ * <p>
+ * The access history of evicted entries is kept in a bounded table (as large as the capacity, forgetting the
+ * oldest keys first), so that a key coming back shortly after its eviction is not treated as a new one. Entries
+ * are stored in slots that are indexed by key and ordered by an indexed binary heap, making eviction O(log n).
+ * The top of the cache is the entry with the most recent K-th access, while the bottom is the entry that would
+ * be evicted next.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+@SuppressWarnings({"unused", "Duplicates"})
+public class LRUKCache<K, V> implements Cache<K, V> {
+
+    private static final int NIL = -1;
+    public static final int DEFAULT_DEPTH = 2;
+
+    private int size;
+    private long clock;
+    private final int capacity;
+    private final int depth;
+    private final int historyCapacity;
+    private final boolean metricsEnabled;
+    private final K[] keys;
+    private final V[] values;
+    private final long[] times;
+    private final int[] heap;
+    private final int[] positions;
+    private final HashMap<K, Integer> indexes;
+    private final LinkedHashMap<K, long[]> history;
+    private final CacheRecorder recorder;
+    private final CacheNotifier<K, V> notifier;
+
+    public LRUKCache(int capacity, boolean metricsEnabled) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, DEFAULT_DEPTH, null);
+    }
+
+    public LRUKCache(int capacity, boolean metricsEnabled, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, DEFAULT_DEPTH, notifier);
+    }
+
+    @SuppressWarnings("unchecked")
+    public LRUKCache(int capacity, boolean metricsEnabled, int depth, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
+        if (capacity < 1) {
+            throw new IllegalCacheStateException("capacity cannot be zero or negative");
+        }
+        if (depth < 1) {
+            throw new IllegalCacheStateException("depth cannot be zero or negative");
+        }
+        size = 0;
+        clock = 0L;
+        this.capacity = capacity;
+        this.depth = depth;
+        historyCapacity = this.capacity;
+        this.metricsEnabled = metricsEnabled;
+        keys = (K[]) new Object[this.capacity];
+        values = (V[]) new Object[this.capacity];
+        times = new long[this.capacity * this.depth];
+        heap = new int[this.capacity];
+        positions = new int[this.capacity];
+        indexes = new HashMap<>();
+        history = new LinkedHashMap<>();
+        recorder = this.metricsEnabled? new CacheRecorder((Class<? extends Cache<?, ?>>) this.getClass()):null;
+        this.notifier = notifier;
+        clear();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean metricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public int histories() {
+        return history.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    public K[] keys() {
+        K[] result = (K[]) new Object[size];
+        int i = 0;
+        for (int slot : slots()) {
+            result[i++] = keys[slot];
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V[] values() {
+        V[] result = (V[]) new Object[size];
+        int i = 0;
+        for (int slot : slots()) {
+            result[i++] = values[slot];
+        }
+        return result;
+    }
+
+    public HashMap<String, Integer> metrics() throws IllegalCacheStateException {
+        if (!metricsEnabled) {
+            throw new IllegalCacheStateException("metrics are not enabled and therefore were not registered");
+        }
+        recorder.size(size);
+        recorder.capacity(capacity);
+        return recorder.metrics();
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean has(K key) {
+        return indexOf(key) != NIL;
+    }
+
+    public V peekTop() {
+        int slot = top();
+        if (slot == NIL) {
+            return null;
+        }
+        return values[slot];
+    }
+
+    public V peekBottom() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        return values[slot];
+    }
+
+    public V elementTop() throws CacheUnderflowException {
+        int slot = top();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot peek an empty cache");
+        }
+        return values[slot];
+    }
+
+    public V elementBottom() throws CacheUnderflowException {
+        int slot = bottom();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot peek an empty cache");
+        }
+        return values[slot];
+    }
+
+    public V popTop() {
+        int slot = top();
+        if (slot == NIL) {
+            return null;
+        }
+        V top = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return top;
+    }
+
+    public V popBottom() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        V bottom = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return bottom;
+    }
+
+    public V pollTop() throws CacheUnderflowException {
+        int slot = top();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot pop an empty cache");
+        }
+        V top = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return top;
+    }
+
+    public V pollBottom() throws CacheUnderflowException {
+        int slot = bottom();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot pop an empty cache");
+        }
+        V bottom = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return bottom;
+    }
+
+    public K victim() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        return keys[slot];
+    }
+
+    public K evict() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        K victim = keys[slot];
+        long[] victimTimes = Arrays.copyOfRange(times, slot * depth, (slot + 1) * depth);
+        if (metricsEnabled) {
+            recorder.eviction();
+        }
+        remove(slot, RemovalCause.SIZE);
+        history.put(victim, victimTimes);
+        if (history.size() > historyCapacity) {
+            Iterator<K> iterator = history.keySet().iterator();
+            iterator.next();
+            iterator.remove();
+        }
+        return victim;
+    }
+
+    public V get(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        int slot = indexOf(key);
+        if (slot != NIL) {
+            if (metricsEnabled) {
+                recorder.hit();
+            }
+            access(slot);
+            return values[slot];
+        }
+        if (metricsEnabled) {
+            recorder.miss();
+        }
+        return null;
+    }
+
+    public V get(K key, V defaultValue) throws InvalidCacheEntryException {
+        V value = get(key);
+        return value == null? defaultValue:value;
+    }
+
+    public void put(K key, V value) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        if (metricsEnabled) {
+            recorder.put();
+        }
+        int slot = indexOf(key);
+        if (slot != NIL) {
+            if (metricsEnabled) {
+                recorder.hit();
+            }
+            if (notifier != null && values[slot] != value) {
+                notifier.removal(key, values[slot], RemovalCause.REPLACED);
+            }
+            values[slot] = value;
+            access(slot);
+            return;
+        }
+        long[] previousTimes = history.remove(key);
+        if (size == capacity) {
+            evict();
+        }
+        slot = heap[size];
+        keys[slot] = key;
+        values[slot] = value;
+        if (previousTimes != null) {
+            System.arraycopy(previousTimes, 0, times, slot * depth, depth);
+        }
+        indexes.put(key, slot);
+        positions[slot] = size;
+        size++;
+        access(slot);
+        up(positions[slot]);
+    }
+
+    public void put(CacheEntry<K, V> entry) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (!(entry instanceof BasicCacheEntry<K, V> basicEntry)) {
+            throw new IllegalCacheStateException("entry must be of 'BasicCacheEntry' type");
+        }
+        put(basicEntry.key(), basicEntry.value());
+    }
+
+    public long[][] entryMetadata() {
+        int[] slots = slots();
+        long[][] metadata = new long[slots.length][];
+        for (int i = 0; i < slots.length; i++) {
+            metadata[i] = Arrays.copyOfRange(times, slots[i] * depth, (slots[i] + 1) * depth);
+        }
+        return metadata;
+    }
+
+    public void restoreEntry(K key, V value, long[] metadata) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (metadata == null) {
+            put(key, value);
+            return;
+        }
+        if (metadata.length == 0 || metadata[metadata.length - 1] < 0) {
+            throw new IllegalCacheStateException("metadata must contain the times of the last accesses");
+        }
+        for (int i = 1; i < metadata.length; i++) {
+            if (metadata[i] > metadata[i - 1]) {
+                throw new IllegalCacheStateException("metadata must contain the times of the last accesses");
+            }
+        }
+        put(key, value);
+        int slot = indexOf(key);
+        // A history of another depth is cut or padded, as if the entry had only been accessed that many times
+        Arrays.fill(times, slot * depth, (slot + 1) * depth, 0L);
+        System.arraycopy(metadata, 0, times, slot * depth, Math.min(depth, metadata.length));
+        clock = Math.max(clock, metadata[0]);
+        down(positions[slot]);
+        up(positions[slot]);
+    }
+
+    public void remove(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        int slot = indexOf(key);
+        if (slot != NIL) {
+            if (metricsEnabled) {
+                recorder.hit();
+                recorder.remove();
+            }
+            remove(slot, RemovalCause.EXPLICIT);
+            return;
+        }
+        if (metricsEnabled) {
+            recorder.miss();
+        }
+    }
+
+    public void clear() {
+        if (metricsEnabled) {
+            recorder.clear();
+        }
+        if (notifier != null) {
+            for (int i = 0; i < size; i++) {
+                notifier.removal(keys[heap[i]], values[heap[i]], RemovalCause.CLEARED);
+            }
+        }
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        Arrays.fill(times, 0L);
+        for (int i = 0; i < capacity; i++) {
+            heap[i] = i;
+            positions[i] = i;
+        }
+        indexes.clear();
+        history.clear();
+        clock = 0L;
+        size = 0;
+    }
+
+    private int indexOf(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        Integer slot = indexes.get(key);
+        return slot == null? NIL:slot;
+    }
+
+    private int top() {
+        int top = NIL;
+        for (int i = 0; i < size; i++) {
+            if (top == NIL || less(top, heap[i])) {
+                top = heap[i];
+            }
+        }
+        return top;
+    }
+
+    private int bottom() {
+        return size == 0? NIL:heap[0];
+    }
+
+    private void access(int slot) {
+        int offset = slot * depth;
+        System.arraycopy(times, offset, times, offset + 1, depth - 1);
+        times[offset] = ++clock;
+        down(positions[slot]);
+    }
+
+    private void remove(int slot, RemovalCause cause) {
+        if (notifier != null) {
+            notifier.removal(keys[slot], values[slot], cause);
+        }
+        indexes.remove(keys[slot]);
+        keys[slot] = null;
+        values[slot] = null;
+        Arrays.fill(times, slot * depth, (slot + 1) * depth, 0L);
+        int position = positions[slot];
+        size--;
+        swap(position, size);
+        if (position < size) {
+            down(position);
+            up(position);
+        }
+    }
+
+    private boolean less(int first, int second) {
+        long firstTime = times[first * depth + depth - 1];
+        long secondTime = times[second * depth + depth - 1];
+        if (firstTime != secondTime) {
+            return firstTime < secondTime;
+        }
+        return times[first * depth] < times[second * depth];
+    }
+
+    private void up(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!less(heap[position], heap[parent])) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void down(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < size && less(heap[left], heap[smallest])) {
+                smallest = left;
+            }
+            if (right < size && less(heap[right], heap[smallest])) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int first, int second) {
+        int slot = heap[first];
+        heap[first] = heap[second];
+        heap[second] = slot;
+        positions[heap[first]] = first;
+        positions[heap[second]] = second;
+    }
+
+    private int[] slots() {
+        Integer[] sorted = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = heap[i];
+        }
+        Arrays.sort(sorted, (first, second) -> less(first, second)? 1:less(second, first)? -1:0);
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = sorted[i];
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof LRUKCache<?, ?> other)) {
+            return false;
+        }
+        if (size != other.size) {
+            return false;
+        }
+        if (capacity != other.capacity) {
+            return false;
+        }
+        Object[] currentKeys = keys();
+        Object[] currentValues = values();
+        Object[] otherKeys = other.keys();
+        Object[] otherValues = other.values();
+        for (int i = 0; i < size; i++) {
+            if (!currentKeys[i].equals(otherKeys[i])) {
+                return false;
+            }
+            if (!currentValues[i].equals(otherValues[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("[");
+        int[] slots = slots();
+        for (int i = 0; i < slots.length; i++) {
+            builder.append(String.format("%s: %s (%s)", keys[slots[i]], values[slots[i]], times[slots[i] * depth + depth - 1]));
+            if (i < slots.length - 1) {
+                builder.append(", ");
+            }
+        }
+        builder.append("]");
+        return String.format("%s%s", super.toString(), builder);
+    }
+
+}
@@ -4,9 +4,11 @@ import com.asterexcrisys.evicache.CacheRecorder;
 import com.asterexcrisys.evicache.entries.BasicCacheEntry;
 import com.asterexcrisys.evicache.Cache;
 import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheNotifier;
 import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
 import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
 import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.RemovalCause;
 import java.util.Arrays;
 import java.util.HashMap;
 
@@ -19,9 +21,14 @@ public class MRUCache<K, V> implements Cache<K, V> {
     private final K[] keys;
     private final V[] values;
     private final CacheRecorder recorder;
+    private final CacheNotifier<K, V> notifier;
 
-    @SuppressWarnings("unchecked")
     public MRUCache(int capacity, boolean metricsEnabled) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public MRUCache(int capacity, boolean metricsEnabled, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
         if (capacity < 1) {
             throw new IllegalCacheStateException("capacity cannot be zero or negative");
         }
@@ -31,6 +38,7 @@ public class MRUCache<K, V> implements Cache<K, V> {
         keys = (K[]) new Object[this.capacity];
         values = (V[]) new Object[this.capacity];
         recorder = this.metricsEnabled? new CacheRecorder((Class<? extends Cache<?, ?>>) this.getClass()):null;
+        this.notifier = notifier;
         clear();
     }
 
@@ -104,7 +112,7 @@ public class MRUCache<K, V> implements Cache<K, V> {
             return null;
         }
         V top = values[0];
-        remove(0);
+        remove(0, RemovalCause.EXPLICIT);
         return top;
     }
 
@@ -113,7 +121,7 @@ public class MRUCache<K, V> implements Cache<K, V> {
             return null;
         }
         V bottom = values[size - 1];
-        remove(size - 1);
+        remove(size - 1, RemovalCause.EXPLICIT);
         return bottom;
     }
 
@@ -122,7 +130,7 @@ public class MRUCache<K, V> implements Cache<K, V> {
             throw new CacheUnderflowException("cannot pop an empty cache");
         }
         V top = values[0];
-        remove(0);
+        remove(0, RemovalCause.EXPLICIT);
         return top;
     }
 
@@ -131,10 +139,29 @@ public class MRUCache<K, V> implements Cache<K, V> {
             throw new CacheUnderflowException("cannot pop an empty cache");
         }
         V bottom = values[size - 1];
-        remove(size - 1);
+        remove(size - 1, RemovalCause.EXPLICIT);
         return bottom;
     }
 
+    public K victim() {
+        if (size == 0) {
+            return null;
+        }
+        return keys[size - 1];
+    }
+
+    public K evict() {
+        if (size == 0) {
+            return null;
+        }
+        K victim = keys[size - 1];
+        if (metricsEnabled) {
+            recorder.eviction();
+        }
+        remove(size - 1, RemovalCause.SIZE);
+        return victim;
+    }
+
     public V get(K key) throws InvalidCacheEntryException {
         if (key == null) {
             throw new InvalidCacheEntryException("key cannot be null");
@@ -169,6 +196,9 @@ public class MRUCache<K, V> implements Cache<K, V> {
             if (metricsEnabled) {
                 recorder.hit();
             }
+            if (notifier != null && values[index] != value) {
+                notifier.removal(key, values[index], RemovalCause.REPLACED);
+            }
             for (int i = index + 1; i < size; i++) {
                 keys[i - 1] = keys[i];
                 values[i - 1] = values[i];
@@ -180,6 +210,9 @@ public class MRUCache<K, V> implements Cache<K, V> {
                 if (metricsEnabled) {
                     recorder.eviction();
                 }
+                if (notifier != null) {
+                    notifier.removal(keys[size - 1], values[size - 1], RemovalCause.SIZE);
+                }
             }
         }
         keys[size - 1] = key;
@@ -203,7 +236,7 @@ public class MRUCache<K, V> implements Cache<K, V> {
                 recorder.hit();
                 recorder.remove();
             }
-            remove(index);
+            remove(index, RemovalCause.EXPLICIT);
             return;
         }
         if (metricsEnabled) {
@@ -215,6 +248,11 @@ public class MRUCache<K, V> implements Cache<K, V> {
         if (metricsEnabled) {
             recorder.clear();
         }
+        if (notifier != null) {
+            for (int i = 0; i < size; i++) {
+                notifier.removal(keys[i], values[i], RemovalCause.CLEARED);
+            }
+        }
         Arrays.fill(keys, null);
         Arrays.fill(values, null);
         size = 0;
@@ -247,10 +285,13 @@ public class MRUCache<K, V> implements Cache<K, V> {
         return value;
     }
 
-    private void remove(int index) throws IndexOutOfBoundsException {
+    private void remove(int index, RemovalCause cause) throws IndexOutOfBoundsException {
         if (index < 0 || index > size - 1) {
             throw new IndexOutOfBoundsException("index out of bounds");
         }
+        if (notifier != null) {
+            notifier.removal(keys[index], values[index], cause);
+        }
         if (size > 0) {
             size--;
         }
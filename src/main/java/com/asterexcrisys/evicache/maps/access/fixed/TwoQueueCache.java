@@ -0,0 +1,523 @@
+package com.asterexcrisys.evicache.maps.access.fixed;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheNotifier;
+import com.asterexcrisys.evicache.CacheRecorder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
+import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
+import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.RemovalCause;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A cache that implements the full 2Q policy: new entries are inserted into A1in, a FIFO queue that absorbs
+ * correlated references (hits there do not reorder anything), and the keys of the entries evicted from it are
+ * remembered (without their values) in A1out, a FIFO ghost queue. Only entries whose key is found in A1out are
+ * inserted into Am, an LRU list holding the entries that proved to be accessed again, so one-pass scans never
+ * reach (and therefore never flush) the entries in Am.
+ * <p>
+ * Both resident and ghost entries are stored in slots that are indexed by key and linked into their list,
+ * making every operation O(1). The top of the cache is the most recently added entry of A1in (or the most
+ * recently used entry of Am when A1in is empty), while the bottom is the entry that would be evicted next.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+@SuppressWarnings({"unused", "Duplicates"})
+public class TwoQueueCache<K, V> implements Cache<K, V> {
+
+    private static final int NIL = -1;
+    private static final int IN = 0;
+    private static final int MAIN = 1;
+    private static final int OUT = 2;
+    private static final double IN_RATIO = 0.25;
+    private static final double OUT_RATIO = 0.5;
+
+    private int size;
+    private int free;
+    private final int capacity;
+    private final int inCapacity;
+    private final int outCapacity;
+    private final boolean metricsEnabled;
+    private final K[] keys;
+    private final V[] values;
+    private final int[] previous;
+    private final int[] next;
+    private final int[] lists;
+    private final int[] heads;
+    private final int[] tails;
+    private final int[] sizes;
+    private final HashMap<K, Integer> indexes;
+    private final CacheRecorder recorder;
+    private final CacheNotifier<K, V> notifier;
+
+    public TwoQueueCache(int capacity, boolean metricsEnabled) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, IN_RATIO, OUT_RATIO, null);
+    }
+
+    public TwoQueueCache(int capacity, boolean metricsEnabled, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, IN_RATIO, OUT_RATIO, notifier);
+    }
+
+    @SuppressWarnings("unchecked")
+    public TwoQueueCache(int capacity, boolean metricsEnabled, double inRatio, double outRatio, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
+        if (capacity < 1) {
+            throw new IllegalCacheStateException("capacity cannot be zero or negative");
+        }
+        if (inRatio <= 0.0 || inRatio >= 1.0) {
+            throw new IllegalCacheStateException("in ratio must be between zero and one");
+        }
+        if (outRatio <= 0.0) {
+            throw new IllegalCacheStateException("out ratio cannot be zero or negative");
+        }
+        size = 0;
+        this.capacity = capacity;
+        inCapacity = Math.max(1, (int) (this.capacity * inRatio));
+        outCapacity = Math.max(1, (int) (this.capacity * outRatio));
+        this.metricsEnabled = metricsEnabled;
+        keys = (K[]) new Object[this.capacity + outCapacity];
+        values = (V[]) new Object[this.capacity + outCapacity];
+        previous = new int[this.capacity + outCapacity];
+        next = new int[this.capacity + outCapacity];
+        lists = new int[this.capacity + outCapacity];
+        heads = new int[] {NIL, NIL, NIL};
+        tails = new int[] {NIL, NIL, NIL};
+        sizes = new int[3];
+        indexes = new HashMap<>();
+        recorder = this.metricsEnabled? new CacheRecorder((Class<? extends Cache<?, ?>>) this.getClass()):null;
+        this.notifier = notifier;
+        clear();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean metricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public int inCapacity() {
+        return inCapacity;
+    }
+
+    public int outCapacity() {
+        return outCapacity;
+    }
+
+    public int ghosts() {
+        return sizes[OUT];
+    }
+
+    @SuppressWarnings("unchecked")
+    public K[] keys() {
+        K[] result = (K[]) new Object[size];
+        int i = 0;
+        for (int list = IN; list <= MAIN; list++) {
+            for (int slot = heads[list]; slot != NIL; slot = next[slot]) {
+                result[i++] = keys[slot];
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V[] values() {
+        V[] result = (V[]) new Object[size];
+        int i = 0;
+        for (int list = IN; list <= MAIN; list++) {
+            for (int slot = heads[list]; slot != NIL; slot = next[slot]) {
+                result[i++] = values[slot];
+            }
+        }
+        return result;
+    }
+
+    public HashMap<String, Integer> metrics() throws IllegalCacheStateException {
+        if (!metricsEnabled) {
+            throw new IllegalCacheStateException("metrics are not enabled and therefore were not registered");
+        }
+        recorder.size(size);
+        recorder.capacity(capacity);
+        return recorder.metrics();
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean has(K key) {
+        return indexOf(key) != NIL;
+    }
+
+    public V peekTop() {
+        int slot = top();
+        if (slot == NIL) {
+            return null;
+        }
+        return values[slot];
+    }
+
+    public V peekBottom() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        return values[slot];
+    }
+
+    public V elementTop() throws CacheUnderflowException {
+        int slot = top();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot peek an empty cache");
+        }
+        return values[slot];
+    }
+
+    public V elementBottom() throws CacheUnderflowException {
+        int slot = bottom();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot peek an empty cache");
+        }
+        return values[slot];
+    }
+
+    public V popTop() {
+        int slot = top();
+        if (slot == NIL) {
+            return null;
+        }
+        V top = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return top;
+    }
+
+    public V popBottom() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        V bottom = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return bottom;
+    }
+
+    public V pollTop() throws CacheUnderflowException {
+        int slot = top();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot pop an empty cache");
+        }
+        V top = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return top;
+    }
+
+    public V pollBottom() throws CacheUnderflowException {
+        int slot = bottom();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot pop an empty cache");
+        }
+        V bottom = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return bottom;
+    }
+
+    public K victim() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        return keys[slot];
+    }
+
+    public K evict() {
+        if (size == 0) {
+            return null;
+        }
+        return reclaim();
+    }
+
+    public V get(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        int slot = indexOf(key);
+        if (slot != NIL) {
+            if (metricsEnabled) {
+                recorder.hit();
+            }
+            return get(slot);
+        }
+        if (metricsEnabled) {
+            recorder.miss();
+        }
+        return null;
+    }
+
+    public V get(K key, V defaultValue) throws InvalidCacheEntryException {
+        V value = get(key);
+        return value == null? defaultValue:value;
+    }
+
+    public void put(K key, V value) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        if (metricsEnabled) {
+            recorder.put();
+        }
+        Integer index = indexes.get(key);
+        int slot = index == null? NIL:index;
+        if (slot != NIL && lists[slot] != OUT) {
+            if (metricsEnabled) {
+                recorder.hit();
+            }
+            if (notifier != null && values[slot] != value) {
+                notifier.removal(key, values[slot], RemovalCause.REPLACED);
+            }
+            values[slot] = value;
+            get(slot);
+            return;
+        }
+        if (slot != NIL) {
+            unlink(slot);
+        }
+        if (size == capacity) {
+            reclaim();
+        }
+        if (slot == NIL) {
+            slot = free;
+            free = next[slot];
+            keys[slot] = key;
+            indexes.put(key, slot);
+        }
+        values[slot] = value;
+        link(index == null? IN:MAIN, slot);
+        size++;
+    }
+
+    public void put(CacheEntry<K, V> entry) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (!(entry instanceof BasicCacheEntry<K, V> basicEntry)) {
+            throw new IllegalCacheStateException("entry must be of 'BasicCacheEntry' type");
+        }
+        put(basicEntry.key(), basicEntry.value());
+    }
+
+    public long[][] entryMetadata() {
+        long[][] metadata = new long[size][];
+        int i = 0;
+        for (int list = IN; list <= MAIN; list++) {
+            for (int slot = heads[list]; slot != NIL; slot = next[slot]) {
+                metadata[i++] = new long[] {list};
+            }
+        }
+        return metadata;
+    }
+
+    public void restoreEntry(K key, V value, long[] metadata) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (metadata == null) {
+            put(key, value);
+            return;
+        }
+        if (metadata.length != 1 || metadata[0] < IN || metadata[0] > MAIN) {
+            throw new IllegalCacheStateException("metadata must contain a queue");
+        }
+        put(key, value);
+        int slot = indexOf(key);
+        unlink(slot);
+        link((int) metadata[0], slot);
+    }
+
+    public void remove(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        int slot = indexOf(key);
+        if (slot != NIL) {
+            if (metricsEnabled) {
+                recorder.hit();
+                recorder.remove();
+            }
+            remove(slot, RemovalCause.EXPLICIT);
+            return;
+        }
+        if (metricsEnabled) {
+            recorder.miss();
+        }
+    }
+
+    public void clear() {
+        if (metricsEnabled) {
+            recorder.clear();
+        }
+        if (notifier != null) {
+            for (int list = IN; list <= MAIN; list++) {
+                for (int slot = heads[list]; slot != NIL; slot = next[slot]) {
+                    notifier.removal(keys[slot], values[slot], RemovalCause.CLEARED);
+                }
+            }
+        }
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        Arrays.fill(previous, NIL);
+        Arrays.fill(lists, NIL);
+        for (int i = 0; i < next.length; i++) {
+            next[i] = i + 1 < next.length? i + 1:NIL;
+        }
+        Arrays.fill(heads, NIL);
+        Arrays.fill(tails, NIL);
+        Arrays.fill(sizes, 0);
+        indexes.clear();
+        free = 0;
+        size = 0;
+    }
+
+    private int indexOf(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        Integer slot = indexes.get(key);
+        return slot == null || lists[slot] == OUT? NIL:slot;
+    }
+
+    private int top() {
+        return heads[IN] != NIL? heads[IN]:heads[MAIN];
+    }
+
+    private int bottom() {
+        if (sizes[IN] > inCapacity || sizes[MAIN] == 0) {
+            return tails[IN];
+        }
+        return tails[MAIN];
+    }
+
+    private V get(int slot) {
+        if (lists[slot] == MAIN) {
+            unlink(slot);
+            link(MAIN, slot);
+        }
+        return values[slot];
+    }
+
+    private K reclaim() {
+        int slot = bottom();
+        K victim = keys[slot];
+        if (metricsEnabled) {
+            recorder.eviction();
+        }
+        if (lists[slot] == MAIN) {
+            remove(slot, RemovalCause.SIZE);
+            return victim;
+        }
+        if (notifier != null) {
+            notifier.removal(keys[slot], values[slot], RemovalCause.SIZE);
+        }
+        unlink(slot);
+        values[slot] = null;
+        link(OUT, slot);
+        size--;
+        if (sizes[OUT] > outCapacity) {
+            discard(tails[OUT]);
+        }
+        return victim;
+    }
+
+    private void remove(int slot, RemovalCause cause) {
+        if (notifier != null) {
+            notifier.removal(keys[slot], values[slot], cause);
+        }
+        discard(slot);
+        size--;
+    }
+
+    private void discard(int slot) {
+        unlink(slot);
+        indexes.remove(keys[slot]);
+        keys[slot] = null;
+        values[slot] = null;
+        next[slot] = free;
+        free = slot;
+    }
+
+    private void link(int list, int slot) {
+        lists[slot] = list;
+        previous[slot] = NIL;
+        next[slot] = heads[list];
+        if (heads[list] != NIL) {
+            previous[heads[list]] = slot;
+        } else {
+            tails[list] = slot;
+        }
+        heads[list] = slot;
+        sizes[list]++;
+    }
+
+    private void unlink(int slot) {
+        int list = lists[slot];
+        if (previous[slot] != NIL) {
+            next[previous[slot]] = next[slot];
+        } else {
+            heads[list] = next[slot];
+        }
+        if (next[slot] != NIL) {
+            previous[next[slot]] = previous[slot];
+        } else {
+            tails[list] = previous[slot];
+        }
+        previous[slot] = NIL;
+        next[slot] = NIL;
+        lists[slot] = NIL;
+        sizes[list]--;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof TwoQueueCache<?, ?> other)) {
+            return false;
+        }
+        if (size != other.size) {
+            return false;
+        }
+        if (capacity != other.capacity) {
+            return false;
+        }
+        Object[] currentKeys = keys();
+        Object[] currentValues = values();
+        Object[] otherKeys = other.keys();
+        Object[] otherValues = other.values();
+        for (int i = 0; i < size; i++) {
+            if (!currentKeys[i].equals(otherKeys[i])) {
+                return false;
+            }
+            if (!currentValues[i].equals(otherValues[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("[");
+        int i = 0;
+        for (int list = IN; list <= MAIN; list++) {
+            for (int slot = heads[list]; slot != NIL; slot = next[slot]) {
+                builder.append(String.format("%s: %s (%s)", keys[slot], values[slot], list == IN? "in":"main"));
+                if (++i < size) {
+                    builder.append(", ");
+                }
+            }
+        }
+        builder.append("]");
+        return String.format("%s%s", super.toString(), builder);
+    }
+
+}
@@ -0,0 +1,547 @@
+package com.asterexcrisys.evicache.maps.extra.fixed;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheNotifier;
+import com.asterexcrisys.evicache.CacheRecorder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.entries.CostCacheEntry;
+import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
+import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
+import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.RemovalCause;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A cache that implements the GreedyDual-Size-Frequency (GDSF) policy: every entry has a cost (e.g. the time
+ * it takes to compute its value) and a size (e.g. the number of bytes it occupies), and is given a priority equal
+ * to {@code L + frequency * cost / size}, where {@code L} is an inflation value that starts from zero. The entry
+ * evicted is the one with the lowest priority (the least recently accessed one among equals), and its priority
+ * becomes the new inflation value, so that entries not accessed for a long time are aged out by the ones added
+ * or accessed after them, no matter how expensive they were.
+ * <p>
+ * Entries are stored in slots that are indexed by key and ordered by an indexed binary heap, making accesses and
+ * evictions O(log n). Entries put through a {@link BasicCacheEntry} (or without a cost and a size) are given a
+ * cost and a size of one, in which case the policy behaves as an LFU that ages its entries. The top of the cache
+ * is the entry with the highest priority, while the bottom is the entry that would be evicted next.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+@SuppressWarnings({"unused", "Duplicates"})
+public class GDSFCache<K, V> implements Cache<K, V> {
+
+    private static final int NIL = -1;
+    public static final double DEFAULT_COST = 1.0;
+    public static final long DEFAULT_SIZE = 1L;
+
+    private int size;
+    private long clock;
+    private double inflation;
+    private final int capacity;
+    private final boolean metricsEnabled;
+    private final K[] keys;
+    private final V[] values;
+    private final double[] costs;
+    private final long[] sizes;
+    private final int[] frequencies;
+    private final double[] priorities;
+    private final long[] times;
+    private final int[] heap;
+    private final int[] positions;
+    private final HashMap<K, Integer> indexes;
+    private final CacheRecorder recorder;
+    private final CacheNotifier<K, V> notifier;
+
+    public GDSFCache(int capacity, boolean metricsEnabled) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public GDSFCache(int capacity, boolean metricsEnabled, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
+        if (capacity < 1) {
+            throw new IllegalCacheStateException("capacity cannot be zero or negative");
+        }
+        size = 0;
+        clock = 0L;
+        inflation = 0.0;
+        this.capacity = capacity;
+        this.metricsEnabled = metricsEnabled;
+        keys = (K[]) new Object[this.capacity];
+        values = (V[]) new Object[this.capacity];
+        costs = new double[this.capacity];
+        sizes = new long[this.capacity];
+        frequencies = new int[this.capacity];
+        priorities = new double[this.capacity];
+        times = new long[this.capacity];
+        heap = new int[this.capacity];
+        positions = new int[this.capacity];
+        indexes = new HashMap<>();
+        recorder = this.metricsEnabled? new CacheRecorder((Class<? extends Cache<?, ?>>) this.getClass()):null;
+        this.notifier = notifier;
+        clear();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean metricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public double inflation() {
+        return inflation;
+    }
+
+    public double[] priorities() {
+        int[] slots = slots();
+        double[] result = new double[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            result[i] = priorities[slots[i]];
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public K[] keys() {
+        K[] result = (K[]) new Object[size];
+        int i = 0;
+        for (int slot : slots()) {
+            result[i++] = keys[slot];
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V[] values() {
+        V[] result = (V[]) new Object[size];
+        int i = 0;
+        for (int slot : slots()) {
+            result[i++] = values[slot];
+        }
+        return result;
+    }
+
+    public HashMap<String, Integer> metrics() throws IllegalCacheStateException {
+        if (!metricsEnabled) {
+            throw new IllegalCacheStateException("metrics are not enabled and therefore were not registered");
+        }
+        recorder.size(size);
+        recorder.capacity(capacity);
+        return recorder.metrics();
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean has(K key) {
+        return indexOf(key) != NIL;
+    }
+
+    public V peekTop() {
+        int slot = top();
+        if (slot == NIL) {
+            return null;
+        }
+        return values[slot];
+    }
+
+    public V peekBottom() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        return values[slot];
+    }
+
+    public V elementTop() throws CacheUnderflowException {
+        int slot = top();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot peek an empty cache");
+        }
+        return values[slot];
+    }
+
+    public V elementBottom() throws CacheUnderflowException {
+        int slot = bottom();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot peek an empty cache");
+        }
+        return values[slot];
+    }
+
+    public V popTop() {
+        int slot = top();
+        if (slot == NIL) {
+            return null;
+        }
+        V top = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return top;
+    }
+
+    public V popBottom() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        V bottom = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return bottom;
+    }
+
+    public V pollTop() throws CacheUnderflowException {
+        int slot = top();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot pop an empty cache");
+        }
+        V top = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return top;
+    }
+
+    public V pollBottom() throws CacheUnderflowException {
+        int slot = bottom();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot pop an empty cache");
+        }
+        V bottom = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return bottom;
+    }
+
+    public K victim() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        return keys[slot];
+    }
+
+    public K evict() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        K victim = keys[slot];
+        if (metricsEnabled) {
+            recorder.eviction();
+        }
+        inflation = priorities[slot];
+        remove(slot, RemovalCause.SIZE);
+        return victim;
+    }
+
+    public V get(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        int slot = indexOf(key);
+        if (slot != NIL) {
+            if (metricsEnabled) {
+                recorder.hit();
+            }
+            frequencies[slot]++;
+            access(slot);
+            return values[slot];
+        }
+        if (metricsEnabled) {
+            recorder.miss();
+        }
+        return null;
+    }
+
+    public V get(K key, V defaultValue) throws InvalidCacheEntryException {
+        V value = get(key);
+        return value == null? defaultValue:value;
+    }
+
+    public void put(K key, V value) throws InvalidCacheEntryException {
+        put(key, value, DEFAULT_COST, DEFAULT_SIZE);
+    }
+
+    public void put(K key, V value, double cost, long size) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        if (!(cost >= 0.0) || Double.isInfinite(cost)) {
+            throw new InvalidCacheEntryException("cost must be finite and cannot be negative");
+        }
+        if (size < 1) {
+            throw new InvalidCacheEntryException("size cannot be zero or negative");
+        }
+        if (metricsEnabled) {
+            recorder.put();
+        }
+        int slot = indexOf(key);
+        if (slot != NIL) {
+            if (metricsEnabled) {
+                recorder.hit();
+            }
+            if (notifier != null && values[slot] != value) {
+                notifier.removal(key, values[slot], RemovalCause.REPLACED);
+            }
+            values[slot] = value;
+            costs[slot] = cost;
+            sizes[slot] = size;
+            frequencies[slot]++;
+            access(slot);
+            return;
+        }
+        if (this.size == capacity) {
+            evict();
+        }
+        slot = heap[this.size];
+        keys[slot] = key;
+        values[slot] = value;
+        costs[slot] = cost;
+        sizes[slot] = size;
+        frequencies[slot] = 1;
+        indexes.put(key, slot);
+        positions[slot] = this.size;
+        this.size++;
+        access(slot);
+    }
+
+    public void put(CacheEntry<K, V> entry) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (entry instanceof CostCacheEntry<K, V> costEntry) {
+            put(costEntry.key(), costEntry.value(), costEntry.cost(), costEntry.size());
+            return;
+        }
+        if (!(entry instanceof BasicCacheEntry<K, V> basicEntry)) {
+            throw new IllegalCacheStateException("entry must be of 'CostCacheEntry' or 'BasicCacheEntry' type");
+        }
+        put(basicEntry.key(), basicEntry.value());
+    }
+
+    public long[][] entryMetadata() {
+        int[] slots = slots();
+        long[][] metadata = new long[slots.length][];
+        for (int i = 0; i < slots.length; i++) {
+            int slot = slots[i];
+            metadata[i] = new long[] {Double.doubleToLongBits(costs[slot]), sizes[slot], frequencies[slot], Double.doubleToLongBits(priorities[slot])};
+        }
+        return metadata;
+    }
+
+    public void restoreEntry(K key, V value, long[] metadata) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (metadata == null) {
+            put(key, value);
+            return;
+        }
+        if (metadata.length != 4 || metadata[2] < 1) {
+            throw new IllegalCacheStateException("metadata must contain a cost, a size, a positive frequency and a priority");
+        }
+        double cost = Double.longBitsToDouble(metadata[0]);
+        put(key, value, cost, metadata[1]);
+        int slot = indexOf(key);
+        frequencies[slot] = (int) Math.min(metadata[2], Integer.MAX_VALUE);
+        priorities[slot] = Double.longBitsToDouble(metadata[3]);
+        inflation = Math.max(inflation, priorities[slot] - frequencies[slot] * costs[slot] / sizes[slot]);
+        int position = positions[slot];
+        down(position);
+        up(position);
+    }
+
+    public void remove(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        int slot = indexOf(key);
+        if (slot != NIL) {
+            if (metricsEnabled) {
+                recorder.hit();
+                recorder.remove();
+            }
+            remove(slot, RemovalCause.EXPLICIT);
+            return;
+        }
+        if (metricsEnabled) {
+            recorder.miss();
+        }
+    }
+
+    public void clear() {
+        if (metricsEnabled) {
+            recorder.clear();
+        }
+        if (notifier != null) {
+            for (int i = 0; i < size; i++) {
+                notifier.removal(keys[heap[i]], values[heap[i]], RemovalCause.CLEARED);
+            }
+        }
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        Arrays.fill(costs, 0.0);
+        Arrays.fill(sizes, 0L);
+        Arrays.fill(frequencies, 0);
+        Arrays.fill(priorities, 0.0);
+        Arrays.fill(times, 0L);
+        for (int i = 0; i < capacity; i++) {
+            heap[i] = i;
+            positions[i] = i;
+        }
+        indexes.clear();
+        inflation = 0.0;
+        clock = 0L;
+        size = 0;
+    }
+
+    private int indexOf(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        Integer slot = indexes.get(key);
+        return slot == null? NIL:slot;
+    }
+
+    private int top() {
+        int top = NIL;
+        for (int i = 0; i < size; i++) {
+            if (top == NIL || less(top, heap[i])) {
+                top = heap[i];
+            }
+        }
+        return top;
+    }
+
+    private int bottom() {
+        return size == 0? NIL:heap[0];
+    }
+
+    private void access(int slot) {
+        priorities[slot] = inflation + frequencies[slot] * costs[slot] / sizes[slot];
+        times[slot] = ++clock;
+        int position = positions[slot];
+        down(position);
+        up(position);
+    }
+
+    private void remove(int slot, RemovalCause cause) {
+        if (notifier != null) {
+            notifier.removal(keys[slot], values[slot], cause);
+        }
+        indexes.remove(keys[slot]);
+        keys[slot] = null;
+        values[slot] = null;
+        costs[slot] = 0.0;
+        sizes[slot] = 0L;
+        frequencies[slot] = 0;
+        priorities[slot] = 0.0;
+        times[slot] = 0L;
+        int position = positions[slot];
+        size--;
+        swap(position, size);
+        if (position < size) {
+            down(position);
+            up(position);
+        }
+    }
+
+    private boolean less(int first, int second) {
+        if (priorities[first] != priorities[second]) {
+            return priorities[first] < priorities[second];
+        }
+        return times[first] < times[second];
+    }
+
+    private void up(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!less(heap[position], heap[parent])) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void down(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < size && less(heap[left], heap[smallest])) {
+                smallest = left;
+            }
+            if (right < size && less(heap[right], heap[smallest])) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int first, int second) {
+        int slot = heap[first];
+        heap[first] = heap[second];
+        heap[second] = slot;
+        positions[heap[first]] = first;
+        positions[heap[second]] = second;
+    }
+
+    private int[] slots() {
+        Integer[] sorted = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = heap[i];
+        }
+        Arrays.sort(sorted, (first, second) -> less(first, second)? 1:less(second, first)? -1:0);
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = sorted[i];
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof GDSFCache<?, ?> other)) {
+            return false;
+        }
+        if (size != other.size) {
+            return false;
+        }
+        if (capacity != other.capacity) {
+            return false;
+        }
+        Object[] currentKeys = keys();
+        Object[] currentValues = values();
+        Object[] otherKeys = other.keys();
+        Object[] otherValues = other.values();
+        for (int i = 0; i < size; i++) {
+            if (!currentKeys[i].equals(otherKeys[i])) {
+                return false;
+            }
+            if (!currentValues[i].equals(otherValues[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("[");
+        int[] slots = slots();
+        for (int i = 0; i < slots.length; i++) {
+            builder.append(String.format("%s: %s (%s)", keys[slots[i]], values[slots[i]], priorities[slots[i]]));
+            if (i < slots.length - 1) {
+                builder.append(", ");
+            }
+        }
+        builder.append("]");
+        return String.format("%s%s", super.toString(), builder);
+    }
+
+}
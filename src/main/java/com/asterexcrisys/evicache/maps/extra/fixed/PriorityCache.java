@@ -2,17 +2,21 @@ package com.asterexcrisys.evicache.maps.extra.fixed;
 
 import com.asterexcrisys.evicache.Cache;
 import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheNotifier;
 import com.asterexcrisys.evicache.CacheRecorder;
 import com.asterexcrisys.evicache.entries.PriorityCacheEntry;
 import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
 import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
 import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.RemovalCause;
 import java.util.Arrays;
 import java.util.HashMap;
 
 @SuppressWarnings({"unused", "Duplicates"})
 public class PriorityCache<K, V> implements Cache<K, V> {
 
+    public static final int DEFAULT_PRIORITY = 0;
+
     private int size;
     private final int capacity;
     private final boolean metricsEnabled;
@@ -20,9 +24,14 @@ public class PriorityCache<K, V> implements Cache<K, V> {
     private final V[] values;
     private final Integer[] priorities;
     private final CacheRecorder recorder;
+    private final CacheNotifier<K, V> notifier;
 
-    @SuppressWarnings("unchecked")
     public PriorityCache(int capacity, boolean metricsEnabled) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public PriorityCache(int capacity, boolean metricsEnabled, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
         if (capacity < 1) {
             throw new IllegalCacheStateException("capacity cannot be zero or negative");
         }
@@ -33,6 +42,7 @@ public class PriorityCache<K, V> implements Cache<K, V> {
         values = (V[]) new Object[this.capacity];
         priorities = new Integer[this.capacity];
         recorder = this.metricsEnabled? new CacheRecorder((Class<? extends Cache<?, ?>>) this.getClass()):null;
+        this.notifier = notifier;
         clear();
     }
 
@@ -110,7 +120,7 @@ public class PriorityCache<K, V> implements Cache<K, V> {
             return null;
         }
         V top = values[0];
-        remove(0);
+        remove(0, RemovalCause.EXPLICIT);
         return top;
     }
 
@@ -119,7 +129,7 @@ public class PriorityCache<K, V> implements Cache<K, V> {
             return null;
         }
         V bottom = values[size - 1];
-        remove(size - 1);
+        remove(size - 1, RemovalCause.EXPLICIT);
         return bottom;
     }
 
@@ -128,7 +138,7 @@ public class PriorityCache<K, V> implements Cache<K, V> {
             throw new CacheUnderflowException("cannot pop an empty cache");
         }
         V top = values[0];
-        remove(0);
+        remove(0, RemovalCause.EXPLICIT);
         return top;
     }
 
@@ -137,10 +147,29 @@ public class PriorityCache<K, V> implements Cache<K, V> {
             throw new CacheUnderflowException("cannot pop an empty cache");
         }
         V bottom = values[size - 1];
-        remove(size - 1);
+        remove(size - 1, RemovalCause.EXPLICIT);
         return bottom;
     }
 
+    public K victim() {
+        if (size == 0) {
+            return null;
+        }
+        return keys[size - 1];
+    }
+
+    public K evict() {
+        if (size == 0) {
+            return null;
+        }
+        K victim = keys[size - 1];
+        if (metricsEnabled) {
+            recorder.eviction();
+        }
+        remove(size - 1, RemovalCause.SIZE);
+        return victim;
+    }
+
     public V get(K key) throws InvalidCacheEntryException {
         if (key == null) {
             throw new InvalidCacheEntryException("key cannot be null");
@@ -178,6 +207,9 @@ public class PriorityCache<K, V> implements Cache<K, V> {
             if (metricsEnabled) {
                 recorder.hit();
             }
+            if (notifier != null && values[index] != value) {
+                notifier.removal(key, values[index], RemovalCause.REPLACED);
+            }
             values[index] = value;
             priorities[index] = priority;
             sort(index);
@@ -186,11 +218,17 @@ public class PriorityCache<K, V> implements Cache<K, V> {
                 size++;
             } else {
                 if (priorities[size - 1] >= priority) {
+                    if (notifier != null) {
+                        notifier.removal(key, value, RemovalCause.SIZE);
+                    }
                     return;
                 }
                 if (metricsEnabled) {
                     recorder.eviction();
                 }
+                if (notifier != null) {
+                    notifier.removal(keys[size - 1], values[size - 1], RemovalCause.SIZE);
+                }
             }
             keys[size - 1] = key;
             values[size - 1] = value;
@@ -206,6 +244,25 @@ public class PriorityCache<K, V> implements Cache<K, V> {
         put(priorityEntry.key(), priorityEntry.value(), priorityEntry.priority());
     }
 
+    public long[][] entryMetadata() {
+        long[][] metadata = new long[size][];
+        for (int i = 0; i < size; i++) {
+            metadata[i] = new long[] {priorities[i]};
+        }
+        return metadata;
+    }
+
+    public void restoreEntry(K key, V value, long[] metadata) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (metadata == null) {
+            put(key, value, DEFAULT_PRIORITY);
+            return;
+        }
+        if (metadata.length != 1) {
+            throw new IllegalCacheStateException("metadata must contain a priority");
+        }
+        put(key, value, (int) metadata[0]);
+    }
+
     public void remove(K key) throws InvalidCacheEntryException {
         if (key == null) {
             throw new InvalidCacheEntryException("key cannot be null");
@@ -216,7 +273,7 @@ public class PriorityCache<K, V> implements Cache<K, V> {
                 recorder.hit();
                 recorder.remove();
             }
-            remove(index);
+            remove(index, RemovalCause.EXPLICIT);
             return;
         }
         if (metricsEnabled) {
@@ -228,6 +285,11 @@ public class PriorityCache<K, V> implements Cache<K, V> {
         if (metricsEnabled) {
             recorder.clear();
         }
+        if (notifier != null) {
+            for (int i = 0; i < size; i++) {
+                notifier.removal(keys[i], values[i], RemovalCause.CLEARED);
+            }
+        }
         Arrays.fill(keys, null);
         Arrays.fill(values, null);
         Arrays.fill(priorities, null);
@@ -256,10 +318,13 @@ public class PriorityCache<K, V> implements Cache<K, V> {
         return value;
     }
 
-    private void remove(int index) throws IndexOutOfBoundsException {
+    private void remove(int index, RemovalCause cause) throws IndexOutOfBoundsException {
         if (index < 0 || index > size - 1) {
             throw new IndexOutOfBoundsException("index out of bounds");
         }
+        if (notifier != null) {
+            notifier.removal(keys[index], values[index], cause);
+        }
         if (size > 0) {
             size--;
         }
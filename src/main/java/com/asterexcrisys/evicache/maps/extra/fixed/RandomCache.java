@@ -4,9 +4,11 @@ import com.asterexcrisys.evicache.CacheRecorder;
 import com.asterexcrisys.evicache.entries.BasicCacheEntry;
 import com.asterexcrisys.evicache.Cache;
 import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheNotifier;
 import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
 import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
 import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.RemovalCause;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Random;
@@ -15,19 +17,25 @@ import java.util.Random;
 public class RandomCache<K, V> implements Cache<K, V> {
 
     private int size;
+    private int next;
     private final int capacity;
     private final boolean metricsEnabled;
     private final K[] keys;
     private final V[] values;
     private final CacheRecorder recorder;
+    private final CacheNotifier<K, V> notifier;
     private static final Random random;
 
     static {
         random = new Random();
     }
 
-    @SuppressWarnings("unchecked")
     public RandomCache(int capacity, boolean metricsEnabled) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public RandomCache(int capacity, boolean metricsEnabled, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
         if (capacity < 1) {
             throw new IllegalCacheStateException("capacity cannot be zero or negative");
         }
@@ -37,6 +45,8 @@ public class RandomCache<K, V> implements Cache<K, V> {
         keys = (K[]) new Object[this.capacity];
         values = (V[]) new Object[this.capacity];
         recorder = this.metricsEnabled? new CacheRecorder((Class<? extends Cache<?, ?>>) this.getClass()):null;
+        this.notifier = notifier;
+        next = nextIndex();
         clear();
     }
 
@@ -110,7 +120,7 @@ public class RandomCache<K, V> implements Cache<K, V> {
             return null;
         }
         V top = values[0];
-        remove(0);
+        remove(0, RemovalCause.EXPLICIT);
         return top;
     }
 
@@ -119,7 +129,7 @@ public class RandomCache<K, V> implements Cache<K, V> {
             return null;
         }
         V bottom = values[size - 1];
-        remove(size - 1);
+        remove(size - 1, RemovalCause.EXPLICIT);
         return bottom;
     }
 
@@ -128,7 +138,7 @@ public class RandomCache<K, V> implements Cache<K, V> {
             throw new CacheUnderflowException("cannot pop an empty cache");
         }
         V top = values[0];
-        remove(0);
+        remove(0, RemovalCause.EXPLICIT);
         return top;
     }
 
@@ -137,10 +147,31 @@ public class RandomCache<K, V> implements Cache<K, V> {
             throw new CacheUnderflowException("cannot pop an empty cache");
         }
         V bottom = values[size - 1];
-        remove(size - 1);
+        remove(size - 1, RemovalCause.EXPLICIT);
         return bottom;
     }
 
+    public K victim() {
+        if (size == 0) {
+            return null;
+        }
+        return keys[next % size];
+    }
+
+    public K evict() {
+        if (size == 0) {
+            return null;
+        }
+        int index = next % size;
+        K victim = keys[index];
+        if (metricsEnabled) {
+            recorder.eviction();
+        }
+        remove(index, RemovalCause.SIZE);
+        next = nextIndex();
+        return victim;
+    }
+
     public V get(K key) throws InvalidCacheEntryException {
         if (key == null) {
             throw new InvalidCacheEntryException("key cannot be null");
@@ -175,6 +206,9 @@ public class RandomCache<K, V> implements Cache<K, V> {
             if (metricsEnabled) {
                 recorder.hit();
             }
+            if (notifier != null && values[index] != value) {
+                notifier.removal(key, values[index], RemovalCause.REPLACED);
+            }
         } else {
             if (size < capacity) {
                 size++;
@@ -185,7 +219,11 @@ public class RandomCache<K, V> implements Cache<K, V> {
             if (metricsEnabled) {
                 recorder.eviction();
             }
-            index = nextIndex();
+            index = next;
+            next = nextIndex();
+            if (notifier != null) {
+                notifier.removal(keys[index], values[index], RemovalCause.SIZE);
+            }
             keys[index] = key;
         }
         values[index] = value;
@@ -208,7 +246,7 @@ public class RandomCache<K, V> implements Cache<K, V> {
                 recorder.hit();
                 recorder.remove();
             }
-            remove(index);
+            remove(index, RemovalCause.EXPLICIT);
             return;
         }
         if (metricsEnabled) {
@@ -220,6 +258,11 @@ public class RandomCache<K, V> implements Cache<K, V> {
         if (metricsEnabled) {
             recorder.clear();
         }
+        if (notifier != null) {
+            for (int i = 0; i < size; i++) {
+                notifier.removal(keys[i], values[i], RemovalCause.CLEARED);
+            }
+        }
         Arrays.fill(keys, null);
         Arrays.fill(values, null);
         size = 0;
@@ -248,10 +291,13 @@ public class RandomCache<K, V> implements Cache<K, V> {
         return values[index];
     }
 
-    private void remove(int index) throws IndexOutOfBoundsException {
+    private void remove(int index, RemovalCause cause) throws IndexOutOfBoundsException {
         if (index < 0 || index > size - 1) {
             throw new IndexOutOfBoundsException("index out of bounds");
         }
+        if (notifier != null) {
+            notifier.removal(keys[index], values[index], cause);
+        }
         if (size > 0) {
             size--;
         }
@@ -4,9 +4,11 @@ import com.asterexcrisys.evicache.CacheRecorder;
 import com.asterexcrisys.evicache.entries.BasicCacheEntry;
 import com.asterexcrisys.evicache.Cache;
 import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheNotifier;
 import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
 import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
 import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.RemovalCause;
 import java.util.Arrays;
 import java.util.HashMap;
 
@@ -20,9 +22,14 @@ public class MFUCache<K, V> implements Cache<K, V> {
     private final V[] values;
     private final Integer[] frequencies;
     private final CacheRecorder recorder;
+    private final CacheNotifier<K, V> notifier;
 
-    @SuppressWarnings("unchecked")
     public MFUCache(int capacity, boolean metricsEnabled) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public MFUCache(int capacity, boolean metricsEnabled, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
         if (capacity < 1) {
             throw new IllegalCacheStateException("capacity cannot be zero or negative");
         }
@@ -33,6 +40,7 @@ public class MFUCache<K, V> implements Cache<K, V> {
         values = (V[]) new Object[this.capacity];
         frequencies = new Integer[this.capacity];
         recorder = this.metricsEnabled? new CacheRecorder((Class<? extends Cache<?, ?>>) this.getClass()):null;
+        this.notifier = notifier;
         clear();
     }
 
@@ -110,7 +118,7 @@ public class MFUCache<K, V> implements Cache<K, V> {
             return null;
         }
         V top = values[0];
-        remove(0);
+        remove(0, RemovalCause.EXPLICIT);
         return top;
     }
 
@@ -119,7 +127,7 @@ public class MFUCache<K, V> implements Cache<K, V> {
             return null;
         }
         V bottom = values[size - 1];
-        remove(size - 1);
+        remove(size - 1, RemovalCause.EXPLICIT);
         return bottom;
     }
 
@@ -128,7 +136,7 @@ public class MFUCache<K, V> implements Cache<K, V> {
             throw new CacheUnderflowException("cannot pop an empty cache");
         }
         V top = values[0];
-        remove(0);
+        remove(0, RemovalCause.EXPLICIT);
         return top;
     }
 
@@ -137,10 +145,29 @@ public class MFUCache<K, V> implements Cache<K, V> {
             throw new CacheUnderflowException("cannot pop an empty cache");
         }
         V bottom = values[size - 1];
-        remove(size - 1);
+        remove(size - 1, RemovalCause.EXPLICIT);
         return bottom;
     }
 
+    public K victim() {
+        if (size == 0) {
+            return null;
+        }
+        return keys[size - 1];
+    }
+
+    public K evict() {
+        if (size == 0) {
+            return null;
+        }
+        K victim = keys[size - 1];
+        if (metricsEnabled) {
+            recorder.eviction();
+        }
+        remove(size - 1, RemovalCause.SIZE);
+        return victim;
+    }
+
     public V get(K key) throws InvalidCacheEntryException {
         if (key == null) {
             throw new InvalidCacheEntryException("key cannot be null");
@@ -175,6 +202,9 @@ public class MFUCache<K, V> implements Cache<K, V> {
             if (metricsEnabled) {
                 recorder.hit();
             }
+            if (notifier != null && values[index] != value) {
+                notifier.removal(key, values[index], RemovalCause.REPLACED);
+            }
             values[index] = value;
             frequencies[index]++;
             sort(index);
@@ -185,6 +215,9 @@ public class MFUCache<K, V> implements Cache<K, V> {
                 if (metricsEnabled) {
                     recorder.eviction();
                 }
+                if (notifier != null) {
+                    notifier.removal(keys[size - 1], values[size - 1], RemovalCause.SIZE);
+                }
             }
             for (int i = size - 2; i >= 0; i--) {
                 keys[i + 1] = keys[i];
@@ -205,6 +238,28 @@ public class MFUCache<K, V> implements Cache<K, V> {
         put(basicEntry.key(), basicEntry.value());
     }
 
+    public long[][] entryMetadata() {
+        long[][] metadata = new long[size][];
+        for (int i = 0; i < size; i++) {
+            metadata[i] = new long[] {frequencies[i]};
+        }
+        return metadata;
+    }
+
+    public void restoreEntry(K key, V value, long[] metadata) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (metadata == null) {
+            put(key, value);
+            return;
+        }
+        if (metadata.length != 1 || metadata[0] < 1) {
+            throw new IllegalCacheStateException("metadata must contain a positive frequency");
+        }
+        put(key, value);
+        int index = indexOf(key);
+        frequencies[index] = (int) Math.min(metadata[0], Integer.MAX_VALUE);
+        sort(index);
+    }
+
     public void remove(K key) throws InvalidCacheEntryException {
         if (key == null) {
             throw new InvalidCacheEntryException("key cannot be null");
@@ -215,7 +270,7 @@ public class MFUCache<K, V> implements Cache<K, V> {
                 recorder.hit();
                 recorder.remove();
             }
-            remove(index);
+            remove(index, RemovalCause.EXPLICIT);
             return;
         }
         if (metricsEnabled) {
@@ -227,6 +282,11 @@ public class MFUCache<K, V> implements Cache<K, V> {
         if (metricsEnabled) {
             recorder.clear();
         }
+        if (notifier != null) {
+            for (int i = 0; i < size; i++) {
+                notifier.removal(keys[i], values[i], RemovalCause.CLEARED);
+            }
+        }
         Arrays.fill(keys, null);
         Arrays.fill(values, null);
         Arrays.fill(frequencies, null);
@@ -255,10 +315,13 @@ public class MFUCache<K, V> implements Cache<K, V> {
         return value;
     }
 
-    private void remove(int index) throws IndexOutOfBoundsException {
+    private void remove(int index, RemovalCause cause) throws IndexOutOfBoundsException {
         if (index < 0 || index > size - 1) {
             throw new IndexOutOfBoundsException("index out of bounds");
         }
+        if (notifier != null) {
+            notifier.removal(keys[index], values[index], cause);
+        }
         if (size > 0) {
             size--;
         }
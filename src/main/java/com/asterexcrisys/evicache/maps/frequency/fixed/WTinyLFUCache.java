@@ -0,0 +1,568 @@
+package com.asterexcrisys.evicache.maps.frequency.fixed;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheNotifier;
+import com.asterexcrisys.evicache.CacheRecorder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
+import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
+import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.MetricType;
+import com.asterexcrisys.evicache.models.RemovalCause;
+import com.asterexcrisys.evicache.structures.FrequencySketch;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A cache that implements the Window TinyLFU policy: new entries are admitted into a small LRU window,
+ * and entries leaving the window must win a frequency comparison (estimated by a {@link FrequencySketch})
+ * against the victim of the main region in order to stay. The main region is a segmented LRU, split into
+ * a probation and a protected segment, so that entries accessed at least twice are shielded from scans.
+ * The size of the window adapts over time through hill climbing on the observed hit rate.
+ * <p>
+ * Entries are stored in slots that are indexed by key and linked into their segment, making every
+ * operation O(1). The top of the cache is the most recently added (or used) entry of the window,
+ * while the bottom is the entry that would be evicted next.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+@SuppressWarnings({"unused", "Duplicates"})
+public class WTinyLFUCache<K, V> implements Cache<K, V> {
+
+    private static final int NIL = -1;
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    private static final double INITIAL_WINDOW_RATIO = 0.01;
+    private static final double PROTECTED_RATIO = 0.8;
+    private static final double STEP_RATIO = 0.0625;
+    private static final double STEP_DECAY = 0.98;
+    private static final double RESTART_THRESHOLD = 0.05;
+
+    private int size;
+    private int free;
+    private int windowCapacity;
+    private int protectedCapacity;
+    private int sampleHits;
+    private int sampleMisses;
+    private double windowTarget;
+    private double previousHitRate;
+    private double stepSize;
+    private final int capacity;
+    private final int sampleSize;
+    private final boolean metricsEnabled;
+    private final K[] keys;
+    private final V[] values;
+    private final int[] previous;
+    private final int[] next;
+    private final int[] segments;
+    private final int[] heads;
+    private final int[] tails;
+    private final int[] sizes;
+    private final HashMap<K, Integer> indexes;
+    private final FrequencySketch<K> sketch;
+    private final CacheRecorder recorder;
+    private final CacheNotifier<K, V> notifier;
+
+    public WTinyLFUCache(int capacity, boolean metricsEnabled) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public WTinyLFUCache(int capacity, boolean metricsEnabled, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
+        if (capacity < 1) {
+            throw new IllegalCacheStateException("capacity cannot be zero or negative");
+        }
+        size = 0;
+        this.capacity = capacity;
+        sampleSize = (int) Math.min(10L * capacity, Integer.MAX_VALUE);
+        this.metricsEnabled = metricsEnabled;
+        keys = (K[]) new Object[this.capacity];
+        values = (V[]) new Object[this.capacity];
+        previous = new int[this.capacity];
+        next = new int[this.capacity];
+        segments = new int[this.capacity];
+        heads = new int[] {NIL, NIL, NIL};
+        tails = new int[] {NIL, NIL, NIL};
+        sizes = new int[3];
+        indexes = new HashMap<>();
+        sketch = new FrequencySketch<>(this.capacity);
+        recorder = this.metricsEnabled? new CacheRecorder((Class<? extends Cache<?, ?>>) this.getClass()):null;
+        this.notifier = notifier;
+        windowTarget = Math.max(1.0, this.capacity * INITIAL_WINDOW_RATIO);
+        previousHitRate = 0.0;
+        stepSize = -STEP_RATIO * this.capacity;
+        resize();
+        clear();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean metricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public int windowCapacity() {
+        return windowCapacity;
+    }
+
+    public int protectedCapacity() {
+        return protectedCapacity;
+    }
+
+    @SuppressWarnings("unchecked")
+    public K[] keys() {
+        K[] result = (K[]) new Object[size];
+        int i = 0;
+        for (int segment : new int[] {WINDOW, PROTECTED, PROBATION}) {
+            for (int slot = heads[segment]; slot != NIL; slot = next[slot]) {
+                result[i++] = keys[slot];
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V[] values() {
+        V[] result = (V[]) new Object[size];
+        int i = 0;
+        for (int segment : new int[] {WINDOW, PROTECTED, PROBATION}) {
+            for (int slot = heads[segment]; slot != NIL; slot = next[slot]) {
+                result[i++] = values[slot];
+            }
+        }
+        return result;
+    }
+
+    public HashMap<String, Integer> metrics() throws IllegalCacheStateException {
+        if (!metricsEnabled) {
+            throw new IllegalCacheStateException("metrics are not enabled and therefore were not registered");
+        }
+        recorder.size(size);
+        recorder.capacity(capacity);
+        HashMap<String, Integer> metrics = recorder.metrics();
+        metrics.put(MetricType.CACHE_WINDOW.identifier(), windowCapacity);
+        return metrics;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean has(K key) {
+        return indexOf(key) != NIL;
+    }
+
+    public V peekTop() {
+        int slot = top();
+        if (slot == NIL) {
+            return null;
+        }
+        return values[slot];
+    }
+
+    public V peekBottom() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        return values[slot];
+    }
+
+    public V elementTop() throws CacheUnderflowException {
+        int slot = top();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot peek an empty cache");
+        }
+        return values[slot];
+    }
+
+    public V elementBottom() throws CacheUnderflowException {
+        int slot = bottom();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot peek an empty cache");
+        }
+        return values[slot];
+    }
+
+    public V popTop() {
+        int slot = top();
+        if (slot == NIL) {
+            return null;
+        }
+        V top = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return top;
+    }
+
+    public V popBottom() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        V bottom = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return bottom;
+    }
+
+    public V pollTop() throws CacheUnderflowException {
+        int slot = top();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot pop an empty cache");
+        }
+        V top = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return top;
+    }
+
+    public V pollBottom() throws CacheUnderflowException {
+        int slot = bottom();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot pop an empty cache");
+        }
+        V bottom = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return bottom;
+    }
+
+    public K victim() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        return keys[slot];
+    }
+
+    public K evict() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        K victim = keys[slot];
+        if (metricsEnabled) {
+            recorder.eviction();
+        }
+        remove(slot, RemovalCause.SIZE);
+        return victim;
+    }
+
+    public V get(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        sketch.increment(key);
+        int slot = indexOf(key);
+        if (slot != NIL) {
+            if (metricsEnabled) {
+                recorder.hit();
+            }
+            sample(true);
+            return get(slot);
+        }
+        if (metricsEnabled) {
+            recorder.miss();
+        }
+        sample(false);
+        return null;
+    }
+
+    public V get(K key, V defaultValue) throws InvalidCacheEntryException {
+        V value = get(key);
+        return value == null? defaultValue:value;
+    }
+
+    public void put(K key, V value) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        if (metricsEnabled) {
+            recorder.put();
+        }
+        int slot = indexOf(key);
+        if (slot != NIL) {
+            if (metricsEnabled) {
+                recorder.hit();
+            }
+            if (notifier != null && values[slot] != value) {
+                notifier.removal(key, values[slot], RemovalCause.REPLACED);
+            }
+            sketch.increment(key);
+            values[slot] = value;
+            get(slot);
+            return;
+        }
+        if (size == capacity) {
+            evict();
+        }
+        sketch.increment(key);
+        slot = free;
+        free = next[slot];
+        keys[slot] = key;
+        values[slot] = value;
+        indexes.put(key, slot);
+        link(WINDOW, slot);
+        size++;
+        while (sizes[WINDOW] > windowCapacity) {
+            int candidate = tails[WINDOW];
+            unlink(candidate);
+            link(PROBATION, candidate);
+        }
+    }
+
+    public void put(CacheEntry<K, V> entry) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (!(entry instanceof BasicCacheEntry<K, V> basicEntry)) {
+            throw new IllegalCacheStateException("entry must be of 'BasicCacheEntry' type");
+        }
+        put(basicEntry.key(), basicEntry.value());
+    }
+
+    public long[][] entryMetadata() {
+        long[][] metadata = new long[size][];
+        int i = 0;
+        for (int segment : new int[] {WINDOW, PROTECTED, PROBATION}) {
+            for (int slot = heads[segment]; slot != NIL; slot = next[slot]) {
+                metadata[i++] = new long[] {segment, sketch.frequency(keys[slot]), Double.doubleToLongBits(windowTarget)};
+            }
+        }
+        return metadata;
+    }
+
+    public void restoreEntry(K key, V value, long[] metadata) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (metadata == null) {
+            put(key, value);
+            return;
+        }
+        if (metadata.length != 3 || metadata[0] < WINDOW || metadata[0] > PROTECTED || metadata[1] < 0 || Double.isNaN(Double.longBitsToDouble(metadata[2]))) {
+            throw new IllegalCacheStateException("metadata must contain a segment, a frequency and a window target");
+        }
+        windowTarget = Math.max(1.0, Math.min(capacity - 1.0, Double.longBitsToDouble(metadata[2])));
+        resize();
+        put(key, value);
+        // The sketch only estimates frequencies, so the entry is counted until its estimate catches up
+        for (long i = 0; i < metadata[1] && sketch.frequency(key) < metadata[1]; i++) {
+            sketch.increment(key);
+        }
+        int slot = indexOf(key);
+        unlink(slot);
+        link((int) metadata[0], slot);
+        while (sizes[PROTECTED] > protectedCapacity) {
+            int demoted = tails[PROTECTED];
+            unlink(demoted);
+            link(PROBATION, demoted);
+        }
+    }
+
+    public void remove(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        int slot = indexOf(key);
+        if (slot != NIL) {
+            if (metricsEnabled) {
+                recorder.hit();
+                recorder.remove();
+            }
+            remove(slot, RemovalCause.EXPLICIT);
+            return;
+        }
+        if (metricsEnabled) {
+            recorder.miss();
+        }
+    }
+
+    public void clear() {
+        if (metricsEnabled) {
+            recorder.clear();
+        }
+        if (notifier != null) {
+            for (int segment = WINDOW; segment <= PROTECTED; segment++) {
+                for (int slot = heads[segment]; slot != NIL; slot = next[slot]) {
+                    notifier.removal(keys[slot], values[slot], RemovalCause.CLEARED);
+                }
+            }
+        }
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        Arrays.fill(previous, NIL);
+        Arrays.fill(segments, NIL);
+        for (int i = 0; i < capacity; i++) {
+            next[i] = i + 1 < capacity? i + 1:NIL;
+        }
+        Arrays.fill(heads, NIL);
+        Arrays.fill(tails, NIL);
+        Arrays.fill(sizes, 0);
+        indexes.clear();
+        free = 0;
+        size = 0;
+    }
+
+    private int indexOf(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        Integer slot = indexes.get(key);
+        return slot == null? NIL:slot;
+    }
+
+    private int top() {
+        for (int segment : new int[] {WINDOW, PROTECTED, PROBATION}) {
+            if (heads[segment] != NIL) {
+                return heads[segment];
+            }
+        }
+        return NIL;
+    }
+
+    private int bottom() {
+        int victim = tails[PROBATION] != NIL? tails[PROBATION]:tails[PROTECTED];
+        int candidate = sizes[WINDOW] >= windowCapacity? tails[WINDOW]:NIL;
+        if (candidate == NIL) {
+            return victim != NIL? victim:tails[WINDOW];
+        }
+        if (victim == NIL) {
+            return candidate;
+        }
+        return sketch.frequency(keys[candidate]) > sketch.frequency(keys[victim])? victim:candidate;
+    }
+
+    private V get(int slot) {
+        switch (segments[slot]) {
+            case PROBATION -> {
+                unlink(slot);
+                link(PROTECTED, slot);
+                while (sizes[PROTECTED] > protectedCapacity) {
+                    int demoted = tails[PROTECTED];
+                    unlink(demoted);
+                    link(PROBATION, demoted);
+                }
+            }
+            default -> {
+                int segment = segments[slot];
+                unlink(slot);
+                link(segment, slot);
+            }
+        }
+        return values[slot];
+    }
+
+    private void remove(int slot, RemovalCause cause) {
+        if (notifier != null) {
+            notifier.removal(keys[slot], values[slot], cause);
+        }
+        unlink(slot);
+        indexes.remove(keys[slot]);
+        keys[slot] = null;
+        values[slot] = null;
+        next[slot] = free;
+        free = slot;
+        size--;
+    }
+
+    private void link(int segment, int slot) {
+        segments[slot] = segment;
+        previous[slot] = NIL;
+        next[slot] = heads[segment];
+        if (heads[segment] != NIL) {
+            previous[heads[segment]] = slot;
+        } else {
+            tails[segment] = slot;
+        }
+        heads[segment] = slot;
+        sizes[segment]++;
+    }
+
+    private void unlink(int slot) {
+        int segment = segments[slot];
+        if (previous[slot] != NIL) {
+            next[previous[slot]] = next[slot];
+        } else {
+            heads[segment] = next[slot];
+        }
+        if (next[slot] != NIL) {
+            previous[next[slot]] = previous[slot];
+        } else {
+            tails[segment] = previous[slot];
+        }
+        previous[slot] = NIL;
+        next[slot] = NIL;
+        segments[slot] = NIL;
+        sizes[segment]--;
+    }
+
+    private void sample(boolean hit) {
+        if (hit) {
+            sampleHits++;
+        } else {
+            sampleMisses++;
+        }
+        if (sampleHits + sampleMisses < sampleSize) {
+            return;
+        }
+        double hitRate = (double) sampleHits / (sampleHits + sampleMisses);
+        double delta = hitRate - previousHitRate;
+        double amount = delta >= 0? stepSize:-stepSize;
+        stepSize = Math.abs(delta) >= RESTART_THRESHOLD? Math.signum(amount) * STEP_RATIO * capacity:STEP_DECAY * amount;
+        previousHitRate = hitRate;
+        sampleHits = 0;
+        sampleMisses = 0;
+        windowTarget = Math.max(1.0, Math.min(capacity - 1.0, windowTarget + amount));
+        resize();
+    }
+
+    private void resize() {
+        windowCapacity = Math.max(1, Math.min(capacity, (int) Math.round(windowTarget)));
+        protectedCapacity = (int) (PROTECTED_RATIO * (capacity - windowCapacity));
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof WTinyLFUCache<?, ?> other)) {
+            return false;
+        }
+        if (size != other.size) {
+            return false;
+        }
+        if (capacity != other.capacity) {
+            return false;
+        }
+        Object[] currentKeys = keys();
+        Object[] currentValues = values();
+        Object[] otherKeys = other.keys();
+        Object[] otherValues = other.values();
+        for (int i = 0; i < size; i++) {
+            if (!currentKeys[i].equals(otherKeys[i])) {
+                return false;
+            }
+            if (!currentValues[i].equals(otherValues[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("[");
+        int i = 0;
+        for (int segment : new int[] {WINDOW, PROTECTED, PROBATION}) {
+            for (int slot = heads[segment]; slot != NIL; slot = next[slot]) {
+                builder.append(String.format("%s: %s (%s)", keys[slot], values[slot], segment == WINDOW? "window":segment == PROTECTED? "protected":"probation"));
+                if (++i < size) {
+                    builder.append(", ");
+                }
+            }
+        }
+        builder.append("]");
+        return String.format("%s%s", super.toString(), builder);
+    }
+
+}
@@ -2,13 +2,21 @@ package com.asterexcrisys.evicache.maps.order.fixed;
 
 import com.asterexcrisys.evicache.CacheRecorder;
 import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.entries.RemovalCacheEntry;
 import com.asterexcrisys.evicache.Cache;
 import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheNotifier;
 import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
 import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
 import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.RemovalCause;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 
 @SuppressWarnings({"unused", "Duplicates"})
 public class FIFOCache<K, V> implements Cache<K, V> {
@@ -19,9 +27,14 @@ public class FIFOCache<K, V> implements Cache<K, V> {
     private final K[] keys;
     private final V[] values;
     private final CacheRecorder recorder;
+    private final CacheNotifier<K, V> notifier;
 
-    @SuppressWarnings("unchecked")
     public FIFOCache(int capacity, boolean metricsEnabled) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public FIFOCache(int capacity, boolean metricsEnabled, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
         if (capacity < 1) {
             throw new IllegalCacheStateException("capacity cannot be zero or negative");
         }
@@ -31,6 +44,7 @@ public class FIFOCache<K, V> implements Cache<K, V> {
         keys = (K[]) new Object[this.capacity];
         values = (V[]) new Object[this.capacity];
         recorder = this.metricsEnabled? new CacheRecorder((Class<? extends Cache<?, ?>>) this.getClass()):null;
+        this.notifier = notifier;
         clear();
     }
 
@@ -104,7 +118,7 @@ public class FIFOCache<K, V> implements Cache<K, V> {
             return null;
         }
         V top = values[0];
-        remove(0);
+        remove(0, RemovalCause.EXPLICIT);
         return top;
     }
 
@@ -113,7 +127,7 @@ public class FIFOCache<K, V> implements Cache<K, V> {
             return null;
         }
         V bottom = values[size - 1];
-        remove(size - 1);
+        remove(size - 1, RemovalCause.EXPLICIT);
         return bottom;
     }
 
@@ -122,7 +136,7 @@ public class FIFOCache<K, V> implements Cache<K, V> {
             throw new CacheUnderflowException("cannot pop an empty cache");
         }
         V top = values[0];
-        remove(0);
+        remove(0, RemovalCause.EXPLICIT);
         return top;
     }
 
@@ -131,10 +145,29 @@ public class FIFOCache<K, V> implements Cache<K, V> {
             throw new CacheUnderflowException("cannot pop an empty cache");
         }
         V bottom = values[size - 1];
-        remove(size - 1);
+        remove(size - 1, RemovalCause.EXPLICIT);
         return bottom;
     }
 
+    public K victim() {
+        if (size == 0) {
+            return null;
+        }
+        return keys[size - 1];
+    }
+
+    public K evict() {
+        if (size == 0) {
+            return null;
+        }
+        K victim = keys[size - 1];
+        if (metricsEnabled) {
+            recorder.eviction();
+        }
+        remove(size - 1, RemovalCause.SIZE);
+        return victim;
+    }
+
     public V get(K key) throws InvalidCacheEntryException {
         if (key == null) {
             throw new InvalidCacheEntryException("key cannot be null");
@@ -169,6 +202,9 @@ public class FIFOCache<K, V> implements Cache<K, V> {
             if (metricsEnabled) {
                 recorder.hit();
             }
+            if (notifier != null && values[index] != value) {
+                notifier.removal(key, values[index], RemovalCause.REPLACED);
+            }
             values[index] = value;
         } else {
             if (size < capacity) {
@@ -177,6 +213,9 @@ public class FIFOCache<K, V> implements Cache<K, V> {
                 if (metricsEnabled) {
                     recorder.eviction();
                 }
+                if (notifier != null) {
+                    notifier.removal(keys[size - 1], values[size - 1], RemovalCause.SIZE);
+                }
             }
             for (int i = size - 2; i >= 0; i--) {
                 keys[i + 1] = keys[i];
@@ -204,7 +243,7 @@ public class FIFOCache<K, V> implements Cache<K, V> {
                 recorder.hit();
                 recorder.remove();
             }
-            remove(index);
+            remove(index, RemovalCause.EXPLICIT);
             return;
         }
         if (metricsEnabled) {
@@ -212,15 +251,169 @@ public class FIFOCache<K, V> implements Cache<K, V> {
         }
     }
 
+    public HashMap<K, V> getAll(Collection<? extends K> requests) throws InvalidCacheEntryException {
+        HashSet<K> requested = new HashSet<>();
+        for (K key : requests) {
+            if (key == null) {
+                throw new InvalidCacheEntryException("key cannot be null");
+            }
+            requested.add(key);
+        }
+        HashMap<K, V> found = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            if (requested.contains(keys[i])) {
+                found.put(keys[i], values[i]);
+            }
+        }
+        if (metricsEnabled) {
+            int hits = 0;
+            for (K key : requests) {
+                if (found.containsKey(key)) {
+                    hits++;
+                }
+            }
+            recorder.hit(hits);
+            recorder.miss(requests.size() - hits);
+        }
+        return found;
+    }
+
+    public void putAll(Collection<? extends CacheEntry<K, V>> entries) throws IllegalCacheStateException, InvalidCacheEntryException {
+        LinkedHashMap<K, V> latest = new LinkedHashMap<>();
+        HashMap<K, Integer> lasts = new HashMap<>();
+        HashMap<K, V> earliest = new HashMap<>();
+        List<RemovalCacheEntry<K, V>> replaced = new ArrayList<>();
+        int hits = 0;
+        for (CacheEntry<K, V> entry : entries) {
+            if (!(entry instanceof BasicCacheEntry<K, V> basicEntry)) {
+                throw new IllegalCacheStateException("entry must be of 'BasicCacheEntry' type");
+            }
+            if (basicEntry.key() == null) {
+                throw new InvalidCacheEntryException("key cannot be null");
+            }
+            lasts.put(basicEntry.key(), lasts.containsKey(basicEntry.key())? lasts.size() - 1:lasts.size());
+            earliest.putIfAbsent(basicEntry.key(), basicEntry.value());
+            if (latest.containsKey(basicEntry.key())) {
+                hits++;
+                V previous = latest.get(basicEntry.key());
+                if (previous != basicEntry.value()) {
+                    replaced.add(new RemovalCacheEntry<>(basicEntry.key(), previous, RemovalCause.REPLACED));
+                }
+            }
+            latest.put(basicEntry.key(), basicEntry.value());
+        }
+        if (size + latest.size() > capacity && !isSafe(lasts, hits > 0)) {
+            // An entry could be evicted before being put again, which only a sequence of additions can reproduce
+            for (CacheEntry<K, V> entry : entries) {
+                put(entry.key(), entry.value());
+            }
+            return;
+        }
+        if (notifier != null) {
+            for (RemovalCacheEntry<K, V> entry : replaced) {
+                notifier.removal(entry.key(), entry.value(), entry.cause());
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (latest.containsKey(keys[i])) {
+                V value = latest.remove(keys[i]);
+                hits++;
+                if (notifier != null && values[i] != earliest.get(keys[i])) {
+                    notifier.removal(keys[i], values[i], RemovalCause.REPLACED);
+                }
+                values[i] = value;
+            }
+        }
+        int total = size + latest.size();
+        int added = Math.min(latest.size(), capacity);
+        int kept = Math.min(size, capacity - added);
+        for (int i = kept; i < size; i++) {
+            if (notifier != null) {
+                notifier.removal(keys[i], values[i], RemovalCause.SIZE);
+            }
+        }
+        List<K> order = new ArrayList<>(latest.keySet());
+        for (int i = 0; i < order.size() - added; i++) {
+            if (notifier != null) {
+                notifier.removal(order.get(i), latest.get(order.get(i)), RemovalCause.SIZE);
+            }
+        }
+        for (int i = kept - 1; i >= 0; i--) {
+            keys[i + added] = keys[i];
+            values[i + added] = values[i];
+        }
+        for (int i = 0; i < added; i++) {
+            K key = order.get(order.size() - 1 - i);
+            keys[i] = key;
+            values[i] = latest.get(key);
+        }
+        Arrays.fill(keys, added + kept, Math.max(size, added + kept), null);
+        Arrays.fill(values, added + kept, Math.max(size, added + kept), null);
+        size = added + kept;
+        if (metricsEnabled) {
+            recorder.put(entries.size());
+            recorder.hit(hits);
+            recorder.eviction(total - size);
+        }
+    }
+
+    public void removeAll(Collection<? extends K> removals) throws InvalidCacheEntryException {
+        HashSet<K> removed = new HashSet<>();
+        for (K key : removals) {
+            if (key == null) {
+                throw new InvalidCacheEntryException("key cannot be null");
+            }
+            removed.add(key);
+        }
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (removed.contains(keys[i])) {
+                if (notifier != null) {
+                    notifier.removal(keys[i], values[i], RemovalCause.EXPLICIT);
+                }
+                count++;
+            } else if (count > 0) {
+                keys[i - count] = keys[i];
+                values[i - count] = values[i];
+            }
+        }
+        Arrays.fill(keys, size - count, size, null);
+        Arrays.fill(values, size - count, size, null);
+        size -= count;
+        if (metricsEnabled) {
+            recorder.hit(count);
+            recorder.remove(count);
+            recorder.miss(removals.size() - count);
+        }
+    }
+
     public void clear() {
         if (metricsEnabled) {
             recorder.clear();
         }
+        if (notifier != null) {
+            for (int i = 0; i < size; i++) {
+                notifier.removal(keys[i], values[i], RemovalCause.CLEARED);
+            }
+        }
         Arrays.fill(keys, null);
         Arrays.fill(values, null);
         size = 0;
     }
 
+    private boolean isSafe(HashMap<K, Integer> lasts, boolean hasDuplicates) {
+        if (hasDuplicates && lasts.size() > capacity) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            Integer last = lasts.get(keys[i]);
+            if (last != null && i + last >= capacity) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private int indexOf(K key) throws InvalidCacheEntryException {
         if (key == null) {
             throw new InvalidCacheEntryException("key cannot be null");
@@ -240,10 +433,13 @@ public class FIFOCache<K, V> implements Cache<K, V> {
         return values[index];
     }
 
-    private void remove(int index) throws IndexOutOfBoundsException {
+    private void remove(int index, RemovalCause cause) throws IndexOutOfBoundsException {
         if (index < 0 || index > size - 1) {
             throw new IndexOutOfBoundsException("index out of bounds");
         }
+        if (notifier != null) {
+            notifier.removal(keys[index], values[index], cause);
+        }
         if (size > 0) {
             size--;
         }
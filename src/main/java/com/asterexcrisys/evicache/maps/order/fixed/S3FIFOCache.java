@@ -0,0 +1,699 @@
+package com.asterexcrisys.evicache.maps.order.fixed;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheNotifier;
+import com.asterexcrisys.evicache.CacheRecorder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
+import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
+import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.RemovalCause;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A cache that implements the S3-FIFO policy: new entries are inserted into a small FIFO queue (10% of the
+ * capacity), and only those that are accessed more than once before reaching its end are promoted into the main
+ * FIFO queue, while the others are evicted and remembered by key in a ghost queue. Entries whose key is found in the
+ * ghost queue are inserted directly into the main queue, where entries are reinserted (lazy promotion) as long
+ * as their access counter is not zero. A hit only increments a small saturating counter, without moving entries.
+ * <p>
+ * All three queues are ring buffers of slot positions, whose ends are kept on live entries (removed entries are
+ * skipped once they reach either end), and entries are indexed by key, making every operation O(1) amortized.
+ * The top of the cache is the most recently inserted entry, while the bottom is the entry that would be evicted
+ * next: peeking it replays the promotions and reinsertions of the next eviction on copies of the queue ends and
+ * counters, leaving the cache untouched (at the cost of that replay on every peek), while popping it applies them.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+@SuppressWarnings({"unused", "Duplicates"})
+public class S3FIFOCache<K, V> implements Cache<K, V> {
+
+    private static final int NIL = -1;
+    private static final int NONE = 0;
+    private static final int SMALL = 1;
+    private static final int MAIN = 2;
+    private static final int MAXIMUM_FREQUENCY = 3;
+    private static final double SMALL_RATIO = 0.1;
+
+    private int size;
+    private int smallSize;
+    private int mainSize;
+    private int freeSize;
+    private final int capacity;
+    private final int smallCapacity;
+    private final int ghostCapacity;
+    private final boolean metricsEnabled;
+    private final K[] keys;
+    private final V[] values;
+    private final int[] frequencies;
+    private final int[] queues;
+    private final long[] positions;
+    private final int[] freeSlots;
+    private final SlotRing small;
+    private final SlotRing main;
+    private final K[] ghostKeys;
+    private long ghostHead;
+    private long ghostTail;
+    private final HashMap<K, Integer> indexes;
+    private final HashMap<K, Long> ghosts;
+    private final CacheRecorder recorder;
+    private final CacheNotifier<K, V> notifier;
+
+    public S3FIFOCache(int capacity, boolean metricsEnabled) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public S3FIFOCache(int capacity, boolean metricsEnabled, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
+        if (capacity < 1) {
+            throw new IllegalCacheStateException("capacity cannot be zero or negative");
+        }
+        size = 0;
+        this.capacity = capacity;
+        smallCapacity = Math.max(1, (int) (this.capacity * SMALL_RATIO));
+        ghostCapacity = Math.max(1, this.capacity - smallCapacity);
+        this.metricsEnabled = metricsEnabled;
+        keys = (K[]) new Object[this.capacity];
+        values = (V[]) new Object[this.capacity];
+        frequencies = new int[this.capacity];
+        queues = new int[this.capacity];
+        positions = new long[this.capacity];
+        freeSlots = new int[this.capacity];
+        small = new SlotRing(2 * this.capacity);
+        main = new SlotRing(2 * this.capacity);
+        ghostKeys = (K[]) new Object[ghostCapacity];
+        indexes = new HashMap<>();
+        ghosts = new HashMap<>();
+        recorder = this.metricsEnabled? new CacheRecorder((Class<? extends Cache<?, ?>>) this.getClass()):null;
+        this.notifier = notifier;
+        clear();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean metricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public int smallCapacity() {
+        return smallCapacity;
+    }
+
+    public int ghostCapacity() {
+        return ghostCapacity;
+    }
+
+    @SuppressWarnings("unchecked")
+    public K[] keys() {
+        K[] result = (K[]) new Object[size];
+        int i = 0;
+        for (int slot : slots()) {
+            result[i++] = keys[slot];
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V[] values() {
+        V[] result = (V[]) new Object[size];
+        int i = 0;
+        for (int slot : slots()) {
+            result[i++] = values[slot];
+        }
+        return result;
+    }
+
+    public Integer[] frequencies() {
+        Integer[] result = new Integer[size];
+        int i = 0;
+        for (int slot : slots()) {
+            result[i++] = frequencies[slot];
+        }
+        return result;
+    }
+
+    public HashMap<String, Integer> metrics() throws IllegalCacheStateException {
+        if (!metricsEnabled) {
+            throw new IllegalCacheStateException("metrics are not enabled and therefore were not registered");
+        }
+        recorder.size(size);
+        recorder.capacity(capacity);
+        return recorder.metrics();
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean has(K key) {
+        return indexOf(key) != NIL;
+    }
+
+    public V peekTop() {
+        int slot = top();
+        if (slot == NIL) {
+            return null;
+        }
+        return values[slot];
+    }
+
+    public V peekBottom() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        return values[slot];
+    }
+
+    public V elementTop() throws CacheUnderflowException {
+        int slot = top();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot peek an empty cache");
+        }
+        return values[slot];
+    }
+
+    public V elementBottom() throws CacheUnderflowException {
+        int slot = bottom();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot peek an empty cache");
+        }
+        return values[slot];
+    }
+
+    public V popTop() {
+        int slot = top();
+        if (slot == NIL) {
+            return null;
+        }
+        V top = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return top;
+    }
+
+    public V popBottom() {
+        if (size == 0) {
+            return null;
+        }
+        int slot = settle();
+        V bottom = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return bottom;
+    }
+
+    public V pollTop() throws CacheUnderflowException {
+        int slot = top();
+        if (slot == NIL) {
+            throw new CacheUnderflowException("cannot pop an empty cache");
+        }
+        V top = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return top;
+    }
+
+    public V pollBottom() throws CacheUnderflowException {
+        if (size == 0) {
+            throw new CacheUnderflowException("cannot pop an empty cache");
+        }
+        int slot = settle();
+        V bottom = values[slot];
+        remove(slot, RemovalCause.EXPLICIT);
+        return bottom;
+    }
+
+    public K victim() {
+        int slot = bottom();
+        if (slot == NIL) {
+            return null;
+        }
+        return keys[slot];
+    }
+
+    public K evict() {
+        if (size == 0) {
+            return null;
+        }
+        if (metricsEnabled) {
+            recorder.eviction();
+        }
+        return reclaim();
+    }
+
+    public V get(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        int slot = indexOf(key);
+        if (slot != NIL) {
+            if (metricsEnabled) {
+                recorder.hit();
+            }
+            return get(slot);
+        }
+        if (metricsEnabled) {
+            recorder.miss();
+        }
+        return null;
+    }
+
+    public V get(K key, V defaultValue) throws InvalidCacheEntryException {
+        V value = get(key);
+        return value == null? defaultValue:value;
+    }
+
+    public void put(K key, V value) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        if (metricsEnabled) {
+            recorder.put();
+        }
+        int slot = indexOf(key);
+        if (slot != NIL) {
+            if (metricsEnabled) {
+                recorder.hit();
+            }
+            if (notifier != null && values[slot] != value) {
+                notifier.removal(key, values[slot], RemovalCause.REPLACED);
+            }
+            values[slot] = value;
+            get(slot);
+            return;
+        }
+        if (size == capacity) {
+            if (metricsEnabled) {
+                recorder.eviction();
+            }
+            reclaim();
+        }
+        slot = freeSlots[--freeSize];
+        keys[slot] = key;
+        values[slot] = value;
+        frequencies[slot] = 0;
+        indexes.put(key, slot);
+        size++;
+        if (ghosts.remove(key) != null) {
+            enqueue(MAIN, slot);
+        } else {
+            enqueue(SMALL, slot);
+        }
+    }
+
+    public void put(CacheEntry<K, V> entry) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (!(entry instanceof BasicCacheEntry<K, V> basicEntry)) {
+            throw new IllegalCacheStateException("entry must be of 'BasicCacheEntry' type");
+        }
+        put(basicEntry.key(), basicEntry.value());
+    }
+
+    public long[][] entryMetadata() {
+        int[] slots = slots();
+        long[][] metadata = new long[slots.length][];
+        for (int i = 0; i < slots.length; i++) {
+            metadata[i] = new long[] {queues[slots[i]], frequencies[slots[i]]};
+        }
+        return metadata;
+    }
+
+    public void restoreEntry(K key, V value, long[] metadata) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (metadata == null) {
+            put(key, value);
+            return;
+        }
+        if (metadata.length != 2 || (metadata[0] != SMALL && metadata[0] != MAIN) || metadata[1] < 0 || metadata[1] > MAXIMUM_FREQUENCY) {
+            throw new IllegalCacheStateException("metadata must contain a queue and a frequency");
+        }
+        put(key, value);
+        int slot = indexOf(key);
+        unqueue(slot);
+        enqueue((int) metadata[0], slot);
+        frequencies[slot] = (int) metadata[1];
+    }
+
+    public void remove(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        int slot = indexOf(key);
+        if (slot != NIL) {
+            if (metricsEnabled) {
+                recorder.hit();
+                recorder.remove();
+            }
+            remove(slot, RemovalCause.EXPLICIT);
+            return;
+        }
+        if (metricsEnabled) {
+            recorder.miss();
+        }
+    }
+
+    public void clear() {
+        if (metricsEnabled) {
+            recorder.clear();
+        }
+        if (notifier != null) {
+            for (int slot : slots()) {
+                notifier.removal(keys[slot], values[slot], RemovalCause.CLEARED);
+            }
+        }
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        Arrays.fill(frequencies, 0);
+        Arrays.fill(queues, NONE);
+        Arrays.fill(positions, NIL);
+        Arrays.fill(ghostKeys, null);
+        for (int i = 0; i < capacity; i++) {
+            freeSlots[i] = capacity - 1 - i;
+        }
+        small.clear();
+        main.clear();
+        ghostHead = 0;
+        ghostTail = 0;
+        indexes.clear();
+        ghosts.clear();
+        freeSize = capacity;
+        smallSize = 0;
+        mainSize = 0;
+        size = 0;
+    }
+
+    private int indexOf(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        Integer slot = indexes.get(key);
+        return slot == null? NIL:slot;
+    }
+
+    private V get(int slot) {
+        if (frequencies[slot] < MAXIMUM_FREQUENCY) {
+            frequencies[slot]++;
+        }
+        return values[slot];
+    }
+
+    private K reclaim() {
+        int slot = settle();
+        K victim = keys[slot];
+        if (queues[slot] == SMALL) {
+            remember(victim);
+        }
+        remove(slot, RemovalCause.SIZE);
+        return victim;
+    }
+
+    private int settle() {
+        while (true) {
+            if (smallSize >= smallCapacity || mainSize == 0) {
+                int slot = small.first();
+                if (frequencies[slot] > 1) {
+                    dequeue(SMALL);
+                    frequencies[slot] = 0;
+                    enqueue(MAIN, slot);
+                    continue;
+                }
+                return slot;
+            }
+            int slot = main.first();
+            if (frequencies[slot] > 0) {
+                dequeue(MAIN);
+                frequencies[slot]--;
+                enqueue(MAIN, slot);
+                continue;
+            }
+            return slot;
+        }
+    }
+
+    private void remember(K key) {
+        if (ghostTail - ghostHead == ghostCapacity) {
+            K oldest = ghostKeys[(int) (ghostHead % ghostCapacity)];
+            Long position = ghosts.get(oldest);
+            if (position != null && position == ghostHead) {
+                ghosts.remove(oldest);
+            }
+            ghostKeys[(int) (ghostHead % ghostCapacity)] = null;
+            ghostHead++;
+        }
+        ghostKeys[(int) (ghostTail % ghostCapacity)] = key;
+        ghosts.put(key, ghostTail);
+        ghostTail++;
+    }
+
+    private void remove(int slot, RemovalCause cause) {
+        if (notifier != null) {
+            notifier.removal(keys[slot], values[slot], cause);
+        }
+        unqueue(slot);
+        indexes.remove(keys[slot]);
+        keys[slot] = null;
+        values[slot] = null;
+        frequencies[slot] = 0;
+        freeSlots[freeSize++] = slot;
+        size--;
+    }
+
+    private void unqueue(int slot) {
+        int queue = queues[slot];
+        if (queue == SMALL) {
+            smallSize--;
+        } else if (queue == MAIN) {
+            mainSize--;
+        }
+        queues[slot] = NONE;
+        positions[slot] = NIL;
+        if (queue != NONE) {
+            (queue == SMALL? small:main).trim(queue);
+        }
+    }
+
+    private void enqueue(int queue, int slot) {
+        SlotRing ring = queue == SMALL? small:main;
+        if (ring.isFull()) {
+            ring.compact(queue);
+        }
+        queues[slot] = queue;
+        positions[slot] = ring.push(slot);
+        if (queue == SMALL) {
+            smallSize++;
+        } else {
+            mainSize++;
+        }
+    }
+
+    private int dequeue(int queue) {
+        SlotRing ring = queue == SMALL? small:main;
+        int slot = ring.pop();
+        queues[slot] = NONE;
+        positions[slot] = NIL;
+        if (queue == SMALL) {
+            smallSize--;
+        } else {
+            mainSize--;
+        }
+        ring.trim(queue);
+        return slot;
+    }
+
+    private boolean isLive(int queue, int slot, long position) {
+        return queues[slot] == queue && positions[slot] == position;
+    }
+
+    private int top() {
+        int slot = small.last();
+        return slot != NIL? slot:main.last();
+    }
+
+    private int bottom() {
+        if (size == 0) {
+            return NIL;
+        }
+        // Entries leaving either queue are replayed onto the end of the main queue along with their counters
+        int[] moved = new int[16];
+        int[] counters = new int[16];
+        int movedSize = 0;
+        int movedHead = 0;
+        long smallHead = small.head;
+        long mainHead = main.head;
+        int smallLeft = smallSize;
+        int mainLeft = mainSize;
+        while (true) {
+            if (smallLeft >= smallCapacity || mainLeft == 0) {
+                while (!isLive(SMALL, small.get(smallHead), smallHead)) {
+                    smallHead++;
+                }
+                int slot = small.get(smallHead);
+                if (frequencies[slot] <= 1) {
+                    return slot;
+                }
+                smallHead++;
+                smallLeft--;
+                mainLeft++;
+                if (movedSize == moved.length) {
+                    moved = Arrays.copyOf(moved, 2 * movedSize);
+                    counters = Arrays.copyOf(counters, 2 * movedSize);
+                }
+                moved[movedSize] = slot;
+                counters[movedSize++] = 0;
+                continue;
+            }
+            while (mainHead < main.tail && !isLive(MAIN, main.get(mainHead), mainHead)) {
+                mainHead++;
+            }
+            int slot;
+            int frequency;
+            if (mainHead < main.tail) {
+                slot = main.get(mainHead++);
+                frequency = frequencies[slot];
+            } else {
+                slot = moved[movedHead];
+                frequency = counters[movedHead++];
+            }
+            if (frequency == 0) {
+                return slot;
+            }
+            if (movedSize == moved.length) {
+                moved = Arrays.copyOf(moved, 2 * movedSize);
+                counters = Arrays.copyOf(counters, 2 * movedSize);
+            }
+            moved[movedSize] = slot;
+            counters[movedSize++] = frequency - 1;
+        }
+    }
+
+    private int[] slots() {
+        int[] result = new int[size];
+        int i = 0;
+        for (int queue : new int[] {SMALL, MAIN}) {
+            SlotRing ring = queue == SMALL? small:main;
+            for (long position = ring.tail - 1; position >= ring.head; position--) {
+                int slot = ring.get(position);
+                if (isLive(queue, slot, position)) {
+                    result[i++] = slot;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof S3FIFOCache<?, ?> other)) {
+            return false;
+        }
+        if (size != other.size) {
+            return false;
+        }
+        if (capacity != other.capacity) {
+            return false;
+        }
+        Object[] currentKeys = keys();
+        Object[] currentValues = values();
+        Object[] otherKeys = other.keys();
+        Object[] otherValues = other.values();
+        for (int i = 0; i < size; i++) {
+            if (!currentKeys[i].equals(otherKeys[i])) {
+                return false;
+            }
+            if (!currentValues[i].equals(otherValues[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("[");
+        int[] slots = slots();
+        for (int i = 0; i < slots.length; i++) {
+            int slot = slots[i];
+            builder.append(String.format("%s: %s (%s, %s)", keys[slot], values[slot], queues[slot] == SMALL? "small":"main", frequencies[slot]));
+            if (i < slots.length - 1) {
+                builder.append(", ");
+            }
+        }
+        builder.append("]");
+        return String.format("%s%s", super.toString(), builder);
+    }
+
+    private final class SlotRing {
+
+        private long head;
+        private long tail;
+        private final int[] buffer;
+
+        private SlotRing(int length) {
+            head = 0;
+            tail = 0;
+            buffer = new int[length];
+        }
+
+        private boolean isFull() {
+            return tail - head == buffer.length;
+        }
+
+        private int get(long position) {
+            return buffer[(int) (position % buffer.length)];
+        }
+
+        private long push(int slot) {
+            buffer[(int) (tail % buffer.length)] = slot;
+            return tail++;
+        }
+
+        private int first() {
+            return head < tail? get(head):NIL;
+        }
+
+        private int last() {
+            return head < tail? get(tail - 1):NIL;
+        }
+
+        private int pop() {
+            return buffer[(int) (head++ % buffer.length)];
+        }
+
+        private void trim(int queue) {
+            while (head < tail && !isLive(queue, get(head), head)) {
+                head++;
+            }
+            while (tail > head && !isLive(queue, get(tail - 1), tail - 1)) {
+                tail--;
+            }
+        }
+
+        private void compact(int queue) {
+            int[] live = new int[buffer.length];
+            int count = 0;
+            for (long position = head; position < tail; position++) {
+                int slot = get(position);
+                if (isLive(queue, slot, position)) {
+                    live[count++] = slot;
+                }
+            }
+            head = tail;
+            for (int i = 0; i < count; i++) {
+                positions[live[i]] = push(live[i]);
+            }
+        }
+
+        private void clear() {
+            head = 0;
+            tail = 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,638 @@
+package com.asterexcrisys.evicache.maps.order.fixed;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheNotifier;
+import com.asterexcrisys.evicache.CacheRecorder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
+import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
+import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.RemovalCause;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A cache that implements the SIEVE policy: new entries are inserted at the head of a FIFO queue, and hits only
+ * set a visited flag, without moving anything. When the cache is full, a hand moves from the tail towards the
+ * head, clearing the visited flags it finds set, and evicts the first entry whose flag is clear; the hand keeps
+ * its position between evictions, so entries that survive it stay in place instead of being reinserted.
+ * <p>
+ * Entries are stored in slots that are indexed by key and linked into the queue, making every operation O(1)
+ * amortized. In concurrent mode, slots are atomic arrays and the index a concurrent map, so that {@link #get(Object)}
+ * and {@link #has(Object)} are lock-free and can be called concurrently with each other and with writes, while every
+ * other operation takes the lock of the hand; otherwise, slots are plain arrays, the index a hash map, and no lock is
+ * ever taken.
+ * The top of the cache is the most recently added entry, while the bottom is the entry that would be evicted next.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+@SuppressWarnings({"unused", "Duplicates"})
+public class SieveCache<K, V> implements Cache<K, V> {
+
+    private static final int NIL = -1;
+
+    private volatile int size;
+    private int free;
+    private int head;
+    private int tail;
+    private int hand;
+    private final int capacity;
+    private final boolean metricsEnabled;
+    private final boolean concurrent;
+    private final K[] keys;
+    private final V[] values;
+    private final int[] visits;
+    private final AtomicReferenceArray<K> sharedKeys;
+    private final AtomicReferenceArray<V> sharedValues;
+    private final AtomicIntegerArray sharedVisits;
+    private final int[] previous;
+    private final int[] next;
+    private final Map<K, Integer> indexes;
+    private final ReentrantLock lock;
+    private final CacheRecorder recorder;
+    private final CacheNotifier<K, V> notifier;
+
+    public SieveCache(int capacity, boolean metricsEnabled) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, false, null);
+    }
+
+    public SieveCache(int capacity, boolean metricsEnabled, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, false, notifier);
+    }
+
+    @SuppressWarnings("unchecked")
+    public SieveCache(int capacity, boolean metricsEnabled, boolean concurrent, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
+        if (capacity < 1) {
+            throw new IllegalCacheStateException("capacity cannot be zero or negative");
+        }
+        size = 0;
+        this.capacity = capacity;
+        this.metricsEnabled = metricsEnabled;
+        this.concurrent = concurrent;
+        keys = this.concurrent? null:(K[]) new Object[this.capacity];
+        values = this.concurrent? null:(V[]) new Object[this.capacity];
+        visits = this.concurrent? null:new int[this.capacity];
+        sharedKeys = this.concurrent? new AtomicReferenceArray<>(this.capacity):null;
+        sharedValues = this.concurrent? new AtomicReferenceArray<>(this.capacity):null;
+        sharedVisits = this.concurrent? new AtomicIntegerArray(this.capacity):null;
+        previous = new int[this.capacity];
+        next = new int[this.capacity];
+        indexes = this.concurrent? new ConcurrentHashMap<>():new HashMap<>();
+        lock = new ReentrantLock();
+        recorder = this.metricsEnabled? new CacheRecorder((Class<? extends Cache<?, ?>>) this.getClass()):null;
+        this.notifier = notifier;
+        clear();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean metricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public boolean concurrent() {
+        return concurrent;
+    }
+
+    @SuppressWarnings("unchecked")
+    public K[] keys() {
+        lock();
+        try {
+            K[] result = (K[]) new Object[size];
+            int i = 0;
+            for (int slot : slots()) {
+                result[i++] = keyAt(slot);
+            }
+            return result;
+        } finally {
+            unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V[] values() {
+        lock();
+        try {
+            V[] result = (V[]) new Object[size];
+            int i = 0;
+            for (int slot : slots()) {
+                result[i++] = valueAt(slot);
+            }
+            return result;
+        } finally {
+            unlock();
+        }
+    }
+
+    public HashMap<String, Integer> metrics() throws IllegalCacheStateException {
+        if (!metricsEnabled) {
+            throw new IllegalCacheStateException("metrics are not enabled and therefore were not registered");
+        }
+        recorder.size(size);
+        recorder.capacity(capacity);
+        return recorder.metrics();
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean has(K key) {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        return indexes.containsKey(key);
+    }
+
+    public V peekTop() {
+        lock();
+        try {
+            int slot = top();
+            if (slot == NIL) {
+                return null;
+            }
+            return valueAt(slot);
+        } finally {
+            unlock();
+        }
+    }
+
+    public V peekBottom() {
+        lock();
+        try {
+            int slot = bottom();
+            if (slot == NIL) {
+                return null;
+            }
+            return valueAt(slot);
+        } finally {
+            unlock();
+        }
+    }
+
+    public V elementTop() throws CacheUnderflowException {
+        lock();
+        try {
+            int slot = top();
+            if (slot == NIL) {
+                throw new CacheUnderflowException("cannot peek an empty cache");
+            }
+            return valueAt(slot);
+        } finally {
+            unlock();
+        }
+    }
+
+    public V elementBottom() throws CacheUnderflowException {
+        lock();
+        try {
+            int slot = bottom();
+            if (slot == NIL) {
+                throw new CacheUnderflowException("cannot peek an empty cache");
+            }
+            return valueAt(slot);
+        } finally {
+            unlock();
+        }
+    }
+
+    public V popTop() {
+        lock();
+        try {
+            int slot = top();
+            if (slot == NIL) {
+                return null;
+            }
+            V top = valueAt(slot);
+            remove(slot, RemovalCause.EXPLICIT);
+            return top;
+        } finally {
+            unlock();
+        }
+    }
+
+    public V popBottom() {
+        lock();
+        try {
+            int slot = bottom();
+            if (slot == NIL) {
+                return null;
+            }
+            V bottom = valueAt(slot);
+            remove(slot, RemovalCause.EXPLICIT);
+            return bottom;
+        } finally {
+            unlock();
+        }
+    }
+
+    public V pollTop() throws CacheUnderflowException {
+        lock();
+        try {
+            int slot = top();
+            if (slot == NIL) {
+                throw new CacheUnderflowException("cannot pop an empty cache");
+            }
+            V top = valueAt(slot);
+            remove(slot, RemovalCause.EXPLICIT);
+            return top;
+        } finally {
+            unlock();
+        }
+    }
+
+    public V pollBottom() throws CacheUnderflowException {
+        lock();
+        try {
+            int slot = bottom();
+            if (slot == NIL) {
+                throw new CacheUnderflowException("cannot pop an empty cache");
+            }
+            V bottom = valueAt(slot);
+            remove(slot, RemovalCause.EXPLICIT);
+            return bottom;
+        } finally {
+            unlock();
+        }
+    }
+
+    public K victim() {
+        lock();
+        try {
+            int slot = bottom();
+            if (slot == NIL) {
+                return null;
+            }
+            return keyAt(slot);
+        } finally {
+            unlock();
+        }
+    }
+
+    public K evict() {
+        lock();
+        try {
+            if (size == 0) {
+                return null;
+            }
+            int slot = sweep();
+            K victim = keyAt(slot);
+            if (metricsEnabled) {
+                recorder.eviction();
+            }
+            remove(slot, RemovalCause.SIZE);
+            return victim;
+        } finally {
+            unlock();
+        }
+    }
+
+    public V get(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        Integer slot = indexes.get(key);
+        if (slot != null) {
+            V value = valueAt(slot);
+            if (value != null && key.equals(keyAt(slot))) {
+                if (metricsEnabled) {
+                    recorder.hit();
+                }
+                setVisit(slot, 1);
+                return value;
+            }
+        }
+        if (metricsEnabled) {
+            recorder.miss();
+        }
+        return null;
+    }
+
+    public V get(K key, V defaultValue) throws InvalidCacheEntryException {
+        V value = get(key);
+        return value == null? defaultValue:value;
+    }
+
+    public void put(K key, V value) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        lock();
+        try {
+            if (metricsEnabled) {
+                recorder.put();
+            }
+            Integer index = indexes.get(key);
+            if (index != null) {
+                if (metricsEnabled) {
+                    recorder.hit();
+                }
+                if (notifier != null && valueAt(index) != value) {
+                    notifier.removal(key, valueAt(index), RemovalCause.REPLACED);
+                }
+                setValue(index, value);
+                setVisit(index, 1);
+                return;
+            }
+            if (size == capacity) {
+                if (metricsEnabled) {
+                    recorder.eviction();
+                }
+                remove(sweep(), RemovalCause.SIZE);
+            }
+            int slot = free;
+            free = next[slot];
+            setKey(slot, key);
+            setValue(slot, value);
+            setVisit(slot, 0);
+            link(slot);
+            indexes.put(key, slot);
+            size++;
+        } finally {
+            unlock();
+        }
+    }
+
+    public void put(CacheEntry<K, V> entry) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (!(entry instanceof BasicCacheEntry<K, V> basicEntry)) {
+            throw new IllegalCacheStateException("entry must be of 'BasicCacheEntry' type");
+        }
+        put(basicEntry.key(), basicEntry.value());
+    }
+
+    public long[][] entryMetadata() {
+        lock();
+        try {
+            int[] slots = slots();
+            long[][] metadata = new long[slots.length][];
+            for (int i = 0; i < slots.length; i++) {
+                metadata[i] = new long[] {visitAt(slots[i]), slots[i] == hand? 1:0};
+            }
+            return metadata;
+        } finally {
+            unlock();
+        }
+    }
+
+    public void restoreEntry(K key, V value, long[] metadata) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (metadata == null) {
+            put(key, value);
+            return;
+        }
+        if (metadata.length != 2 || metadata[0] < 0 || metadata[0] > 1 || metadata[1] < 0 || metadata[1] > 1) {
+            throw new IllegalCacheStateException("metadata must contain a visited flag and whether the hand is on the entry");
+        }
+        lock();
+        try {
+            put(key, value);
+            int slot = indexes.get(key);
+            setVisit(slot, (int) metadata[0]);
+            if (metadata[1] == 1) {
+                hand = slot;
+            }
+        } finally {
+            unlock();
+        }
+    }
+
+    public void remove(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        lock();
+        try {
+            Integer slot = indexes.get(key);
+            if (slot != null) {
+                if (metricsEnabled) {
+                    recorder.hit();
+                    recorder.remove();
+                }
+                remove(slot, RemovalCause.EXPLICIT);
+                return;
+            }
+            if (metricsEnabled) {
+                recorder.miss();
+            }
+        } finally {
+            unlock();
+        }
+    }
+
+    public void clear() {
+        lock();
+        try {
+            if (metricsEnabled) {
+                recorder.clear();
+            }
+            if (notifier != null) {
+                for (int slot = head; slot != NIL; slot = next[slot]) {
+                    notifier.removal(keyAt(slot), valueAt(slot), RemovalCause.CLEARED);
+                }
+            }
+            for (int i = 0; i < capacity; i++) {
+                setKey(i, null);
+                setValue(i, null);
+                setVisit(i, 0);
+                previous[i] = NIL;
+                next[i] = i + 1 < capacity? i + 1:NIL;
+            }
+            indexes.clear();
+            free = 0;
+            head = NIL;
+            tail = NIL;
+            hand = NIL;
+            size = 0;
+        } finally {
+            unlock();
+        }
+    }
+
+    private void lock() {
+        if (concurrent) {
+            lock.lock();
+        }
+    }
+
+    private void unlock() {
+        if (concurrent) {
+            lock.unlock();
+        }
+    }
+
+    private K keyAt(int slot) {
+        return concurrent? sharedKeys.get(slot):keys[slot];
+    }
+
+    private V valueAt(int slot) {
+        return concurrent? sharedValues.get(slot):values[slot];
+    }
+
+    private int visitAt(int slot) {
+        return concurrent? sharedVisits.get(slot):visits[slot];
+    }
+
+    private void setKey(int slot, K key) {
+        if (concurrent) {
+            sharedKeys.set(slot, key);
+        } else {
+            keys[slot] = key;
+        }
+    }
+
+    private void setValue(int slot, V value) {
+        if (concurrent) {
+            sharedValues.set(slot, value);
+        } else {
+            values[slot] = value;
+        }
+    }
+
+    private void setVisit(int slot, int visit) {
+        if (concurrent) {
+            sharedVisits.set(slot, visit);
+        } else {
+            visits[slot] = visit;
+        }
+    }
+
+    private int top() {
+        return head;
+    }
+
+    private int bottom() {
+        if (size == 0) {
+            return NIL;
+        }
+        int start = hand != NIL? hand:tail;
+        int slot = start;
+        do {
+            if (visitAt(slot) == 0) {
+                return slot;
+            }
+            slot = previous[slot] != NIL? previous[slot]:tail;
+        } while (slot != start);
+        return start;
+    }
+
+    private int sweep() {
+        int slot = hand != NIL? hand:tail;
+        while (visitAt(slot) == 1) {
+            setVisit(slot, 0);
+            slot = previous[slot] != NIL? previous[slot]:tail;
+        }
+        hand = slot;
+        return slot;
+    }
+
+    private void remove(int slot, RemovalCause cause) {
+        K key = keyAt(slot);
+        if (notifier != null) {
+            notifier.removal(key, valueAt(slot), cause);
+        }
+        if (hand == slot) {
+            hand = previous[slot];
+        }
+        unlink(slot);
+        indexes.remove(key);
+        setKey(slot, null);
+        setValue(slot, null);
+        setVisit(slot, 0);
+        next[slot] = free;
+        free = slot;
+        size--;
+    }
+
+    private void link(int slot) {
+        previous[slot] = NIL;
+        next[slot] = head;
+        if (head != NIL) {
+            previous[head] = slot;
+        } else {
+            tail = slot;
+        }
+        head = slot;
+    }
+
+    private void unlink(int slot) {
+        if (previous[slot] != NIL) {
+            next[previous[slot]] = next[slot];
+        } else {
+            head = next[slot];
+        }
+        if (next[slot] != NIL) {
+            previous[next[slot]] = previous[slot];
+        } else {
+            tail = previous[slot];
+        }
+        previous[slot] = NIL;
+        next[slot] = NIL;
+    }
+
+    private int[] slots() {
+        int[] result = new int[size];
+        int i = 0;
+        for (int slot = head; slot != NIL; slot = next[slot]) {
+            result[i++] = slot;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof SieveCache<?, ?> other)) {
+            return false;
+        }
+        if (size != other.size) {
+            return false;
+        }
+        if (capacity != other.capacity) {
+            return false;
+        }
+        Object[] currentKeys = keys();
+        Object[] currentValues = values();
+        Object[] otherKeys = other.keys();
+        Object[] otherValues = other.values();
+        for (int i = 0; i < size; i++) {
+            if (!currentKeys[i].equals(otherKeys[i])) {
+                return false;
+            }
+            if (!currentValues[i].equals(otherValues[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        lock();
+        try {
+            StringBuilder builder = new StringBuilder();
+            builder.append("[");
+            int[] slots = slots();
+            for (int i = 0; i < slots.length; i++) {
+                builder.append(String.format("%s: %s (%s)", keyAt(slots[i]), valueAt(slots[i]), visitAt(slots[i]) == 1? "visited":"unvisited"));
+                if (i < slots.length - 1) {
+                    builder.append(", ");
+                }
+            }
+            builder.append("]");
+            return String.format("%s%s", super.toString(), builder);
+        } finally {
+            unlock();
+        }
+    }
+
+}
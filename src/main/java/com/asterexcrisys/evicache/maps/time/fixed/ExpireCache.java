@@ -2,12 +2,14 @@ package com.asterexcrisys.evicache.maps.time.fixed;
 
 import com.asterexcrisys.evicache.Cache;
 import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheNotifier;
 import com.asterexcrisys.evicache.CacheRecorder;
 import com.asterexcrisys.evicache.entries.ExpireCacheEntry;
 import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
 import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
 import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
 import com.asterexcrisys.evicache.models.ExpireMode;
+import com.asterexcrisys.evicache.models.RemovalCause;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -16,31 +18,54 @@ import java.util.concurrent.TimeUnit;
 @SuppressWarnings({"unused", "Duplicates"})
 public class ExpireCache<K, V> implements Cache<K, V> {
 
+    public static final long DEFAULT_TIME = 10L;
+    public static final TimeUnit DEFAULT_UNIT = TimeUnit.MINUTES;
+
     private int size;
     private final int capacity;
     private final boolean metricsEnabled;
+    private final long grace;
     private final ExpireMode mode;
     private final K[] keys;
     private final V[] values;
     private final Long[] timestamps;
+    private final Long[] durations;
     private final CacheRecorder recorder;
+    private final CacheNotifier<K, V> notifier;
 
-    @SuppressWarnings("unchecked")
     public ExpireCache(int capacity, boolean metricsEnabled, ExpireMode mode) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, mode, null);
+    }
+
+    public ExpireCache(int capacity, boolean metricsEnabled, ExpireMode mode, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, 0L, TimeUnit.MILLISECONDS, mode, notifier);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ExpireCache(int capacity, boolean metricsEnabled, long grace, TimeUnit unit, ExpireMode mode, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
         if (capacity < 1) {
             throw new IllegalCacheStateException("capacity cannot be zero or negative");
         }
+        if (grace < 0) {
+            throw new IllegalCacheStateException("grace cannot be negative");
+        }
+        if (unit == null) {
+            throw new IllegalCacheStateException("unit cannot be null");
+        }
         if (mode == null) {
             throw new IllegalCacheStateException("mode cannot be null");
         }
         size = 0;
         this.capacity = capacity;
         this.metricsEnabled = metricsEnabled;
+        this.grace = unit.toMillis(grace);
         this.mode = mode;
         keys = (K[]) new Object[this.capacity];
         values = (V[]) new Object[this.capacity];
         timestamps = new Long[this.capacity];
+        durations = new Long[this.capacity];
         recorder = this.metricsEnabled? new CacheRecorder((Class<? extends Cache<?, ?>>) this.getClass()):null;
+        this.notifier = notifier;
         clear();
     }
 
@@ -56,6 +81,10 @@ public class ExpireCache<K, V> implements Cache<K, V> {
         return metricsEnabled;
     }
 
+    public long grace() {
+        return grace;
+    }
+
     public ExpireMode mode() {
         return mode;
     }
@@ -122,7 +151,7 @@ public class ExpireCache<K, V> implements Cache<K, V> {
             return null;
         }
         V top = values[0];
-        remove(0);
+        remove(0, RemovalCause.EXPLICIT);
         return top;
     }
 
@@ -131,7 +160,7 @@ public class ExpireCache<K, V> implements Cache<K, V> {
             return null;
         }
         V bottom = values[size - 1];
-        remove(size - 1);
+        remove(size - 1, RemovalCause.EXPLICIT);
         return bottom;
     }
 
@@ -140,7 +169,7 @@ public class ExpireCache<K, V> implements Cache<K, V> {
             throw new CacheUnderflowException("cannot pop an empty cache");
         }
         V top = values[0];
-        remove(0);
+        remove(0, RemovalCause.EXPLICIT);
         return top;
     }
 
@@ -149,21 +178,43 @@ public class ExpireCache<K, V> implements Cache<K, V> {
             throw new CacheUnderflowException("cannot pop an empty cache");
         }
         V bottom = values[size - 1];
-        remove(size - 1);
+        remove(size - 1, RemovalCause.EXPLICIT);
         return bottom;
     }
 
+    public K victim() {
+        if (size == 0) {
+            return null;
+        }
+        return keys[size - 1];
+    }
+
+    public K evict() {
+        if (size == 0) {
+            return null;
+        }
+        K victim = keys[size - 1];
+        if (metricsEnabled) {
+            recorder.eviction();
+        }
+        remove(size - 1, RemovalCause.SIZE);
+        return victim;
+    }
+
     public V get(K key) throws InvalidCacheEntryException {
         if (key == null) {
             throw new InvalidCacheEntryException("key cannot be null");
         }
         int index = indexOf(key);
         if (index >= 0) {
-            if (timestamps[index] > Instant.now().toEpochMilli()) {
+            long now = Instant.now().toEpochMilli();
+            if (timestamps[index] <= now) {
                 if (metricsEnabled) {
                     recorder.miss();
                 }
-                remove(index);
+                if (timestamps[index] + grace <= now) {
+                    remove(index, RemovalCause.EXPIRED);
+                }
                 return null;
             }
             if (metricsEnabled) {
@@ -182,6 +233,18 @@ public class ExpireCache<K, V> implements Cache<K, V> {
         return value == null? defaultValue:value;
     }
 
+    public V getStale(K key) throws InvalidCacheEntryException {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        if (timestamps[index] + grace <= Instant.now().toEpochMilli()) {
+            remove(index, RemovalCause.EXPIRED);
+            return null;
+        }
+        return values[index];
+    }
+
     public void put(K key, V value, long time, TimeUnit unit) throws InvalidCacheEntryException {
         if (key == null) {
             throw new InvalidCacheEntryException("key cannot be null");
@@ -200,9 +263,13 @@ public class ExpireCache<K, V> implements Cache<K, V> {
             if (metricsEnabled) {
                 recorder.hit();
             }
+            if (notifier != null && values[index] != value) {
+                notifier.removal(key, values[index], RemovalCause.REPLACED);
+            }
             values[index] = value;
-            if (timestamps[index] > Instant.now().toEpochMilli() || mode == ExpireMode.AFTER_ACCESS || mode == ExpireMode.AFTER_UPDATE) {
+            if (timestamps[index] <= Instant.now().toEpochMilli() || mode == ExpireMode.AFTER_ACCESS || mode == ExpireMode.AFTER_UPDATE) {
                 timestamps[index] = Instant.now().toEpochMilli() + unit.toMillis(time);
+                durations[index] = unit.toMillis(time);
                 sort(index);
             }
         } else {
@@ -212,10 +279,14 @@ public class ExpireCache<K, V> implements Cache<K, V> {
                 if (metricsEnabled) {
                     recorder.eviction();
                 }
+                if (notifier != null) {
+                    notifier.removal(keys[size - 1], values[size - 1], RemovalCause.SIZE);
+                }
             }
             keys[size - 1] = key;
             values[size - 1] = value;
             timestamps[size - 1] = Instant.now().toEpochMilli() + unit.toMillis(time);
+            durations[size - 1] = unit.toMillis(time);
             sort(size - 1);
         }
     }
@@ -227,6 +298,31 @@ public class ExpireCache<K, V> implements Cache<K, V> {
         put(expireEntry.key(), expireEntry.value(), expireEntry.time(), expireEntry.unit());
     }
 
+    public long[][] entryMetadata() {
+        long[][] metadata = new long[size][];
+        for (int i = 0; i < size; i++) {
+            metadata[i] = new long[] {timestamps[i], durations[i]};
+        }
+        return metadata;
+    }
+
+    public void restoreEntry(K key, V value, long[] metadata) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (metadata == null) {
+            put(key, value, DEFAULT_TIME, DEFAULT_UNIT);
+            return;
+        }
+        if (metadata.length != 2 || metadata[1] < 0) {
+            throw new IllegalCacheStateException("metadata must contain a deadline and a duration");
+        }
+        if (metadata[0] + grace <= Instant.now().toEpochMilli()) {
+            return;
+        }
+        put(key, value, metadata[1], TimeUnit.MILLISECONDS);
+        int index = indexOf(key);
+        timestamps[index] = metadata[0];
+        sort(index);
+    }
+
     public void remove(K key) throws InvalidCacheEntryException {
         if (key == null) {
             throw new InvalidCacheEntryException("key cannot be null");
@@ -237,7 +333,7 @@ public class ExpireCache<K, V> implements Cache<K, V> {
                 recorder.hit();
                 recorder.remove();
             }
-            remove(index);
+            remove(index, RemovalCause.EXPLICIT);
             return;
         }
         if (metricsEnabled) {
@@ -249,9 +345,15 @@ public class ExpireCache<K, V> implements Cache<K, V> {
         if (metricsEnabled) {
             recorder.clear();
         }
+        if (notifier != null) {
+            for (int i = 0; i < size; i++) {
+                notifier.removal(keys[i], values[i], RemovalCause.CLEARED);
+            }
+        }
         Arrays.fill(keys, null);
         Arrays.fill(values, null);
         Arrays.fill(timestamps, null);
+        Arrays.fill(durations, null);
         size = 0;
     }
 
@@ -273,16 +375,19 @@ public class ExpireCache<K, V> implements Cache<K, V> {
         }
         V value = values[index];
         if (mode == ExpireMode.AFTER_ACCESS) {
-            timestamps[index] = Instant.now().toEpochMilli();
+            timestamps[index] = Instant.now().toEpochMilli() + durations[index];
             sort(index);
         }
         return value;
     }
 
-    private void remove(int index) throws IndexOutOfBoundsException {
+    private void remove(int index, RemovalCause cause) throws IndexOutOfBoundsException {
         if (index < 0 || index > size - 1) {
             throw new IndexOutOfBoundsException("index out of bounds");
         }
+        if (notifier != null) {
+            notifier.removal(keys[index], values[index], cause);
+        }
         if (size > 0) {
             size--;
         }
@@ -290,10 +395,12 @@ public class ExpireCache<K, V> implements Cache<K, V> {
             keys[i - 1] = keys[i];
             values[i - 1] = values[i];
             timestamps[i - 1] = timestamps[i];
+            durations[i - 1] = durations[i];
         }
         keys[size] = null;
         values[size] = null;
         timestamps[size] = null;
+        durations[size] = null;
     }
 
     private void sort(int start) throws IndexOutOfBoundsException {
@@ -308,6 +415,7 @@ public class ExpireCache<K, V> implements Cache<K, V> {
                 swap(keys, i - 1, i);
                 swap(values, i - 1, i);
                 swap(timestamps, i - 1, i);
+                swap(durations, i - 1, i);
             }
         }
         if (start < size - 1 && timestamps[start] < timestamps[start + 1]) {
@@ -318,6 +426,7 @@ public class ExpireCache<K, V> implements Cache<K, V> {
                 swap(keys, i + 1, i);
                 swap(values, i + 1, i);
                 swap(timestamps, i + 1, i);
+                swap(durations, i + 1, i);
             }
         }
     }
@@ -4,10 +4,12 @@ import com.asterexcrisys.evicache.CacheRecorder;
 import com.asterexcrisys.evicache.entries.BasicCacheEntry;
 import com.asterexcrisys.evicache.Cache;
 import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheNotifier;
 import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
 import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
 import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
 import com.asterexcrisys.evicache.models.ExpireMode;
+import com.asterexcrisys.evicache.models.RemovalCause;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -20,20 +22,33 @@ public class TimeCache<K, V> implements Cache<K, V> {
     private final int capacity;
     private final boolean metricsEnabled;
     private final long time;
+    private final long grace;
     private final ExpireMode mode;
     private final K[] keys;
     private final V[] values;
     private final Long[] timestamps;
     private final CacheRecorder recorder;
+    private final CacheNotifier<K, V> notifier;
 
-    @SuppressWarnings("unchecked")
     public TimeCache(int capacity, boolean metricsEnabled, long time, TimeUnit unit, ExpireMode mode) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, time, unit, mode, null);
+    }
+
+    public TimeCache(int capacity, boolean metricsEnabled, long time, TimeUnit unit, ExpireMode mode, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, time, 0L, unit, mode, notifier);
+    }
+
+    @SuppressWarnings("unchecked")
+    public TimeCache(int capacity, boolean metricsEnabled, long time, long grace, TimeUnit unit, ExpireMode mode, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
         if (capacity < 1) {
             throw new IllegalCacheStateException("capacity cannot be zero or negative");
         }
         if (time < 0) {
             throw new IllegalCacheStateException("time cannot be negative");
         }
+        if (grace < 0) {
+            throw new IllegalCacheStateException("grace cannot be negative");
+        }
         if (unit == null) {
             throw new IllegalCacheStateException("unit cannot be null");
         }
@@ -44,11 +59,13 @@ public class TimeCache<K, V> implements Cache<K, V> {
         this.capacity = capacity;
         this.metricsEnabled = metricsEnabled;
         this.time = unit.toMillis(time);
+        this.grace = unit.toMillis(grace);
         this.mode = mode;
         keys = (K[]) new Object[this.capacity];
         values = (V[]) new Object[this.capacity];
         timestamps = new Long[this.capacity];
         recorder = this.metricsEnabled? new CacheRecorder((Class<? extends Cache<?, ?>>) this.getClass()):null;
+        this.notifier = notifier;
         clear();
     }
 
@@ -68,6 +85,10 @@ public class TimeCache<K, V> implements Cache<K, V> {
         return time;
     }
 
+    public long grace() {
+        return grace;
+    }
+
     public ExpireMode mode() {
         return mode;
     }
@@ -134,7 +155,7 @@ public class TimeCache<K, V> implements Cache<K, V> {
             return null;
         }
         V top = values[0];
-        remove(0);
+        remove(0, RemovalCause.EXPLICIT);
         return top;
     }
 
@@ -143,7 +164,7 @@ public class TimeCache<K, V> implements Cache<K, V> {
             return null;
         }
         V bottom = values[size - 1];
-        remove(size - 1);
+        remove(size - 1, RemovalCause.EXPLICIT);
         return bottom;
     }
 
@@ -152,7 +173,7 @@ public class TimeCache<K, V> implements Cache<K, V> {
             throw new CacheUnderflowException("cannot pop an empty cache");
         }
         V top = values[0];
-        remove(0);
+        remove(0, RemovalCause.EXPLICIT);
         return top;
     }
 
@@ -161,21 +182,43 @@ public class TimeCache<K, V> implements Cache<K, V> {
             throw new CacheUnderflowException("cannot pop an empty cache");
         }
         V bottom = values[size - 1];
-        remove(size - 1);
+        remove(size - 1, RemovalCause.EXPLICIT);
         return bottom;
     }
 
+    public K victim() {
+        if (size == 0) {
+            return null;
+        }
+        return keys[size - 1];
+    }
+
+    public K evict() {
+        if (size == 0) {
+            return null;
+        }
+        K victim = keys[size - 1];
+        if (metricsEnabled) {
+            recorder.eviction();
+        }
+        remove(size - 1, RemovalCause.SIZE);
+        return victim;
+    }
+
     public V get(K key) throws InvalidCacheEntryException {
         if (key == null) {
             throw new InvalidCacheEntryException("key cannot be null");
         }
         int index = indexOf(key);
         if (index >= 0) {
-            if (timestamps[index] > Instant.now().toEpochMilli()) {
+            long now = Instant.now().toEpochMilli();
+            if (timestamps[index] <= now) {
                 if (metricsEnabled) {
                     recorder.miss();
                 }
-                remove(index);
+                if (timestamps[index] + grace <= now) {
+                    remove(index, RemovalCause.EXPIRED);
+                }
                 return null;
             }
             if (metricsEnabled) {
@@ -194,6 +237,18 @@ public class TimeCache<K, V> implements Cache<K, V> {
         return value == null? defaultValue:value;
     }
 
+    public V getStale(K key) throws InvalidCacheEntryException {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        if (timestamps[index] + grace <= Instant.now().toEpochMilli()) {
+            remove(index, RemovalCause.EXPIRED);
+            return null;
+        }
+        return values[index];
+    }
+
     public void put(K key, V value) throws InvalidCacheEntryException {
         if (key == null) {
             throw new InvalidCacheEntryException("key cannot be null");
@@ -206,8 +261,11 @@ public class TimeCache<K, V> implements Cache<K, V> {
             if (metricsEnabled) {
                 recorder.hit();
             }
+            if (notifier != null && values[index] != value) {
+                notifier.removal(key, values[index], RemovalCause.REPLACED);
+            }
             values[index] = value;
-            if (timestamps[index] > Instant.now().toEpochMilli() || mode == ExpireMode.AFTER_ACCESS || mode == ExpireMode.AFTER_UPDATE) {
+            if (timestamps[index] <= Instant.now().toEpochMilli() || mode == ExpireMode.AFTER_ACCESS || mode == ExpireMode.AFTER_UPDATE) {
                 for (int i = index - 1; i >= 0; i--) {
                     keys[i + 1] = keys[i];
                     values[i + 1] = values[i];
@@ -224,6 +282,9 @@ public class TimeCache<K, V> implements Cache<K, V> {
                 if (metricsEnabled) {
                     recorder.eviction();
                 }
+                if (notifier != null) {
+                    notifier.removal(keys[size - 1], values[size - 1], RemovalCause.SIZE);
+                }
             }
             for (int i = size - 2; i >= 0; i--) {
                 keys[i + 1] = keys[i];
@@ -243,6 +304,29 @@ public class TimeCache<K, V> implements Cache<K, V> {
         put(basicEntry.key(), basicEntry.value());
     }
 
+    public long[][] entryMetadata() {
+        long[][] metadata = new long[size][];
+        for (int i = 0; i < size; i++) {
+            metadata[i] = new long[] {timestamps[i]};
+        }
+        return metadata;
+    }
+
+    public void restoreEntry(K key, V value, long[] metadata) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (metadata == null) {
+            put(key, value);
+            return;
+        }
+        if (metadata.length != 1) {
+            throw new IllegalCacheStateException("metadata must contain a deadline");
+        }
+        if (metadata[0] + grace <= Instant.now().toEpochMilli()) {
+            return;
+        }
+        put(key, value);
+        timestamps[indexOf(key)] = metadata[0];
+    }
+
     public void remove(K key) throws InvalidCacheEntryException {
         if (key == null) {
             throw new InvalidCacheEntryException("key cannot be null");
@@ -253,7 +337,7 @@ public class TimeCache<K, V> implements Cache<K, V> {
                 recorder.hit();
                 recorder.remove();
             }
-            remove(index);
+            remove(index, RemovalCause.EXPLICIT);
             return;
         }
         if (metricsEnabled) {
@@ -265,6 +349,11 @@ public class TimeCache<K, V> implements Cache<K, V> {
         if (metricsEnabled) {
             recorder.clear();
         }
+        if (notifier != null) {
+            for (int i = 0; i < size; i++) {
+                notifier.removal(keys[i], values[i], RemovalCause.CLEARED);
+            }
+        }
         Arrays.fill(keys, null);
         Arrays.fill(values, null);
         Arrays.fill(timestamps, null);
@@ -302,10 +391,13 @@ public class TimeCache<K, V> implements Cache<K, V> {
         return value;
     }
 
-    private void remove(int index) throws IndexOutOfBoundsException {
+    private void remove(int index, RemovalCause cause) throws IndexOutOfBoundsException {
         if (index < 0 || index > size - 1) {
             throw new IndexOutOfBoundsException("index out of bounds");
         }
+        if (notifier != null) {
+            notifier.removal(keys[index], values[index], cause);
+        }
         if (size > 0) {
             size--;
         }
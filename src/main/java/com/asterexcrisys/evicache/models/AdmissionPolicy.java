@@ -0,0 +1,6 @@
+package com.asterexcrisys.evicache.models;
+
+public enum AdmissionPolicy {
+    ALWAYS,
+    TINY_LFU
+}
@@ -10,5 +10,17 @@ public enum EvictionPolicy {
     TIME,
     EXPIRE,
     PRIORITY,
-    RANDOM
+    RANDOM,
+    W_TINYLFU,
+    S3_FIFO,
+    ARC,
+    CLOCK,
+    CLOCK_PRO,
+    TWO_QUEUE,
+    SLRU,
+    LIRS,
+    SIEVE,
+    LRU_K,
+    GDSF,
+    ADAPTIVE
 }
\ No newline at end of file
@@ -10,7 +10,33 @@ public enum MetricType {
     CACHE_EVICTIONS("evictions"),
     CACHE_CLEARS("clears"),
     CACHE_SIZE("size"),
-    CACHE_CAPACITY("capacity");
+    CACHE_CAPACITY("capacity"),
+    CACHE_REJECTIONS("rejections"),
+    CACHE_WINDOW("window"),
+    CACHE_TARGET("target"),
+    CACHE_WEIGHT("weight"),
+    CACHE_WEIGHT_SATURATED("weight_saturated"),
+    CACHE_POLICY("policy"),
+    CACHE_SWITCHES("switches"),
+    CACHE_LOADS("loads"),
+    CACHE_FAILURES("failures"),
+    CACHE_LATENCY("latency"),
+    CACHE_REFRESHES("refreshes"),
+    CACHE_REFRESH_FAILURES("refresh_failures"),
+    CACHE_STALE("stale"),
+    CACHE_BATCHES("batches"),
+    CACHE_NEGATIVE_HITS("negative_hits"),
+    CACHE_NEGATIVE_EVICTIONS("negative_evictions"),
+    CACHE_SHORT_CIRCUITS("short_circuits"),
+    CACHE_FALSE_POSITIVE_RATE("false_positive_rate"),
+    CACHE_COLLECTED("collected"),
+    CACHE_LIMIT("limit"),
+    CACHE_SHRINKS("shrinks"),
+    CACHE_RESTORES("restores"),
+    CACHE_PRESSURE_EVICTIONS("pressure_evictions"),
+    CACHE_PARTITIONS("partitions"),
+    CACHE_WARMED("warmed"),
+    CACHE_WARM_UP_PROGRESS("warm_up_progress");
 
     private final String identifier;
 
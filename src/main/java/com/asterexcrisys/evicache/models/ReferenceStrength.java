@@ -0,0 +1,7 @@
+package com.asterexcrisys.evicache.models;
+
+public enum ReferenceStrength {
+    STRONG,
+    SOFT,
+    WEAK
+}
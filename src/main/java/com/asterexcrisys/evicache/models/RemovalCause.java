@@ -0,0 +1,10 @@
+package com.asterexcrisys.evicache.models;
+
+public enum RemovalCause {
+    SIZE,
+    EXPIRED,
+    EXPLICIT,
+    REPLACED,
+    CLEARED,
+    COLLECTED
+}
@@ -0,0 +1,129 @@
+package com.asterexcrisys.evicache.structures;
+
+import java.util.Arrays;
+
+/**
+ * A probabilistic set that supports removals, implemented as a counting Bloom filter of 4-bit counters (sixteen
+ * counters are packed into each {@code long} of the table, which has about one {@code long} per expected key).
+ * Every key is mapped to four counters, one per hash function, and it might be contained only if none of them is
+ * zero, so a key that was added and not removed is never reported as absent, while a key that was never added is
+ * reported as present with a probability that grows with the number of keys (about 0.2% at the expected capacity).
+ * Counters that reach {@link #MAXIMUM_COUNT} stick to it, since they can no longer tell how many keys they count.
+ *
+ * @param <K> the type of keys whose membership is tested
+ */
+@SuppressWarnings("unused")
+public class CountingBloomFilter<K> {
+
+    public static final int MAXIMUM_COUNT = 15;
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L,
+            0xb492b66fbe98f273L,
+            0x9ae16a3b2f90404fL,
+            0xcbf29ce484222325L
+    };
+
+    private int additions;
+    private final int tableMask;
+    private final long[] table;
+
+    public CountingBloomFilter(int capacity) throws IllegalArgumentException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity cannot be zero or negative");
+        }
+        int length = Integer.highestOneBit(Math.max(capacity, 8) - 1) << 1;
+        additions = 0;
+        tableMask = length - 1;
+        table = new long[length];
+    }
+
+    public int additions() {
+        return additions;
+    }
+
+    /**
+     * Tests whether the key might have been added (and not removed since).
+     *
+     * @param key the key whose membership is to be tested
+     * @return {@code false} if the key is definitely absent, {@code true} if it might be present
+     */
+    public boolean mightContain(K key) {
+        int hash = spread(key.hashCode());
+        for (int i = 0; i < 4; i++) {
+            long value = mix(hash, i);
+            if (((table[indexOf(value)] >>> offsetOf(value)) & 0xfL) == 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the key, incrementing each of its counters that has not reached the maximum count.
+     *
+     * @param key the key to be added
+     */
+    public void add(K key) {
+        int hash = spread(key.hashCode());
+        for (int i = 0; i < 4; i++) {
+            long value = mix(hash, i);
+            int index = indexOf(value);
+            int offset = offsetOf(value);
+            long mask = 0xfL << offset;
+            if ((table[index] & mask) != mask) {
+                table[index] += 1L << offset;
+            }
+        }
+        additions++;
+    }
+
+    /**
+     * Removes a key previously added, decrementing each of its counters that has not reached the maximum count.
+     * Removing a key that was never added may cause other keys to be reported as absent, so it must not be done.
+     *
+     * @param key the key to be removed
+     */
+    public void remove(K key) {
+        int hash = spread(key.hashCode());
+        for (int i = 0; i < 4; i++) {
+            long value = mix(hash, i);
+            int index = indexOf(value);
+            int offset = offsetOf(value);
+            long mask = 0xfL << offset;
+            long count = table[index] & mask;
+            if (count != mask && count != 0L) {
+                table[index] -= 1L << offset;
+            }
+        }
+        additions--;
+    }
+
+    /**
+     * Resets all counters to zero, forgetting any key added so far.
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        additions = 0;
+    }
+
+    private int indexOf(long value) {
+        return ((int) value) & tableMask;
+    }
+
+    private int offsetOf(long value) {
+        return ((int) (value >>> 60)) << 2;
+    }
+
+    private static long mix(int hash, int depth) {
+        long value = (hash + SEEDS[depth]) * SEEDS[depth];
+        return value + (value >>> 32);
+    }
+
+    private static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.asterexcrisys.evicache.structures;
+
+import java.util.Arrays;
+
+/**
+ * A probabilistic multiset that estimates the popularity of keys within a time window, implemented as a
+ * count-min sketch of 4-bit counters (sixteen counters are packed into each {@code long} of the table).
+ * Every key is mapped to four counters, one per hash function, and its estimated frequency is the
+ * minimum among them. Once the number of increments reaches the sample size (ten times the expected
+ * capacity), all counters are halved, so that old popularity fades and recent popularity dominates.
+ *
+ * @param <K> the type of keys whose frequency is estimated
+ */
+@SuppressWarnings("unused")
+public class FrequencySketch<K> {
+
+    public static final int MAXIMUM_FREQUENCY = 15;
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L,
+            0xb492b66fbe98f273L,
+            0x9ae16a3b2f90404fL,
+            0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    private int additions;
+    private final int sampleSize;
+    private final int tableMask;
+    private final long[] table;
+
+    public FrequencySketch(int capacity) throws IllegalArgumentException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity cannot be zero or negative");
+        }
+        int length = Integer.highestOneBit(Math.max(capacity, 8) - 1) << 1;
+        additions = 0;
+        sampleSize = (int) Math.min(10L * capacity, Integer.MAX_VALUE);
+        tableMask = length - 1;
+        table = new long[length];
+    }
+
+    public int sampleSize() {
+        return sampleSize;
+    }
+
+    public int additions() {
+        return additions;
+    }
+
+    /**
+     * Returns the estimated number of occurrences of the key, up to {@link #MAXIMUM_FREQUENCY}.
+     *
+     * @param key the key whose frequency is to be estimated
+     * @return the estimated frequency of the key
+     */
+    public int frequency(K key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Increments the popularity of the key if it does not exceed the maximum frequency,
+     * aging all counters when the sample size is reached.
+     *
+     * @param key the key whose frequency is to be incremented
+     */
+    public void increment(K key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Resets all counters to zero, forgetting any popularity recorded so far.
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        additions = 0;
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        int offset = counter << 2;
+        long mask = 0xfL << offset;
+        if ((table[index] & mask) != mask) {
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    private void reset() {
+        int odd = 0;
+        for (int i = 0; i < table.length; i++) {
+            odd += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions = (additions >>> 1) - (odd >>> 2);
+    }
+
+    private int indexOf(int hash, int depth) {
+        long value = (hash + SEEDS[depth]) * SEEDS[depth];
+        value += value >>> 32;
+        return ((int) value) & tableMask;
+    }
+
+    private static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+
+}
@@ -0,0 +1,345 @@
+package com.asterexcrisys.evicache.wrappers;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheBuilder;
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheRecorder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
+import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
+import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.EvictionPolicy;
+import com.asterexcrisys.evicache.models.MetricType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A cache that picks its eviction policy at runtime among a list of candidates (e.g. LRU, LFU and FIFO): the keys
+ * of a sample of the accesses (chosen by hash, so that a sampled key is always sampled) are replayed on a miniature
+ * ghost cache of each candidate, which stores no values and is as much smaller than this cache as the sample is
+ * smaller than the whole stream, so it approximates the hit rate the candidate would have on this cache.
+ * <p>
+ * At the end of every period, the hits of each ghost are added to a score that decays over time, and the resident
+ * cache is switched to the candidate with the highest score when it beats the resident policy by a margin, so that
+ * noise alone cannot make it switch back and forth. When switching, the entries are moved from the bottom to the
+ * top of the resident cache into a new one, without any removal being notified, so service is never interrupted
+ * (the eviction metadata of the previous policy, such as frequencies, is not carried over).
+ * The switches made and the policy in use are reported as metrics.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+@SuppressWarnings("unused")
+public class AdaptiveCache<K, V> implements Cache<K, V> {
+
+    public static final List<EvictionPolicy> DEFAULT_CANDIDATES = List.of(EvictionPolicy.LRU, EvictionPolicy.LFU, EvictionPolicy.FIFO);
+    private static final int MINIMUM_GHOST_CAPACITY = 64;
+    private static final int MAXIMUM_SAMPLING = 16;
+    private static final int PERIOD_RATIO = 10;
+    private static final double SCORE_DECAY = 0.5;
+    private static final double SWITCH_THRESHOLD = 0.05;
+
+    private int current;
+    private int samples;
+    private int switches;
+    private Cache<K, V> cache;
+    private final int capacity;
+    private final int sampling;
+    private final int period;
+    private final boolean metricsEnabled;
+    private final List<EvictionPolicy> candidates;
+    private final List<Cache<K, Boolean>> ghosts;
+    private final int[] hits;
+    private final double[] scores;
+    private final Function<EvictionPolicy, Cache<K, V>> factory;
+    private final CacheRecorder recorder;
+
+    public AdaptiveCache(int capacity, boolean metricsEnabled, Function<EvictionPolicy, Cache<K, V>> factory) throws IllegalCacheStateException {
+        this(capacity, metricsEnabled, DEFAULT_CANDIDATES, factory);
+    }
+
+    @SuppressWarnings("unchecked")
+    public AdaptiveCache(int capacity, boolean metricsEnabled, List<EvictionPolicy> candidates, Function<EvictionPolicy, Cache<K, V>> factory) throws IllegalCacheStateException {
+        if (capacity < 1) {
+            throw new IllegalCacheStateException("capacity cannot be zero or negative");
+        }
+        if (candidates == null || candidates.isEmpty()) {
+            throw new IllegalCacheStateException("candidates cannot be null or empty");
+        }
+        for (EvictionPolicy candidate : candidates) {
+            if (!isCandidate(candidate)) {
+                throw new IllegalCacheStateException(String.format("policy '%s' cannot be a candidate", candidate));
+            }
+        }
+        if (factory == null) {
+            throw new IllegalCacheStateException("factory cannot be null");
+        }
+        current = 0;
+        samples = 0;
+        switches = 0;
+        this.capacity = capacity;
+        sampling = Integer.highestOneBit(Math.max(1, Math.min(this.capacity / MINIMUM_GHOST_CAPACITY, MAXIMUM_SAMPLING)));
+        int ghostCapacity = Math.max(1, this.capacity / sampling);
+        period = PERIOD_RATIO * ghostCapacity;
+        this.metricsEnabled = metricsEnabled;
+        this.candidates = List.copyOf(candidates);
+        ghosts = new ArrayList<>(this.candidates.size());
+        for (EvictionPolicy candidate : this.candidates) {
+            ghosts.add(CacheBuilder.<K, Boolean>newBuilder().evictionPolicy(candidate).capacityFixed(true).initialCapacity(ghostCapacity).build());
+        }
+        hits = new int[this.candidates.size()];
+        scores = new double[this.candidates.size()];
+        this.factory = factory;
+        cache = this.factory.apply(this.candidates.get(current));
+        recorder = this.metricsEnabled? new CacheRecorder((Class<? extends Cache<?, ?>>) this.getClass()):null;
+    }
+
+    public Cache<K, V> cache() {
+        return cache;
+    }
+
+    public EvictionPolicy policy() {
+        return candidates.get(current);
+    }
+
+    public List<EvictionPolicy> candidates() {
+        return candidates;
+    }
+
+    public double[] scores() {
+        return Arrays.copyOf(scores, scores.length);
+    }
+
+    public int switches() {
+        return switches;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean metricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public K[] keys() {
+        return cache.keys();
+    }
+
+    public V[] values() {
+        return cache.values();
+    }
+
+    public HashMap<String, Integer> metrics() throws IllegalCacheStateException {
+        if (!metricsEnabled) {
+            throw new IllegalCacheStateException("metrics are not enabled and therefore were not registered");
+        }
+        recorder.size(cache.size());
+        recorder.capacity(capacity);
+        HashMap<String, Integer> metrics = recorder.metrics();
+        metrics.put(MetricType.CACHE_POLICY.identifier(), policy().ordinal());
+        metrics.put(MetricType.CACHE_SWITCHES.identifier(), switches);
+        return metrics;
+    }
+
+    public boolean isEmpty() {
+        return cache.isEmpty();
+    }
+
+    public boolean has(K key) {
+        return cache.has(key);
+    }
+
+    public V peekTop() {
+        return cache.peekTop();
+    }
+
+    public V peekBottom() {
+        return cache.peekBottom();
+    }
+
+    public V elementTop() throws CacheUnderflowException {
+        return cache.elementTop();
+    }
+
+    public V elementBottom() throws CacheUnderflowException {
+        return cache.elementBottom();
+    }
+
+    public V popTop() {
+        return cache.popTop();
+    }
+
+    public V popBottom() {
+        return cache.popBottom();
+    }
+
+    public V pollTop() throws CacheUnderflowException {
+        return cache.pollTop();
+    }
+
+    public V pollBottom() throws CacheUnderflowException {
+        return cache.pollBottom();
+    }
+
+    public K victim() {
+        return cache.victim();
+    }
+
+    public K evict() {
+        K victim = cache.evict();
+        if (metricsEnabled && victim != null) {
+            recorder.eviction();
+        }
+        return victim;
+    }
+
+    public V get(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        V value = cache.get(key);
+        if (metricsEnabled) {
+            if (value != null) {
+                recorder.hit();
+            } else {
+                recorder.miss();
+            }
+        }
+        if (isSampled(key)) {
+            for (int i = 0; i < ghosts.size(); i++) {
+                if (ghosts.get(i).get(key) != null) {
+                    hits[i]++;
+                }
+            }
+            if (++samples >= period) {
+                adapt();
+            }
+        }
+        return value;
+    }
+
+    public V get(K key, V defaultValue) throws InvalidCacheEntryException {
+        V value = get(key);
+        return value == null? defaultValue:value;
+    }
+
+    public V getStale(K key) throws InvalidCacheEntryException {
+        return cache.getStale(key);
+    }
+
+    public void put(CacheEntry<K, V> entry) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (entry == null || entry.key() == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        K key = entry.key();
+        boolean present = cache.has(key);
+        int size = cache.size();
+        cache.put(entry);
+        if (metricsEnabled) {
+            recorder.put();
+            if (present) {
+                recorder.hit();
+            }
+            // Entries that left the cache are evictions, unless the new entry itself was not stored
+            int evictions = size + (!present && cache.has(key)? 1:0) - cache.size();
+            for (int i = 0; i < evictions; i++) {
+                recorder.eviction();
+            }
+        }
+        if (isSampled(key)) {
+            for (Cache<K, Boolean> ghost : ghosts) {
+                ghost.put(new BasicCacheEntry<>(key, Boolean.TRUE));
+            }
+        }
+    }
+
+    public void remove(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        if (metricsEnabled) {
+            if (cache.has(key)) {
+                recorder.hit();
+                recorder.remove();
+            } else {
+                recorder.miss();
+            }
+        }
+        cache.remove(key);
+        if (isSampled(key)) {
+            for (Cache<K, Boolean> ghost : ghosts) {
+                ghost.remove(key);
+            }
+        }
+    }
+
+    public void clear() {
+        if (metricsEnabled) {
+            recorder.clear();
+        }
+        cache.clear();
+        for (Cache<K, Boolean> ghost : ghosts) {
+            ghost.clear();
+        }
+        Arrays.fill(hits, 0);
+        samples = 0;
+    }
+
+    private boolean isSampled(K key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return ((hash ^ (hash >>> 16)) & (sampling - 1)) == 0;
+    }
+
+    private void adapt() {
+        int best = current;
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = scores[i] * SCORE_DECAY + hits[i];
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        Arrays.fill(hits, 0);
+        samples = 0;
+        if (best != current && scores[best] > scores[current] * (1.0 + SWITCH_THRESHOLD)) {
+            migrate(best);
+        }
+    }
+
+    private void migrate(int candidate) {
+        Cache<K, V> next = factory.apply(candidates.get(candidate));
+        K[] keys = cache.keys();
+        V[] values = cache.values();
+        for (int i = keys.length - 1; i >= 0; i--) {
+            next.put(new BasicCacheEntry<>(keys[i], values[i]));
+        }
+        cache = next;
+        current = candidate;
+        switches++;
+    }
+
+    public static boolean isCandidate(EvictionPolicy policy) {
+        return policy != null && policy != EvictionPolicy.TIME && policy != EvictionPolicy.EXPIRE && policy != EvictionPolicy.PRIORITY && policy != EvictionPolicy.ADAPTIVE;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof AdaptiveCache<?, ?> other)) {
+            return false;
+        }
+        return cache.equals(other.cache);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s%s", super.toString(), cache);
+    }
+
+}
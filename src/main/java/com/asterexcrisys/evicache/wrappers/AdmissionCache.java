@@ -0,0 +1,247 @@
+package com.asterexcrisys.evicache.wrappers;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheNotifier;
+import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
+import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
+import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.MetricType;
+import com.asterexcrisys.evicache.models.RemovalCause;
+import com.asterexcrisys.evicache.structures.CountingBloomFilter;
+import com.asterexcrisys.evicache.structures.FrequencySketch;
+import java.util.HashMap;
+
+/**
+ * A cache that guards any other cache with a TinyLFU admission filter: every access is recorded in a
+ * {@link FrequencySketch} and, whenever a new entry would cause an eviction, the entry is only admitted
+ * if its estimated frequency is higher than the one of the victim chosen by the underlying eviction policy.
+ * This way, keys that are seen only once (e.g. during a scan) cannot flush out the working set.
+ * <p>
+ * Optionally, the first access to each key within a sample period is recorded in a doorkeeper (a Bloom filter)
+ * rather than in the sketch, which then only counts keys seen at least twice, so that one-hit wonders do not
+ * inflate the counters of popular keys they collide with. The doorkeeper is cleared at the end of every period.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+@SuppressWarnings("unused")
+public class AdmissionCache<K, V> implements Cache<K, V> {
+
+    private int rejections;
+    private int records;
+    private final Cache<K, V> cache;
+    private final FrequencySketch<K> sketch;
+    private final CountingBloomFilter<K> doorkeeper;
+    private final CacheNotifier<K, V> notifier;
+
+    public AdmissionCache(Cache<K, V> cache) throws IllegalCacheStateException {
+        this(cache, null);
+    }
+
+    public AdmissionCache(Cache<K, V> cache, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
+        this(cache, notifier, false);
+    }
+
+    public AdmissionCache(Cache<K, V> cache, CacheNotifier<K, V> notifier, boolean isDoorkept) throws IllegalCacheStateException {
+        if (cache == null) {
+            throw new IllegalCacheStateException("cache cannot be null");
+        }
+        rejections = 0;
+        records = 0;
+        this.cache = cache;
+        sketch = new FrequencySketch<>(cache.capacity());
+        doorkeeper = isDoorkept? new CountingBloomFilter<>(cache.capacity()):null;
+        this.notifier = notifier;
+    }
+
+    public Cache<K, V> cache() {
+        return cache;
+    }
+
+    public FrequencySketch<K> sketch() {
+        return sketch;
+    }
+
+    public CountingBloomFilter<K> doorkeeper() {
+        return doorkeeper;
+    }
+
+    public int rejections() {
+        return rejections;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public int capacity() {
+        return cache.capacity();
+    }
+
+    public boolean metricsEnabled() {
+        return cache.metricsEnabled();
+    }
+
+    public K[] keys() {
+        return cache.keys();
+    }
+
+    public V[] values() {
+        return cache.values();
+    }
+
+    public HashMap<String, Integer> metrics() throws IllegalCacheStateException {
+        HashMap<String, Integer> metrics = cache.metrics();
+        metrics.put(MetricType.CACHE_REJECTIONS.identifier(), rejections);
+        return metrics;
+    }
+
+    public boolean isEmpty() {
+        return cache.isEmpty();
+    }
+
+    public boolean has(K key) {
+        return cache.has(key);
+    }
+
+    public V peekTop() {
+        return cache.peekTop();
+    }
+
+    public V peekBottom() {
+        return cache.peekBottom();
+    }
+
+    public V elementTop() throws CacheUnderflowException {
+        return cache.elementTop();
+    }
+
+    public V elementBottom() throws CacheUnderflowException {
+        return cache.elementBottom();
+    }
+
+    public V popTop() {
+        return cache.popTop();
+    }
+
+    public V popBottom() {
+        return cache.popBottom();
+    }
+
+    public V pollTop() throws CacheUnderflowException {
+        return cache.pollTop();
+    }
+
+    public V pollBottom() throws CacheUnderflowException {
+        return cache.pollBottom();
+    }
+
+    public K victim() {
+        return cache.victim();
+    }
+
+    public K evict() {
+        return cache.evict();
+    }
+
+    public V get(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        record(key);
+        return cache.get(key);
+    }
+
+    public V get(K key, V defaultValue) throws InvalidCacheEntryException {
+        V value = get(key);
+        return value == null? defaultValue:value;
+    }
+
+    public V getStale(K key) throws InvalidCacheEntryException {
+        return cache.getStale(key);
+    }
+
+    public void put(CacheEntry<K, V> entry) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (entry == null || entry.key() == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        record(entry.key());
+        if (!admit(entry.key())) {
+            rejections++;
+            if (notifier != null) {
+                notifier.removal(entry.key(), entry.value(), RemovalCause.SIZE);
+            }
+            return;
+        }
+        cache.put(entry);
+    }
+
+    public long[][] entryMetadata() {
+        return cache.entryMetadata();
+    }
+
+    public void restoreEntry(K key, V value, long[] metadata) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        record(key);
+        cache.restoreEntry(key, value, metadata);
+    }
+
+    public void remove(K key) throws InvalidCacheEntryException {
+        cache.remove(key);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    private boolean admit(K key) {
+        if (cache.size() < cache.capacity() || cache.has(key)) {
+            return true;
+        }
+        K victim = cache.victim();
+        if (victim == null) {
+            return true;
+        }
+        return frequency(key) > frequency(victim);
+    }
+
+    private void record(K key) {
+        if (doorkeeper == null) {
+            sketch.increment(key);
+            return;
+        }
+        if (++records >= sketch.sampleSize()) {
+            doorkeeper.clear();
+            records = 0;
+        }
+        if (doorkeeper.mightContain(key)) {
+            sketch.increment(key);
+        } else {
+            doorkeeper.add(key);
+        }
+    }
+
+    private int frequency(K key) {
+        if (doorkeeper == null) {
+            return sketch.frequency(key);
+        }
+        return sketch.frequency(key) + (doorkeeper.mightContain(key)? 1:0);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof AdmissionCache<?, ?> other)) {
+            return false;
+        }
+        return cache.equals(other.cache);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s%s", super.toString(), cache);
+    }
+
+}
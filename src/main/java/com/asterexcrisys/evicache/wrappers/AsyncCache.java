@@ -0,0 +1,449 @@
+package com.asterexcrisys.evicache.wrappers;
+
+import com.asterexcrisys.evicache.BatchingLoader;
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheExecutors;
+import com.asterexcrisys.evicache.CacheListener;
+import com.asterexcrisys.evicache.CacheLoader;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
+import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
+import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.MetricType;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A cache that stores the future of every value rather than the value itself, on top of any other cache (and thus
+ * with any eviction policy), so that a miss never blocks its caller: {@link #getAsync(Object, Function)} stores a new
+ * future right away and completes it by running the loader on an executor (by default, on its own virtual thread),
+ * while every other caller of the same key is handed the same future, so at most one load is in flight per key.
+ * <p>
+ * A future that fails, is cancelled or completes with {@code null} (whether created by a load or put directly) is
+ * removed from the cache as soon as it completes, unless it was replaced or removed in the meantime, so the next
+ * caller loads the value again. Every operation on the underlying cache is guarded by a lock, which is never held
+ * while loading. The number of successful and failed loads and the average time spent loading are reported as metrics.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of values the mapped futures complete with
+ */
+@SuppressWarnings("unused")
+public class AsyncCache<K, V> implements Cache<K, CompletableFuture<V>> {
+
+    private final Cache<K, CompletableFuture<V>> cache;
+    private final CacheLoader<K, V> loader;
+    private final BiFunction<K, CompletableFuture<V>, CacheEntry<K, CompletableFuture<V>>> factory;
+    private final Executor executor;
+    private final HashMap<K, CompletableFuture<V>> pending;
+    private final ReentrantLock lock;
+    private final LongAdder successes;
+    private final LongAdder failures;
+    private final LongAdder loadTime;
+
+    public AsyncCache(Cache<K, CompletableFuture<V>> cache) throws IllegalCacheStateException {
+        this(cache, null, BasicCacheEntry::new, CacheExecutors.defaultExecutor());
+    }
+
+    public AsyncCache(Cache<K, CompletableFuture<V>> cache, CacheLoader<K, V> loader) throws IllegalCacheStateException {
+        this(cache, loader, BasicCacheEntry::new, CacheExecutors.defaultExecutor());
+    }
+
+    public AsyncCache(Cache<K, CompletableFuture<V>> cache, CacheLoader<K, V> loader, BiFunction<K, CompletableFuture<V>, CacheEntry<K, CompletableFuture<V>>> factory, Executor executor) throws IllegalCacheStateException {
+        if (cache == null) {
+            throw new IllegalCacheStateException("cache cannot be null");
+        }
+        if (factory == null) {
+            throw new IllegalCacheStateException("factory cannot be null");
+        }
+        if (executor == null) {
+            throw new IllegalCacheStateException("executor cannot be null");
+        }
+        this.cache = cache;
+        this.loader = loader;
+        this.factory = factory;
+        this.executor = executor;
+        pending = new HashMap<>();
+        lock = new ReentrantLock();
+        successes = new LongAdder();
+        failures = new LongAdder();
+        loadTime = new LongAdder();
+    }
+
+    public Cache<K, CompletableFuture<V>> cache() {
+        return cache;
+    }
+
+    public CacheLoader<K, V> loader() {
+        return loader;
+    }
+
+    public Executor executor() {
+        return executor;
+    }
+
+    public int pending() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return cache.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int capacity() {
+        return cache.capacity();
+    }
+
+    public boolean metricsEnabled() {
+        return cache.metricsEnabled();
+    }
+
+    public K[] keys() {
+        lock.lock();
+        try {
+            return cache.keys();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CompletableFuture<V>[] values() {
+        lock.lock();
+        try {
+            return cache.values();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public HashMap<String, Integer> metrics() throws IllegalCacheStateException {
+        HashMap<String, Integer> metrics;
+        lock.lock();
+        try {
+            metrics = cache.metrics();
+        } finally {
+            lock.unlock();
+        }
+        long loads = successes.sum() + failures.sum();
+        metrics.put(MetricType.CACHE_LOADS.identifier(), successes.intValue());
+        metrics.put(MetricType.CACHE_FAILURES.identifier(), failures.intValue());
+        metrics.put(MetricType.CACHE_LATENCY.identifier(), loads == 0? 0:(int) Math.min(loadTime.sum() / loads / 1000L, Integer.MAX_VALUE));
+        if (loader instanceof BatchingLoader<K, V> batching) {
+            metrics.put(MetricType.CACHE_BATCHES.identifier(), (int) Math.min(batching.batches(), Integer.MAX_VALUE));
+        }
+        return metrics;
+    }
+
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return cache.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean has(K key) {
+        lock.lock();
+        try {
+            return cache.has(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CompletableFuture<V> peekTop() {
+        lock.lock();
+        try {
+            return cache.peekTop();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CompletableFuture<V> peekBottom() {
+        lock.lock();
+        try {
+            return cache.peekBottom();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CompletableFuture<V> elementTop() throws CacheUnderflowException {
+        lock.lock();
+        try {
+            return cache.elementTop();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CompletableFuture<V> elementBottom() throws CacheUnderflowException {
+        lock.lock();
+        try {
+            return cache.elementBottom();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CompletableFuture<V> popTop() {
+        lock.lock();
+        try {
+            return cache.popTop();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CompletableFuture<V> popBottom() {
+        lock.lock();
+        try {
+            return cache.popBottom();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CompletableFuture<V> pollTop() throws CacheUnderflowException {
+        lock.lock();
+        try {
+            return cache.pollTop();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CompletableFuture<V> pollBottom() throws CacheUnderflowException {
+        lock.lock();
+        try {
+            return cache.pollBottom();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public K victim() {
+        lock.lock();
+        try {
+            return cache.victim();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public K evict() {
+        lock.lock();
+        try {
+            return cache.evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CompletableFuture<V> get(K key) throws InvalidCacheEntryException {
+        lock.lock();
+        try {
+            return cache.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CompletableFuture<V> get(K key, CompletableFuture<V> defaultValue) throws InvalidCacheEntryException {
+        CompletableFuture<V> value = get(key);
+        return value == null? defaultValue:value;
+    }
+
+    public CompletableFuture<V> getStale(K key) throws InvalidCacheEntryException {
+        lock.lock();
+        try {
+            return cache.getStale(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the future of the value associated with the specified key, loading it asynchronously through the
+     * loader of this cache if missing.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the future of the value mapped to the key, never {@code null}
+     * @throws IllegalCacheStateException if this cache was created without a loader
+     * @throws InvalidCacheEntryException if the key is {@code null}
+     */
+    public CompletableFuture<V> getAsync(K key) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (loader == null) {
+            throw new IllegalCacheStateException("loader cannot be null");
+        }
+        return compute(key, loader);
+    }
+
+    /**
+     * Retrieves the future of the value associated with the specified key, loading it asynchronously through the
+     * given function if missing. The function is never called on the calling thread (unless the executor of this
+     * cache runs tasks inline), and its failures complete the returned future exceptionally.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param loader the function used to load the value if no future is already mapped to the key
+     * @return the future of the value mapped to the key, never {@code null}
+     * @throws IllegalCacheStateException if the function is {@code null}
+     * @throws InvalidCacheEntryException if the key is {@code null}
+     */
+    public CompletableFuture<V> getAsync(K key, Function<? super K, ? extends V> loader) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (loader == null) {
+            throw new IllegalCacheStateException("loader cannot be null");
+        }
+        return compute(key, loader::apply);
+    }
+
+    public void put(CacheEntry<K, CompletableFuture<V>> entry) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (entry == null || entry.key() == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        if (entry.value() == null) {
+            throw new InvalidCacheEntryException("value cannot be null");
+        }
+        lock.lock();
+        try {
+            cache.put(entry);
+            pending.remove(entry.key());
+            watch(entry.key(), entry.value());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(K key) throws InvalidCacheEntryException {
+        lock.lock();
+        try {
+            cache.remove(key);
+            pending.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            cache.clear();
+            pending.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CompletableFuture<V> compute(K key, CacheLoader<K, V> loader) throws InvalidCacheEntryException {
+        CompletableFuture<V> future;
+        lock.lock();
+        try {
+            future = cache.get(key);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            cache.put(factory.apply(key, future));
+            watch(key, future);
+        } finally {
+            lock.unlock();
+        }
+        try {
+            executor.execute(load(key, future, loader));
+        } catch (RejectedExecutionException exception) {
+            future.completeExceptionally(exception);
+        }
+        return future;
+    }
+
+    private Runnable load(K key, CompletableFuture<V> future, CacheLoader<K, V> loader) {
+        return () -> {
+            if (future.isDone()) {
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                V value = loader.load(key);
+                loadTime.add(System.nanoTime() - start);
+                successes.increment();
+                future.complete(value);
+            } catch (Throwable throwable) {
+                loadTime.add(System.nanoTime() - start);
+                failures.increment();
+                future.completeExceptionally(throwable);
+            }
+        };
+    }
+
+    private void watch(K key, CompletableFuture<V> future) {
+        if (future.isDone()) {
+            if (future.isCompletedExceptionally() || future.join() == null) {
+                cache.remove(key);
+            }
+            return;
+        }
+        pending.put(key, future);
+        future.whenComplete((value, throwable) -> {
+            lock.lock();
+            try {
+                if (pending.remove(key, future) && (throwable != null || value == null)) {
+                    cache.remove(key);
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Adapts a listener of values to a listener of the futures stored by an asynchronous cache, which informs the
+     * former only of futures that had completed successfully with a value (the others never held one).
+     *
+     * @param listener the listener to be adapted
+     * @return a listener of futures that delegates to the given one
+     * @param <K> the type of keys maintained by the cache
+     * @param <V> the type of values the mapped futures complete with
+     */
+    public static <K, V> CacheListener<K, CompletableFuture<V>> adapt(CacheListener<K, V> listener) {
+        return (key, future, cause) -> {
+            if (future != null && future.isDone() && !future.isCompletedExceptionally()) {
+                V value = future.join();
+                if (value != null) {
+                    listener.onRemoval(key, value, cause);
+                }
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof AsyncCache<?, ?> other)) {
+            return false;
+        }
+        return cache.equals(other.cache);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s%s", super.toString(), cache);
+    }
+
+}
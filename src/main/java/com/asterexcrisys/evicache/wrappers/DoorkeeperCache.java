@@ -0,0 +1,273 @@
+package com.asterexcrisys.evicache.wrappers;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
+import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
+import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.MetricType;
+import com.asterexcrisys.evicache.structures.CountingBloomFilter;
+import java.util.HashMap;
+
+/**
+ * A cache that guards any other cache with a doorkeeper: a {@link CountingBloomFilter} of the keys put into it,
+ * which answers the lookups of keys that were never put (or were removed since) without probing the underlying
+ * cache at all, so that misses cost a few hashes instead of an index lookup or a linear scan.
+ * <p>
+ * Keys are added to the filter when put and removed from it when removed or evicted by a put, while the keys that
+ * leave the underlying cache unnoticed (e.g. popped, expired or rejected by an admission policy) only make the filter
+ * report them as present until it is rebuilt from the keys of the underlying cache, which happens once those amount
+ * to a quarter of its capacity. A put of a new key into a full cache leaves the choice of the victim (or the rejection
+ * of the new entry) to the underlying cache, and only forgets its victim once it is actually gone.
+ * The short-circuited lookups are counted as misses, and their number is reported as a metric along with the false
+ * positive rate of the filter (in parts per million), that is, the fraction of the lookups of absent keys that the
+ * filter let through to the underlying cache and that missed there.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+@SuppressWarnings("unused")
+public class DoorkeeperCache<K, V> implements Cache<K, V> {
+
+    private int shortCircuits;
+    private int falsePositives;
+    private final int drift;
+    private final Cache<K, V> cache;
+    private final CountingBloomFilter<K> filter;
+
+    public DoorkeeperCache(Cache<K, V> cache) throws IllegalCacheStateException {
+        if (cache == null) {
+            throw new IllegalCacheStateException("cache cannot be null");
+        }
+        shortCircuits = 0;
+        falsePositives = 0;
+        drift = Math.max(1, cache.capacity() / 4);
+        this.cache = cache;
+        filter = new CountingBloomFilter<>(cache.capacity());
+        for (K key : this.cache.keys()) {
+            filter.add(key);
+        }
+    }
+
+    public Cache<K, V> cache() {
+        return cache;
+    }
+
+    public CountingBloomFilter<K> filter() {
+        return filter;
+    }
+
+    public int shortCircuits() {
+        return shortCircuits;
+    }
+
+    public int falsePositives() {
+        return falsePositives;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public int capacity() {
+        return cache.capacity();
+    }
+
+    public boolean metricsEnabled() {
+        return cache.metricsEnabled();
+    }
+
+    public K[] keys() {
+        return cache.keys();
+    }
+
+    public V[] values() {
+        return cache.values();
+    }
+
+    public HashMap<String, Integer> metrics() throws IllegalCacheStateException {
+        HashMap<String, Integer> metrics = cache.metrics();
+        long negatives = (long) shortCircuits + falsePositives;
+        metrics.merge(MetricType.CACHE_MISSES.identifier(), shortCircuits, Integer::sum);
+        metrics.put(MetricType.CACHE_SHORT_CIRCUITS.identifier(), shortCircuits);
+        metrics.put(MetricType.CACHE_FALSE_POSITIVE_RATE.identifier(), negatives == 0? 0:(int) (falsePositives * 1_000_000L / negatives));
+        return metrics;
+    }
+
+    public boolean isEmpty() {
+        return cache.isEmpty();
+    }
+
+    public boolean has(K key) {
+        if (key == null) {
+            return cache.has(key);
+        }
+        if (!filter.mightContain(key)) {
+            shortCircuits++;
+            return false;
+        }
+        boolean present = cache.has(key);
+        if (!present) {
+            falsePositives++;
+        }
+        return present;
+    }
+
+    public V peekTop() {
+        return cache.peekTop();
+    }
+
+    public V peekBottom() {
+        return cache.peekBottom();
+    }
+
+    public V elementTop() throws CacheUnderflowException {
+        return cache.elementTop();
+    }
+
+    public V elementBottom() throws CacheUnderflowException {
+        return cache.elementBottom();
+    }
+
+    public V popTop() {
+        V value = cache.popTop();
+        reconcile();
+        return value;
+    }
+
+    public V popBottom() {
+        V value = cache.popBottom();
+        reconcile();
+        return value;
+    }
+
+    public V pollTop() throws CacheUnderflowException {
+        V value = cache.pollTop();
+        reconcile();
+        return value;
+    }
+
+    public V pollBottom() throws CacheUnderflowException {
+        V value = cache.pollBottom();
+        reconcile();
+        return value;
+    }
+
+    public K victim() {
+        return cache.victim();
+    }
+
+    public K evict() {
+        K victim = cache.evict();
+        if (victim != null) {
+            filter.remove(victim);
+        }
+        return victim;
+    }
+
+    public V get(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        if (!filter.mightContain(key)) {
+            shortCircuits++;
+            return null;
+        }
+        V value = cache.get(key);
+        if (value == null) {
+            falsePositives++;
+        }
+        return value;
+    }
+
+    public V get(K key, V defaultValue) throws InvalidCacheEntryException {
+        V value = get(key);
+        return value == null? defaultValue:value;
+    }
+
+    public V getStale(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        if (!filter.mightContain(key)) {
+            return null;
+        }
+        return cache.getStale(key);
+    }
+
+    public void put(CacheEntry<K, V> entry) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (entry == null || entry.key() == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        put(entry.key(), () -> cache.put(entry));
+    }
+
+    public long[][] entryMetadata() {
+        return cache.entryMetadata();
+    }
+
+    public void restoreEntry(K key, V value, long[] metadata) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        put(key, () -> cache.restoreEntry(key, value, metadata));
+    }
+
+    public void remove(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        if (!filter.mightContain(key)) {
+            shortCircuits++;
+            return;
+        }
+        boolean present = cache.has(key);
+        cache.remove(key);
+        if (present) {
+            filter.remove(key);
+        }
+    }
+
+    public void clear() {
+        cache.clear();
+        filter.clear();
+    }
+
+    private void put(K key, Runnable insertion) {
+        boolean present = filter.mightContain(key) && cache.has(key);
+        // The underlying cache may reject the entry or pick its victim by the incoming key, so it is never evicted first
+        K victim = !present && cache.size() >= cache.capacity()? cache.victim():null;
+        insertion.run();
+        if (victim != null && !victim.equals(key) && !cache.has(victim)) {
+            filter.remove(victim);
+        }
+        if (!present) {
+            filter.add(key);
+        }
+        reconcile();
+    }
+
+    private void reconcile() {
+        if (filter.additions() - cache.size() < drift) {
+            return;
+        }
+        filter.clear();
+        for (K key : cache.keys()) {
+            filter.add(key);
+        }
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof DoorkeeperCache<?, ?> other)) {
+            return false;
+        }
+        return cache.equals(other.cache);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s%s", super.toString(), cache);
+    }
+
+}
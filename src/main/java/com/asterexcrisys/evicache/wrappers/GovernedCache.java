@@ -0,0 +1,212 @@
+package com.asterexcrisys.evicache.wrappers;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
+import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
+import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.MetricType;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A cache whose number of entries can be temporarily limited below its capacity by a
+ * {@link com.asterexcrisys.evicache.MemoryGovernor} while the heap is under pressure. The limit is only set by the
+ * governor, while this cache enforces it on its next retrieval or insertion, by evicting through the underlying
+ * eviction policy (through {@link Cache#evict()}) until it fits, so the underlying cache is never accessed by the
+ * thread of the governor. The current limit, the number of times it was shrunk and restored and the number of
+ * entries evicted to enforce it are reported as metrics.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+@SuppressWarnings("unused")
+public class GovernedCache<K, V> implements Cache<K, V> {
+
+    private volatile int limit;
+    private int evictions;
+    private final Cache<K, V> cache;
+    private final AtomicInteger shrinks;
+    private final AtomicInteger restores;
+
+    public GovernedCache(Cache<K, V> cache) throws IllegalCacheStateException {
+        if (cache == null) {
+            throw new IllegalCacheStateException("cache cannot be null");
+        }
+        limit = cache.capacity();
+        evictions = 0;
+        this.cache = cache;
+        shrinks = new AtomicInteger(0);
+        restores = new AtomicInteger(0);
+    }
+
+    public Cache<K, V> cache() {
+        return cache;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int evictions() {
+        return evictions;
+    }
+
+    /**
+     * Limits the number of entries of this cache to the given fraction of its capacity (but at least one entry).
+     * The entries in excess are evicted by the next retrieval or insertion.
+     *
+     * @param fraction the fraction of the capacity that this cache can use
+     */
+    public void shrink(double fraction) {
+        limit = Math.max(1, (int) (cache.capacity() * fraction));
+        shrinks.incrementAndGet();
+    }
+
+    /**
+     * Lifts the limit set by {@link #shrink(double)}, so that this cache can use its whole capacity again.
+     */
+    public void restore() {
+        if (limit != cache.capacity()) {
+            limit = cache.capacity();
+            restores.incrementAndGet();
+        }
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public int capacity() {
+        return cache.capacity();
+    }
+
+    public boolean metricsEnabled() {
+        return cache.metricsEnabled();
+    }
+
+    public K[] keys() {
+        return cache.keys();
+    }
+
+    public V[] values() {
+        return cache.values();
+    }
+
+    public HashMap<String, Integer> metrics() throws IllegalCacheStateException {
+        HashMap<String, Integer> metrics = cache.metrics();
+        metrics.put(MetricType.CACHE_LIMIT.identifier(), limit);
+        metrics.put(MetricType.CACHE_SHRINKS.identifier(), shrinks.get());
+        metrics.put(MetricType.CACHE_RESTORES.identifier(), restores.get());
+        metrics.put(MetricType.CACHE_PRESSURE_EVICTIONS.identifier(), evictions);
+        return metrics;
+    }
+
+    public boolean isEmpty() {
+        return cache.isEmpty();
+    }
+
+    public boolean has(K key) {
+        return cache.has(key);
+    }
+
+    public V peekTop() {
+        return cache.peekTop();
+    }
+
+    public V peekBottom() {
+        return cache.peekBottom();
+    }
+
+    public V elementTop() throws CacheUnderflowException {
+        return cache.elementTop();
+    }
+
+    public V elementBottom() throws CacheUnderflowException {
+        return cache.elementBottom();
+    }
+
+    public V popTop() {
+        return cache.popTop();
+    }
+
+    public V popBottom() {
+        return cache.popBottom();
+    }
+
+    public V pollTop() throws CacheUnderflowException {
+        return cache.pollTop();
+    }
+
+    public V pollBottom() throws CacheUnderflowException {
+        return cache.pollBottom();
+    }
+
+    public K victim() {
+        return cache.victim();
+    }
+
+    public K evict() {
+        return cache.evict();
+    }
+
+    public V get(K key) throws InvalidCacheEntryException {
+        enforce();
+        return cache.get(key);
+    }
+
+    public V get(K key, V defaultValue) throws InvalidCacheEntryException {
+        V value = get(key);
+        return value == null? defaultValue:value;
+    }
+
+    public V getStale(K key) throws InvalidCacheEntryException {
+        return cache.getStale(key);
+    }
+
+    public void put(CacheEntry<K, V> entry) throws IllegalCacheStateException, InvalidCacheEntryException {
+        cache.put(entry);
+        enforce();
+    }
+
+    public long[][] entryMetadata() {
+        return cache.entryMetadata();
+    }
+
+    public void restoreEntry(K key, V value, long[] metadata) throws IllegalCacheStateException, InvalidCacheEntryException {
+        cache.restoreEntry(key, value, metadata);
+        enforce();
+    }
+
+    public void remove(K key) throws InvalidCacheEntryException {
+        cache.remove(key);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    private void enforce() {
+        int current = limit;
+        while (cache.size() > current) {
+            if (cache.evict() == null) {
+                break;
+            }
+            evictions++;
+        }
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof GovernedCache<?, ?> other)) {
+            return false;
+        }
+        return cache.equals(other.cache);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s%s", super.toString(), cache);
+    }
+
+}
@@ -0,0 +1,804 @@
+package com.asterexcrisys.evicache.wrappers;
+
+import com.asterexcrisys.evicache.BatchingLoader;
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheExecutors;
+import com.asterexcrisys.evicache.CacheLoader;
+import com.asterexcrisys.evicache.CacheRecorder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.exceptions.CacheLoadingException;
+import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
+import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
+import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.MetricType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A cache that loads the value of any missing key through a {@link CacheLoader} (or a function given on each call)
+ * and that can be safely shared between threads, since every operation on the underlying cache is guarded by a lock.
+ * <p>
+ * Loads are coalesced per key: the first caller that misses registers a load in flight and runs it outside the lock,
+ * while every other caller that misses the same key in the meantime waits for that same load instead of starting its
+ * own, so a hot key that is evicted or expires costs a single call to the loader however many callers miss it.
+ * A failed load is propagated to all of its callers, and nothing is cached (so the next miss loads it again).
+ * A load whose key is removed or cleared while in flight still completes its callers, but its value is discarded.
+ * <p>
+ * Optionally, entries can be refreshed ahead of their expiry: the first read of an entry written longer than the
+ * refresh time ago still returns the current value, but also starts a reload on an executor (unless one is already
+ * in flight for the key, in which case any caller that misses the key joins it), whose value then replaces the old
+ * one, while a failed reload keeps it until the refresh time elapses again. Since a replaced value only gets a new
+ * deadline if the underlying cache expires entries after update or access, the builder rejects a refresh time along
+ * with a time-based cache that expires entries after write, which would still have every entry expire on schedule.
+ * <p>
+ * If the underlying cache retains expired entries for a grace period (e.g. a {@code TimeCache} with a maximum stale
+ * time), a caller that misses an expired but retained entry is served its stale value right away while a reload runs
+ * in the background (stale-while-revalidate), and keeps being served it if the reload fails or takes too long
+ * (serve-stale-on-error), until the grace period ends and the entry is finally removed. Stale serves are counted apart.
+ * Entries are stored through a factory, so that a cache that requires a specific type of entry
+ * (e.g. {@link com.asterexcrisys.evicache.maps.time.fixed.ExpireCache}) can be loaded too.
+ * <p>
+ * Optionally, keys the loader found no value for can be remembered as absent (negative caching) in a separate cache,
+ * with its own capacity and expiry time, so that they cannot crowd out actual values: until its marker expires or is
+ * evicted, a key known to be absent is not loaded again, unless a value is put or the key is removed in the meantime.
+ * The number of successful and failed loads and refreshes and the average time spent loading are reported as metrics,
+ * along with the number of misses answered by an absence marker and of markers evicted to make room for others.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+@SuppressWarnings("unused")
+public class LoadingCache<K, V> implements Cache<K, V> {
+
+    private final Cache<K, V> cache;
+    private final CacheLoader<K, V> loader;
+    private final BiFunction<K, V, CacheEntry<K, V>> factory;
+    private final long refreshTime;
+    private final Executor executor;
+    private final Cache<K, Boolean> negatives;
+    private final HashMap<K, CompletableFuture<V>> loads;
+    private final HashMap<K, Long> writes;
+    private final ReentrantLock lock;
+    private final LongAdder successes;
+    private final LongAdder failures;
+    private final LongAdder refreshes;
+    private final LongAdder refreshFailures;
+    private final LongAdder stales;
+    private final LongAdder loadTime;
+    private final CacheRecorder recorder;
+
+    public LoadingCache(Cache<K, V> cache, CacheLoader<K, V> loader) throws IllegalCacheStateException {
+        this(cache, loader, BasicCacheEntry::new);
+    }
+
+    public LoadingCache(Cache<K, V> cache, CacheLoader<K, V> loader, BiFunction<K, V, CacheEntry<K, V>> factory) throws IllegalCacheStateException {
+        this(cache, loader, factory, 0L, TimeUnit.MILLISECONDS, CacheExecutors.defaultExecutor());
+    }
+
+    public LoadingCache(Cache<K, V> cache, CacheLoader<K, V> loader, BiFunction<K, V, CacheEntry<K, V>> factory, long refreshTime, TimeUnit unit, Executor executor) throws IllegalCacheStateException {
+        this(cache, loader, factory, refreshTime, unit, null, executor);
+    }
+
+    @SuppressWarnings("unchecked")
+    public LoadingCache(Cache<K, V> cache, CacheLoader<K, V> loader, BiFunction<K, V, CacheEntry<K, V>> factory, long refreshTime, TimeUnit unit, Cache<K, Boolean> negatives, Executor executor) throws IllegalCacheStateException {
+        if (cache == null) {
+            throw new IllegalCacheStateException("cache cannot be null");
+        }
+        if (loader == null) {
+            throw new IllegalCacheStateException("loader cannot be null");
+        }
+        if (factory == null) {
+            throw new IllegalCacheStateException("factory cannot be null");
+        }
+        if (refreshTime < 0) {
+            throw new IllegalCacheStateException("refresh time cannot be negative");
+        }
+        if (unit == null) {
+            throw new IllegalCacheStateException("unit cannot be null");
+        }
+        if (executor == null) {
+            throw new IllegalCacheStateException("executor cannot be null");
+        }
+        this.cache = cache;
+        this.loader = loader;
+        this.factory = factory;
+        this.refreshTime = unit.toNanos(refreshTime);
+        this.executor = executor;
+        this.negatives = negatives;
+        loads = new HashMap<>();
+        writes = new HashMap<>();
+        lock = new ReentrantLock();
+        successes = new LongAdder();
+        failures = new LongAdder();
+        refreshes = new LongAdder();
+        refreshFailures = new LongAdder();
+        stales = new LongAdder();
+        loadTime = new LongAdder();
+        recorder = new CacheRecorder((Class<? extends Cache<?, ?>>) this.getClass());
+    }
+
+    public Cache<K, V> cache() {
+        return cache;
+    }
+
+    public CacheLoader<K, V> loader() {
+        return loader;
+    }
+
+    public long refreshTime() {
+        return refreshTime;
+    }
+
+    public Cache<K, Boolean> negatives() {
+        return negatives;
+    }
+
+    public int loading() {
+        lock.lock();
+        try {
+            return loads.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return cache.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int capacity() {
+        return cache.capacity();
+    }
+
+    public boolean metricsEnabled() {
+        return cache.metricsEnabled();
+    }
+
+    public K[] keys() {
+        lock.lock();
+        try {
+            return cache.keys();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V[] values() {
+        lock.lock();
+        try {
+            return cache.values();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public HashMap<String, Integer> metrics() throws IllegalCacheStateException {
+        HashMap<String, Integer> metrics;
+        lock.lock();
+        try {
+            metrics = cache.metrics();
+        } finally {
+            lock.unlock();
+        }
+        long loads = successes.sum() + failures.sum() + refreshes.sum() + refreshFailures.sum();
+        metrics.put(MetricType.CACHE_LOADS.identifier(), successes.intValue());
+        metrics.put(MetricType.CACHE_FAILURES.identifier(), failures.intValue());
+        metrics.put(MetricType.CACHE_REFRESHES.identifier(), refreshes.intValue());
+        metrics.put(MetricType.CACHE_REFRESH_FAILURES.identifier(), refreshFailures.intValue());
+        metrics.put(MetricType.CACHE_STALE.identifier(), stales.intValue());
+        metrics.put(MetricType.CACHE_LATENCY.identifier(), loads == 0? 0:(int) Math.min(loadTime.sum() / loads / 1000L, Integer.MAX_VALUE));
+        HashMap<String, Integer> negative = recorder.metrics();
+        metrics.put(MetricType.CACHE_NEGATIVE_HITS.identifier(), negative.get(MetricType.CACHE_NEGATIVE_HITS.identifier()));
+        metrics.put(MetricType.CACHE_NEGATIVE_EVICTIONS.identifier(), negative.get(MetricType.CACHE_NEGATIVE_EVICTIONS.identifier()));
+        if (loader instanceof BatchingLoader<K, V> batching) {
+            metrics.put(MetricType.CACHE_BATCHES.identifier(), (int) Math.min(batching.batches(), Integer.MAX_VALUE));
+        }
+        return metrics;
+    }
+
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return cache.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean has(K key) {
+        lock.lock();
+        try {
+            return cache.has(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V peekTop() {
+        lock.lock();
+        try {
+            return cache.peekTop();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V peekBottom() {
+        lock.lock();
+        try {
+            return cache.peekBottom();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V elementTop() throws CacheUnderflowException {
+        lock.lock();
+        try {
+            return cache.elementTop();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V elementBottom() throws CacheUnderflowException {
+        lock.lock();
+        try {
+            return cache.elementBottom();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V popTop() {
+        lock.lock();
+        try {
+            return cache.popTop();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V popBottom() {
+        lock.lock();
+        try {
+            return cache.popBottom();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V pollTop() throws CacheUnderflowException {
+        lock.lock();
+        try {
+            return cache.pollTop();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V pollBottom() throws CacheUnderflowException {
+        lock.lock();
+        try {
+            return cache.pollBottom();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public K victim() {
+        lock.lock();
+        try {
+            return cache.victim();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public K evict() {
+        lock.lock();
+        try {
+            return cache.evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the value associated with the specified key, loading it through the loader of this cache if missing.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value mapped to the key, or {@code null} if the loader found no value for it
+     * @throws InvalidCacheEntryException if the key is {@code null}
+     * @throws CacheLoadingException if the loader failed with a checked exception (unchecked ones are rethrown as is)
+     */
+    public V get(K key) throws InvalidCacheEntryException, CacheLoadingException {
+        return compute(key, loader);
+    }
+
+    public V get(K key, V defaultValue) throws InvalidCacheEntryException, CacheLoadingException {
+        V value = get(key);
+        return value == null? defaultValue:value;
+    }
+
+    public V getStale(K key) throws InvalidCacheEntryException {
+        lock.lock();
+        try {
+            return cache.getStale(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the value associated with the specified key, loading it through the given function if missing.
+     * If the key is already being loaded by another caller, this waits for that load instead of starting a new one.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param loader the function used to load the value if no load is already in flight for the key
+     * @return the value mapped to the key, or {@code null} if the function returned {@code null}
+     * @throws InvalidCacheEntryException if the key is {@code null}
+     * @throws CacheLoadingException if the loader failed with a checked exception (unchecked ones are rethrown as is)
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) throws InvalidCacheEntryException, CacheLoadingException {
+        if (loader == null) {
+            throw new IllegalCacheStateException("loader cannot be null");
+        }
+        return compute(key, loader::apply);
+    }
+
+    /**
+     * Retrieves the value associated with the specified key without loading it if missing.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value mapped to the key, or {@code null} if they key is not present
+     * @throws InvalidCacheEntryException if the key is {@code null}
+     */
+    public V getIfPresent(K key) throws InvalidCacheEntryException {
+        lock.lock();
+        try {
+            return cache.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether the specified key is known to be absent, that is, whether the loader found no value for it (or it
+     * was marked as absent) less than the expiry time of absence markers ago.
+     *
+     * @param key the key whose absence is to be checked
+     * @return {@code true} if an unexpired absence marker exists for the key, {@code false} otherwise
+     * @throws InvalidCacheEntryException if the key is {@code null}
+     */
+    public boolean isAbsent(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        lock.lock();
+        try {
+            return negatives != null && negatives.get(key) != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks the specified key as absent (e.g. after it was deleted from the source), removing its value if present,
+     * so that it is not loaded again until its absence marker expires or is evicted. Does nothing if this cache does
+     * not remember absent keys.
+     *
+     * @param key the key to be marked as absent
+     * @throws InvalidCacheEntryException if the key is {@code null}
+     */
+    public void markAbsent(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        lock.lock();
+        try {
+            cache.remove(key);
+            loads.remove(key);
+            writes.remove(key);
+            absent(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(CacheEntry<K, V> entry) throws IllegalCacheStateException, InvalidCacheEntryException {
+        lock.lock();
+        try {
+            cache.put(entry);
+            loads.remove(entry.key());
+            present(entry.key());
+            written(entry.key());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long[][] entryMetadata() {
+        lock.lock();
+        try {
+            return cache.entryMetadata();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void restoreEntry(K key, V value, long[] metadata) throws IllegalCacheStateException, InvalidCacheEntryException {
+        lock.lock();
+        try {
+            cache.restoreEntry(key, value, metadata);
+            loads.remove(key);
+            present(key);
+            written(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the values associated with the specified keys, loading all the missing ones through a single call to
+     * {@link CacheLoader#loadAll(java.util.Set)} of the loader of this cache (except those already being loaded by
+     * other callers, which are waited for instead). Bulk retrievals neither refresh entries nor serve stale values.
+     *
+     * @param keys the keys whose associated values are to be returned
+     * @return a map of the keys to their values (keys the loader found no value for are not included)
+     * @throws InvalidCacheEntryException if any of the keys is {@code null}
+     * @throws CacheLoadingException if the loader failed with a checked exception (unchecked ones are rethrown as is)
+     */
+    public HashMap<K, V> getAll(Collection<? extends K> keys) throws InvalidCacheEntryException, CacheLoadingException {
+        HashMap<K, V> values;
+        HashMap<K, CompletableFuture<V>> owned = new HashMap<>();
+        HashMap<K, CompletableFuture<V>> joined = new HashMap<>();
+        lock.lock();
+        try {
+            values = cache.getAll(keys);
+            for (K key : keys) {
+                if (values.containsKey(key) || owned.containsKey(key) || joined.containsKey(key) || isKnownAbsent(key)) {
+                    continue;
+                }
+                CompletableFuture<V> load = loads.get(key);
+                if (load == null) {
+                    load = new CompletableFuture<>();
+                    loads.put(key, load);
+                    owned.put(key, load);
+                } else {
+                    joined.put(key, load);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (!owned.isEmpty()) {
+            values.putAll(loadAll(owned));
+        }
+        for (Map.Entry<K, CompletableFuture<V>> entry : joined.entrySet()) {
+            V value = join(entry.getValue());
+            if (value != null) {
+                values.put(entry.getKey(), value);
+            }
+        }
+        return values;
+    }
+
+    public void putAll(Collection<? extends CacheEntry<K, V>> entries) throws IllegalCacheStateException, InvalidCacheEntryException {
+        lock.lock();
+        try {
+            cache.putAll(entries);
+            for (CacheEntry<K, V> entry : entries) {
+                loads.remove(entry.key());
+                present(entry.key());
+                written(entry.key());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void removeAll(Collection<? extends K> keys) throws InvalidCacheEntryException {
+        lock.lock();
+        try {
+            cache.removeAll(keys);
+            for (K key : keys) {
+                loads.remove(key);
+                writes.remove(key);
+                present(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(K key) throws InvalidCacheEntryException {
+        lock.lock();
+        try {
+            cache.remove(key);
+            loads.remove(key);
+            writes.remove(key);
+            present(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            cache.clear();
+            loads.clear();
+            writes.clear();
+            if (negatives != null) {
+                negatives.clear();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private V compute(K key, CacheLoader<K, V> loader) throws InvalidCacheEntryException, CacheLoadingException {
+        V value;
+        CompletableFuture<V> load = null;
+        CompletableFuture<V> refresh = null;
+        boolean isOwner = false;
+        lock.lock();
+        try {
+            value = cache.get(key);
+            if (value == null) {
+                load = loads.get(key);
+                value = cache.getStale(key);
+                if (value != null) {
+                    stales.increment();
+                    if (load == null) {
+                        refresh = new CompletableFuture<>();
+                        loads.put(key, refresh);
+                    }
+                } else if (load == null) {
+                    if (isKnownAbsent(key)) {
+                        return null;
+                    }
+                    load = new CompletableFuture<>();
+                    loads.put(key, load);
+                    isOwner = true;
+                }
+            } else if (refreshTime > 0 && !loads.containsKey(key) && isDue(key)) {
+                refresh = new CompletableFuture<>();
+                loads.put(key, refresh);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (value != null) {
+            if (refresh != null) {
+                refresh(key, refresh, loader);
+            }
+            return value;
+        }
+        return isOwner? load(key, load, loader, false):join(load);
+    }
+
+    private void refresh(K key, CompletableFuture<V> refresh, CacheLoader<K, V> loader) {
+        try {
+            executor.execute(() -> {
+                try {
+                    load(key, refresh, loader, true);
+                } catch (RuntimeException exception) {
+                    // The old value is kept, and the first read after another refresh time will try again
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            lock.lock();
+            try {
+                loads.remove(key, refresh);
+            } finally {
+                lock.unlock();
+            }
+            refreshFailures.increment();
+            refresh.completeExceptionally(exception);
+        }
+    }
+
+    private V load(K key, CompletableFuture<V> load, CacheLoader<K, V> loader, boolean isRefresh) throws CacheLoadingException {
+        long start = System.nanoTime();
+        V value;
+        try {
+            value = loader.load(key);
+        } catch (Throwable throwable) {
+            loadTime.add(System.nanoTime() - start);
+            (isRefresh? refreshFailures:failures).increment();
+            lock.lock();
+            try {
+                if (loads.remove(key, load) && isRefresh) {
+                    written(key);
+                }
+            } finally {
+                lock.unlock();
+            }
+            load.completeExceptionally(throwable);
+            throw propagate(throwable);
+        }
+        loadTime.add(System.nanoTime() - start);
+        (isRefresh? refreshes:successes).increment();
+        boolean isStored = false;
+        lock.lock();
+        try {
+            if (loads.remove(key, load)) {
+                if (value != null) {
+                    cache.put(factory.apply(key, value));
+                    written(key);
+                } else {
+                    if (isRefresh) {
+                        cache.remove(key);
+                        writes.remove(key);
+                    }
+                    absent(key);
+                }
+            }
+            isStored = true;
+        } finally {
+            lock.unlock();
+            // The callers waiting for the load must be released even if the value could not be stored
+            if (isStored) {
+                load.complete(value);
+            } else {
+                load.completeExceptionally(new CacheLoadingException(String.format("value of key '%s' could not be stored", key)));
+            }
+        }
+        return value;
+    }
+
+    private HashMap<K, V> loadAll(HashMap<K, CompletableFuture<V>> owned) throws CacheLoadingException {
+        long start = System.nanoTime();
+        Map<K, V> loaded;
+        try {
+            loaded = loader.loadAll(Collections.unmodifiableSet(owned.keySet()));
+        } catch (Throwable throwable) {
+            loadTime.add(System.nanoTime() - start);
+            failures.add(owned.size());
+            lock.lock();
+            try {
+                for (Map.Entry<K, CompletableFuture<V>> entry : owned.entrySet()) {
+                    loads.remove(entry.getKey(), entry.getValue());
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (CompletableFuture<V> load : owned.values()) {
+                load.completeExceptionally(throwable);
+            }
+            throw propagate(throwable);
+        }
+        loadTime.add(System.nanoTime() - start);
+        successes.add(owned.size());
+        HashMap<K, V> values = new HashMap<>();
+        List<CacheEntry<K, V>> entries = new ArrayList<>();
+        boolean isStored = false;
+        lock.lock();
+        try {
+            for (Map.Entry<K, CompletableFuture<V>> entry : owned.entrySet()) {
+                V value = loaded == null? null:loaded.get(entry.getKey());
+                if (value != null) {
+                    values.put(entry.getKey(), value);
+                }
+                if (loads.remove(entry.getKey(), entry.getValue())) {
+                    if (value != null) {
+                        entries.add(factory.apply(entry.getKey(), value));
+                    } else {
+                        absent(entry.getKey());
+                    }
+                }
+            }
+            cache.putAll(entries);
+            for (CacheEntry<K, V> entry : entries) {
+                written(entry.key());
+            }
+            isStored = true;
+        } finally {
+            lock.unlock();
+            for (Map.Entry<K, CompletableFuture<V>> entry : owned.entrySet()) {
+                if (isStored) {
+                    entry.getValue().complete(values.get(entry.getKey()));
+                } else {
+                    entry.getValue().completeExceptionally(new CacheLoadingException(String.format("value of key '%s' could not be stored", entry.getKey())));
+                }
+            }
+        }
+        return values;
+    }
+
+    private boolean isKnownAbsent(K key) {
+        if (negatives == null || negatives.get(key) == null) {
+            return false;
+        }
+        recorder.negativeHit();
+        return true;
+    }
+
+    private void absent(K key) {
+        if (negatives == null) {
+            return;
+        }
+        if (!negatives.has(key) && negatives.size() == negatives.capacity()) {
+            recorder.negativeEviction();
+        }
+        negatives.put(new BasicCacheEntry<>(key, Boolean.TRUE));
+    }
+
+    private void present(K key) {
+        if (negatives != null) {
+            negatives.remove(key);
+        }
+    }
+
+    private boolean isDue(K key) {
+        Long written = writes.get(key);
+        if (written == null) {
+            written(key);
+            return false;
+        }
+        return System.nanoTime() - written >= refreshTime;
+    }
+
+    private void written(K key) {
+        if (refreshTime == 0) {
+            return;
+        }
+        writes.put(key, System.nanoTime());
+        if (writes.size() > 2 * cache.capacity()) {
+            writes.keySet().removeIf(other -> !cache.has(other));
+        }
+    }
+
+    private V join(CompletableFuture<V> load) throws CacheLoadingException {
+        try {
+            return load.join();
+        } catch (CompletionException exception) {
+            throw propagate(exception.getCause());
+        }
+    }
+
+    private static RuntimeException propagate(Throwable throwable) {
+        if (throwable instanceof RuntimeException exception) {
+            return exception;
+        }
+        if (throwable instanceof Error error) {
+            throw error;
+        }
+        return new CacheLoadingException("value could not be loaded", throwable);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof LoadingCache<?, ?> other)) {
+            return false;
+        }
+        return cache.equals(other.cache);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s%s", super.toString(), cache);
+    }
+
+}
@@ -0,0 +1,444 @@
+package com.asterexcrisys.evicache.wrappers;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
+import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
+import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.MetricType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A cache that splits its entries among several independent partitions (each of which is a cache with its own share
+ * of the capacity), assigning every key to a partition by its hash, and that can be safely shared between threads,
+ * since every partition is guarded by its own lock, so that operations on keys of different partitions never wait
+ * for each other. The eviction policy applies to each partition alone, so the top and the bottom of this cache are
+ * those of its fullest partition, which is also the one that evicts when an entry is evicted explicitly.
+ * <p>
+ * A partitioned cache can be warmed up from a snapshot by restoring every partition in parallel (see
+ * {@link com.asterexcrisys.evicache.CacheSnapshot}), either before it starts serving or while it already is: during
+ * a warm-up, the keys put or removed by other callers are remembered until it ends, so that the snapshot never
+ * overwrites nor resurrects them. The number of entries restored by the current (or last) warm-up and its progress
+ * (in percent) are reported as metrics, along with the metrics of the partitions, which are summed up.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+@SuppressWarnings("unused")
+public class PartitionedCache<K, V> implements Cache<K, V> {
+
+    private volatile boolean isWarmingUp;
+    private volatile int expected;
+    private final AtomicInteger warmed;
+    private final List<Cache<K, V>> partitions;
+    private final List<HashSet<K>> touched;
+    private final ReentrantLock[] locks;
+
+    public PartitionedCache(List<Cache<K, V>> partitions) throws IllegalCacheStateException {
+        if (partitions == null || partitions.isEmpty()) {
+            throw new IllegalCacheStateException("partitions cannot be null or empty");
+        }
+        if (partitions.contains(null)) {
+            throw new IllegalCacheStateException("partition cannot be null");
+        }
+        isWarmingUp = false;
+        expected = 0;
+        warmed = new AtomicInteger(0);
+        this.partitions = List.copyOf(partitions);
+        touched = new ArrayList<>();
+        locks = new ReentrantLock[this.partitions.size()];
+        for (int i = 0; i < locks.length; i++) {
+            touched.add(new HashSet<>());
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public int partitions() {
+        return partitions.size();
+    }
+
+    public Cache<K, V> partition(int index) throws IndexOutOfBoundsException {
+        return partitions.get(index);
+    }
+
+    /**
+     * Returns the index of the partition that the given key is assigned to.
+     *
+     * @param key the key whose partition is to be returned
+     * @return the index of the partition of the key
+     * @throws InvalidCacheEntryException if the key is {@code null}
+     */
+    public int partitionOf(K key) throws InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        int hash = key.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), partitions.size());
+    }
+
+    public boolean isWarmingUp() {
+        return isWarmingUp;
+    }
+
+    public int warmed() {
+        return warmed.get();
+    }
+
+    /**
+     * Starts a warm-up of the given number of entries, from then on remembering the keys put or removed by callers,
+     * so that the entries restored by the warm-up do not replace them.
+     *
+     * @param entries the number of entries to be restored
+     */
+    public void startWarmUp(int entries) {
+        expected = Math.max(0, entries);
+        warmed.set(0);
+        isWarmingUp = true;
+    }
+
+    /**
+     * Ends the current warm-up (if any), forgetting the keys put or removed since it started.
+     */
+    public void finishWarmUp() {
+        isWarmingUp = false;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i].lock();
+            try {
+                touched.get(i).clear();
+            } finally {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i].lock();
+            try {
+                size += partitions.get(i).size();
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        return size;
+    }
+
+    public int capacity() {
+        int capacity = 0;
+        for (Cache<K, V> partition : partitions) {
+            capacity += partition.capacity();
+        }
+        return capacity;
+    }
+
+    public boolean metricsEnabled() {
+        return partitions.get(0).metricsEnabled();
+    }
+
+    @SuppressWarnings("unchecked")
+    public K[] keys() {
+        List<K> keys = new ArrayList<>();
+        for (int i = 0; i < locks.length; i++) {
+            locks[i].lock();
+            try {
+                keys.addAll(Arrays.asList(partitions.get(i).keys()));
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        return (K[]) keys.toArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    public V[] values() {
+        List<V> values = new ArrayList<>();
+        for (int i = 0; i < locks.length; i++) {
+            locks[i].lock();
+            try {
+                values.addAll(Arrays.asList(partitions.get(i).values()));
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        return (V[]) values.toArray();
+    }
+
+    public HashMap<String, Integer> metrics() throws IllegalCacheStateException {
+        HashMap<String, Integer> metrics = new HashMap<>();
+        for (int i = 0; i < locks.length; i++) {
+            locks[i].lock();
+            try {
+                partitions.get(i).metrics().forEach((name, value) -> {
+                    if (name.equals(MetricType.CACHE_TYPE.identifier()) || name.equals(MetricType.CACHE_POLICY.identifier())) {
+                        metrics.putIfAbsent(name, value);
+                    } else {
+                        metrics.merge(name, value, Integer::sum);
+                    }
+                });
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        int restored = warmed.get();
+        int total = expected;
+        metrics.put(MetricType.CACHE_PARTITIONS.identifier(), partitions.size());
+        metrics.put(MetricType.CACHE_WARMED.identifier(), restored);
+        metrics.put(MetricType.CACHE_WARM_UP_PROGRESS.identifier(), total == 0? 100:(int) Math.min(100L, restored * 100L / total));
+        return metrics;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean has(K key) {
+        int index = partitionOf(key);
+        locks[index].lock();
+        try {
+            return partitions.get(index).has(key);
+        } finally {
+            locks[index].unlock();
+        }
+    }
+
+    public V peekTop() {
+        int index = fullest();
+        locks[index].lock();
+        try {
+            return partitions.get(index).peekTop();
+        } finally {
+            locks[index].unlock();
+        }
+    }
+
+    public V peekBottom() {
+        int index = fullest();
+        locks[index].lock();
+        try {
+            return partitions.get(index).peekBottom();
+        } finally {
+            locks[index].unlock();
+        }
+    }
+
+    public V elementTop() throws CacheUnderflowException {
+        int index = fullest();
+        locks[index].lock();
+        try {
+            return partitions.get(index).elementTop();
+        } finally {
+            locks[index].unlock();
+        }
+    }
+
+    public V elementBottom() throws CacheUnderflowException {
+        int index = fullest();
+        locks[index].lock();
+        try {
+            return partitions.get(index).elementBottom();
+        } finally {
+            locks[index].unlock();
+        }
+    }
+
+    public V popTop() {
+        int index = fullest();
+        locks[index].lock();
+        try {
+            return partitions.get(index).popTop();
+        } finally {
+            locks[index].unlock();
+        }
+    }
+
+    public V popBottom() {
+        int index = fullest();
+        locks[index].lock();
+        try {
+            return partitions.get(index).popBottom();
+        } finally {
+            locks[index].unlock();
+        }
+    }
+
+    public V pollTop() throws CacheUnderflowException {
+        int index = fullest();
+        locks[index].lock();
+        try {
+            return partitions.get(index).pollTop();
+        } finally {
+            locks[index].unlock();
+        }
+    }
+
+    public V pollBottom() throws CacheUnderflowException {
+        int index = fullest();
+        locks[index].lock();
+        try {
+            return partitions.get(index).pollBottom();
+        } finally {
+            locks[index].unlock();
+        }
+    }
+
+    public K victim() {
+        int index = fullest();
+        locks[index].lock();
+        try {
+            return partitions.get(index).victim();
+        } finally {
+            locks[index].unlock();
+        }
+    }
+
+    public K evict() {
+        int index = fullest();
+        locks[index].lock();
+        try {
+            return partitions.get(index).evict();
+        } finally {
+            locks[index].unlock();
+        }
+    }
+
+    public V get(K key) throws InvalidCacheEntryException {
+        int index = partitionOf(key);
+        locks[index].lock();
+        try {
+            return partitions.get(index).get(key);
+        } finally {
+            locks[index].unlock();
+        }
+    }
+
+    public V get(K key, V defaultValue) throws InvalidCacheEntryException {
+        V value = get(key);
+        return value == null? defaultValue:value;
+    }
+
+    public V getStale(K key) throws InvalidCacheEntryException {
+        int index = partitionOf(key);
+        locks[index].lock();
+        try {
+            return partitions.get(index).getStale(key);
+        } finally {
+            locks[index].unlock();
+        }
+    }
+
+    public void put(CacheEntry<K, V> entry) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (entry == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        int index = partitionOf(entry.key());
+        locks[index].lock();
+        try {
+            partitions.get(index).put(entry);
+            if (isWarmingUp) {
+                touched.get(index).add(entry.key());
+            }
+        } finally {
+            locks[index].unlock();
+        }
+    }
+
+    public long[][] entryMetadata() {
+        List<long[]> metadata = new ArrayList<>();
+        boolean isPresent = false;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i].lock();
+            try {
+                Cache<K, V> partition = partitions.get(i);
+                long[][] entries = partition.entryMetadata();
+                isPresent |= entries != null;
+                if (entries != null) {
+                    metadata.addAll(Arrays.asList(entries));
+                } else {
+                    metadata.addAll(Collections.nCopies(partition.size(), null));
+                }
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        return isPresent? metadata.toArray(new long[0][]):null;
+    }
+
+    /**
+     * Restores an entry into its partition (see {@link Cache#restoreEntry(Object, Object, long[])}), unless a warm-up
+     * is in progress and its key was put or removed since the warm-up started, and counts it as warmed.
+     *
+     * @param key the key of the entry
+     * @param value the value of the entry
+     * @param metadata the metadata of the entry, or {@code null} if it has none
+     * @throws IllegalCacheStateException if the metadata is not valid for the partitions
+     * @throws InvalidCacheEntryException if the key is {@code null}
+     */
+    public void restoreEntry(K key, V value, long[] metadata) throws IllegalCacheStateException, InvalidCacheEntryException {
+        int index = partitionOf(key);
+        locks[index].lock();
+        try {
+            if (!isWarmingUp || !touched.get(index).contains(key)) {
+                partitions.get(index).restoreEntry(key, value, metadata);
+            }
+        } finally {
+            locks[index].unlock();
+        }
+        warmed.incrementAndGet();
+    }
+
+    public void remove(K key) throws InvalidCacheEntryException {
+        int index = partitionOf(key);
+        locks[index].lock();
+        try {
+            partitions.get(index).remove(key);
+            if (isWarmingUp) {
+                touched.get(index).add(key);
+            }
+        } finally {
+            locks[index].unlock();
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i].lock();
+            try {
+                partitions.get(i).clear();
+            } finally {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    private int fullest() {
+        int fullest = 0;
+        for (int i = 1; i < partitions.size(); i++) {
+            if (partitions.get(i).size() > partitions.get(fullest).size()) {
+                fullest = i;
+            }
+        }
+        return fullest;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof PartitionedCache<?, ?> other)) {
+            return false;
+        }
+        return partitions.equals(other.partitions);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s%s", super.toString(), partitions);
+    }
+
+}
@@ -0,0 +1,397 @@
+package com.asterexcrisys.evicache.wrappers;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheListener;
+import com.asterexcrisys.evicache.CacheNotifier;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
+import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
+import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.MetricType;
+import com.asterexcrisys.evicache.models.ReferenceStrength;
+import com.asterexcrisys.evicache.models.RemovalCause;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * A cache that holds its values through soft or weak references on top of any other cache (which stores the
+ * references), so that the garbage collector can reclaim them under memory pressure: softly referenced values are
+ * only reclaimed when the heap is about to run out, while weakly referenced ones as soon as nothing else uses them.
+ * <p>
+ * The references of reclaimed values are enqueued by the garbage collector, and the queue is drained at the start
+ * of every operation (maintenance), removing their entries from the underlying cache, while a reclaimed value found
+ * before its reference is enqueued is removed right away. Such removals are notified with the
+ * {@link RemovalCause#COLLECTED} cause and a {@code null} value (since the value no longer exists), and their number
+ * is reported as a metric.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+@SuppressWarnings("unused")
+public class ReferenceCache<K, V> implements Cache<K, V> {
+
+    private int collected;
+    private final Cache<K, Reference<V>> cache;
+    private final ReferenceStrength strength;
+    private final BiFunction<K, Reference<V>, CacheEntry<K, Reference<V>>> factory;
+    private final ReferenceQueue<V> queue;
+    private final HashMap<K, Reference<V>> references;
+    private final CacheNotifier<K, V> notifier;
+
+    public ReferenceCache(Cache<K, Reference<V>> cache, ReferenceStrength strength) throws IllegalCacheStateException {
+        this(cache, strength, BasicCacheEntry::new, null);
+    }
+
+    public ReferenceCache(Cache<K, Reference<V>> cache, ReferenceStrength strength, BiFunction<K, Reference<V>, CacheEntry<K, Reference<V>>> factory, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
+        if (cache == null) {
+            throw new IllegalCacheStateException("cache cannot be null");
+        }
+        if (strength == null || strength == ReferenceStrength.STRONG) {
+            throw new IllegalCacheStateException("strength must be either soft or weak");
+        }
+        if (factory == null) {
+            throw new IllegalCacheStateException("factory cannot be null");
+        }
+        collected = 0;
+        this.cache = cache;
+        this.strength = strength;
+        this.factory = factory;
+        queue = new ReferenceQueue<>();
+        references = new HashMap<>();
+        this.notifier = notifier;
+    }
+
+    public Cache<K, Reference<V>> cache() {
+        return cache;
+    }
+
+    public ReferenceStrength strength() {
+        return strength;
+    }
+
+    public int collected() {
+        return collected;
+    }
+
+    public int size() {
+        drain();
+        return cache.size();
+    }
+
+    public int capacity() {
+        return cache.capacity();
+    }
+
+    public boolean metricsEnabled() {
+        return cache.metricsEnabled();
+    }
+
+    public K[] keys() {
+        drain();
+        return cache.keys();
+    }
+
+    @SuppressWarnings("unchecked")
+    public V[] values() {
+        drain();
+        Reference<V>[] values = cache.values();
+        V[] dereferenced = (V[]) new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            dereferenced[i] = dereference(values[i]);
+        }
+        return dereferenced;
+    }
+
+    public HashMap<String, Integer> metrics() throws IllegalCacheStateException {
+        drain();
+        HashMap<String, Integer> metrics = cache.metrics();
+        metrics.put(MetricType.CACHE_COLLECTED.identifier(), collected);
+        return metrics;
+    }
+
+    public boolean isEmpty() {
+        drain();
+        return cache.isEmpty();
+    }
+
+    public boolean has(K key) {
+        drain();
+        Reference<V> reference = references.get(key);
+        return reference != null && reference.get() != null && cache.has(key);
+    }
+
+    public V peekTop() {
+        drain();
+        return dereference(cache.peekTop());
+    }
+
+    public V peekBottom() {
+        drain();
+        return dereference(cache.peekBottom());
+    }
+
+    public V elementTop() throws CacheUnderflowException {
+        drain();
+        return dereference(cache.elementTop());
+    }
+
+    public V elementBottom() throws CacheUnderflowException {
+        drain();
+        return dereference(cache.elementBottom());
+    }
+
+    public V popTop() {
+        drain();
+        return release(cache.popTop());
+    }
+
+    public V popBottom() {
+        drain();
+        return release(cache.popBottom());
+    }
+
+    public V pollTop() throws CacheUnderflowException {
+        drain();
+        return release(cache.pollTop());
+    }
+
+    public V pollBottom() throws CacheUnderflowException {
+        drain();
+        return release(cache.pollBottom());
+    }
+
+    public K victim() {
+        drain();
+        return cache.victim();
+    }
+
+    public K evict() {
+        drain();
+        K victim = cache.evict();
+        if (victim != null) {
+            references.remove(victim);
+        }
+        return victim;
+    }
+
+    public V get(K key) throws InvalidCacheEntryException {
+        drain();
+        Reference<V> reference = cache.get(key);
+        if (reference == null) {
+            if (references.containsKey(key) && !cache.has(key)) {
+                references.remove(key);
+            }
+            return null;
+        }
+        V value = reference.get();
+        if (value == null) {
+            collect(key, reference);
+        }
+        return value;
+    }
+
+    public V get(K key, V defaultValue) throws InvalidCacheEntryException {
+        V value = get(key);
+        return value == null? defaultValue:value;
+    }
+
+    public V getStale(K key) throws InvalidCacheEntryException {
+        drain();
+        Reference<V> reference = cache.getStale(key);
+        if (reference == null) {
+            if (references.containsKey(key) && !cache.has(key)) {
+                references.remove(key);
+            }
+            return null;
+        }
+        V value = reference.get();
+        if (value == null) {
+            collect(key, reference);
+        }
+        return value;
+    }
+
+    public void put(CacheEntry<K, V> entry) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (entry == null || entry.key() == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        if (entry.value() == null) {
+            throw new InvalidCacheEntryException("value cannot be null");
+        }
+        put(entry.key(), entry.value(), reference -> cache.put(factory.apply(entry.key(), reference)));
+    }
+
+    public long[][] entryMetadata() {
+        drain();
+        return cache.entryMetadata();
+    }
+
+    public void restoreEntry(K key, V value, long[] metadata) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        if (value == null) {
+            throw new InvalidCacheEntryException("value cannot be null");
+        }
+        put(key, value, reference -> cache.restoreEntry(key, reference, metadata));
+    }
+
+    public void remove(K key) throws InvalidCacheEntryException {
+        drain();
+        cache.remove(key);
+        references.remove(key);
+    }
+
+    public void clear() {
+        cache.clear();
+        references.clear();
+        while (queue.poll() != null) {
+            // The entries of the enqueued references were just cleared, so they need not be removed again
+        }
+    }
+
+    private void put(K key, V value, Consumer<Reference<V>> insertion) {
+        drain();
+        Reference<V> reference = strength == ReferenceStrength.SOFT? new SoftValue<>(key, value, queue):new WeakValue<>(key, value, queue);
+        K victim = cache.size() < cache.capacity() || cache.has(key)? null:cache.victim();
+        insertion.accept(reference);
+        if (cache.has(key)) {
+            references.put(key, reference);
+        } else {
+            references.remove(key);
+        }
+        if (victim != null && !cache.has(victim)) {
+            references.remove(victim);
+        }
+        if (references.size() > cache.size() + cache.capacity()) {
+            // Entries removed silently by the underlying cache (e.g. expired ones) are only forgotten once they add up
+            // to its capacity, so that the cost of the scan is spread over at least as many insertions
+            reconcile();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void drain() {
+        Reference<? extends V> reference;
+        while ((reference = queue.poll()) != null) {
+            collect(((KeyedReference<K>) reference).key(), reference);
+        }
+    }
+
+    private void collect(K key, Reference<?> reference) {
+        if (references.get(key) != reference) {
+            return;
+        }
+        references.remove(key);
+        if (!cache.has(key)) {
+            // The entry already left the underlying cache silently (e.g. it expired), so it was not collected
+            return;
+        }
+        cache.remove(key);
+        collected++;
+        if (notifier != null) {
+            notifier.removal(key, null, RemovalCause.COLLECTED);
+        }
+    }
+
+    private void reconcile() {
+        Iterator<Map.Entry<K, Reference<V>>> iterator = references.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (!cache.has(iterator.next().getKey())) {
+                iterator.remove();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V release(Reference<V> reference) {
+        if (reference == null) {
+            return null;
+        }
+        references.remove(((KeyedReference<K>) reference).key(), reference);
+        return reference.get();
+    }
+
+    private V dereference(Reference<V> reference) {
+        return reference == null? null:reference.get();
+    }
+
+    /**
+     * Adapts a listener of values to a listener of the references that an underlying cache stores, which only
+     * informs it of the removals of references whose values were not reclaimed yet.
+     *
+     * @param listener the listener to be adapted
+     * @return a listener of references that delegates to the given one
+     * @param <K> the type of keys maintained by the cache
+     * @param <V> the type of referenced values
+     */
+    public static <K, V> CacheListener<K, Reference<V>> adapt(CacheListener<K, V> listener) {
+        return (key, reference, cause) -> {
+            V value = reference == null? null:reference.get();
+            if (value != null) {
+                listener.onRemoval(key, value, cause);
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof ReferenceCache<?, ?> other)) {
+            return false;
+        }
+        if (strength != other.strength) {
+            return false;
+        }
+        return cache.equals(other.cache);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s%s", super.toString(), cache);
+    }
+
+    private interface KeyedReference<K> {
+
+        K key();
+
+    }
+
+    private static final class SoftValue<K, V> extends SoftReference<V> implements KeyedReference<K> {
+
+        private final K key;
+
+        private SoftValue(K key, V value, ReferenceQueue<? super V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+
+        public K key() {
+            return key;
+        }
+
+    }
+
+    private static final class WeakValue<K, V> extends WeakReference<V> implements KeyedReference<K> {
+
+        private final K key;
+
+        private WeakValue(K key, V value, ReferenceQueue<? super V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+
+        public K key() {
+            return key;
+        }
+
+    }
+
+}
@@ -0,0 +1,308 @@
+package com.asterexcrisys.evicache.wrappers;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheNotifier;
+import com.asterexcrisys.evicache.CacheRecorder;
+import com.asterexcrisys.evicache.Weigher;
+import com.asterexcrisys.evicache.exceptions.CacheUnderflowException;
+import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
+import com.asterexcrisys.evicache.exceptions.InvalidCacheEntryException;
+import com.asterexcrisys.evicache.models.MetricType;
+import com.asterexcrisys.evicache.models.RemovalCause;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A cache that bounds any other cache by the total weight of its entries rather than by their number:
+ * the weight of every entry is calculated by a {@link Weigher} when it is put in the cache and, whenever
+ * the total weight exceeds the maximum one, entries are evicted by the underlying eviction policy (through
+ * {@link Cache#evict()}) until it fits again. Entries heavier than the maximum weight are never stored.
+ * <p>
+ * The capacity of the underlying cache still bounds the number of entries, so it should be large enough
+ * for the maximum weight to be the one that matters: for this reason, the builder requires the capacity to
+ * be set along with a maximum weight, and rejects a maximum weight larger than the capacity when no weigher
+ * is set (since every entry then weighs one).
+ * <p>
+ * The weights of the entries that leave the underlying cache without a key (e.g. popped or expired ones) are only
+ * forgotten once they add up to its capacity, or once the total weight exceeds the maximum one, so that the cost of
+ * finding them is spread over at least as many operations.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+@SuppressWarnings("unused")
+public class WeightedCache<K, V> implements Cache<K, V> {
+
+    private long weight;
+    private final long maximumWeight;
+    private final Cache<K, V> cache;
+    private final Weigher<K, V> weigher;
+    private final HashMap<K, Long> weights;
+    private final CacheRecorder recorder;
+    private final CacheNotifier<K, V> notifier;
+
+    public WeightedCache(Cache<K, V> cache, long maximumWeight, Weigher<K, V> weigher) throws IllegalCacheStateException {
+        this(cache, maximumWeight, weigher, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public WeightedCache(Cache<K, V> cache, long maximumWeight, Weigher<K, V> weigher, CacheNotifier<K, V> notifier) throws IllegalCacheStateException {
+        if (cache == null) {
+            throw new IllegalCacheStateException("cache cannot be null");
+        }
+        if (maximumWeight < 1) {
+            throw new IllegalCacheStateException("maximum weight cannot be zero or negative");
+        }
+        if (weigher == null) {
+            throw new IllegalCacheStateException("weigher cannot be null");
+        }
+        weight = 0L;
+        this.maximumWeight = maximumWeight;
+        this.cache = cache;
+        this.weigher = weigher;
+        weights = new HashMap<>();
+        recorder = this.cache.metricsEnabled()? new CacheRecorder((Class<? extends Cache<?, ?>>) this.getClass()):null;
+        this.notifier = notifier;
+    }
+
+    public Cache<K, V> cache() {
+        return cache;
+    }
+
+    public Weigher<K, V> weigher() {
+        return weigher;
+    }
+
+    public long weight() {
+        if (weights.size() > cache.size()) {
+            reconcile();
+        }
+        return weight;
+    }
+
+    public long maximumWeight() {
+        return maximumWeight;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public int capacity() {
+        return cache.capacity();
+    }
+
+    public boolean metricsEnabled() {
+        return cache.metricsEnabled();
+    }
+
+    public K[] keys() {
+        return cache.keys();
+    }
+
+    public V[] values() {
+        return cache.values();
+    }
+
+    public HashMap<String, Integer> metrics() throws IllegalCacheStateException {
+        HashMap<String, Integer> metrics = cache.metrics();
+        recorder.weight(weight());
+        HashMap<String, Integer> recorded = recorder.metrics();
+        metrics.put(MetricType.CACHE_WEIGHT.identifier(), recorded.get(MetricType.CACHE_WEIGHT.identifier()));
+        metrics.put(MetricType.CACHE_WEIGHT_SATURATED.identifier(), recorded.get(MetricType.CACHE_WEIGHT_SATURATED.identifier()));
+        return metrics;
+    }
+
+    public boolean isEmpty() {
+        return cache.isEmpty();
+    }
+
+    public boolean has(K key) {
+        return cache.has(key);
+    }
+
+    public V peekTop() {
+        return cache.peekTop();
+    }
+
+    public V peekBottom() {
+        return cache.peekBottom();
+    }
+
+    public V elementTop() throws CacheUnderflowException {
+        return cache.elementTop();
+    }
+
+    public V elementBottom() throws CacheUnderflowException {
+        return cache.elementBottom();
+    }
+
+    public V popTop() {
+        V top = cache.popTop();
+        drift();
+        return top;
+    }
+
+    public V popBottom() {
+        V bottom = cache.popBottom();
+        drift();
+        return bottom;
+    }
+
+    public V pollTop() throws CacheUnderflowException {
+        V top = cache.pollTop();
+        drift();
+        return top;
+    }
+
+    public V pollBottom() throws CacheUnderflowException {
+        V bottom = cache.pollBottom();
+        drift();
+        return bottom;
+    }
+
+    public K victim() {
+        return cache.victim();
+    }
+
+    public K evict() {
+        K victim = cache.evict();
+        if (victim != null) {
+            discard(victim);
+        }
+        return victim;
+    }
+
+    public V get(K key) throws InvalidCacheEntryException {
+        V value = cache.get(key);
+        if (value == null && weights.containsKey(key) && !cache.has(key)) {
+            discard(key);
+        }
+        return value;
+    }
+
+    public V get(K key, V defaultValue) throws InvalidCacheEntryException {
+        V value = get(key);
+        return value == null? defaultValue:value;
+    }
+
+    public V getStale(K key) throws InvalidCacheEntryException {
+        V value = cache.getStale(key);
+        if (value == null && weights.containsKey(key) && !cache.has(key)) {
+            discard(key);
+        }
+        return value;
+    }
+
+    public void put(CacheEntry<K, V> entry) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (entry == null || entry.key() == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        put(entry.key(), entry.value(), () -> cache.put(entry));
+    }
+
+    public long[][] entryMetadata() {
+        return cache.entryMetadata();
+    }
+
+    public void restoreEntry(K key, V value, long[] metadata) throws IllegalCacheStateException, InvalidCacheEntryException {
+        if (key == null) {
+            throw new InvalidCacheEntryException("key cannot be null");
+        }
+        put(key, value, () -> cache.restoreEntry(key, value, metadata));
+    }
+
+    public void remove(K key) throws InvalidCacheEntryException {
+        cache.remove(key);
+        discard(key);
+    }
+
+    public void clear() {
+        cache.clear();
+        weights.clear();
+        weight = 0L;
+    }
+
+    private void put(K key, V value, Runnable insertion) {
+        long entryWeight = weigher.weigh(key, value);
+        if (entryWeight < 0) {
+            throw new InvalidCacheEntryException("weight cannot be negative");
+        }
+        if (entryWeight > maximumWeight) {
+            if (cache.has(key)) {
+                cache.remove(key);
+                discard(key);
+            }
+            if (notifier != null) {
+                notifier.removal(key, value, RemovalCause.SIZE);
+            }
+            return;
+        }
+        K victim = cache.size() < cache.capacity() || cache.has(key)? null:cache.victim();
+        insertion.run();
+        discard(key);
+        if (cache.has(key)) {
+            weights.put(key, entryWeight);
+            weight += entryWeight;
+        }
+        if (victim != null && !cache.has(victim)) {
+            discard(victim);
+        }
+        drift();
+        if (weight > maximumWeight && weights.size() > cache.size()) {
+            reconcile();
+        }
+        while (weight > maximumWeight) {
+            if (evict() == null) {
+                break;
+            }
+        }
+    }
+
+    private void discard(K key) {
+        Long previous = weights.remove(key);
+        if (previous != null) {
+            weight -= previous;
+        }
+    }
+
+    private void drift() {
+        if (weights.size() > cache.size() + cache.capacity()) {
+            reconcile();
+        }
+    }
+
+    private void reconcile() {
+        // The keys are collected once, since looking each of them up may cost a scan of the underlying cache
+        HashSet<Object> keys = new HashSet<>(Arrays.asList((Object[]) cache.keys()));
+        Iterator<Map.Entry<K, Long>> iterator = weights.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, Long> entry = iterator.next();
+            if (!keys.contains(entry.getKey())) {
+                weight -= entry.getValue();
+                iterator.remove();
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof WeightedCache<?, ?> other)) {
+            return false;
+        }
+        if (maximumWeight != other.maximumWeight) {
+            return false;
+        }
+        return cache.equals(other.cache);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s%s", super.toString(), cache);
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.asterexcrisys.evicache;
+
+import com.asterexcrisys.evicache.exceptions.CacheLoadingException;
+import com.asterexcrisys.evicache.models.EvictionPolicy;
+import com.asterexcrisys.evicache.models.MetricType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BatchingLoaderTest {
+
+    private List<Set<String>> batches;
+    private CacheLoader<String, Integer> loader;
+
+    @BeforeEach
+    public void setUp() {
+        batches = Collections.synchronizedList(new ArrayList<>());
+        loader = new CacheLoader<>() {
+
+            @Override
+            public Integer load(String key) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Map<String, Integer> loadAll(Set<? extends String> keys) throws IOException {
+                batches.add(Set.copyOf(keys));
+                if (keys.contains("omega")) {
+                    throw new IOException("unavailable");
+                }
+                Map<String, Integer> values = new HashMap<>();
+                for (String key : keys) {
+                    if (!key.equals("delta")) {
+                        values.put(key, key.length());
+                    }
+                }
+                return values;
+            }
+
+        };
+    }
+
+    @Test
+    public void shouldCoalesceConcurrentMissesIntoOneBatch() throws Exception {
+        Cache<String, Integer> cache = CacheBuilder.<String, Integer>newBuilder()
+                .evictionPolicy(EvictionPolicy.LRU)
+                .cacheLoader(loader)
+                .batchLoads(4, 5, TimeUnit.SECONDS)
+                .metricsEnabled(true)
+                .build();
+        List<String> keys = List.of("alpha", "beta", "gamma", "delta");
+        ExecutorService executor = Executors.newFixedThreadPool(keys.size());
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (String key : keys) {
+                results.add(executor.submit(() -> cache.get(key)));
+            }
+            assertEquals(5, results.get(0).get(5, TimeUnit.SECONDS));
+            assertEquals(4, results.get(1).get(5, TimeUnit.SECONDS));
+            assertEquals(5, results.get(2).get(5, TimeUnit.SECONDS));
+            assertNull(results.get(3).get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(List.of(Set.copyOf(keys)), batches);
+        assertFalse(cache.has("delta"));
+        assertEquals(1, cache.metrics().get(MetricType.CACHE_BATCHES.identifier()));
+    }
+
+    @Test
+    public void shouldCloseBatchesAfterWindowAndPropagateFailures() {
+        BatchingLoader<String, Integer> batching = new BatchingLoader<>(loader, 64, 1, TimeUnit.MILLISECONDS);
+        Cache<String, Integer> cache = CacheBuilder.<String, Integer>newBuilder()
+                .cacheLoader(batching)
+                .build();
+        assertEquals(5, cache.get("alpha"));
+        CacheLoadingException exception = assertThrows(CacheLoadingException.class, () -> cache.get("omega"));
+        assertInstanceOf(IOException.class, exception.getCause());
+        assertEquals(List.of(Set.of("alpha"), Set.of("omega")), batches);
+        assertEquals(2, batching.batches());
+        assertEquals(2, batching.batched());
+        assertThrows(IllegalArgumentException.class, () -> CacheBuilder.<String, Integer>newBuilder().batchLoads(4, 1, TimeUnit.MILLISECONDS).build());
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.asterexcrisys.evicache;
+
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.entries.RemovalCacheEntry;
+import com.asterexcrisys.evicache.models.EvictionPolicy;
+import com.asterexcrisys.evicache.models.RemovalCause;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CacheNotifierTest {
+
+    private List<RemovalCacheEntry<String, Integer>> removals;
+    private Cache<String, Integer> cache;
+
+    @BeforeEach
+    public void setUp() {
+        removals = new ArrayList<>();
+        cache = CacheBuilder.<String, Integer>newBuilder()
+                .evictionPolicy(EvictionPolicy.LRU)
+                .capacityFixed(true)
+                .initialCapacity(2)
+                .removalListener((key, value, cause) -> removals.add(new RemovalCacheEntry<>(key, value, cause)))
+                .listenerExecutor(Runnable::run)
+                .build();
+    }
+
+    @Test
+    public void shouldNotifyEvictedEntryWithSizeCause() {
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        assertEquals(List.of(new RemovalCacheEntry<>("alpha", 1, RemovalCause.SIZE)), removals);
+    }
+
+    @Test
+    public void shouldNotifyReplacedExplicitAndClearedEntries() {
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("alpha", 2));
+        cache.put(new BasicCacheEntry<>("beta", 3));
+        cache.remove("beta");
+        cache.clear();
+        assertEquals(List.of(
+                new RemovalCacheEntry<>("alpha", 1, RemovalCause.REPLACED),
+                new RemovalCacheEntry<>("beta", 3, RemovalCause.EXPLICIT),
+                new RemovalCacheEntry<>("alpha", 2, RemovalCause.CLEARED)
+        ), removals);
+    }
+
+    @Test
+    public void shouldDeliverNotificationsAsynchronouslyInBatches() throws InterruptedException {
+        Thread caller = Thread.currentThread();
+        List<Thread> threads = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(10);
+        CacheNotifier<String, Integer> notifier = new CacheNotifier<>(new CacheListener<>() {
+
+            @Override
+            public void onRemoval(String key, Integer value, RemovalCause cause) {
+                latch.countDown();
+            }
+
+            @Override
+            public void onRemovals(List<RemovalCacheEntry<String, Integer>> entries) {
+                synchronized (threads) {
+                    threads.add(Thread.currentThread());
+                }
+                CacheListener.super.onRemovals(entries);
+            }
+
+        });
+        for (int i = 0; i < 10; i++) {
+            notifier.removal(String.valueOf(i), i, RemovalCause.SIZE);
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        synchronized (threads) {
+            assertTrue(threads.size() <= 10);
+            for (Thread thread : threads) {
+                assertNotEquals(caller, thread);
+            }
+        }
+    }
+
+}
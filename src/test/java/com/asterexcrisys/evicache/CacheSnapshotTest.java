@@ -0,0 +1,297 @@
+package com.asterexcrisys.evicache;
+
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.entries.ExpireCacheEntry;
+import com.asterexcrisys.evicache.entries.PriorityCacheEntry;
+import com.asterexcrisys.evicache.exceptions.CacheSnapshotException;
+import com.asterexcrisys.evicache.maps.access.fixed.LRUCache;
+import com.asterexcrisys.evicache.maps.extra.fixed.PriorityCache;
+import com.asterexcrisys.evicache.maps.frequency.fixed.LFUCache;
+import com.asterexcrisys.evicache.maps.time.fixed.ExpireCache;
+import com.asterexcrisys.evicache.maps.time.fixed.TimeCache;
+import com.asterexcrisys.evicache.models.EvictionPolicy;
+import com.asterexcrisys.evicache.models.ExpireMode;
+import com.asterexcrisys.evicache.models.MetricType;
+import com.asterexcrisys.evicache.wrappers.DoorkeeperCache;
+import com.asterexcrisys.evicache.wrappers.GovernedCache;
+import com.asterexcrisys.evicache.wrappers.PartitionedCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CacheSnapshotTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void shouldRestoreTheEvictionOrder() {
+        LRUCache<String, Integer> cache = new LRUCache<>(4, false);
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        cache.get("alpha");
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        assertEquals(3, CacheSnapshot.snapshot(cache, stream, SnapshotCodec.strings(), SnapshotCodec.integers()));
+        LRUCache<String, Integer> other = new LRUCache<>(4, false);
+        assertEquals(3, CacheSnapshot.restore(other, new ByteArrayInputStream(stream.toByteArray()), SnapshotCodec.strings(), SnapshotCodec.integers()));
+        assertArrayEquals(cache.keys(), other.keys());
+        assertArrayEquals(cache.values(), other.values());
+        assertEquals(cache.victim(), other.victim());
+    }
+
+    @Test
+    public void shouldRestoreFrequenciesAndPriorities() {
+        LFUCache<String, Integer> cache = new LFUCache<>(4, false);
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        for (int i = 0; i < 5; i++) {
+            cache.get("beta");
+        }
+        cache.get("gamma");
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        CacheSnapshot.snapshot(cache, stream, SnapshotCodec.strings(), SnapshotCodec.integers());
+        LFUCache<String, Integer> other = new LFUCache<>(4, false);
+        CacheSnapshot.restore(other, new ByteArrayInputStream(stream.toByteArray()), SnapshotCodec.strings(), SnapshotCodec.integers());
+        assertArrayEquals(cache.keys(), other.keys());
+        assertArrayEquals(cache.frequencies(), other.frequencies());
+        PriorityCache<String, Integer> priorities = new PriorityCache<>(4, false);
+        priorities.put(new PriorityCacheEntry<>("alpha", 1, 7));
+        priorities.put(new PriorityCacheEntry<>("beta", 2, 3));
+        priorities.put(new PriorityCacheEntry<>("gamma", 3, 9));
+        stream.reset();
+        CacheSnapshot.snapshot(priorities, stream, SnapshotCodec.strings(), SnapshotCodec.integers());
+        PriorityCache<String, Integer> restored = new PriorityCache<>(4, false);
+        CacheSnapshot.restore(restored, new ByteArrayInputStream(stream.toByteArray()), SnapshotCodec.strings(), SnapshotCodec.integers());
+        assertEquals(priorities, restored);
+        assertEquals("beta", restored.victim());
+    }
+
+    @Test
+    public void shouldRestoreDeadlinesAndSkipExpiredEntries() throws Exception {
+        TimeCache<String, Integer> cache = new TimeCache<>(4, false, 1, TimeUnit.HOURS, ExpireMode.AFTER_WRITE);
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        ExpireCache<String, Integer> expiring = new ExpireCache<>(4, false, ExpireMode.AFTER_WRITE);
+        expiring.put(new ExpireCacheEntry<>("alpha", 1, 1, TimeUnit.HOURS));
+        expiring.put(new ExpireCacheEntry<>("beta", 2, 20, TimeUnit.MILLISECONDS));
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        CacheSnapshot.snapshot(cache, stream, SnapshotCodec.strings(), SnapshotCodec.integers());
+        ByteArrayOutputStream expiringStream = new ByteArrayOutputStream();
+        CacheSnapshot.snapshot(expiring, expiringStream, SnapshotCodec.strings(), SnapshotCodec.integers());
+        Thread.sleep(50);
+        TimeCache<String, Integer> other = new TimeCache<>(4, false, 1, TimeUnit.HOURS, ExpireMode.AFTER_WRITE);
+        CacheSnapshot.restore(other, new ByteArrayInputStream(stream.toByteArray()), SnapshotCodec.strings(), SnapshotCodec.integers());
+        assertEquals(cache, other);
+        ExpireCache<String, Integer> restored = new ExpireCache<>(4, false, ExpireMode.AFTER_WRITE);
+        assertEquals(2, CacheSnapshot.restore(restored, new ByteArrayInputStream(expiringStream.toByteArray()), SnapshotCodec.strings(), SnapshotCodec.integers()));
+        assertEquals(1, restored.size());
+        assertEquals(1, restored.get("alpha"));
+        assertNull(restored.get("beta"));
+    }
+
+    @Test
+    public void shouldRestoreSegmentsAndReferenceBits() {
+        EvictionPolicy[] policies = {EvictionPolicy.ARC, EvictionPolicy.SLRU, EvictionPolicy.TWO_QUEUE, EvictionPolicy.LIRS, EvictionPolicy.W_TINYLFU, EvictionPolicy.S3_FIFO, EvictionPolicy.CLOCK, EvictionPolicy.CLOCK_PRO, EvictionPolicy.SIEVE, EvictionPolicy.LRU_K};
+        for (EvictionPolicy policy : policies) {
+            Cache<Integer, Integer> cache = CacheBuilder.<Integer, Integer>newBuilder().evictionPolicy(policy).capacityFixed(true).initialCapacity(200).build();
+            Random random = new Random(42);
+            for (int i = 0; i < 5000; i++) {
+                int key = (int) Math.abs(random.nextGaussian() * 150);
+                if (random.nextInt(3) == 0) {
+                    cache.put(new BasicCacheEntry<>(key, i));
+                } else if (cache.get(key) == null) {
+                    cache.put(new BasicCacheEntry<>(key, i));
+                }
+            }
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            CacheSnapshot.snapshot(cache, stream, SnapshotCodec.integers(), SnapshotCodec.integers());
+            Cache<Integer, Integer> other = CacheBuilder.<Integer, Integer>newBuilder().evictionPolicy(policy).capacityFixed(true).initialCapacity(200).build();
+            CacheSnapshot.restore(other, new ByteArrayInputStream(stream.toByteArray()), SnapshotCodec.integers(), SnapshotCodec.integers());
+            assertArrayEquals(cache.keys(), other.keys(), policy.name());
+            assertArrayEquals(cache.values(), other.values(), policy.name());
+            assertNotNull(other.entryMetadata(), policy.name());
+            assertArrayEquals(cache.entryMetadata(), other.entryMetadata(), policy.name());
+            assertEquals(cache.victim(), other.victim(), policy.name());
+        }
+    }
+
+    @Test
+    public void shouldMatchPoliciesThroughWrappers() {
+        LFUCache<String, Integer> frequencies = new LFUCache<>(4, false);
+        Cache<String, Integer> cache = new GovernedCache<>(new DoorkeeperCache<>(frequencies));
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.get("beta");
+        cache.get("beta");
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        CacheSnapshot.snapshot(cache, stream, SnapshotCodec.strings(), SnapshotCodec.integers());
+        LFUCache<String, Integer> other = new LFUCache<>(4, false);
+        CacheSnapshot.restore(new DoorkeeperCache<>(other), new ByteArrayInputStream(stream.toByteArray()), SnapshotCodec.strings(), SnapshotCodec.integers());
+        assertArrayEquals(frequencies.frequencies(), other.frequencies());
+        TimeCache<String, Integer> deadlines = new TimeCache<>(4, false, 1, TimeUnit.HOURS, ExpireMode.AFTER_WRITE);
+        Cache<String, Integer> timed = new DoorkeeperCache<>(deadlines);
+        timed.put(new BasicCacheEntry<>("alpha", 1));
+        timed.put(new BasicCacheEntry<>("beta", 2));
+        stream.reset();
+        CacheSnapshot.snapshot(timed, stream, SnapshotCodec.strings(), SnapshotCodec.integers());
+        LFUCache<String, Integer> restored = new LFUCache<>(4, false);
+        CacheSnapshot.restore(new DoorkeeperCache<>(restored), new ByteArrayInputStream(stream.toByteArray()), SnapshotCodec.strings(), SnapshotCodec.integers());
+        assertArrayEquals(new Integer[] {1, 1}, restored.frequencies());
+    }
+
+    @Test
+    public void shouldRestoreIntoOtherPoliciesByOrderOnly() {
+        LFUCache<String, Integer> cache = new LFUCache<>(4, false);
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.get("beta");
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        CacheSnapshot.snapshot(cache, stream, SnapshotCodec.strings(), SnapshotCodec.integers());
+        PriorityCache<String, Integer> priorities = new PriorityCache<>(4, false);
+        assertEquals(2, CacheSnapshot.restore(priorities, new ByteArrayInputStream(stream.toByteArray()), SnapshotCodec.strings(), SnapshotCodec.integers()));
+        assertEquals(2, priorities.size());
+        assertEquals(2, priorities.get("beta"));
+        ExpireCache<String, Integer> expiring = new ExpireCache<>(4, false, ExpireMode.AFTER_WRITE);
+        assertEquals(2, CacheSnapshot.restore(expiring, new ByteArrayInputStream(stream.toByteArray()), SnapshotCodec.strings(), SnapshotCodec.integers()));
+        assertEquals(2, expiring.size());
+        assertEquals(1, expiring.get("alpha"));
+    }
+
+    @Test
+    public void shouldStreamEntriesLargerThanTheBufferThroughFileChannels() throws Exception {
+        LRUCache<Integer, byte[]> cache = new LRUCache<>(8, false);
+        for (int i = 0; i < 8; i++) {
+            byte[] value = new byte[i * 40_000];
+            Arrays.fill(value, (byte) i);
+            cache.put(new BasicCacheEntry<>(i, value));
+        }
+        Path file = directory.resolve("cache.snapshot");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            CacheSnapshot.snapshot(cache, channel, SnapshotCodec.integers(), SnapshotCodec.bytes());
+        }
+        LRUCache<Integer, byte[]> other = new LRUCache<>(8, false);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertEquals(8, CacheSnapshot.restore(other, channel, SnapshotCodec.integers(), SnapshotCodec.bytes()));
+        }
+        assertArrayEquals(cache.keys(), other.keys());
+        for (int i = 0; i < 8; i++) {
+            assertArrayEquals(cache.get(i), other.get(i));
+        }
+    }
+
+    @Test
+    public void shouldRejectInvalidSnapshots() {
+        LRUCache<String, Integer> cache = new LRUCache<>(4, false);
+        assertThrows(CacheSnapshotException.class, () -> CacheSnapshot.restore(cache, new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5}), SnapshotCodec.strings(), SnapshotCodec.integers()));
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        CacheSnapshot.snapshot(cache, stream, SnapshotCodec.strings(), SnapshotCodec.integers());
+        byte[] truncated = Arrays.copyOf(stream.toByteArray(), stream.size() - 3);
+        assertThrows(CacheSnapshotException.class, () -> CacheSnapshot.restore(new LRUCache<>(4, false), new ByteArrayInputStream(truncated), SnapshotCodec.strings(), SnapshotCodec.integers()));
+    }
+
+    @Test
+    public void shouldRestoreSegmentsIntoPartitionsInParallel() throws Exception {
+        LFUCache<Integer, String> cache = new LFUCache<>(20_000, false);
+        for (int i = 0; i < 20_000; i++) {
+            cache.put(new BasicCacheEntry<>(i, "value" + i));
+            if (i % 3 == 0) {
+                cache.get(i);
+            }
+        }
+        Path file = directory.resolve("cache.snapshot");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            CacheSnapshot.snapshot(cache, channel, SnapshotCodec.integers(), SnapshotCodec.strings());
+        }
+        PartitionedCache<Integer, String> partitioned = partitioned(20_000);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertEquals(20_000, CacheSnapshot.restore(partitioned, channel, SnapshotCodec.integers(), SnapshotCodec.strings(), pool));
+        } finally {
+            pool.shutdown();
+        }
+        assertFalse(partitioned.isWarmingUp());
+        assertEquals(20_000, partitioned.size());
+        assertEquals(20_000, partitioned.metrics().get(MetricType.CACHE_WARMED.identifier()));
+        assertEquals(100, partitioned.metrics().get(MetricType.CACHE_WARM_UP_PROGRESS.identifier()));
+        for (int i = 0; i < partitioned.partitions(); i++) {
+            LFUCache<Integer, String> partition = (LFUCache<Integer, String>) partitioned.partition(i);
+            Object[] keys = partition.keys();
+            Object[] frequencies = partition.frequencies();
+            for (int j = 0; j < keys.length; j++) {
+                assertEquals(i, partitioned.partitionOf((Integer) keys[j]));
+                assertEquals((Integer) keys[j] % 3 == 0? 2:1, frequencies[j]);
+            }
+        }
+        assertEquals("value19999", partitioned.get(19_999));
+        Path copy = directory.resolve("partitioned.snapshot");
+        try (FileChannel channel = FileChannel.open(copy, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            CacheSnapshot.snapshot(partitioned, channel, SnapshotCodec.integers(), SnapshotCodec.strings());
+        }
+        PartitionedCache<Integer, String> other = partitioned(20_000);
+        try (FileChannel channel = FileChannel.open(copy, StandardOpenOption.READ)) {
+            CacheSnapshot.restore(other, channel, SnapshotCodec.integers(), SnapshotCodec.strings());
+        }
+        for (int i = 0; i < other.partitions(); i++) {
+            assertArrayEquals(((LFUCache<Integer, String>) partitioned.partition(i)).frequencies(), ((LFUCache<Integer, String>) other.partition(i)).frequencies());
+        }
+    }
+
+    @Test
+    public void shouldServeWhileWarmingUpLazily() throws Exception {
+        LRUCache<Integer, String> cache = new LRUCache<>(10_000, false);
+        for (int i = 0; i < 10_000; i++) {
+            cache.put(new BasicCacheEntry<>(i, "value" + i));
+        }
+        Path file = directory.resolve("cache.snapshot");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            CacheSnapshot.snapshot(cache, channel, SnapshotCodec.integers(), SnapshotCodec.strings());
+        }
+        PartitionedCache<Integer, String> partitioned = partitioned(10_000);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            CompletableFuture<Integer> future = CacheSnapshot.restoreAsync(partitioned, channel, SnapshotCodec.integers(), SnapshotCodec.strings(), pool);
+            partitioned.put(new BasicCacheEntry<>(9_999, "fresh"));
+            partitioned.remove(0);
+            int progress = partitioned.metrics().get(MetricType.CACHE_WARM_UP_PROGRESS.identifier());
+            assertTrue(progress >= 0 && progress <= 100);
+            assertEquals(10_000, future.get());
+        } finally {
+            pool.shutdown();
+        }
+        assertFalse(partitioned.isWarmingUp());
+        assertEquals(100, partitioned.metrics().get(MetricType.CACHE_WARM_UP_PROGRESS.identifier()));
+        assertEquals("fresh", partitioned.get(9_999));
+        assertNull(partitioned.get(0));
+        assertEquals("value1", partitioned.get(1));
+        assertEquals(9_999, partitioned.size());
+    }
+
+    private static PartitionedCache<Integer, String> partitioned(int capacity) {
+        return (PartitionedCache<Integer, String>) CacheBuilder.<Integer, String>newBuilder()
+                .evictionPolicy(EvictionPolicy.LFU)
+                .initialCapacity(capacity)
+                .partitions(4)
+                .metricsEnabled(true)
+                .build();
+    }
+
+}
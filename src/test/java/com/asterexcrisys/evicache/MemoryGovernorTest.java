@@ -0,0 +1,99 @@
+package com.asterexcrisys.evicache;
+
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.models.EvictionPolicy;
+import com.asterexcrisys.evicache.models.MetricType;
+import com.asterexcrisys.evicache.wrappers.GovernedCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.lang.management.MemoryNotificationInfo;
+import javax.management.Notification;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MemoryGovernorTest {
+
+    private MemoryGovernor governor;
+    private Cache<String, Integer> cache;
+
+    @BeforeEach
+    public void setUp() {
+        governor = new MemoryGovernor(0.95, 0.5);
+        cache = CacheBuilder.<String, Integer>newBuilder()
+                .evictionPolicy(EvictionPolicy.LRU)
+                .capacityFixed(true)
+                .initialCapacity(4)
+                .memoryGovernor(governor)
+                .metricsEnabled(true)
+                .build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        governor.close();
+    }
+
+    @Test
+    public void shouldSubscribeToTheTenuredPool() {
+        assertInstanceOf(GovernedCache.class, cache);
+        assertNotNull(governor.pool());
+        assertTrue(governor.pool().isUsageThresholdSupported());
+        assertFalse(governor.isPressured());
+    }
+
+    @Test
+    public void shouldShrinkProportionallyUnderPressureAndRestoreAfterwards() {
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        cache.put(new BasicCacheEntry<>("delta", 4));
+        governor.pressure();
+        assertEquals(4, cache.size());
+        assertEquals(4, cache.get("delta"));
+        assertEquals(2, cache.size());
+        assertNull(cache.get("alpha"));
+        cache.put(new BasicCacheEntry<>("epsilon", 5));
+        assertEquals(2, cache.size());
+        governor.relieve();
+        cache.put(new BasicCacheEntry<>("zeta", 6));
+        cache.put(new BasicCacheEntry<>("eta", 7));
+        assertEquals(4, cache.size());
+        assertEquals(1, governor.shrinks());
+        assertEquals(1, governor.restores());
+        assertEquals(4, cache.metrics().get(MetricType.CACHE_LIMIT.identifier()));
+        assertEquals(1, cache.metrics().get(MetricType.CACHE_SHRINKS.identifier()));
+        assertEquals(1, cache.metrics().get(MetricType.CACHE_RESTORES.identifier()));
+        assertEquals(3, cache.metrics().get(MetricType.CACHE_PRESSURE_EVICTIONS.identifier()));
+    }
+
+    @Test
+    public void shouldReactToNotificationsOfTheVirtualMachine() {
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        governor.pressureListener().handleNotification(new Notification(MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED, governor.pool().getObjectName(), 1L), null);
+        assertTrue(governor.isPressured());
+        assertEquals(3, cache.get("gamma"));
+        assertEquals(2, cache.size());
+        governor.collectionListener().handleNotification(new Notification("com.sun.management.gc.notification", governor.pool().getObjectName(), 2L), null);
+        assertFalse(governor.isPressured());
+        assertEquals(1, governor.shrinks());
+        assertEquals(1, governor.restores());
+    }
+
+    @Test
+    public void shouldResetThePoolThresholdsWhenClosed() {
+        assertTrue(governor.pool().getUsageThreshold() > 0);
+        governor.close();
+        assertEquals(0, governor.pool().getUsageThreshold());
+        if (governor.pool().isCollectionUsageThresholdSupported()) {
+            assertEquals(0, governor.pool().getCollectionUsageThreshold());
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.asterexcrisys.evicache.maps.access.fixed;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheBuilder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.models.EvictionPolicy;
+import com.asterexcrisys.evicache.models.MetricType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ClockProCacheTest {
+
+    private Cache<String, Integer> cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = CacheBuilder.<String, Integer>newBuilder().evictionPolicy(EvictionPolicy.CLOCK_PRO).capacityFixed(true).initialCapacity(4).metricsEnabled(true).build();
+    }
+
+    @Test
+    public void shouldStoreAndRetrieveMultipleEntries() {
+        cache.put(new BasicCacheEntry<>("alpha", 0));
+        cache.put(new BasicCacheEntry<>("beta", 0));
+        cache.put(new BasicCacheEntry<>("gamma", 0));
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        assertEquals(1, cache.get("alpha"));
+        assertEquals(2, cache.get("beta"));
+        assertEquals(3, cache.get("gamma"));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void shouldRemoveAndNotRetrieveMultipleEntries() {
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        cache.remove("alpha");
+        cache.remove("gamma");
+        assertNull(cache.get("alpha"));
+        assertEquals(2, cache.get("beta"));
+        assertNull(cache.get("gamma"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldPeekAndPopMultipleEntries() {
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        assertEquals(3, cache.peekTop());
+        assertEquals(1, cache.peekBottom());
+        assertEquals(3, cache.popTop());
+        assertEquals(1, cache.popBottom());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldShrinkColdTargetWhenTestEntriesExpire() {
+        for (int i = 0; i < 12; i++) {
+            cache.put(new BasicCacheEntry<>("warm" + i, i));
+        }
+        assertEquals(1, cache.metrics().get(MetricType.CACHE_TARGET.identifier()));
+        assertEquals(4, cache.size());
+    }
+
+    @Test
+    public void shouldProtectHotEntriesFromScans() {
+        for (int i = 0; i < 10; i++) {
+            cache.put(new BasicCacheEntry<>("warm" + i, i));
+        }
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.get("alpha");
+        cache.get("beta");
+        for (int i = 0; i < 10; i++) {
+            cache.put(new BasicCacheEntry<>("scan" + i, i));
+        }
+        assertEquals(1, cache.get("alpha"));
+        assertEquals(2, cache.get("beta"));
+        assertNull(cache.get("scan0"));
+        assertEquals(4, cache.size());
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.asterexcrisys.evicache.maps.access.fixed;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheBuilder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.models.EvictionPolicy;
+import com.asterexcrisys.evicache.models.MetricType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LIRSCacheTest {
+
+    private Cache<String, Integer> cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = CacheBuilder.<String, Integer>newBuilder().evictionPolicy(EvictionPolicy.LIRS).capacityFixed(true).initialCapacity(3).metricsEnabled(true).build();
+    }
+
+    @Test
+    public void shouldStoreAndRetrieveMultipleEntries() {
+        cache.put(new BasicCacheEntry<>("alpha", 0));
+        cache.put(new BasicCacheEntry<>("beta", 0));
+        cache.put(new BasicCacheEntry<>("gamma", 0));
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        assertEquals(1, cache.get("alpha"));
+        assertEquals(2, cache.get("beta"));
+        assertEquals(3, cache.get("gamma"));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void shouldRemoveAndNotRetrieveMultipleEntries() {
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        cache.remove("alpha");
+        cache.remove("gamma");
+        assertNull(cache.get("alpha"));
+        assertEquals(2, cache.get("beta"));
+        assertNull(cache.get("gamma"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldPeekAndPopMultipleEntries() {
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        assertEquals(3, cache.peekTop());
+        assertEquals(3, cache.peekBottom());
+        assertEquals(3, cache.popTop());
+        assertEquals(1, cache.popBottom());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldReplayReferenceTrace() {
+        for (String key : new String[] {"A", "B", "C", "D"}) {
+            cache.put(new BasicCacheEntry<>(key, key.hashCode()));
+        }
+        cache.put(new BasicCacheEntry<>("C", "C".hashCode()));
+        assertTrue(cache.has("A"));
+        assertTrue(cache.has("B"));
+        assertTrue(cache.has("C"));
+        assertFalse(cache.has("D"));
+        assertEquals("A", cache.victim());
+        cache.get("B");
+        cache.put(new BasicCacheEntry<>("E", "E".hashCode()));
+        assertFalse(cache.has("A"));
+        assertEquals("E", cache.victim());
+        cache.put(new BasicCacheEntry<>("A", "A".hashCode()));
+        assertFalse(cache.has("E"));
+        assertEquals("A", cache.victim());
+        cache.put(new BasicCacheEntry<>("E", "E".hashCode()));
+        assertTrue(cache.has("B"));
+        assertTrue(cache.has("C"));
+        assertTrue(cache.has("E"));
+        assertEquals("C", cache.victim());
+    }
+
+    @Test
+    public void shouldReplayLoopingTraceBetterThanLRU() {
+        Cache<Integer, Integer> lirs = CacheBuilder.<Integer, Integer>newBuilder().evictionPolicy(EvictionPolicy.LIRS).capacityFixed(true).initialCapacity(100).metricsEnabled(true).build();
+        Cache<Integer, Integer> lru = CacheBuilder.<Integer, Integer>newBuilder().evictionPolicy(EvictionPolicy.LRU).capacityFixed(true).initialCapacity(100).metricsEnabled(true).build();
+        for (int i = 0; i < 10; i++) {
+            for (int key = 0; key < 120; key++) {
+                for (Cache<Integer, Integer> current : List.of(lirs, lru)) {
+                    if (current.get(key) == null) {
+                        current.put(new BasicCacheEntry<>(key, key));
+                    }
+                }
+            }
+        }
+        assertEquals(0, lru.metrics().get(MetricType.CACHE_HITS.identifier()));
+        assertTrue(lirs.metrics().get(MetricType.CACHE_HITS.identifier()) >= 9 * 99);
+    }
+
+    @Test
+    public void shouldBoundNonResidentEntries() {
+        LIRSCache<Integer, Integer> lirs = new LIRSCache<>(10, false);
+        for (int key = 0; key < 1000; key++) {
+            lirs.put(key, key);
+            assertTrue(lirs.ghosts() <= lirs.capacity());
+        }
+        assertEquals(10, lirs.size());
+    }
+
+    @Test
+    public void shouldPruneStackAfterPromotingWithoutDemotions() {
+        LIRSCache<Integer, Integer> lirs = new LIRSCache<>(2, false);
+        lirs.put(0, 0);
+        lirs.put(1, 1);
+        lirs.remove(0);
+        lirs.get(1);
+        lirs.put(2, 2);
+        lirs.put(3, 3);
+        assertFalse(lirs.has(1));
+        lirs.put(1, 1);
+        assertTrue(lirs.has(2));
+        assertFalse(lirs.has(3));
+        assertEquals(1, lirs.victim());
+        assertEquals(1, lirs.ghosts());
+    }
+
+}
@@ -1,11 +1,20 @@
 package com.asterexcrisys.evicache.maps.access.fixed;
 
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheNotifier;
 import com.asterexcrisys.evicache.entries.BasicCacheEntry;
 import com.asterexcrisys.evicache.Cache;
 import com.asterexcrisys.evicache.CacheBuilder;
 import com.asterexcrisys.evicache.models.EvictionPolicy;
+import com.asterexcrisys.evicache.models.MetricType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
@@ -85,4 +94,100 @@ public class LRUCacheTest {
         assertEquals(5, cache.size());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldApplyBulkOperationsAsSequenceOfSingleOnes() {
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        assertEquals(Map.of("alpha", 1, "gamma", 3), cache.getAll(List.of("alpha", "delta", "gamma")));
+        cache.putAll(List.of(
+                new BasicCacheEntry<>("delta", 4),
+                new BasicCacheEntry<>("beta", 5),
+                new BasicCacheEntry<>("epsilon", 6),
+                new BasicCacheEntry<>("zeta", 7)
+        ));
+        assertEquals(5, cache.size());
+        assertNull(cache.get("alpha"));
+        assertEquals(7, cache.peekTop());
+        cache.removeAll(List.of("beta", "gamma", "theta"));
+        assertEquals(3, cache.size());
+        assertEquals(4, cache.peekBottom());
+    }
+
+    @Test
+    public void shouldFallBackToSingleOperationsWhenAnEntryIsEvictedBeforeBeingPutAgain() {
+        List<String> removals = new ArrayList<>();
+        LRUCache<String, Integer> other = new LRUCache<>(5, true, new CacheNotifier<>((key, value, cause) -> removals.add(String.format("%s=%s:%s", key, value, cause)), Runnable::run, 1));
+        for (String key : List.of("alpha", "beta", "gamma", "delta", "epsilon")) {
+            other.put(new BasicCacheEntry<>(key, 0));
+        }
+        other.putAll(List.of(
+                new BasicCacheEntry<>("alpha", 1),
+                new BasicCacheEntry<>("zeta", 2),
+                new BasicCacheEntry<>("eta", 3),
+                new BasicCacheEntry<>("theta", 4),
+                new BasicCacheEntry<>("iota", 5),
+                new BasicCacheEntry<>("kappa", 6),
+                new BasicCacheEntry<>("alpha", 7)
+        ));
+        assertArrayEquals(new Object[] {"alpha", "kappa", "iota", "theta", "eta"}, other.keys());
+        assertEquals(List.of(
+                "alpha=0:REPLACED",
+                "beta=0:SIZE",
+                "gamma=0:SIZE",
+                "delta=0:SIZE",
+                "epsilon=0:SIZE",
+                "alpha=1:SIZE",
+                "zeta=2:SIZE"
+        ), removals);
+        assertEquals(12, other.metrics().get(MetricType.CACHE_PUTS.identifier()));
+        assertEquals(1, other.metrics().get(MetricType.CACHE_HITS.identifier()));
+        assertEquals(6, other.metrics().get(MetricType.CACHE_EVICTIONS.identifier()));
+    }
+
+    @Test
+    public void shouldMatchSingleOperationsOnRandomWorkloads() {
+        List<String> removals = new ArrayList<>();
+        List<String> expectedRemovals = new ArrayList<>();
+        LRUCache<String, Integer> other = new LRUCache<>(5, true, new CacheNotifier<>((key, value, cause) -> removals.add(String.format("%s=%s:%s", key, value, cause)), Runnable::run, 1));
+        LRUCache<String, Integer> expected = new LRUCache<>(5, true, new CacheNotifier<>((key, value, cause) -> expectedRemovals.add(String.format("%s=%s:%s", key, value, cause)), Runnable::run, 1));
+        Random random = new Random(42);
+        for (int i = 0; i < 2_000; i++) {
+            List<String> keys = new ArrayList<>();
+            for (int j = random.nextInt(9); j > 0; j--) {
+                keys.add("key" + random.nextInt(10));
+            }
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    List<CacheEntry<String, Integer>> entries = new ArrayList<>();
+                    for (String key : keys) {
+                        entries.add(new BasicCacheEntry<>(key, random.nextInt(3)));
+                    }
+                    other.putAll(entries);
+                    for (CacheEntry<String, Integer> entry : entries) {
+                        expected.put(entry);
+                    }
+                }
+                case 1 -> {
+                    Map<String, Integer> found = other.getAll(keys);
+                    for (String key : keys) {
+                        assertEquals(expected.get(key), found.get(key));
+                    }
+                }
+                default -> {
+                    other.removeAll(keys);
+                    for (String key : keys) {
+                        expected.remove(key);
+                    }
+                }
+            }
+            assertArrayEquals(expected.keys(), other.keys());
+            assertArrayEquals(expected.values(), other.values());
+            assertEquals(expected.metrics(), other.metrics());
+            Collections.sort(removals);
+            Collections.sort(expectedRemovals);
+            assertEquals(expectedRemovals, removals);
+        }
+    }
+
+}
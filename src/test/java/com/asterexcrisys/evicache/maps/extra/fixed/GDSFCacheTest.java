@@ -0,0 +1,106 @@
+package com.asterexcrisys.evicache.maps.extra.fixed;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheBuilder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.entries.CostCacheEntry;
+import com.asterexcrisys.evicache.models.EvictionPolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GDSFCacheTest {
+
+    private Cache<String, Integer> cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = CacheBuilder.<String, Integer>newBuilder().evictionPolicy(EvictionPolicy.GDSF).capacityFixed(true).initialCapacity(4).build();
+    }
+
+    @Test
+    public void shouldStoreAndRetrieveMultipleEntries() {
+        cache.put(new BasicCacheEntry<>("alpha", 0));
+        cache.put(new BasicCacheEntry<>("beta", 0));
+        cache.put(new BasicCacheEntry<>("gamma", 0));
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        assertEquals(1, cache.get("alpha"));
+        assertEquals(2, cache.get("beta"));
+        assertEquals(3, cache.get("gamma"));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void shouldRemoveAndNotRetrieveMultipleEntries() {
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        cache.remove("alpha");
+        cache.remove("gamma");
+        assertNull(cache.get("alpha"));
+        assertEquals(2, cache.get("beta"));
+        assertNull(cache.get("gamma"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldPeekAndPopMultipleEntries() {
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        assertEquals(3, cache.peekTop());
+        assertEquals(1, cache.peekBottom());
+        assertEquals(3, cache.popTop());
+        assertEquals(1, cache.popBottom());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldRetainExpensiveAndSmallEntries() {
+        cache.put(new CostCacheEntry<>("alpha", 1, 100.0, 1L));
+        cache.put(new CostCacheEntry<>("beta", 2, 1.0, 100L));
+        cache.put(new CostCacheEntry<>("gamma", 3, 10.0, 1L));
+        cache.put(new CostCacheEntry<>("delta", 4, 1.0, 1L));
+        assertEquals("beta", cache.victim());
+        cache.put(new CostCacheEntry<>("epsilon", 5, 1.0, 1L));
+        assertFalse(cache.has("beta"));
+        assertEquals("delta", cache.victim());
+        assertEquals(0.01, ((GDSFCache<String, Integer>) cache).inflation(), 1e-9);
+        assertEquals(4, cache.size());
+    }
+
+    @Test
+    public void shouldFavourFrequentlyAccessedEntries() {
+        cache.put(new CostCacheEntry<>("alpha", 1, 2.0, 1L));
+        cache.put(new CostCacheEntry<>("beta", 2, 2.0, 1L));
+        cache.put(new CostCacheEntry<>("gamma", 3, 2.0, 1L));
+        cache.put(new CostCacheEntry<>("delta", 4, 2.0, 1L));
+        assertEquals("alpha", cache.victim());
+        cache.get("alpha");
+        assertEquals("beta", cache.victim());
+        cache.put(new CostCacheEntry<>("epsilon", 5, 2.0, 1L));
+        assertFalse(cache.has("beta"));
+        assertTrue(cache.has("alpha"));
+        assertEquals("gamma", cache.victim());
+    }
+
+    @Test
+    public void shouldAgeEntriesThroughInflation() {
+        cache.put(new CostCacheEntry<>("alpha", 0, 5.0, 1L));
+        for (int i = 0; i < 12; i++) {
+            cache.put(new CostCacheEntry<>(String.valueOf(i), i, 1.0, 1L));
+        }
+        assertTrue(cache.has("alpha"));
+        for (int i = 12; i < 24; i++) {
+            cache.put(new CostCacheEntry<>(String.valueOf(i), i, 1.0, 1L));
+        }
+        assertFalse(cache.has("alpha"));
+        assertTrue(((GDSFCache<String, Integer>) cache).inflation() >= 5.0);
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.asterexcrisys.evicache.maps.order.fixed;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheNotifier;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.models.RemovalCause;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class FIFOCacheTest {
+
+    private List<String> removals;
+    private Cache<String, Integer> cache;
+
+    @BeforeEach
+    public void setUp() {
+        removals = new ArrayList<>();
+        cache = new FIFOCache<>(5, true, new CacheNotifier<>((key, value, cause) -> removals.add(String.format("%s=%s:%s", key, value, cause)), Runnable::run, 1));
+    }
+
+    @Test
+    public void shouldEvictFirstInsertedWhenCacheIsFull() {
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        cache.put(new BasicCacheEntry<>("delta", 4));
+        cache.put(new BasicCacheEntry<>("epsilon", 5));
+        cache.get("alpha");
+        cache.put(new BasicCacheEntry<>("zeta", 6));
+        assertNull(cache.get("alpha"));
+        assertEquals(2, cache.peekBottom());
+        assertEquals(6, cache.peekTop());
+        assertEquals(List.of("alpha=1:" + RemovalCause.SIZE), removals);
+    }
+
+    @Test
+    public void shouldApplyBulkOperationsAsSequenceOfSingleOnes() {
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        assertEquals(Map.of("alpha", 1, "gamma", 3), cache.getAll(List.of("alpha", "delta", "gamma")));
+        cache.putAll(List.of(
+                new BasicCacheEntry<>("delta", 4),
+                new BasicCacheEntry<>("beta", 5),
+                new BasicCacheEntry<>("epsilon", 6),
+                new BasicCacheEntry<>("zeta", 7)
+        ));
+        assertEquals(5, cache.size());
+        assertNull(cache.get("alpha"));
+        assertEquals(5, cache.get("beta"));
+        assertEquals(7, cache.peekTop());
+        cache.removeAll(List.of("beta", "gamma", "theta"));
+        assertEquals(3, cache.size());
+        assertEquals(4, cache.peekBottom());
+    }
+
+    @Test
+    public void shouldMatchSingleOperationsOnRandomWorkloads() {
+        List<String> expectedRemovals = new ArrayList<>();
+        Cache<String, Integer> expected = new FIFOCache<>(5, true, new CacheNotifier<>((key, value, cause) -> expectedRemovals.add(String.format("%s=%s:%s", key, value, cause)), Runnable::run, 1));
+        Random random = new Random(42);
+        for (int i = 0; i < 2_000; i++) {
+            int count = random.nextInt(9);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    List<CacheEntry<String, Integer>> entries = new ArrayList<>();
+                    for (int j = 0; j < count; j++) {
+                        entries.add(new BasicCacheEntry<>("key" + random.nextInt(10), random.nextInt(3)));
+                    }
+                    cache.putAll(entries);
+                    for (CacheEntry<String, Integer> entry : entries) {
+                        expected.put(entry);
+                    }
+                }
+                case 1 -> {
+                    List<String> keys = keys(random, count);
+                    Map<String, Integer> found = cache.getAll(keys);
+                    for (String key : keys) {
+                        assertEquals(expected.get(key), found.get(key));
+                    }
+                }
+                default -> {
+                    List<String> keys = keys(random, count);
+                    cache.removeAll(keys);
+                    for (String key : keys) {
+                        expected.remove(key);
+                    }
+                }
+            }
+            assertArrayEquals(expected.keys(), cache.keys());
+            assertArrayEquals(expected.values(), cache.values());
+            assertEquals(expected.metrics(), cache.metrics());
+            Collections.sort(removals);
+            Collections.sort(expectedRemovals);
+            assertEquals(expectedRemovals, removals);
+        }
+    }
+
+    private static List<String> keys(Random random, int count) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            keys.add("key" + random.nextInt(10));
+        }
+        return keys;
+    }
+
+}
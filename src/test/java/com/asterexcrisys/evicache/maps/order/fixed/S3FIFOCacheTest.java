@@ -0,0 +1,136 @@
+package com.asterexcrisys.evicache.maps.order.fixed;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheBuilder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.models.EvictionPolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class S3FIFOCacheTest {
+
+    private Cache<String, Integer> cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = CacheBuilder.<String, Integer>newBuilder().evictionPolicy(EvictionPolicy.S3_FIFO).capacityFixed(true).initialCapacity(5).build();
+    }
+
+    @Test
+    public void shouldStoreAndRetrieveMultipleEntries() {
+        cache.put(new BasicCacheEntry<>("alpha", 0));
+        cache.put(new BasicCacheEntry<>("beta", 0));
+        cache.put(new BasicCacheEntry<>("gamma", 0));
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        assertEquals(1, cache.get("alpha"));
+        assertEquals(2, cache.get("beta"));
+        assertEquals(3, cache.get("gamma"));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void shouldRemoveAndNotRetrieveMultipleEntries() {
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        cache.remove("alpha");
+        cache.remove("gamma");
+        assertNull(cache.get("alpha"));
+        assertEquals(2, cache.get("beta"));
+        assertNull(cache.get("gamma"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldPeekAndPopMultipleEntries() {
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        assertEquals(3, cache.peekTop());
+        assertEquals(1, cache.peekBottom());
+        assertEquals(3, cache.popTop());
+        assertEquals(1, cache.popBottom());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldEvictOneHitWondersBeforeReaccessedEntries() {
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.get("alpha");
+        cache.get("alpha");
+        for (int i = 0; i < 10; i++) {
+            cache.put(new BasicCacheEntry<>("scan" + i, i));
+        }
+        assertEquals(1, cache.get("alpha"));
+        assertNull(cache.get("beta"));
+        assertNull(cache.get("scan0"));
+        assertEquals(5, cache.size());
+    }
+
+    @Test
+    public void shouldReadmitGhostEntriesIntoMainQueue() {
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        for (int i = 0; i < 5; i++) {
+            cache.put(new BasicCacheEntry<>("scan" + i, i));
+        }
+        assertNull(cache.get("alpha"));
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        for (int i = 5; i < 9; i++) {
+            cache.put(new BasicCacheEntry<>("scan" + i, i));
+        }
+        assertEquals(1, cache.get("alpha"));
+    }
+
+    @Test
+    public void shouldEvictTheVictimItReports() {
+        S3FIFOCache<Integer, Integer> other = new S3FIFOCache<>(20, false);
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(60);
+            switch (random.nextInt(4)) {
+                case 0 -> other.get(key);
+                case 1 -> other.remove(key);
+                default -> {
+                    Integer victim = other.size() == other.capacity() && !other.has(key)? other.victim():null;
+                    other.put(key, i);
+                    if (victim != null) {
+                        assertFalse(other.has(victim));
+                    }
+                }
+            }
+            Object[] keys = other.keys();
+            assertEquals(other.size(), keys.length);
+        }
+    }
+
+    @Test
+    public void shouldNotAffectEvictionsWhenPeekingTheVictim() {
+        S3FIFOCache<Integer, Integer> peeked = new S3FIFOCache<>(20, false);
+        S3FIFOCache<Integer, Integer> other = new S3FIFOCache<>(20, false);
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(60);
+            if (random.nextBoolean()) {
+                peeked.get(key);
+                other.get(key);
+            } else {
+                peeked.put(key, i);
+                other.put(key, i);
+            }
+            Integer victim = peeked.victim();
+            assertEquals(victim, peeked.victim());
+            peeked.peekBottom();
+            assertArrayEquals(other.frequencies(), peeked.frequencies());
+        }
+        assertEquals(other, peeked);
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.asterexcrisys.evicache.maps.order.fixed;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheBuilder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.models.EvictionPolicy;
+import com.asterexcrisys.evicache.models.MetricType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class SieveCacheTest {
+
+    private Cache<String, Integer> cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = CacheBuilder.<String, Integer>newBuilder().evictionPolicy(EvictionPolicy.SIEVE).capacityFixed(true).initialCapacity(4).metricsEnabled(true).concurrencyEnabled(true).build();
+    }
+
+    @Test
+    public void shouldStoreAndRetrieveMultipleEntries() {
+        cache.put(new BasicCacheEntry<>("alpha", 0));
+        cache.put(new BasicCacheEntry<>("beta", 0));
+        cache.put(new BasicCacheEntry<>("gamma", 0));
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        assertEquals(1, cache.get("alpha"));
+        assertEquals(2, cache.get("beta"));
+        assertEquals(3, cache.get("gamma"));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void shouldRemoveAndNotRetrieveMultipleEntries() {
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        cache.remove("alpha");
+        cache.remove("gamma");
+        assertNull(cache.get("alpha"));
+        assertEquals(2, cache.get("beta"));
+        assertNull(cache.get("gamma"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldPeekAndPopMultipleEntries() {
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        assertEquals(3, cache.peekTop());
+        assertEquals(1, cache.peekBottom());
+        assertEquals(3, cache.popTop());
+        assertEquals(1, cache.popBottom());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldKeepVisitedEntriesInPlace() {
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        cache.put(new BasicCacheEntry<>("delta", 4));
+        cache.get("alpha");
+        assertEquals("beta", cache.victim());
+        cache.put(new BasicCacheEntry<>("epsilon", 5));
+        assertEquals("gamma", cache.victim());
+        cache.put(new BasicCacheEntry<>("zeta", 6));
+        assertEquals(1, cache.get("alpha"));
+        assertNull(cache.get("beta"));
+        assertNull(cache.get("gamma"));
+        assertEquals(4, cache.size());
+    }
+
+    @Test
+    public void shouldServeConcurrentHits() throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            cache.put(new BasicCacheEntry<>("key" + i, i));
+        }
+        Thread[] threads = new Thread[4];
+        int[] hits = new int[threads.length];
+        for (int i = 0; i < threads.length; i++) {
+            int index = i;
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    if (cache.get("key" + (j % 4)) != null) {
+                        hits[index]++;
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int hit : hits) {
+            assertEquals(10000, hit);
+        }
+        assertEquals(40000, cache.metrics().get(MetricType.CACHE_HITS.identifier()));
+    }
+
+    @Test
+    public void shouldBehaveAlikeWithoutConcurrency() {
+        SieveCache<Integer, Integer> shared = new SieveCache<>(16, false, true, null);
+        SieveCache<Integer, Integer> other = new SieveCache<>(16, false, false, null);
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            int key = random.nextInt(48);
+            switch (random.nextInt(4)) {
+                case 0 -> assertEquals(shared.get(key), other.get(key));
+                case 1 -> {
+                    shared.remove(key);
+                    other.remove(key);
+                }
+                default -> {
+                    assertEquals(shared.victim(), other.victim());
+                    shared.put(key, i);
+                    other.put(key, i);
+                }
+            }
+        }
+        assertFalse(other.concurrent());
+        assertEquals(shared, other);
+    }
+
+}
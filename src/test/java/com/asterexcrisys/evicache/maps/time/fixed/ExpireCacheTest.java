@@ -0,0 +1,80 @@
+package com.asterexcrisys.evicache.maps.time.fixed;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheNotifier;
+import com.asterexcrisys.evicache.entries.ExpireCacheEntry;
+import com.asterexcrisys.evicache.models.ExpireMode;
+import com.asterexcrisys.evicache.models.MetricType;
+import com.asterexcrisys.evicache.models.RemovalCause;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExpireCacheTest {
+
+    private List<String> removals;
+    private CacheNotifier<String, Integer> notifier;
+
+    @BeforeEach
+    public void setUp() {
+        removals = new ArrayList<>();
+        notifier = new CacheNotifier<>((key, value, cause) -> removals.add(String.format("%s=%s:%s", key, value, cause)), Runnable::run, 1);
+    }
+
+    @Test
+    public void shouldReturnLiveEntriesBeforeTheirDeadline() {
+        Cache<String, Integer> cache = new ExpireCache<>(5, true, ExpireMode.AFTER_WRITE, notifier);
+        cache.put(new ExpireCacheEntry<>("alpha", 1, 10, TimeUnit.MINUTES));
+        cache.put(new ExpireCacheEntry<>("beta", 2, 5, TimeUnit.MINUTES));
+        assertEquals(1, cache.get("alpha"));
+        assertEquals(2, cache.get("beta"));
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.metrics().get(MetricType.CACHE_HITS.identifier()));
+        assertEquals(0, cache.metrics().get(MetricType.CACHE_MISSES.identifier()));
+        assertTrue(removals.isEmpty());
+    }
+
+    @Test
+    public void shouldExpireEntriesOnceTheirOwnDeadlinePasses() throws InterruptedException {
+        Cache<String, Integer> cache = new ExpireCache<>(5, true, ExpireMode.AFTER_WRITE, notifier);
+        cache.put(new ExpireCacheEntry<>("alpha", 1, 50, TimeUnit.MILLISECONDS));
+        cache.put(new ExpireCacheEntry<>("beta", 2, 10, TimeUnit.MINUTES));
+        Thread.sleep(100);
+        assertNull(cache.get("alpha"));
+        assertFalse(cache.has("alpha"));
+        assertEquals(2, cache.get("beta"));
+        assertEquals(List.of("alpha=1:" + RemovalCause.EXPIRED), removals);
+    }
+
+    @Test
+    public void shouldPushDeadlineBackByTheEntryDurationOnAccess() throws InterruptedException {
+        ExpireCache<String, Integer> cache = new ExpireCache<>(5, false, ExpireMode.AFTER_ACCESS, notifier);
+        cache.put(new ExpireCacheEntry<>("alpha", 1, 1, TimeUnit.MINUTES));
+        cache.put(new ExpireCacheEntry<>("beta", 2, 10, TimeUnit.MINUTES));
+        long deadline = deadline(cache, "alpha");
+        Thread.sleep(20);
+        assertEquals(1, cache.get("alpha"));
+        assertTrue(deadline(cache, "alpha") > deadline);
+        assertTrue(deadline(cache, "alpha") <= Instant.now().toEpochMilli() + TimeUnit.MINUTES.toMillis(1));
+        assertTrue(deadline(cache, "beta") > Instant.now().toEpochMilli() + TimeUnit.MINUTES.toMillis(5));
+    }
+
+    private static long deadline(ExpireCache<String, Integer> cache, String key) {
+        Object[] keys = cache.keys();
+        Long[] timestamps = cache.timestamps();
+        for (int i = 0; i < keys.length; i++) {
+            if (key.equals(keys[i])) {
+                return timestamps[i];
+            }
+        }
+        throw new AssertionError(String.format("key '%s' is not in the cache", key));
+    }
+
+}
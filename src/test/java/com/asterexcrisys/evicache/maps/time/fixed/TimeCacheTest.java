@@ -0,0 +1,68 @@
+package com.asterexcrisys.evicache.maps.time.fixed;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheNotifier;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.models.ExpireMode;
+import com.asterexcrisys.evicache.models.MetricType;
+import com.asterexcrisys.evicache.models.RemovalCause;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimeCacheTest {
+
+    private List<String> removals;
+    private CacheNotifier<String, Integer> notifier;
+
+    @BeforeEach
+    public void setUp() {
+        removals = new ArrayList<>();
+        notifier = new CacheNotifier<>((key, value, cause) -> removals.add(String.format("%s=%s:%s", key, value, cause)), Runnable::run, 1);
+    }
+
+    @Test
+    public void shouldReturnLiveEntriesBeforeTheirDeadline() {
+        Cache<String, Integer> cache = new TimeCache<>(5, true, 10, TimeUnit.MINUTES, ExpireMode.AFTER_WRITE, notifier);
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        assertEquals(1, cache.get("alpha"));
+        assertEquals(2, cache.get("beta"));
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.metrics().get(MetricType.CACHE_HITS.identifier()));
+        assertEquals(0, cache.metrics().get(MetricType.CACHE_MISSES.identifier()));
+        assertTrue(removals.isEmpty());
+    }
+
+    @Test
+    public void shouldExpireEntriesOnceTheirDeadlinePasses() throws InterruptedException {
+        Cache<String, Integer> cache = new TimeCache<>(5, true, 50, TimeUnit.MILLISECONDS, ExpireMode.AFTER_WRITE, notifier);
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        Thread.sleep(100);
+        assertNull(cache.get("alpha"));
+        assertFalse(cache.has("alpha"));
+        assertEquals(List.of("alpha=1:" + RemovalCause.EXPIRED), removals);
+    }
+
+    @Test
+    public void shouldPushDeadlineBackOnAccess() throws InterruptedException {
+        TimeCache<String, Integer> cache = new TimeCache<>(5, false, 1, TimeUnit.MINUTES, ExpireMode.AFTER_ACCESS, notifier);
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        long deadline = cache.timestamps()[1];
+        Thread.sleep(20);
+        assertEquals(1, cache.get("alpha"));
+        Object[] keys = cache.keys();
+        assertEquals("alpha", keys[0]);
+        assertTrue(cache.timestamps()[0] > deadline);
+        assertTrue(cache.timestamps()[0] <= Instant.now().toEpochMilli() + TimeUnit.MINUTES.toMillis(1));
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.asterexcrisys.evicache.structures;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FrequencySketchTest {
+
+    private FrequencySketch<Integer> sketch;
+
+    @BeforeEach
+    public void setUp() {
+        sketch = new FrequencySketch<>(512);
+    }
+
+    @Test
+    public void shouldEstimateFrequencyOfIncrementedKeys() {
+        for (int i = 0; i < 5; i++) {
+            sketch.increment(1);
+        }
+        sketch.increment(2);
+        assertTrue(sketch.frequency(1) >= 5);
+        assertTrue(sketch.frequency(2) >= 1);
+        assertTrue(sketch.frequency(1) > sketch.frequency(2));
+    }
+
+    @Test
+    public void shouldNotExceedMaximumFrequency() {
+        for (int i = 0; i < 100; i++) {
+            sketch.increment(1);
+        }
+        assertEquals(FrequencySketch.MAXIMUM_FREQUENCY, sketch.frequency(1));
+    }
+
+    @Test
+    public void shouldHalveFrequenciesWhenSampleSizeIsReached() {
+        for (int i = 0; i < 10; i++) {
+            sketch.increment(-1);
+        }
+        int key = 0;
+        int frequency;
+        int additions;
+        do {
+            frequency = sketch.frequency(-1);
+            additions = sketch.additions();
+            sketch.increment(key++);
+        } while (sketch.additions() >= additions);
+        assertTrue(sketch.frequency(-1) <= (frequency + 1) / 2);
+        assertTrue(sketch.additions() < sketch.sampleSize() / 2);
+    }
+
+}
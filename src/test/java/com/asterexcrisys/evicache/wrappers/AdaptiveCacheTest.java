@@ -0,0 +1,104 @@
+package com.asterexcrisys.evicache.wrappers;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheBuilder;
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.maps.access.fixed.LRUCache;
+import com.asterexcrisys.evicache.models.EvictionPolicy;
+import com.asterexcrisys.evicache.models.MetricType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveCacheTest {
+
+    private Cache<Integer, Integer> cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = CacheBuilder.<Integer, Integer>newBuilder()
+                .evictionPolicy(EvictionPolicy.ADAPTIVE)
+                .adaptiveCandidates(EvictionPolicy.LRU, EvictionPolicy.MRU)
+                .capacityFixed(true)
+                .initialCapacity(64)
+                .metricsEnabled(true)
+                .build();
+    }
+
+    @Test
+    public void shouldStartWithFirstCandidate() {
+        assertInstanceOf(AdaptiveCache.class, cache);
+        assertEquals(EvictionPolicy.LRU, ((AdaptiveCache<Integer, Integer>) cache).policy());
+        assertEquals(EvictionPolicy.LRU.ordinal(), cache.metrics().get(MetricType.CACHE_POLICY.identifier()));
+    }
+
+    @Test
+    public void shouldStoreAndRetrieveMultipleEntries() {
+        cache.put(new BasicCacheEntry<>(1, 0));
+        cache.put(new BasicCacheEntry<>(2, 0));
+        cache.put(new BasicCacheEntry<>(1, 1));
+        cache.put(new BasicCacheEntry<>(2, 2));
+        assertEquals(1, cache.get(1));
+        assertEquals(2, cache.get(2));
+        assertNull(cache.get(3));
+        assertEquals(2, cache.size());
+        assertEquals(4, cache.metrics().get(MetricType.CACHE_HITS.identifier()));
+        assertEquals(1, cache.metrics().get(MetricType.CACHE_MISSES.identifier()));
+    }
+
+    @Test
+    public void shouldSwitchToBestCandidateWithoutLosingEntries() {
+        for (int i = 0; i < 2000; i++) {
+            access(i % 80);
+        }
+        assertEquals(EvictionPolicy.MRU, ((AdaptiveCache<Integer, Integer>) cache).policy());
+        assertEquals(1, cache.metrics().get(MetricType.CACHE_SWITCHES.identifier()));
+        assertEquals(EvictionPolicy.MRU.ordinal(), cache.metrics().get(MetricType.CACHE_POLICY.identifier()));
+        assertEquals(64, cache.size());
+        int hits = cache.metrics().get(MetricType.CACHE_HITS.identifier());
+        for (int i = 2000; i < 2800; i++) {
+            access(i % 80);
+        }
+        assertTrue(cache.metrics().get(MetricType.CACHE_HITS.identifier()) - hits > 400);
+    }
+
+    @Test
+    public void shouldRejectPoliciesThatCannotBeCandidates() {
+        assertThrows(IllegalArgumentException.class, () -> CacheBuilder.<Integer, Integer>newBuilder().adaptiveCandidates(EvictionPolicy.LRU, EvictionPolicy.EXPIRE));
+        assertThrows(IllegalArgumentException.class, () -> CacheBuilder.<Integer, Integer>newBuilder().adaptiveCandidates(EvictionPolicy.ADAPTIVE));
+    }
+
+    @Test
+    public void shouldOnlyCountEvictionsOfEntriesThatLeftTheCache() {
+        Cache<Integer, Integer> other = new AdaptiveCache<>(2, true, policy -> new LRUCache<>(2, false) {
+
+            @Override
+            public void put(CacheEntry<Integer, Integer> entry) {
+                if (entry.key() >= 0) {
+                    super.put(entry);
+                }
+            }
+
+        });
+        other.put(new BasicCacheEntry<>(1, 1));
+        other.put(new BasicCacheEntry<>(2, 2));
+        other.put(new BasicCacheEntry<>(-1, 0));
+        assertEquals(0, other.metrics().get(MetricType.CACHE_EVICTIONS.identifier()));
+        other.put(new BasicCacheEntry<>(3, 3));
+        assertEquals(1, other.metrics().get(MetricType.CACHE_EVICTIONS.identifier()));
+        other.put(new BasicCacheEntry<>(3, 4));
+        assertEquals(1, other.metrics().get(MetricType.CACHE_EVICTIONS.identifier()));
+    }
+
+    private void access(int key) {
+        if (cache.get(key) == null) {
+            cache.put(new BasicCacheEntry<>(key, key));
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.asterexcrisys.evicache.wrappers;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheBuilder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.models.AdmissionPolicy;
+import com.asterexcrisys.evicache.models.EvictionPolicy;
+import com.asterexcrisys.evicache.models.MetricType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class AdmissionCacheTest {
+
+    private Cache<String, Integer> cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = CacheBuilder.<String, Integer>newBuilder()
+                .evictionPolicy(EvictionPolicy.LRU)
+                .admissionPolicy(AdmissionPolicy.TINY_LFU)
+                .capacityFixed(true)
+                .initialCapacity(3)
+                .metricsEnabled(true)
+                .build();
+    }
+
+    @Test
+    public void shouldWrapAnyPolicyWhenBuilt() {
+        assertInstanceOf(AdmissionCache.class, cache);
+    }
+
+    @Test
+    public void shouldAdmitEntriesWhileCacheIsNotFull() {
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        assertEquals(1, cache.get("alpha"));
+        assertEquals(2, cache.get("beta"));
+        assertEquals(3, cache.get("gamma"));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void shouldRejectColderCandidatesDuringScan() {
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        for (int i = 0; i < 3; i++) {
+            cache.get("alpha");
+            cache.get("beta");
+            cache.get("gamma");
+        }
+        for (int i = 0; i < 10; i++) {
+            cache.put(new BasicCacheEntry<>("scan" + i, i));
+        }
+        assertEquals(1, cache.get("alpha"));
+        assertEquals(2, cache.get("beta"));
+        assertEquals(3, cache.get("gamma"));
+        assertNull(cache.get("scan9"));
+        assertEquals(10, cache.metrics().get(MetricType.CACHE_REJECTIONS.identifier()));
+    }
+
+    @Test
+    public void shouldAdmitCandidatesHotterThanVictim() {
+        cache.put(new BasicCacheEntry<>("alpha", 1));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        for (int i = 0; i < 3; i++) {
+            cache.get("delta");
+        }
+        cache.put(new BasicCacheEntry<>("delta", 4));
+        assertEquals(4, cache.get("delta"));
+        assertNull(cache.get("alpha"));
+        assertEquals(3, cache.size());
+    }
+
+}
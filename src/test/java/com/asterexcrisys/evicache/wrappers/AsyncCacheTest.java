@@ -0,0 +1,114 @@
+package com.asterexcrisys.evicache.wrappers;
+
+import com.asterexcrisys.evicache.CacheBuilder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.models.EvictionPolicy;
+import com.asterexcrisys.evicache.models.MetricType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncCacheTest {
+
+    private AtomicInteger calls;
+    private AsyncCache<String, Integer> cache;
+
+    @BeforeEach
+    public void setUp() {
+        calls = new AtomicInteger();
+        cache = CacheBuilder.<String, Integer>newBuilder()
+                .evictionPolicy(EvictionPolicy.LRU)
+                .capacityFixed(true)
+                .initialCapacity(2)
+                .cacheLoader(key -> {
+                    calls.incrementAndGet();
+                    return key.length();
+                })
+                .metricsEnabled(true)
+                .buildAsync();
+    }
+
+    @Test
+    public void shouldLoadMissingKeysAsynchronously() {
+        Thread caller = Thread.currentThread();
+        List<Thread> threads = new ArrayList<>();
+        CompletableFuture<Integer> future = cache.getAsync("alpha", key -> {
+            threads.add(Thread.currentThread());
+            return 5;
+        });
+        assertEquals(5, future.join());
+        assertNotSame(caller, threads.get(0));
+        assertSame(future, cache.getAsync("alpha"));
+        assertEquals(0, calls.get());
+        assertEquals(1, cache.metrics().get(MetricType.CACHE_LOADS.identifier()));
+    }
+
+    @Test
+    public void shouldShareTheSameFutureBetweenConcurrentCallers() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> first = cache.getAsync("alpha", key -> {
+            calls.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            return 1;
+        });
+        CompletableFuture<Integer> second = cache.getAsync("alpha");
+        assertSame(first, second);
+        assertFalse(second.isDone());
+        release.countDown();
+        assertEquals(1, second.join());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void shouldEvictFailedAndCancelledFutures() throws InterruptedException {
+        CompletableFuture<Integer> failed = cache.getAsync("alpha", key -> {
+            throw new IllegalStateException("unavailable");
+        });
+        CompletionException exception = assertThrows(CompletionException.class, failed::join);
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+        awaitAbsent("alpha");
+        CompletableFuture<Integer> cancelled = new CompletableFuture<>();
+        cache.put(new BasicCacheEntry<>("beta", cancelled));
+        assertTrue(cache.has("beta"));
+        cancelled.cancel(false);
+        assertFalse(cache.has("beta"));
+        assertEquals(5, cache.getAsync("alpha").join());
+        assertEquals(1, cache.metrics().get(MetricType.CACHE_FAILURES.identifier()));
+    }
+
+    @Test
+    public void shouldKeepFuturesReplacedWhileInFlight() {
+        CompletableFuture<Integer> first = new CompletableFuture<>();
+        cache.put(new BasicCacheEntry<>("alpha", first));
+        cache.put(new BasicCacheEntry<>("alpha", CompletableFuture.completedFuture(9)));
+        first.completeExceptionally(new IllegalStateException());
+        assertTrue(cache.has("alpha"));
+        assertEquals(9, cache.getAsync("alpha").join());
+        assertEquals(0, cache.pending());
+    }
+
+    private void awaitAbsent(String key) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cache.has(key) && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertFalse(cache.has(key));
+    }
+
+}
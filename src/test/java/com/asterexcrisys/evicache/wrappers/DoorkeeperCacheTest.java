@@ -0,0 +1,134 @@
+package com.asterexcrisys.evicache.wrappers;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheBuilder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.entries.PriorityCacheEntry;
+import com.asterexcrisys.evicache.maps.extra.fixed.PriorityCache;
+import com.asterexcrisys.evicache.models.AdmissionPolicy;
+import com.asterexcrisys.evicache.models.EvictionPolicy;
+import com.asterexcrisys.evicache.models.MetricType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DoorkeeperCacheTest {
+
+    private Cache<String, Integer> cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = CacheBuilder.<String, Integer>newBuilder()
+                .evictionPolicy(EvictionPolicy.LRU)
+                .capacityFixed(true)
+                .initialCapacity(100)
+                .doorkeeperEnabled(true)
+                .metricsEnabled(true)
+                .build();
+    }
+
+    @Test
+    public void shouldShortCircuitLookupsOfKeysNeverPut() {
+        assertInstanceOf(DoorkeeperCache.class, cache);
+        for (int i = 0; i < 50; i++) {
+            cache.put(new BasicCacheEntry<>("key" + i, i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertNull(cache.get("absent" + i));
+        }
+        assertFalse(cache.has("absent"));
+        assertEquals(7, cache.get("key7"));
+        cache.remove("key7");
+        assertNull(cache.get("key7"));
+        int shortCircuits = cache.metrics().get(MetricType.CACHE_SHORT_CIRCUITS.identifier());
+        assertTrue(shortCircuits > 990);
+        assertEquals(1002, cache.metrics().get(MetricType.CACHE_MISSES.identifier()));
+        assertTrue(cache.metrics().get(MetricType.CACHE_FALSE_POSITIVE_RATE.identifier()) < 10_000);
+    }
+
+    @Test
+    public void shouldNeverHideEntriesOfTheUnderlyingCache() {
+        Cache<Integer, Integer> other = CacheBuilder.<Integer, Integer>newBuilder().evictionPolicy(EvictionPolicy.FIFO).initialCapacity(32).build();
+        Cache<Integer, Integer> guarded = new DoorkeeperCache<>(CacheBuilder.<Integer, Integer>newBuilder().evictionPolicy(EvictionPolicy.FIFO).initialCapacity(32).build());
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(128);
+            switch (random.nextInt(6)) {
+                case 0, 1 -> {
+                    other.put(new BasicCacheEntry<>(key, i));
+                    guarded.put(new BasicCacheEntry<>(key, i));
+                }
+                case 2 -> {
+                    other.remove(key);
+                    guarded.remove(key);
+                }
+                case 3 -> {
+                    if (!other.isEmpty()) {
+                        assertEquals(other.popBottom(), guarded.popBottom());
+                    }
+                }
+                case 4 -> assertEquals(other.evict(), guarded.evict());
+                default -> assertEquals(other.has(key), guarded.has(key));
+            }
+            assertEquals(other.get(key), guarded.get(key));
+        }
+        assertEquals(other.size(), guarded.size());
+    }
+
+    @Test
+    public void shouldActAsFirstSeenFilterForAdmission() {
+        Cache<String, Integer> other = CacheBuilder.<String, Integer>newBuilder()
+                .evictionPolicy(EvictionPolicy.LRU)
+                .admissionPolicy(AdmissionPolicy.TINY_LFU)
+                .capacityFixed(true)
+                .initialCapacity(2)
+                .doorkeeperEnabled(true)
+                .build();
+        AdmissionCache<String, Integer> admission = (AdmissionCache<String, Integer>) ((DoorkeeperCache<String, Integer>) other).cache();
+        assertNotNull(admission.doorkeeper());
+        other.put(new BasicCacheEntry<>("alpha", 1));
+        other.put(new BasicCacheEntry<>("beta", 2));
+        other.get("alpha");
+        other.get("beta");
+        assertEquals(1, admission.sketch().frequency("alpha"));
+        other.put(new BasicCacheEntry<>("gamma", 3));
+        assertNull(other.get("gamma"));
+        assertEquals(1, other.get("alpha"));
+        assertEquals(2, other.get("beta"));
+    }
+
+    @Test
+    public void shouldForgetKeysEvictedToMakeRoom() {
+        DoorkeeperCache<String, Integer> doorkeeper = (DoorkeeperCache<String, Integer>) cache;
+        for (int i = 0; i < 150; i++) {
+            cache.put(new BasicCacheEntry<>("key" + i, i));
+        }
+        assertEquals(100, cache.size());
+        assertEquals(100, doorkeeper.filter().additions());
+        assertEquals(50, cache.metrics().get(MetricType.CACHE_EVICTIONS.identifier()));
+        assertNull(cache.get("key0"));
+        assertEquals(149, cache.get("key149"));
+        cache.popTop();
+        assertNull(cache.get("key149"));
+        assertEquals(1, doorkeeper.falsePositives());
+    }
+
+    @Test
+    public void shouldLeaveRejectionsToTheUnderlyingPolicy() {
+        Cache<Integer, Integer> other = new DoorkeeperCache<>(new PriorityCache<>(2, false));
+        other.put(new PriorityCacheEntry<>(1, 1, 10));
+        other.put(new PriorityCacheEntry<>(2, 2, 10));
+        other.put(new PriorityCacheEntry<>(3, 3, 1));
+        assertFalse(other.has(3));
+        assertEquals(1, other.get(1));
+        assertEquals(2, other.get(2));
+        assertEquals(2, other.size());
+    }
+
+}
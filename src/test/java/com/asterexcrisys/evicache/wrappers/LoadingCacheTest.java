@@ -0,0 +1,360 @@
+package com.asterexcrisys.evicache.wrappers;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheBuilder;
+import com.asterexcrisys.evicache.CacheEntry;
+import com.asterexcrisys.evicache.CacheLoader;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.exceptions.CacheLoadingException;
+import com.asterexcrisys.evicache.exceptions.IllegalCacheStateException;
+import com.asterexcrisys.evicache.maps.access.fixed.LRUCache;
+import com.asterexcrisys.evicache.models.EvictionPolicy;
+import com.asterexcrisys.evicache.models.ExpireMode;
+import com.asterexcrisys.evicache.models.MetricType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoadingCacheTest {
+
+    private AtomicInteger calls;
+    private Cache<String, Integer> cache;
+
+    @BeforeEach
+    public void setUp() {
+        calls = new AtomicInteger();
+        cache = CacheBuilder.<String, Integer>newBuilder()
+                .evictionPolicy(EvictionPolicy.LRU)
+                .capacityFixed(true)
+                .initialCapacity(10)
+                .cacheLoader(key -> {
+                    calls.incrementAndGet();
+                    return key.length();
+                })
+                .metricsEnabled(true)
+                .build();
+    }
+
+    @Test
+    public void shouldWrapAnyPolicyWhenBuilt() {
+        assertInstanceOf(LoadingCache.class, cache);
+    }
+
+    @Test
+    public void shouldLoadMissingKeysOnlyOnce() {
+        assertEquals(5, cache.get("alpha"));
+        assertEquals(5, cache.get("alpha"));
+        assertEquals(1, calls.get());
+        assertTrue(cache.has("alpha"));
+        assertEquals(7, ((LoadingCache<String, Integer>) cache).get("gamma", key -> 7));
+        assertNull(((LoadingCache<String, Integer>) cache).getIfPresent("beta"));
+        assertEquals(1, cache.metrics().get(MetricType.CACHE_HITS.identifier()));
+        assertEquals(2, cache.metrics().get(MetricType.CACHE_LOADS.identifier()));
+    }
+
+    @Test
+    public void shouldLoadIntoPoliciesThatNeedTheirOwnEntries() {
+        Cache<String, Integer> priorities = CacheBuilder.<String, Integer>newBuilder()
+                .evictionPolicy(EvictionPolicy.PRIORITY)
+                .initialCapacity(10)
+                .weakValues()
+                .cacheLoader(String::length)
+                .build();
+        assertEquals(5, priorities.get("alpha"));
+        assertTrue(priorities.has("alpha"));
+        AsyncCache<String, Integer> async = CacheBuilder.<String, Integer>newBuilder()
+                .evictionPolicy(EvictionPolicy.PRIORITY)
+                .initialCapacity(10)
+                .cacheLoader(String::length)
+                .buildAsync();
+        assertEquals(4, async.getAsync("beta").join());
+        assertTrue(async.has("beta"));
+    }
+
+    @Test
+    public void shouldCoalesceConcurrentMissesOfSameKey() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        LoadingCache<String, Integer> other = new LoadingCache<>(CacheBuilder.<String, Integer>newBuilder().build(), key -> {
+            calls.incrementAndGet();
+            started.countDown();
+            release.await();
+            return 42;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            results.add(executor.submit(() -> other.get("alpha")));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                results.add(executor.submit(() -> other.get("alpha")));
+            }
+            Thread.sleep(50);
+            release.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals(42, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+        assertEquals(0, other.loading());
+    }
+
+    @Test
+    public void shouldPropagateFailuresWithoutCachingThem() {
+        LoadingCache<String, Integer> other = new LoadingCache<>(CacheBuilder.<String, Integer>newBuilder().metricsEnabled(true).build(), key -> {
+            throw new IOException("unavailable");
+        });
+        CacheLoadingException exception = assertThrows(CacheLoadingException.class, () -> other.get("alpha"));
+        assertInstanceOf(IOException.class, exception.getCause());
+        assertThrows(IllegalStateException.class, () -> other.get("beta", key -> {
+            throw new IllegalStateException();
+        }));
+        assertFalse(other.has("alpha"));
+        assertEquals(0, other.loading());
+        assertEquals(0, other.metrics().get(MetricType.CACHE_LOADS.identifier()));
+        assertEquals(2, other.metrics().get(MetricType.CACHE_FAILURES.identifier()));
+    }
+
+    @Test
+    public void shouldReleaseWaitingCallersWhenTheValueCannotBeStored() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        LoadingCache<String, Integer> other = new LoadingCache<>(new LRUCache<>(10, false) {
+
+            @Override
+            public void put(CacheEntry<String, Integer> entry) {
+                throw new IllegalCacheStateException("rejected");
+            }
+
+        }, key -> {
+            started.countDown();
+            release.await();
+            return 42;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> owner = executor.submit(() -> other.get("alpha"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<Integer> waiter = executor.submit(() -> other.get("alpha"));
+            Thread.sleep(50);
+            release.countDown();
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> owner.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalCacheStateException.class, exception.getCause());
+            exception = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(CacheLoadingException.class, exception.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, other.loading());
+    }
+
+    @Test
+    public void shouldDiscardLoadsOfKeysRemovedWhileInFlight() {
+        LoadingCache<String, Integer> other = (LoadingCache<String, Integer>) cache;
+        assertEquals(1, other.get("alpha", key -> {
+            other.remove(key);
+            return 1;
+        }));
+        assertFalse(other.has("alpha"));
+        cache.put(new BasicCacheEntry<>("beta", 9));
+        assertEquals(9, cache.get("beta"));
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    public void shouldRefreshEntriesAheadOfTheirExpiry() throws InterruptedException {
+        Cache<String, Integer> other = CacheBuilder.<String, Integer>newBuilder()
+                .evictionPolicy(EvictionPolicy.TIME)
+                .expireTime(500, TimeUnit.MILLISECONDS)
+                .expireMode(ExpireMode.AFTER_UPDATE)
+                .refreshAfter(100, TimeUnit.MILLISECONDS)
+                .cacheLoader(key -> calls.incrementAndGet())
+                .loaderExecutor(Runnable::run)
+                .metricsEnabled(true)
+                .build();
+        assertEquals(1, other.get("alpha"));
+        assertEquals(1, other.get("alpha"));
+        Thread.sleep(120);
+        assertEquals(1, other.get("alpha"));
+        assertEquals(2, other.get("alpha"));
+        Thread.sleep(300);
+        assertEquals(2, other.get("alpha"));
+        assertEquals(3, other.get("alpha"));
+        assertEquals(1, other.metrics().get(MetricType.CACHE_LOADS.identifier()));
+        assertEquals(2, other.metrics().get(MetricType.CACHE_REFRESHES.identifier()));
+    }
+
+    @Test
+    public void shouldKeepOldValueWhenRefreshFails() throws InterruptedException {
+        Cache<String, Integer> other = CacheBuilder.<String, Integer>newBuilder()
+                .evictionPolicy(EvictionPolicy.EXPIRE)
+                .expireTime(1, TimeUnit.MINUTES)
+                .expireMode(ExpireMode.AFTER_UPDATE)
+                .refreshAfter(10, TimeUnit.MILLISECONDS)
+                .cacheLoader(key -> {
+                    if (calls.incrementAndGet() > 1) {
+                        throw new IOException("unavailable");
+                    }
+                    return 1;
+                })
+                .loaderExecutor(Runnable::run)
+                .metricsEnabled(true)
+                .build();
+        assertEquals(1, other.get("alpha"));
+        Thread.sleep(20);
+        assertEquals(1, other.get("alpha"));
+        assertEquals(1, other.get("alpha"));
+        assertEquals(1, other.metrics().get(MetricType.CACHE_REFRESH_FAILURES.identifier()));
+        assertThrows(IllegalArgumentException.class, () -> CacheBuilder.<String, Integer>newBuilder()
+                .evictionPolicy(EvictionPolicy.TIME)
+                .expireTime(1, TimeUnit.SECONDS)
+                .expireMode(ExpireMode.AFTER_UPDATE)
+                .refreshAfter(1, TimeUnit.SECONDS)
+                .cacheLoader(key -> 1)
+                .build());
+        assertThrows(IllegalArgumentException.class, () -> CacheBuilder.<String, Integer>newBuilder()
+                .evictionPolicy(EvictionPolicy.TIME)
+                .expireTime(1, TimeUnit.SECONDS)
+                .refreshAfter(100, TimeUnit.MILLISECONDS)
+                .cacheLoader(key -> 1)
+                .build());
+    }
+
+    @Test
+    public void shouldServeStaleValuesWhileRevalidatingAndOnError() throws InterruptedException {
+        AtomicInteger failing = new AtomicInteger(1);
+        Cache<String, Integer> other = CacheBuilder.<String, Integer>newBuilder()
+                .evictionPolicy(EvictionPolicy.TIME)
+                .expireTime(50, TimeUnit.MILLISECONDS)
+                .maximumStale(1, TimeUnit.MINUTES)
+                .cacheLoader(key -> {
+                    int call = calls.incrementAndGet();
+                    if (call > 1 && failing.get() == 1) {
+                        throw new IOException("unavailable");
+                    }
+                    return call;
+                })
+                .loaderExecutor(Runnable::run)
+                .metricsEnabled(true)
+                .build();
+        assertEquals(1, other.get("alpha"));
+        Thread.sleep(70);
+        assertEquals(1, other.get("alpha"));
+        assertEquals(1, other.get("alpha"));
+        assertEquals(1, other.getStale("alpha"));
+        failing.set(0);
+        assertEquals(1, other.get("alpha"));
+        assertEquals(4, other.get("alpha"));
+        assertEquals(3, other.metrics().get(MetricType.CACHE_STALE.identifier()));
+        assertEquals(2, other.metrics().get(MetricType.CACHE_REFRESH_FAILURES.identifier()));
+        assertEquals(1, other.metrics().get(MetricType.CACHE_REFRESHES.identifier()));
+    }
+
+    @Test
+    public void shouldStopServingStaleValuesAfterMaximumStaleTime() throws InterruptedException {
+        Cache<String, Integer> other = CacheBuilder.<String, Integer>newBuilder()
+                .evictionPolicy(EvictionPolicy.TIME)
+                .expireTime(20, TimeUnit.MILLISECONDS)
+                .maximumStale(20, TimeUnit.MILLISECONDS)
+                .build();
+        other.put(new BasicCacheEntry<>("alpha", 1));
+        Thread.sleep(30);
+        assertNull(other.get("alpha"));
+        assertEquals(1, other.getStale("alpha"));
+        Thread.sleep(30);
+        assertNull(other.getStale("alpha"));
+        assertFalse(other.has("alpha"));
+    }
+
+    @Test
+    public void shouldLoadAllMissingKeysInOneBatch() {
+        List<Set<? extends String>> batches = new ArrayList<>();
+        LoadingCache<String, Integer> other = new LoadingCache<>(CacheBuilder.<String, Integer>newBuilder().metricsEnabled(true).build(), new CacheLoader<>() {
+
+            @Override
+            public Integer load(String key) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Map<String, Integer> loadAll(Set<? extends String> keys) throws IOException {
+                batches.add(Set.copyOf(keys));
+                if (keys.contains("omega")) {
+                    throw new IOException("unavailable");
+                }
+                Map<String, Integer> values = new HashMap<>();
+                for (String key : keys) {
+                    if (!key.equals("delta")) {
+                        values.put(key, key.length());
+                    }
+                }
+                return values;
+            }
+
+        });
+        other.put(new BasicCacheEntry<>("alpha", 1));
+        assertEquals(Map.of("alpha", 1, "beta", 4, "gamma", 5), other.getAll(List.of("alpha", "beta", "gamma", "delta", "beta")));
+        assertEquals(List.of(Set.of("beta", "gamma", "delta")), batches);
+        assertEquals(4, other.get("beta"));
+        assertFalse(other.has("delta"));
+        assertThrows(CacheLoadingException.class, () -> other.getAll(List.of("gamma", "omega")));
+        assertFalse(other.has("omega"));
+        assertEquals(0, other.loading());
+        assertEquals(3, other.metrics().get(MetricType.CACHE_LOADS.identifier()));
+        assertEquals(1, other.metrics().get(MetricType.CACHE_FAILURES.identifier()));
+    }
+
+    @Test
+    public void shouldRememberAbsentKeysWithinTheirOwnBudget() throws InterruptedException {
+        Cache<String, Integer> other = CacheBuilder.<String, Integer>newBuilder()
+                .evictionPolicy(EvictionPolicy.LRU)
+                .initialCapacity(10)
+                .cacheLoader(key -> {
+                    calls.incrementAndGet();
+                    return key.startsWith("bot")? null:key.length();
+                })
+                .negativeCaching(2, 50, TimeUnit.MILLISECONDS)
+                .metricsEnabled(true)
+                .build();
+        LoadingCache<String, Integer> loading = (LoadingCache<String, Integer>) other;
+        assertNull(other.get("bot-1"));
+        assertNull(other.get("bot-1"));
+        assertTrue(loading.isAbsent("bot-1"));
+        assertEquals(1, calls.get());
+        assertNull(other.get("bot-2"));
+        assertNull(other.get("bot-3"));
+        assertFalse(loading.isAbsent("bot-1"));
+        assertEquals(0, other.size());
+        other.put(new BasicCacheEntry<>("bot-3", 3));
+        assertEquals(3, other.get("bot-3"));
+        loading.markAbsent("bot-3");
+        assertNull(other.get("bot-3"));
+        assertEquals(3, calls.get());
+        Thread.sleep(70);
+        assertNull(other.get("bot-2"));
+        assertEquals(4, calls.get());
+        assertEquals(2, other.metrics().get(MetricType.CACHE_NEGATIVE_HITS.identifier()));
+        assertEquals(1, other.metrics().get(MetricType.CACHE_NEGATIVE_EVICTIONS.identifier()));
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.asterexcrisys.evicache.wrappers;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheBuilder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.models.AdmissionPolicy;
+import com.asterexcrisys.evicache.models.EvictionPolicy;
+import com.asterexcrisys.evicache.models.MetricType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PartitionedCacheTest {
+
+    private PartitionedCache<Integer, Integer> cache;
+
+    @BeforeEach
+    public void setUp() {
+        Cache<Integer, Integer> built = CacheBuilder.<Integer, Integer>newBuilder()
+                .evictionPolicy(EvictionPolicy.LRU)
+                .capacityFixed(true)
+                .initialCapacity(400)
+                .partitions(4)
+                .metricsEnabled(true)
+                .build();
+        assertInstanceOf(PartitionedCache.class, built);
+        cache = (PartitionedCache<Integer, Integer>) built;
+    }
+
+    @Test
+    public void shouldRouteEveryKeyToItsPartition() {
+        assertEquals(4, cache.partitions());
+        assertEquals(400, cache.capacity());
+        for (int i = 0; i < 200; i++) {
+            cache.put(new BasicCacheEntry<>(i, i * 2));
+        }
+        assertEquals(200, cache.size());
+        for (int i = 0; i < 200; i++) {
+            assertTrue(cache.partition(cache.partitionOf(i)).has(i));
+            assertEquals(i * 2, cache.get(i));
+        }
+        cache.remove(7);
+        assertFalse(cache.has(7));
+        assertNull(cache.get(7));
+        Object[] keys = cache.keys();
+        Object[] values = cache.values();
+        assertEquals(199, keys.length);
+        assertEquals(199, values.length);
+        assertEquals(199, cache.metrics().get(MetricType.CACHE_SIZE.identifier()));
+        assertEquals(200, cache.metrics().get(MetricType.CACHE_PUTS.identifier()));
+        assertEquals(4, cache.metrics().get(MetricType.CACHE_PARTITIONS.identifier()));
+        assertEquals(100, cache.metrics().get(MetricType.CACHE_WARM_UP_PROGRESS.identifier()));
+        assertThrows(IllegalArgumentException.class, () -> CacheBuilder.<Integer, Integer>newBuilder().initialCapacity(2).partitions(4).build());
+    }
+
+    @Test
+    public void shouldNotRestoreKeysTouchedDuringAWarmUp() {
+        cache.startWarmUp(4);
+        assertTrue(cache.isWarmingUp());
+        cache.put(new BasicCacheEntry<>(1, 100));
+        cache.remove(2);
+        cache.restoreEntry(1, 1, null);
+        cache.restoreEntry(2, 2, null);
+        cache.restoreEntry(3, 3, null);
+        assertEquals(3, cache.metrics().get(MetricType.CACHE_WARMED.identifier()));
+        assertEquals(75, cache.metrics().get(MetricType.CACHE_WARM_UP_PROGRESS.identifier()));
+        cache.finishWarmUp();
+        assertFalse(cache.isWarmingUp());
+        assertEquals(100, cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals(3, cache.get(3));
+        cache.restoreEntry(1, 1, null);
+        assertEquals(1, cache.get(1));
+    }
+
+    @Test
+    public void shouldBeSafeToShareBetweenThreads() throws Exception {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            int offset = i * 100;
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 100; j++) {
+                    cache.put(new BasicCacheEntry<>(offset + j, j));
+                    cache.get(offset + j);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(400, cache.size());
+        assertEquals(400, cache.metrics().get(MetricType.CACHE_HITS.identifier()));
+    }
+
+    @Test
+    public void shouldSplitTheRemainderOfTheCapacity() {
+        PartitionedCache<Integer, Integer> other = (PartitionedCache<Integer, Integer>) CacheBuilder.<Integer, Integer>newBuilder()
+                .initialCapacity(100)
+                .partitions(3)
+                .build();
+        assertEquals(100, other.capacity());
+        assertEquals(34, other.partition(0).capacity());
+        assertEquals(33, other.partition(1).capacity());
+        assertEquals(33, other.partition(2).capacity());
+    }
+
+    @Test
+    public void shouldRejectWrappersThatAreNotThreadSafe() {
+        assertThrows(IllegalArgumentException.class, () -> CacheBuilder.<Integer, Integer>newBuilder().partitions(4).admissionPolicy(AdmissionPolicy.TINY_LFU).build());
+        assertThrows(IllegalArgumentException.class, () -> CacheBuilder.<Integer, Integer>newBuilder().initialCapacity(100).partitions(4).maximumWeight(50).build());
+        assertThrows(IllegalArgumentException.class, () -> CacheBuilder.<Integer, Integer>newBuilder().partitions(4).doorkeeperEnabled(true).build());
+        assertThrows(IllegalArgumentException.class, () -> CacheBuilder.<Integer, Integer>newBuilder().partitions(4).weakValues().build());
+        assertThrows(IllegalArgumentException.class, () -> CacheBuilder.<Integer, Integer>newBuilder().partitions(4).doorkeeperEnabled(true).buildAsync());
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.asterexcrisys.evicache.wrappers;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheBuilder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.entries.RemovalCacheEntry;
+import com.asterexcrisys.evicache.models.EvictionPolicy;
+import com.asterexcrisys.evicache.models.MetricType;
+import com.asterexcrisys.evicache.models.RemovalCause;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReferenceCacheTest {
+
+    private List<RemovalCacheEntry<String, Object>> removals;
+    private Cache<String, Object> cache;
+
+    @BeforeEach
+    public void setUp() {
+        removals = new ArrayList<>();
+        cache = CacheBuilder.<String, Object>newBuilder()
+                .evictionPolicy(EvictionPolicy.LRU)
+                .capacityFixed(true)
+                .initialCapacity(2)
+                .weakValues()
+                .removalListener((key, value, cause) -> removals.add(new RemovalCacheEntry<>(key, value, cause)))
+                .listenerExecutor(Runnable::run)
+                .metricsEnabled(true)
+                .build();
+    }
+
+    @Test
+    public void shouldBehaveAsUnderlyingCacheWhileValuesAreReachable() {
+        assertInstanceOf(ReferenceCache.class, cache);
+        Object alpha = new Object();
+        Object beta = new Object();
+        Object gamma = new Object();
+        cache.put(new BasicCacheEntry<>("alpha", alpha));
+        cache.put(new BasicCacheEntry<>("beta", beta));
+        assertSame(alpha, cache.get("alpha"));
+        cache.put(new BasicCacheEntry<>("gamma", gamma));
+        assertFalse(cache.has("beta"));
+        assertSame(gamma, cache.peekTop());
+        assertEquals(List.of(new RemovalCacheEntry<>("beta", beta, RemovalCause.SIZE)), removals);
+    }
+
+    @Test
+    public void shouldPurgeValuesReclaimedByTheGarbageCollector() throws InterruptedException {
+        Object alpha = new Object();
+        cache.put(new BasicCacheEntry<>("alpha", alpha));
+        cache.put(new BasicCacheEntry<>("beta", new Object()));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cache.size() > 1 && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(1, cache.size());
+        assertTrue(cache.has("alpha"));
+        assertFalse(cache.has("beta"));
+        assertEquals(1, cache.metrics().get(MetricType.CACHE_COLLECTED.identifier()));
+        assertEquals(List.of(new RemovalCacheEntry<String, Object>("beta", null, RemovalCause.COLLECTED)), removals);
+        assertSame(alpha, cache.get("alpha"));
+    }
+
+    @Test
+    public void shouldNotCollectEntriesThatAlreadyLeftTheCache() throws InterruptedException {
+        List<RemovalCause> causes = new ArrayList<>();
+        Cache<String, Object> popping = CacheBuilder.<String, Object>newBuilder()
+                .evictionPolicy(EvictionPolicy.LRU)
+                .initialCapacity(2)
+                .weakValues()
+                .removalListener((key, value, cause) -> causes.add(cause))
+                .listenerExecutor(Runnable::run)
+                .metricsEnabled(true)
+                .build();
+        Cache<String, Object> expiring = CacheBuilder.<String, Object>newBuilder()
+                .evictionPolicy(EvictionPolicy.TIME)
+                .expireTime(20, TimeUnit.MILLISECONDS)
+                .initialCapacity(2)
+                .weakValues()
+                .removalListener((key, value, cause) -> causes.add(cause))
+                .listenerExecutor(Runnable::run)
+                .metricsEnabled(true)
+                .build();
+        Object alpha = new Object();
+        WeakReference<Object> popped = put(popping, "beta");
+        popping.put(new BasicCacheEntry<>("alpha", alpha));
+        popping.popBottom();
+        WeakReference<Object> expired = put(expiring, "gamma");
+        Thread.sleep(50);
+        assertNull(expiring.getStale("gamma"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((popped.get() != null || expired.get() != null) && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(1, popping.size());
+        assertEquals(0, expiring.size());
+        assertEquals(0, popping.metrics().get(MetricType.CACHE_COLLECTED.identifier()));
+        assertEquals(0, expiring.metrics().get(MetricType.CACHE_COLLECTED.identifier()));
+        assertFalse(causes.contains(RemovalCause.COLLECTED));
+        assertSame(alpha, popping.get("alpha"));
+    }
+
+    private static WeakReference<Object> put(Cache<String, Object> cache, String key) {
+        Object value = new Object();
+        cache.put(new BasicCacheEntry<>(key, value));
+        return new WeakReference<>(value);
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.asterexcrisys.evicache.wrappers;
+
+import com.asterexcrisys.evicache.Cache;
+import com.asterexcrisys.evicache.CacheBuilder;
+import com.asterexcrisys.evicache.entries.BasicCacheEntry;
+import com.asterexcrisys.evicache.models.EvictionPolicy;
+import com.asterexcrisys.evicache.models.MetricType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WeightedCacheTest {
+
+    private Cache<String, Integer> cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = CacheBuilder.<String, Integer>newBuilder()
+                .evictionPolicy(EvictionPolicy.LRU)
+                .capacityFixed(true)
+                .initialCapacity(10)
+                .maximumWeight(10)
+                .weigher((key, value) -> value)
+                .metricsEnabled(true)
+                .build();
+    }
+
+    @Test
+    public void shouldWrapAnyPolicyWhenBuilt() {
+        assertInstanceOf(WeightedCache.class, cache);
+    }
+
+    @Test
+    public void shouldEvictUntilTotalWeightFits() {
+        cache.put(new BasicCacheEntry<>("alpha", 3));
+        cache.put(new BasicCacheEntry<>("beta", 3));
+        cache.put(new BasicCacheEntry<>("gamma", 3));
+        assertEquals(9, ((WeightedCache<String, Integer>) cache).weight());
+        cache.put(new BasicCacheEntry<>("delta", 7));
+        assertNull(cache.get("alpha"));
+        assertNull(cache.get("beta"));
+        assertEquals(3, cache.get("gamma"));
+        assertEquals(7, cache.get("delta"));
+        assertEquals(10, ((WeightedCache<String, Integer>) cache).weight());
+        assertEquals(2, cache.metrics().get(MetricType.CACHE_EVICTIONS.identifier()));
+    }
+
+    @Test
+    public void shouldTrackWeightOfReplacedAndRemovedEntries() {
+        cache.put(new BasicCacheEntry<>("alpha", 2));
+        cache.put(new BasicCacheEntry<>("beta", 2));
+        cache.put(new BasicCacheEntry<>("alpha", 5));
+        assertEquals(7, ((WeightedCache<String, Integer>) cache).weight());
+        cache.remove("beta");
+        assertEquals(5, ((WeightedCache<String, Integer>) cache).weight());
+        cache.popTop();
+        assertEquals(0, ((WeightedCache<String, Integer>) cache).weight());
+        assertEquals(0, cache.metrics().get(MetricType.CACHE_WEIGHT.identifier()));
+    }
+
+    @Test
+    public void shouldNeverStoreEntriesHeavierThanMaximumWeight() {
+        cache.put(new BasicCacheEntry<>("alpha", 4));
+        cache.put(new BasicCacheEntry<>("beta", 11));
+        assertFalse(cache.has("beta"));
+        assertEquals(4, cache.get("alpha"));
+        assertEquals(4, cache.metrics().get(MetricType.CACHE_WEIGHT.identifier()));
+    }
+
+    @Test
+    public void shouldBeHonoredByEveryPolicy() {
+        for (EvictionPolicy policy : EvictionPolicy.values()) {
+            if (policy == EvictionPolicy.EXPIRE || policy == EvictionPolicy.PRIORITY) {
+                continue;
+            }
+            Cache<Integer, Integer> other = CacheBuilder.<Integer, Integer>newBuilder()
+                    .evictionPolicy(policy)
+                    .capacityFixed(true)
+                    .initialCapacity(100)
+                    .maximumWeight(50)
+                    .weigher((key, value) -> value)
+                    .build();
+            for (int i = 0; i < 200; i++) {
+                other.put(new BasicCacheEntry<>(i % 60, 1 + i % 7));
+                other.get(i % 13);
+                long weight = 0;
+                Object[] values = other.values();
+                for (Object value : values) {
+                    weight += (Integer) value;
+                }
+                assertTrue(weight <= 50, policy.name());
+                assertEquals(weight, ((WeightedCache<Integer, Integer>) other).weight(), policy.name());
+            }
+        }
+    }
+
+    @Test
+    public void shouldRejectMaximumWeightsTheCapacityCannotReach() {
+        assertThrows(IllegalArgumentException.class, () -> CacheBuilder.<String, Integer>newBuilder()
+                .maximumWeight(1_000)
+                .weigher((key, value) -> value)
+                .build());
+        assertThrows(IllegalArgumentException.class, () -> CacheBuilder.<String, Integer>newBuilder()
+                .initialCapacity(10)
+                .maximumWeight(11)
+                .build());
+        Cache<String, Integer> other = CacheBuilder.<String, Integer>newBuilder()
+                .initialCapacity(10)
+                .maximumWeight(5)
+                .build();
+        for (int i = 0; i < 10; i++) {
+            other.put(new BasicCacheEntry<>("key" + i, i));
+        }
+        assertEquals(5, other.size());
+        assertEquals(5, ((WeightedCache<String, Integer>) other).weight());
+    }
+
+    @Test
+    public void shouldForgetPoppedEntriesWithoutScanningOnEveryPop() {
+        Cache<Integer, Integer> other = CacheBuilder.<Integer, Integer>newBuilder()
+                .initialCapacity(5_000)
+                .maximumWeight(5_000)
+                .build();
+        for (int i = 0; i < 5_000; i++) {
+            other.put(new BasicCacheEntry<>(i, i));
+        }
+        assertTimeout(Duration.ofSeconds(2), () -> {
+            for (int i = 0; i < 4_000; i++) {
+                other.popBottom();
+            }
+        });
+        assertEquals(1_000, ((WeightedCache<Integer, Integer>) other).weight());
+        for (int i = 5_000; i < 10_000; i++) {
+            other.put(new BasicCacheEntry<>(i, i));
+        }
+        assertEquals(5_000, other.size());
+        assertEquals(5_000, ((WeightedCache<Integer, Integer>) other).weight());
+    }
+
+    @Test
+    public void shouldFlagWeightsTooLargeToBeReported() {
+        Cache<String, Long> other = CacheBuilder.<String, Long>newBuilder()
+                .initialCapacity(10)
+                .maximumWeight(Long.MAX_VALUE)
+                .weigher((key, value) -> value)
+                .metricsEnabled(true)
+                .build();
+        other.put(new BasicCacheEntry<>("alpha", (long) Integer.MAX_VALUE));
+        assertEquals(Integer.MAX_VALUE, other.metrics().get(MetricType.CACHE_WEIGHT.identifier()));
+        assertEquals(0, other.metrics().get(MetricType.CACHE_WEIGHT_SATURATED.identifier()));
+        other.put(new BasicCacheEntry<>("beta", 1L));
+        assertEquals(Integer.MAX_VALUE, other.metrics().get(MetricType.CACHE_WEIGHT.identifier()));
+        assertEquals(1, other.metrics().get(MetricType.CACHE_WEIGHT_SATURATED.identifier()));
+    }
+
+}